@@ -51,6 +51,7 @@ import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 import org.eclipse.jdt.internal.compiler.problem.ProblemSeverities;
 import org.eclipse.jdt.internal.compiler.util.Messages;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
 
 public class EclipseCompilerImpl extends Main {
 	private static final CompilationUnit[] NO_UNITS = new CompilationUnit[0];
@@ -97,6 +98,7 @@ public class EclipseCompilerImpl extends Main {
 		this.logger.flush();
 		this.logger.close();
 		this.processors = null;
+		ZipFilePool.INSTANCE.closeIdleArchives();
 		try {
 			if (this.fileManager != null) {
 				this.fileManager.flush();
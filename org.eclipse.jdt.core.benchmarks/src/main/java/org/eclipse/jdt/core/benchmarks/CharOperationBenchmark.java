@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.compiler.InvalidInputException;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.parser.Scanner;
+import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the {@link CharOperation} utilities used throughout the compiler on the identifiers
+ * and qualified type names found in the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CharOperationBenchmark {
+
+	private char[][] identifiers;
+	private char[][] qualifiedNames;
+
+	@Setup
+	public void setup() throws InvalidInputException {
+		List<char[]> names = new ArrayList<>();
+		Scanner scanner = new Scanner(false, false, false, ClassFileConstants.JDK1_8, null, null, true);
+		for (ICompilationUnit unit : Corpus.get().getUnits()) {
+			scanner.setSource(unit.getContents());
+			int token;
+			while ((token = scanner.getNextToken()) != TerminalTokens.TokenNameEOF)
+				if (token == TerminalTokens.TokenNameIdentifier)
+					names.add(scanner.getCurrentIdentifierSource());
+		}
+		this.identifiers = names.toArray(new char[names.size()][]);
+
+		names.clear();
+		for (String fileName : Corpus.get().getClassFiles().keySet())
+			names.add(CharOperation.replaceOnCopy(fileName.substring(0, fileName.length() - 6).toCharArray(), '/', '.'));
+		this.qualifiedNames = names.toArray(new char[names.size()][]);
+	}
+
+	@Benchmark
+	public int hashCodes() {
+		int hash = 0;
+		for (char[] identifier : this.identifiers)
+			hash += CharOperation.hashCode(identifier);
+		return hash;
+	}
+
+	@Benchmark
+	public int equals() {
+		int matches = 0;
+		char[][] names = this.identifiers;
+		for (int i = 1; i < names.length; i++) {
+			if (CharOperation.equals(names[i - 1], names[i]))
+				matches++;
+			if (CharOperation.equals(names[i - 1], names[i], false))
+				matches++;
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int prefixes() {
+		int matches = 0;
+		char[][] names = this.identifiers;
+		for (int i = 1; i < names.length; i++) {
+			if (CharOperation.prefixEquals(names[i - 1], names[i]))
+				matches++;
+			if (CharOperation.camelCaseMatch(names[i - 1], names[i]))
+				matches++;
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public void splitAndConcat(Blackhole blackhole) {
+		for (char[] qualifiedName : this.qualifiedNames) {
+			char[][] segments = CharOperation.splitOn('.', qualifiedName);
+			blackhole.consume(CharOperation.concatWith(segments, '/'));
+			blackhole.consume(CharOperation.lastSegment(qualifiedName, '.'));
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the decoding of the class files of the corpus by {@link ClassFileReader}, both
+ * the header only decoding done when a type is looked up and the full decoding of its members.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ClassFileReaderBenchmark {
+
+	private byte[][] contents;
+	private char[][] fileNames;
+
+	@Setup
+	public void setup() {
+		Map<String, byte[]> classFiles = Corpus.get().getClassFiles();
+		this.contents = new byte[classFiles.size()][];
+		this.fileNames = new char[classFiles.size()][];
+		int i = 0;
+		for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+			this.fileNames[i] = entry.getKey().toCharArray();
+			this.contents[i++] = entry.getValue();
+		}
+	}
+
+	@Benchmark
+	public void decodeHeaders(Blackhole blackhole) throws ClassFormatException {
+		for (int i = 0; i < this.contents.length; i++)
+			blackhole.consume(new ClassFileReader(this.contents[i], this.fileNames[i], false));
+	}
+
+	@Benchmark
+	public void decodeFully(Blackhole blackhole) throws ClassFormatException {
+		for (int i = 0; i < this.contents.length; i++)
+			blackhole.consume(new ClassFileReader(this.contents[i], this.fileNames[i], true));
+	}
+}
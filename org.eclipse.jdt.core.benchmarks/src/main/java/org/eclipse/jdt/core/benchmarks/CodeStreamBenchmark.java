@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.codegen.CodeStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generation of the class files of the sample programs, which is dominated by
+ * the byte code emitted through {@link CodeStream}.
+ * <p>
+ * Each invocation starts from resolved and analysed units, since code can only be generated
+ * once per unit.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CodeStreamBenchmark {
+
+	private Compiler compiler;
+	private CompilationUnitDeclaration[] units;
+
+	@Setup
+	public void setup() {
+		this.compiler = Corpus.get().newCompiler(result -> { /* class files are dropped */ });
+		prepare();
+		generateCode();
+		Corpus.checkNoErrors(this.units);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepare() {
+		this.compiler.reset();
+		this.units = Corpus.parse(this.compiler, Corpus.get().getSamples(), false);
+		for (CompilationUnitDeclaration unit : this.units)
+			this.compiler.lookupEnvironment.buildTypeBindings(unit, null /*no access restriction*/);
+		this.compiler.lookupEnvironment.completeTypeBindings();
+		for (CompilationUnitDeclaration unit : this.units) {
+			this.compiler.lookupEnvironment.unitBeingCompleted = unit;
+			unit.scope.faultInTypes();
+			unit.scope.verifyMethods(this.compiler.lookupEnvironment.methodVerifier());
+			unit.resolve();
+			unit.analyseCode();
+		}
+	}
+
+	@Benchmark
+	public CompilationUnitDeclaration[] generateCode() {
+		for (CompilationUnitDeclaration unit : this.units) {
+			this.compiler.lookupEnvironment.unitBeingCompleted = unit;
+			unit.generateCode();
+		}
+		return this.units;
+	}
+}
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+
+/**
+ * The sources the benchmarks run against, read from the <code>corpus</code> folder on the classpath.
+ * <p>
+ * The corpus holds a minimal subset of the JRE along with a few sample programs. Binding related
+ * benchmarks resolve the samples against the class files of the whole corpus, which are compiled
+ * once when the corpus is loaded, so no JRE needs to be installed and the results do not depend
+ * on the JRE the benchmarks run on.
+ * </p>
+ */
+public class Corpus {
+
+	private static final String ROOT = "corpus/"; //$NON-NLS-1$
+	private static final String SAMPLES = "sample/"; //$NON-NLS-1$
+
+	private static Corpus instance;
+
+	private final CompilationUnit[] units;
+	private final CompilationUnit[] samples;
+	private final Map<String, byte[]> classFiles; // keyed by file name, such as java/lang/Object.class
+
+	private Corpus() throws IOException {
+		List<CompilationUnit> allUnits = new ArrayList<>();
+		List<CompilationUnit> sampleUnits = new ArrayList<>();
+		for (String fileName : readLines(ROOT + "index.txt")) { //$NON-NLS-1$
+			CompilationUnit unit = new CompilationUnit(read(ROOT + fileName).toCharArray(), fileName, "UTF-8"); //$NON-NLS-1$
+			allUnits.add(unit);
+			if (fileName.startsWith(SAMPLES))
+				sampleUnits.add(unit);
+		}
+		this.units = allUnits.toArray(new CompilationUnit[allUnits.size()]);
+		this.samples = sampleUnits.toArray(new CompilationUnit[sampleUnits.size()]);
+		this.classFiles = compile(this.units);
+	}
+
+	/**
+	 * Answers the shared corpus, loading and compiling it the first time.
+	 */
+	public static synchronized Corpus get() {
+		if (instance == null) {
+			try {
+				instance = new Corpus();
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read the benchmark corpus", e); //$NON-NLS-1$
+			}
+		}
+		return instance;
+	}
+
+	public static CompilerOptions newOptions() {
+		Map<String, String> settings = new HashMap<>();
+		settings.put(CompilerOptions.OPTION_Compliance, CompilerOptions.VERSION_1_8);
+		settings.put(CompilerOptions.OPTION_Source, CompilerOptions.VERSION_1_8);
+		settings.put(CompilerOptions.OPTION_TargetPlatform, CompilerOptions.VERSION_1_8);
+		settings.put(CompilerOptions.OPTION_LocalVariableAttribute, CompilerOptions.GENERATE);
+		settings.put(CompilerOptions.OPTION_LineNumberAttribute, CompilerOptions.GENERATE);
+		settings.put(CompilerOptions.OPTION_SourceFileAttribute, CompilerOptions.GENERATE);
+		return new CompilerOptions(settings);
+	}
+
+	/**
+	 * Answers a compiler resolving types against the class files of the corpus.
+	 */
+	public Compiler newCompiler(ICompilerRequestor requestor) {
+		return new Compiler(
+			newNameEnvironment(),
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			newOptions(),
+			requestor,
+			new DefaultProblemFactory(),
+			null,
+			null);
+	}
+
+	/**
+	 * Answers a name environment finding the class files of the corpus.
+	 */
+	public INameEnvironment newNameEnvironment() {
+		return new ClassFileEnvironment(this.classFiles);
+	}
+
+	/**
+	 * Answers the class files of the corpus, keyed by file name.
+	 */
+	public Map<String, byte[]> getClassFiles() {
+		return this.classFiles;
+	}
+
+	/**
+	 * Answers all the compilation units of the corpus, including the JRE subset.
+	 */
+	public ICompilationUnit[] getUnits() {
+		return this.units;
+	}
+
+	/**
+	 * Answers the compilation units of the sample programs.
+	 */
+	public ICompilationUnit[] getSamples() {
+		return this.samples;
+	}
+
+	/**
+	 * Answers the sample program with the given simple name.
+	 */
+	public ICompilationUnit getSample(String name) {
+		String fileName = SAMPLES + name + ".java"; //$NON-NLS-1$
+		for (CompilationUnit sample : this.samples)
+			if (fileName.equals(new String(sample.getFileName())))
+				return sample;
+		throw new IllegalArgumentException("No such sample: " + name); //$NON-NLS-1$
+	}
+
+	/**
+	 * Parses the given units with the parser of the given compiler, and starts a new compilation
+	 * unit result for each of them.
+	 */
+	public static CompilationUnitDeclaration[] parse(Compiler compiler, ICompilationUnit[] sourceUnits, boolean diet) {
+		CompilationUnitDeclaration[] declarations = new CompilationUnitDeclaration[sourceUnits.length];
+		for (int i = 0; i < sourceUnits.length; i++) {
+			CompilationResult result = new CompilationResult(sourceUnits[i], i, sourceUnits.length, compiler.options.maxProblemsPerUnit);
+			declarations[i] = diet
+				? compiler.parser.dietParse(sourceUnits[i], result)
+				: compiler.parser.parse(sourceUnits[i], result);
+		}
+		return declarations;
+	}
+
+	/**
+	 * Fails if one of the given units has errors, so a broken corpus cannot go unnoticed.
+	 */
+	public static void checkNoErrors(CompilationUnitDeclaration[] declarations) {
+		for (CompilationUnitDeclaration declaration : declarations)
+			checkNoErrors(declaration.compilationResult);
+	}
+
+	static void checkNoErrors(CompilationResult result) {
+		if (!result.hasErrors()) return;
+		StringBuilder buffer = new StringBuilder("Errors in ").append(result.getFileName()); //$NON-NLS-1$
+		for (CategorizedProblem problem : result.getErrors())
+			buffer.append("\n\t").append(problem.getSourceLineNumber()).append(": ").append(problem.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+		throw new IllegalStateException(buffer.toString());
+	}
+
+	private static Map<String, byte[]> compile(ICompilationUnit[] sourceUnits) {
+		final Map<String, byte[]> classFiles = new LinkedHashMap<>();
+		ICompilerRequestor requestor = new ICompilerRequestor() {
+			public void acceptResult(CompilationResult result) {
+				checkNoErrors(result);
+				for (ClassFile classFile : result.getClassFiles())
+					classFiles.put(new String(classFile.fileName()) + ".class", classFile.getBytes()); //$NON-NLS-1$
+			}
+		};
+		// the corpus is self contained, so the environment never has anything to answer
+		Compiler compiler = new Compiler(
+			new ClassFileEnvironment(new HashMap<String, byte[]>()),
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			newOptions(),
+			requestor,
+			new DefaultProblemFactory(),
+			null,
+			null);
+		compiler.compile(sourceUnits.clone()); // the compiler releases the units it processed
+		return classFiles;
+	}
+
+	private static String read(String resource) throws IOException {
+		StringBuilder buffer = new StringBuilder();
+		for (String line : readLines(resource))
+			buffer.append(line).append('\n');
+		return buffer.toString();
+	}
+
+	private static List<String> readLines(String resource) throws IOException {
+		InputStream stream = Corpus.class.getClassLoader().getResourceAsStream(resource);
+		if (stream == null)
+			throw new IOException("Missing corpus resource " + resource); //$NON-NLS-1$
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null)
+				if (!line.trim().isEmpty())
+					lines.add(line.trim());
+		}
+		return lines;
+	}
+
+	/**
+	 * A name environment answering class files held in memory.
+	 */
+	static class ClassFileEnvironment implements INameEnvironment {
+		private final Map<String, byte[]> classFiles;
+		private final Set<String> packageNames = new HashSet<>();
+
+		ClassFileEnvironment(Map<String, byte[]> classFiles) {
+			this.classFiles = classFiles;
+			for (String fileName : classFiles.keySet()) {
+				int last = fileName.lastIndexOf('/');
+				while (last > 0) {
+					fileName = fileName.substring(0, last);
+					this.packageNames.add(fileName);
+					last = fileName.lastIndexOf('/');
+				}
+			}
+		}
+
+		public NameEnvironmentAnswer findType(char[][] compoundTypeName) {
+			String fileName = new String(CharOperation.concatWith(compoundTypeName, '/')) + ".class"; //$NON-NLS-1$
+			byte[] bytes = this.classFiles.get(fileName);
+			if (bytes == null)
+				return null;
+			try {
+				return new NameEnvironmentAnswer(new ClassFileReader(bytes, fileName.toCharArray()), null);
+			} catch (ClassFormatException e) {
+				return null;
+			}
+		}
+
+		public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+			return findType(CharOperation.arrayConcat(packageName, typeName));
+		}
+
+		public boolean isPackage(char[][] parentPackageName, char[] packageName) {
+			char[][] compoundName = parentPackageName == null
+				? new char[][] {packageName}
+				: CharOperation.arrayConcat(parentPackageName, packageName);
+			return this.packageNames.contains(new String(CharOperation.concatWith(compoundName, '/')));
+		}
+
+		public void cleanup() {
+			// nothing to release
+		}
+	}
+}
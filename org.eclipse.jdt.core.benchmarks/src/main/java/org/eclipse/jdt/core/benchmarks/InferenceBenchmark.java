@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.lookup.InferenceContext18;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolution of the method bodies of the <code>Pipelines</code> sample, whose chained
+ * generic method invocations, lambdas and method references are dominated by the type inference
+ * of {@link InferenceContext18}.
+ * <p>
+ * Each invocation starts from a unit whose bindings are complete and whose methods are verified,
+ * since a unit can only be resolved once.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InferenceBenchmark {
+
+	private Compiler compiler;
+	private CompilationUnitDeclaration unit;
+
+	@Setup
+	public void setup() {
+		this.compiler = Corpus.get().newCompiler(result -> { /* nothing is compiled */ });
+		prepare();
+		resolve();
+		Corpus.checkNoErrors(new CompilationUnitDeclaration[] {this.unit});
+	}
+
+	@Setup(Level.Invocation)
+	public void prepare() {
+		this.compiler.reset();
+		this.unit = Corpus.parse(this.compiler, new ICompilationUnit[] {Corpus.get().getSample("Pipelines")}, false)[0]; //$NON-NLS-1$
+		this.compiler.lookupEnvironment.buildTypeBindings(this.unit, null /*no access restriction*/);
+		this.compiler.lookupEnvironment.completeTypeBindings();
+		this.compiler.lookupEnvironment.unitBeingCompleted = this.unit;
+		this.unit.scope.faultInTypes();
+		this.unit.scope.verifyMethods(this.compiler.lookupEnvironment.methodVerifier());
+	}
+
+	@Benchmark
+	public CompilationUnitDeclaration resolve() {
+		this.unit.resolve();
+		return this.unit;
+	}
+}
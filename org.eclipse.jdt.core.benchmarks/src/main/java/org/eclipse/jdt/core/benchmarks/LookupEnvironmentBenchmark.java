@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long the {@link LookupEnvironment} takes to build and complete the type bindings
+ * of the sample programs, including the lookup of the binary types they reference.
+ * <p>
+ * Each invocation starts from a reset environment and freshly parsed units, since
+ * bindings can only be built once per unit.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LookupEnvironmentBenchmark {
+
+	private Compiler compiler;
+	private CompilationUnitDeclaration[] units;
+
+	@Setup
+	public void setup() {
+		this.compiler = Corpus.get().newCompiler(result -> { /* nothing is compiled */ });
+	}
+
+	@Setup(Level.Invocation)
+	public void parse() {
+		this.compiler.reset();
+		this.units = Corpus.parse(this.compiler, Corpus.get().getSamples(), true);
+	}
+
+	@Benchmark
+	public LookupEnvironment completeTypeBindings() {
+		LookupEnvironment environment = this.compiler.lookupEnvironment;
+		for (CompilationUnitDeclaration unit : this.units)
+			environment.buildTypeBindings(unit, null /*no access restriction*/);
+		environment.completeTypeBindings();
+		return environment;
+	}
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the diet parse, which skips method bodies, and the full parse of all the sources of the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	private ICompilationUnit[] units;
+	private Compiler compiler;
+
+	@Setup
+	public void setup() {
+		Corpus corpus = Corpus.get();
+		this.units = corpus.getUnits();
+		this.compiler = corpus.newCompiler(result -> { /* nothing is compiled */ });
+		Corpus.checkNoErrors(Corpus.parse(this.compiler, this.units, false));
+	}
+
+	@Benchmark
+	public CompilationUnitDeclaration[] dietParse() {
+		return Corpus.parse(this.compiler, this.units, true);
+	}
+
+	@Benchmark
+	public CompilationUnitDeclaration[] fullParse() {
+		return Corpus.parse(this.compiler, this.units, false);
+	}
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.compiler.InvalidInputException;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.parser.Scanner;
+import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Scanner#getNextToken()} over all the sources of the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ScannerBenchmark {
+
+	private char[][] sources;
+	private Scanner scanner;
+
+	@Setup
+	public void setup() {
+		ICompilationUnit[] units = Corpus.get().getUnits();
+		this.sources = new char[units.length][];
+		for (int i = 0; i < units.length; i++)
+			this.sources[i] = units[i].getContents();
+		this.scanner = new Scanner(false, false, false, ClassFileConstants.JDK1_8, null, null, true);
+	}
+
+	@Benchmark
+	public int scan() throws InvalidInputException {
+		int tokens = 0;
+		for (char[] source : this.sources) {
+			this.scanner.setSource(source);
+			while (this.scanner.getNextToken() != TerminalTokens.TokenNameEOF)
+				tokens++;
+		}
+		return tokens;
+	}
+}
@@ -0,0 +1,6 @@
+package java.lang;
+
+public class AssertionError extends Error {
+	public AssertionError() {}
+	public AssertionError(Object detailMessage) {}
+}
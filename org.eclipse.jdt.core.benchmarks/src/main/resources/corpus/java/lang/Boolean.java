@@ -0,0 +1,11 @@
+package java.lang;
+
+public final class Boolean implements java.io.Serializable, Comparable<Boolean> {
+	public static final Boolean TRUE = new Boolean(true);
+	public static final Boolean FALSE = new Boolean(false);
+	private final boolean value;
+	public Boolean(boolean value) { this.value = value; }
+	public static Boolean valueOf(boolean b) { return b ? TRUE : FALSE; }
+	public boolean booleanValue() { return this.value; }
+	public int compareTo(Boolean b) { return 0; }
+}
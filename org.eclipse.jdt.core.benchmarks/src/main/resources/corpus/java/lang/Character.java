@@ -0,0 +1,14 @@
+package java.lang;
+
+public final class Character implements java.io.Serializable, Comparable<Character> {
+	private final char value;
+	public Character(char value) { this.value = value; }
+	public static Character valueOf(char c) { return new Character(c); }
+	public char charValue() { return this.value; }
+	public static boolean isWhitespace(char ch) { return ch <= ' '; }
+	public static boolean isDigit(char ch) { return ch >= '0' && ch <= '9'; }
+	public static boolean isLetter(char ch) { return false; }
+	public static boolean isJavaIdentifierStart(char ch) { return false; }
+	public static boolean isJavaIdentifierPart(char ch) { return false; }
+	public int compareTo(Character anotherCharacter) { return this.value - anotherCharacter.value; }
+}
@@ -0,0 +1,14 @@
+package java.lang;
+
+public abstract class Enum<E extends Enum<E>> implements Comparable<E>, java.io.Serializable {
+	private final String name;
+	private final int ordinal;
+	protected Enum(String name, int ordinal) {
+		this.name = name;
+		this.ordinal = ordinal;
+	}
+	public final String name() { return this.name; }
+	public final int ordinal() { return this.ordinal; }
+	public final int compareTo(E o) { return this.ordinal - o.ordinal(); }
+	public static <T extends Enum<T>> T valueOf(Class<T> enumType, String name) { return null; }
+}
@@ -0,0 +1,15 @@
+package java.lang;
+
+public final class Integer extends Number implements Comparable<Integer> {
+	public static final int MIN_VALUE = 0x80000000;
+	public static final int MAX_VALUE = 0x7fffffff;
+	private final int value;
+	public Integer(int value) { this.value = value; }
+	public static Integer valueOf(int i) { return new Integer(i); }
+	public static int parseInt(String s) { return 0; }
+	public int intValue() { return this.value; }
+	public long longValue() { return this.value; }
+	public float floatValue() { return this.value; }
+	public double doubleValue() { return this.value; }
+	public int compareTo(Integer anotherInteger) { return this.value - anotherInteger.value; }
+}
@@ -0,0 +1,12 @@
+package java.lang;
+
+public final class Long extends Number implements Comparable<Long> {
+	private final long value;
+	public Long(long value) { this.value = value; }
+	public static Long valueOf(long l) { return new Long(l); }
+	public int intValue() { return (int) this.value; }
+	public long longValue() { return this.value; }
+	public float floatValue() { return this.value; }
+	public double doubleValue() { return this.value; }
+	public int compareTo(Long anotherLong) { return this.value < anotherLong.value ? -1 : (this.value == anotherLong.value ? 0 : 1); }
+}
@@ -0,0 +1,9 @@
+package java.lang;
+
+public final class Math {
+	private Math() {}
+	public static int max(int a, int b) { return a >= b ? a : b; }
+	public static int min(int a, int b) { return a <= b ? a : b; }
+	public static int abs(int a) { return a < 0 ? -a : a; }
+	public static double sqrt(double a) { return a; }
+}
@@ -0,0 +1,6 @@
+package java.lang;
+
+public class NoSuchFieldError extends Error {
+	public NoSuchFieldError() {}
+	public NoSuchFieldError(String s) { super(s); }
+}
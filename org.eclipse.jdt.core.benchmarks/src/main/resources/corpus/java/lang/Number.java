@@ -0,0 +1,8 @@
+package java.lang;
+
+public abstract class Number implements java.io.Serializable {
+	public abstract int intValue();
+	public abstract long longValue();
+	public abstract float floatValue();
+	public abstract double doubleValue();
+}
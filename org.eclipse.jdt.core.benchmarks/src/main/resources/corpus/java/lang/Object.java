@@ -0,0 +1,11 @@
+package java.lang;
+
+public class Object {
+	public Object() {}
+	public boolean equals(Object obj) { return this == obj; }
+	public final native Class<?> getClass();
+	public native int hashCode();
+	public String toString() { return null; }
+	protected native Object clone() throws CloneNotSupportedException;
+	protected void finalize() throws Throwable {}
+}
@@ -0,0 +1,23 @@
+package java.lang;
+
+public final class String implements java.io.Serializable, Comparable<String>, CharSequence {
+	public String() {}
+	public String(char[] value) {}
+	public String(char[] value, int offset, int count) {}
+	public int length() { return 0; }
+	public char charAt(int index) { return 0; }
+	public CharSequence subSequence(int start, int end) { return null; }
+	public String substring(int beginIndex) { return null; }
+	public String substring(int beginIndex, int endIndex) { return null; }
+	public int indexOf(int ch) { return -1; }
+	public int indexOf(String str) { return -1; }
+	public boolean startsWith(String prefix) { return false; }
+	public boolean isEmpty() { return true; }
+	public char[] toCharArray() { return null; }
+	public String trim() { return null; }
+	public int compareTo(String anotherString) { return 0; }
+	public static String valueOf(Object obj) { return null; }
+	public static String valueOf(int i) { return null; }
+	public static String valueOf(char[] data) { return null; }
+	public native String intern();
+}
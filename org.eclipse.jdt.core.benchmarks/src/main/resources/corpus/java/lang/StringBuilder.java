@@ -0,0 +1,21 @@
+package java.lang;
+
+public final class StringBuilder implements java.io.Serializable, CharSequence {
+	public StringBuilder() {}
+	public StringBuilder(int capacity) {}
+	public StringBuilder(String str) {}
+	public StringBuilder append(Object obj) { return this; }
+	public StringBuilder append(String str) { return this; }
+	public StringBuilder append(char[] str) { return this; }
+	public StringBuilder append(boolean b) { return this; }
+	public StringBuilder append(char c) { return this; }
+	public StringBuilder append(int i) { return this; }
+	public StringBuilder append(long lng) { return this; }
+	public StringBuilder append(float f) { return this; }
+	public StringBuilder append(double d) { return this; }
+	public int length() { return 0; }
+	public char charAt(int index) { return 0; }
+	public CharSequence subSequence(int start, int end) { return null; }
+	public void setLength(int newLength) {}
+	public String toString() { return null; }
+}
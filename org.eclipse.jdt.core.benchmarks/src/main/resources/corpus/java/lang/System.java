@@ -0,0 +1,8 @@
+package java.lang;
+
+public final class System {
+	private System() {}
+	public static native void arraycopy(Object src, int srcPos, Object dest, int destPos, int length);
+	public static native long nanoTime();
+	public static native int identityHashCode(Object x);
+}
@@ -0,0 +1,10 @@
+package java.lang;
+
+public class Throwable implements java.io.Serializable {
+	public Throwable() {}
+	public Throwable(String message) {}
+	public Throwable(String message, Throwable cause) {}
+	public String getMessage() { return null; }
+	public Throwable getCause() { return null; }
+	public final void addSuppressed(Throwable exception) {}
+}
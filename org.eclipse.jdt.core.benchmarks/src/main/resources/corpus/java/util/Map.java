@@ -0,0 +1,18 @@
+package java.util;
+
+public interface Map<K, V> {
+	interface Entry<K, V> {
+		K getKey();
+		V getValue();
+		V setValue(V value);
+	}
+	int size();
+	boolean isEmpty();
+	boolean containsKey(Object key);
+	V get(Object key);
+	V put(K key, V value);
+	V remove(Object key);
+	Set<K> keySet();
+	Collection<V> values();
+	Set<Map.Entry<K, V>> entrySet();
+}
@@ -0,0 +1,204 @@
+package sample;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A growable array backed list, also usable as a stack.
+ */
+public class ArrayStack<E> implements List<E>, Cloneable {
+
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private Object[] elements;
+	private int size;
+	private int modCount;
+
+	public ArrayStack() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public ArrayStack(int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		this.elements = new Object[capacity];
+	}
+
+	public ArrayStack(Collection<? extends E> collection) {
+		this(collection.size());
+		addAll(collection);
+	}
+
+	private void ensureCapacity(int minCapacity) {
+		int oldCapacity = this.elements.length;
+		if (minCapacity > oldCapacity) {
+			int newCapacity = Math.max(oldCapacity + (oldCapacity >> 1), minCapacity);
+			Object[] newElements = new Object[newCapacity];
+			System.arraycopy(this.elements, 0, newElements, 0, this.size);
+			this.elements = newElements;
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int index) {
+		return (E) this.elements[index];
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	public int indexOf(Object o) {
+		if (o == null) {
+			for (int i = 0; i < this.size; i++)
+				if (this.elements[i] == null)
+					return i;
+		} else {
+			for (int i = 0; i < this.size; i++)
+				if (o.equals(this.elements[i]))
+					return i;
+		}
+		return -1;
+	}
+
+	public E get(int index) {
+		checkIndex(index);
+		return elementAt(index);
+	}
+
+	public E set(int index, E element) {
+		checkIndex(index);
+		E previous = elementAt(index);
+		this.elements[index] = element;
+		return previous;
+	}
+
+	public boolean add(E e) {
+		ensureCapacity(this.size + 1);
+		this.elements[this.size++] = e;
+		this.modCount++;
+		return true;
+	}
+
+	public void add(int index, E element) {
+		if (index > this.size || index < 0)
+			throw new IndexOutOfBoundsException("Index: " + index);
+		ensureCapacity(this.size + 1);
+		System.arraycopy(this.elements, index, this.elements, index + 1, this.size - index);
+		this.elements[index] = element;
+		this.size++;
+		this.modCount++;
+	}
+
+	public boolean addAll(Collection<? extends E> c) {
+		boolean changed = false;
+		for (E e : c)
+			changed |= add(e);
+		return changed;
+	}
+
+	public E remove(int index) {
+		checkIndex(index);
+		E oldValue = elementAt(index);
+		int numMoved = this.size - index - 1;
+		if (numMoved > 0)
+			System.arraycopy(this.elements, index + 1, this.elements, index, numMoved);
+		this.elements[--this.size] = null;
+		this.modCount++;
+		return oldValue;
+	}
+
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index < 0)
+			return false;
+		remove(index);
+		return true;
+	}
+
+	public void clear() {
+		for (int i = 0; i < this.size; i++)
+			this.elements[i] = null;
+		this.size = 0;
+		this.modCount++;
+	}
+
+	public void push(E e) {
+		add(e);
+	}
+
+	public E peek() {
+		if (this.size == 0)
+			throw new NoSuchElementException();
+		return elementAt(this.size - 1);
+	}
+
+	public E pop() {
+		if (this.size == 0)
+			throw new NoSuchElementException();
+		return remove(this.size - 1);
+	}
+
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ArrayStack<E> clone() {
+		try {
+			ArrayStack<E> copy = (ArrayStack<E>) super.clone();
+			copy.elements = new Object[this.size];
+			System.arraycopy(this.elements, 0, copy.elements, 0, this.size);
+			copy.modCount = 0;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e.getMessage());
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append('[');
+		for (int i = 0; i < this.size; i++) {
+			if (i > 0)
+				buffer.append(", ");
+			Object element = this.elements[i];
+			buffer.append(element == this ? "(this stack)" : element);
+		}
+		return buffer.append(']').toString();
+	}
+
+	private class Itr implements Iterator<E> {
+		int cursor;
+		int expectedModCount = ArrayStack.this.modCount;
+
+		public boolean hasNext() {
+			return this.cursor != ArrayStack.this.size;
+		}
+
+		public E next() {
+			if (ArrayStack.this.modCount != this.expectedModCount)
+				throw new IllegalStateException("concurrent modification");
+			if (this.cursor >= ArrayStack.this.size)
+				throw new NoSuchElementException();
+			return elementAt(this.cursor++);
+		}
+	}
+}
@@ -0,0 +1,260 @@
+package sample;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A hash table with separate chaining.
+ */
+public class HashDictionary<K, V> implements Map<K, V> {
+
+	static final class Node<K, V> implements Map.Entry<K, V> {
+		final int hash;
+		final K key;
+		V value;
+		Node<K, V> next;
+
+		Node(int hash, K key, V value, Node<K, V> next) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+
+		public K getKey() {
+			return this.key;
+		}
+
+		public V getValue() {
+			return this.value;
+		}
+
+		public V setValue(V newValue) {
+			V oldValue = this.value;
+			this.value = newValue;
+			return oldValue;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+	private Node<K, V>[] table;
+	private int size;
+	private int threshold;
+	private final float loadFactor;
+
+	public HashDictionary() {
+		this(16, 0.75f);
+	}
+
+	@SuppressWarnings("unchecked")
+	public HashDictionary(int initialCapacity, float loadFactor) {
+		if (loadFactor <= 0)
+			throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+		int capacity = 1;
+		while (capacity < initialCapacity)
+			capacity <<= 1;
+		this.loadFactor = loadFactor;
+		this.threshold = (int) (capacity * loadFactor);
+		this.table = (Node<K, V>[]) new Node[capacity];
+	}
+
+	static int hash(Object key) {
+		int h;
+		return key == null ? 0 : (h = key.hashCode()) ^ (h >>> 16);
+	}
+
+	private static boolean same(Object a, Object b) {
+		return a == b || (a != null && a.equals(b));
+	}
+
+	private Node<K, V> getNode(Object key) {
+		int hash = hash(key);
+		for (Node<K, V> e = this.table[hash & (this.table.length - 1)]; e != null; e = e.next)
+			if (e.hash == hash && same(e.key, key))
+				return e;
+		return null;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public boolean containsKey(Object key) {
+		return getNode(key) != null;
+	}
+
+	public V get(Object key) {
+		Node<K, V> e = getNode(key);
+		return e == null ? null : e.value;
+	}
+
+	public V put(K key, V value) {
+		int hash = hash(key);
+		int index = hash & (this.table.length - 1);
+		for (Node<K, V> e = this.table[index]; e != null; e = e.next) {
+			if (e.hash == hash && same(e.key, key))
+				return e.setValue(value);
+		}
+		this.table[index] = new Node<K, V>(hash, key, value, this.table[index]);
+		if (++this.size > this.threshold)
+			resize();
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void resize() {
+		Node<K, V>[] oldTable = this.table;
+		int newCapacity = oldTable.length << 1;
+		Node<K, V>[] newTable = (Node<K, V>[]) new Node[newCapacity];
+		for (int i = 0; i < oldTable.length; i++) {
+			Node<K, V> e = oldTable[i];
+			while (e != null) {
+				Node<K, V> next = e.next;
+				int index = e.hash & (newCapacity - 1);
+				e.next = newTable[index];
+				newTable[index] = e;
+				e = next;
+			}
+		}
+		this.table = newTable;
+		this.threshold = (int) (newCapacity * this.loadFactor);
+	}
+
+	public V remove(Object key) {
+		int hash = hash(key);
+		int index = hash & (this.table.length - 1);
+		Node<K, V> previous = null;
+		for (Node<K, V> e = this.table[index]; e != null; previous = e, e = e.next) {
+			if (e.hash == hash && same(e.key, key)) {
+				if (previous == null)
+					this.table[index] = e.next;
+				else
+					previous.next = e.next;
+				this.size--;
+				return e.value;
+			}
+		}
+		return null;
+	}
+
+	abstract class HashIterator<T> implements Iterator<T> {
+		Node<K, V> next;
+		int index;
+
+		HashIterator() {
+			advance();
+		}
+
+		private void advance() {
+			Node<K, V>[] t = HashDictionary.this.table;
+			while (this.next == null && this.index < t.length)
+				this.next = t[this.index++];
+		}
+
+		public boolean hasNext() {
+			return this.next != null;
+		}
+
+		Node<K, V> nextNode() {
+			Node<K, V> e = this.next;
+			if (e == null)
+				throw new NoSuchElementException();
+			this.next = e.next;
+			if (this.next == null)
+				advance();
+			return e;
+		}
+	}
+
+	abstract class View<T> implements Set<T> {
+		public int size() {
+			return HashDictionary.this.size;
+		}
+
+		public boolean isEmpty() {
+			return HashDictionary.this.size == 0;
+		}
+
+		public boolean add(T e) {
+			throw new UnsupportedOperationException();
+		}
+
+		public boolean addAll(Collection<? extends T> c) {
+			throw new UnsupportedOperationException();
+		}
+
+		public boolean remove(Object o) {
+			throw new UnsupportedOperationException();
+		}
+
+		public void clear() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	public Set<K> keySet() {
+		return new View<K>() {
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			public Iterator<K> iterator() {
+				return new HashIterator<K>() {
+					public K next() {
+						return nextNode().key;
+					}
+				};
+			}
+		};
+	}
+
+	public Collection<V> values() {
+		return new View<V>() {
+			public boolean contains(Object o) {
+				for (Iterator<V> i = iterator(); i.hasNext();)
+					if (same(i.next(), o))
+						return true;
+				return false;
+			}
+
+			public Iterator<V> iterator() {
+				return new HashIterator<V>() {
+					public V next() {
+						return nextNode().value;
+					}
+				};
+			}
+		};
+	}
+
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new View<Map.Entry<K, V>>() {
+			public boolean contains(Object o) {
+				if (!(o instanceof Map.Entry))
+					return false;
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				Node<K, V> node = getNode(entry.getKey());
+				return node != null && same(node.value, entry.getValue());
+			}
+
+			public Iterator<Map.Entry<K, V>> iterator() {
+				return new HashIterator<Map.Entry<K, V>>() {
+					public Map.Entry<K, V> next() {
+						return nextNode();
+					}
+				};
+			}
+		};
+	}
+}
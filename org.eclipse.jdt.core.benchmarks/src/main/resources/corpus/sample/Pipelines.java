@@ -0,0 +1,289 @@
+package sample;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lazy pipeline library whose client code relies heavily on type inference.
+ */
+public class Pipelines {
+
+	public interface Fn<T, R> {
+		R apply(T t);
+
+		default <V> Fn<T, V> andThen(Fn<? super R, ? extends V> after) {
+			return t -> after.apply(apply(t));
+		}
+
+		static <T> Fn<T, T> identity() {
+			return t -> t;
+		}
+	}
+
+	public interface BiFn<T, U, R> {
+		R apply(T t, U u);
+	}
+
+	public interface Pred<T> {
+		boolean test(T t);
+
+		default Pred<T> and(Pred<? super T> other) {
+			return t -> test(t) && other.test(t);
+		}
+
+		default Pred<T> negate() {
+			return t -> !test(t);
+		}
+	}
+
+	public interface Source<T> {
+		T get();
+	}
+
+	public static final class Pair<A, B> {
+		public final A first;
+		public final B second;
+
+		Pair(A first, B second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		public static <A, B> Pair<A, B> of(A first, B second) {
+			return new Pair<>(first, second);
+		}
+
+		public <C> Pair<C, B> mapFirst(Fn<? super A, ? extends C> fn) {
+			return of(fn.apply(this.first), this.second);
+		}
+
+		@Override
+		public String toString() {
+			return "(" + this.first + ", " + this.second + ")";
+		}
+	}
+
+	public static abstract class Pipe<T> implements Iterable<T> {
+
+		public <R> Pipe<R> map(Fn<? super T, ? extends R> fn) {
+			Pipe<T> self = this;
+			return new Pipe<R>() {
+				public Iterator<R> iterator() {
+					Iterator<T> source = self.iterator();
+					return new Iterator<R>() {
+						public boolean hasNext() {
+							return source.hasNext();
+						}
+
+						public R next() {
+							return fn.apply(source.next());
+						}
+					};
+				}
+			};
+		}
+
+		public Pipe<T> filter(Pred<? super T> predicate) {
+			Pipe<T> self = this;
+			return new Pipe<T>() {
+				public Iterator<T> iterator() {
+					Iterator<T> source = self.iterator();
+					return new Iterator<T>() {
+						T next;
+						boolean ready;
+
+						public boolean hasNext() {
+							while (!this.ready && source.hasNext()) {
+								T candidate = source.next();
+								if (predicate.test(candidate)) {
+									this.next = candidate;
+									this.ready = true;
+								}
+							}
+							return this.ready;
+						}
+
+						public T next() {
+							if (!hasNext())
+								throw new java.util.NoSuchElementException();
+							this.ready = false;
+							return this.next;
+						}
+					};
+				}
+			};
+		}
+
+		public <R> Pipe<R> flatMap(Fn<? super T, ? extends Iterable<? extends R>> fn) {
+			return concat(map(fn));
+		}
+
+		public <A> A fold(A initial, BiFn<? super A, ? super T, ? extends A> accumulator) {
+			A result = initial;
+			for (T t : this)
+				result = accumulator.apply(result, t);
+			return result;
+		}
+
+		public <C extends java.util.Collection<? super T>> C into(Source<C> factory) {
+			C collection = factory.get();
+			for (T t : this)
+				collection.add(t);
+			return collection;
+		}
+
+		public List<T> toList() {
+			return into(ArrayStack::new);
+		}
+
+		public <K> HashDictionary<K, List<T>> groupBy(Fn<? super T, ? extends K> key) {
+			return fold(new HashDictionary<K, List<T>>(), (map, t) -> {
+				K k = key.apply(t);
+				List<T> group = map.get(k);
+				if (group == null)
+					map.put(k, group = new ArrayStack<>());
+				group.add(t);
+				return map;
+			});
+		}
+
+		public <U> Pipe<Pair<T, U>> zip(Iterable<? extends U> other) {
+			Pipe<T> self = this;
+			return new Pipe<Pair<T, U>>() {
+				public Iterator<Pair<T, U>> iterator() {
+					Iterator<T> left = self.iterator();
+					Iterator<? extends U> right = other.iterator();
+					return new Iterator<Pair<T, U>>() {
+						public boolean hasNext() {
+							return left.hasNext() && right.hasNext();
+						}
+
+						public Pair<T, U> next() {
+							return Pair.of(left.next(), right.next());
+						}
+					};
+				}
+			};
+		}
+
+		public T max(Comparator<? super T> comparator) {
+			return fold((T) null, (best, t) -> best == null || comparator.compare(t, best) > 0 ? t : best);
+		}
+	}
+
+	public static <T> Pipe<T> from(Iterable<? extends T> iterable) {
+		return new Pipe<T>() {
+			public Iterator<T> iterator() {
+				Iterator<? extends T> source = iterable.iterator();
+				return new Iterator<T>() {
+					public boolean hasNext() {
+						return source.hasNext();
+					}
+
+					public T next() {
+						return source.next();
+					}
+				};
+			}
+		};
+	}
+
+	@SafeVarargs
+	public static <T> Pipe<T> of(T... values) {
+		ArrayStack<T> list = new ArrayStack<>(values.length);
+		for (T value : values)
+			list.add(value);
+		return from(list);
+	}
+
+	public static <T> Pipe<T> concat(Pipe<? extends Iterable<? extends T>> pipes) {
+		return new Pipe<T>() {
+			public Iterator<T> iterator() {
+				Iterator<? extends Iterable<? extends T>> outer = pipes.iterator();
+				return new Iterator<T>() {
+					Iterator<? extends T> inner;
+
+					public boolean hasNext() {
+						while ((this.inner == null || !this.inner.hasNext()) && outer.hasNext())
+							this.inner = outer.next().iterator();
+						return this.inner != null && this.inner.hasNext();
+					}
+
+					public T next() {
+						if (!hasNext())
+							throw new java.util.NoSuchElementException();
+						return this.inner.next();
+					}
+				};
+			}
+		};
+	}
+
+	public static <T, R> Fn<T, R> memoize(Fn<T, R> fn) {
+		HashDictionary<T, R> cache = new HashDictionary<>();
+		return t -> {
+			R result = cache.get(t);
+			if (result == null)
+				cache.put(t, result = fn.apply(t));
+			return result;
+		};
+	}
+
+	public static <T extends Comparable<? super T>> Comparator<T> natural() {
+		return (a, b) -> a.compareTo(b);
+	}
+
+	public static <T, K extends Comparable<? super K>> Comparator<T> comparing(Fn<? super T, ? extends K> key) {
+		return (a, b) -> key.apply(a).compareTo(key.apply(b));
+	}
+
+	public static int wordScore(String word) {
+		int score = 0;
+		for (int i = 0; i < word.length(); i++)
+			score += word.charAt(i) - 'a' + 1;
+		return score;
+	}
+
+	public static void examples() {
+		Pipe<String> words = of("alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta");
+
+		List<Integer> lengths = words.map(String::length).filter(n -> n > 3).toList();
+
+		Map<Integer, List<String>> byLength = words.groupBy(String::length);
+
+		Pair<String, Integer> best = words
+			.map(w -> Pair.of(w, wordScore(w)))
+			.max(comparing(p -> p.second));
+
+		List<Pair<String, Integer>> zipped = words.zip(of(1, 2, 3, 4)).filter(p -> p.second % 2 == 0).toList();
+
+		int total = words.map(Pipelines::wordScore).fold(0, (sum, score) -> sum + score);
+
+		Fn<String, Integer> cachedScore = memoize(Pipelines::wordScore);
+		Fn<String, String> describe = cachedScore.andThen(score -> score > 40 ? "long" : "short");
+
+		List<String> letters = words.flatMap(w -> of(w.charAt(0), w.charAt(w.length() - 1)))
+			.map(c -> String.valueOf(new char[] { c }))
+			.filter(((Pred<String>) String::isEmpty).negate())
+			.toList();
+
+		Pipe<Pair<Integer, String>> swapped = words.map(w -> Pair.of(w.length(), w))
+			.map(p -> p.mapFirst(n -> n * 2))
+			.filter(p -> p.first > 6);
+
+		String longest = words.max(comparing(String::length));
+		String first = words.max(Pipelines.<String> natural());
+
+		HashDictionary<String, Pair<Integer, List<String>>> summary = new HashDictionary<>();
+		for (Map.Entry<Integer, List<String>> entry : byLength.entrySet())
+			summary.put("length " + entry.getKey(), Pair.of(entry.getValue().size(), entry.getValue()));
+
+		Fn<Integer, Fn<Integer, Integer>> adder = a -> b -> a + b;
+		int seven = adder.apply(3).apply(4);
+
+		System.identityHashCode(new Object[] { lengths, best, zipped, total, describe.apply("omega"), letters,
+				swapped.toList(), longest, first, summary, seven, Fn.<String> identity().andThen(String::length) });
+	}
+}
@@ -0,0 +1,195 @@
+package sample;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A small hierarchy of shapes, with visitors and an enum of colors.
+ */
+public class Shapes {
+
+	public enum Color {
+		RED(255, 0, 0), GREEN(0, 255, 0), BLUE(0, 0, 255), BLACK(0, 0, 0) {
+			@Override
+			public boolean isDark() {
+				return true;
+			}
+		};
+
+		private final int red, green, blue;
+
+		Color(int red, int green, int blue) {
+			this.red = red;
+			this.green = green;
+			this.blue = blue;
+		}
+
+		public int rgb() {
+			return (this.red << 16) | (this.green << 8) | this.blue;
+		}
+
+		public boolean isDark() {
+			return this.red + this.green + this.blue < 128;
+		}
+	}
+
+	public interface Visitor<R> {
+		R visitCircle(Circle circle);
+		R visitRectangle(Rectangle rectangle);
+		R visitGroup(Group group);
+	}
+
+	public static abstract class Shape implements Comparable<Shape> {
+		protected final Color color;
+
+		protected Shape(Color color) {
+			this.color = color;
+		}
+
+		public abstract double area();
+
+		public abstract <R> R accept(Visitor<R> visitor);
+
+		public int compareTo(Shape other) {
+			double difference = area() - other.area();
+			return difference < 0 ? -1 : difference > 0 ? 1 : 0;
+		}
+
+		public String describe() {
+			String tone;
+			switch (this.color) {
+				case RED :
+				case GREEN :
+				case BLUE :
+					tone = "primary";
+					break;
+				default :
+					tone = this.color.isDark() ? "dark" : "light";
+			}
+			return getClass().getName() + " in " + tone + " " + this.color.name();
+		}
+	}
+
+	public static class Circle extends Shape {
+		final double radius;
+
+		public Circle(Color color, double radius) {
+			super(color);
+			this.radius = radius;
+		}
+
+		@Override
+		public double area() {
+			return 3.14159 * this.radius * this.radius;
+		}
+
+		@Override
+		public <R> R accept(Visitor<R> visitor) {
+			return visitor.visitCircle(this);
+		}
+	}
+
+	public static class Rectangle extends Shape {
+		final double width, height;
+
+		public Rectangle(Color color, double width, double height) {
+			super(color);
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public double area() {
+			return this.width * this.height;
+		}
+
+		@Override
+		public <R> R accept(Visitor<R> visitor) {
+			return visitor.visitRectangle(this);
+		}
+	}
+
+	public static class Group extends Shape implements Iterable<Shape> {
+		final List<Shape> children = new ArrayStack<Shape>();
+
+		public Group(Color color, Shape... shapes) {
+			super(color);
+			for (Shape shape : shapes)
+				this.children.add(shape);
+		}
+
+		@Override
+		public double area() {
+			double total = 0;
+			for (Shape child : this.children)
+				total += child.area();
+			return total;
+		}
+
+		@Override
+		public <R> R accept(Visitor<R> visitor) {
+			return visitor.visitGroup(this);
+		}
+
+		public Iterator<Shape> iterator() {
+			return this.children.iterator();
+		}
+	}
+
+	static class DepthVisitor implements Visitor<Integer> {
+		public Integer visitCircle(Circle circle) {
+			return 1;
+		}
+
+		public Integer visitRectangle(Rectangle rectangle) {
+			return 1;
+		}
+
+		public Integer visitGroup(Group group) {
+			int depth = 0;
+			for (Shape child : group)
+				depth = Math.max(depth, child.accept(this));
+			return depth + 1;
+		}
+	}
+
+	static final Comparator<Shape> BY_COLOR = new Comparator<Shape>() {
+		public int compare(Shape s1, Shape s2) {
+			return s1.color.ordinal() - s2.color.ordinal();
+		}
+	};
+
+	public static <T extends Comparable<? super T>> void sort(List<T> list) {
+		for (int i = 1, size = list.size(); i < size; i++) {
+			T key = list.get(i);
+			int j = i - 1;
+			while (j >= 0 && list.get(j).compareTo(key) > 0) {
+				list.set(j + 1, list.get(j));
+				j--;
+			}
+			list.set(j + 1, key);
+		}
+	}
+
+	public static <T> void sort(List<T> list, Comparator<? super T> comparator) {
+		for (int i = 1, size = list.size(); i < size; i++) {
+			T key = list.get(i);
+			int j = i - 1;
+			while (j >= 0 && comparator.compare(list.get(j), key) > 0) {
+				list.set(j + 1, list.get(j));
+				j--;
+			}
+			list.set(j + 1, key);
+		}
+	}
+
+	public static int depth(Shape shape) {
+		return shape.accept(new DepthVisitor());
+	}
+
+	public static Group sample() {
+		Group inner = new Group(Color.BLUE, new Circle(Color.RED, 1), new Rectangle(Color.GREEN, 2, 3));
+		return new Group(Color.BLACK, inner, new Circle(Color.BLACK, 0.5), new Rectangle(Color.RED, 1, 1));
+	}
+}
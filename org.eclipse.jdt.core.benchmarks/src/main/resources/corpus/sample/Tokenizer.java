@@ -0,0 +1,251 @@
+package sample;
+
+import java.util.List;
+
+/**
+ * Splits arithmetic expressions into tokens and evaluates them.
+ */
+public class Tokenizer {
+
+	public static final int EOF = -1;
+	public static final int NUMBER = 1;
+	public static final int IDENTIFIER = 2;
+	public static final int PLUS = 3;
+	public static final int MINUS = 4;
+	public static final int TIMES = 5;
+	public static final int DIVIDE = 6;
+	public static final int LPAREN = 7;
+	public static final int RPAREN = 8;
+	public static final int COMMA = 9;
+
+	public static class Token {
+		public final int kind;
+		public final String text;
+		public final int start;
+
+		Token(int kind, String text, int start) {
+			this.kind = kind;
+			this.text = text;
+			this.start = start;
+		}
+
+		@Override
+		public String toString() {
+			switch (this.kind) {
+				case NUMBER :
+					return "NUMBER(" + this.text + ")";
+				case IDENTIFIER :
+					return "IDENTIFIER(" + this.text + ")";
+				case EOF :
+					return "EOF";
+				default :
+					return "'" + this.text + "'";
+			}
+		}
+	}
+
+	public static class SyntaxError extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		public SyntaxError(String message, int position) {
+			super(message + " at " + position);
+		}
+	}
+
+	private final char[] source;
+	private int position;
+	private Token current;
+
+	public Tokenizer(String source) {
+		this.source = source.toCharArray();
+		this.current = scan();
+	}
+
+	private Token scan() {
+		while (this.position < this.source.length && Character.isWhitespace(this.source[this.position]))
+			this.position++;
+		if (this.position >= this.source.length)
+			return new Token(EOF, "", this.position);
+		int start = this.position;
+		char c = this.source[this.position++];
+		switch (c) {
+			case '+' :
+				return new Token(PLUS, "+", start);
+			case '-' :
+				return new Token(MINUS, "-", start);
+			case '*' :
+				return new Token(TIMES, "*", start);
+			case '/' :
+				if (this.position < this.source.length && this.source[this.position] == '/') {
+					// line comment, skip to the end of the line
+					while (this.position < this.source.length && this.source[this.position] != '\n')
+						this.position++;
+					return scan();
+				}
+				return new Token(DIVIDE, "/", start);
+			case '(' :
+				return new Token(LPAREN, "(", start);
+			case ')' :
+				return new Token(RPAREN, ")", start);
+			case ',' :
+				return new Token(COMMA, ",", start);
+			default :
+				if (Character.isDigit(c) || c == '.') {
+					boolean seenDot = c == '.';
+					while (this.position < this.source.length) {
+						char next = this.source[this.position];
+						if (next == '.' && !seenDot) {
+							seenDot = true;
+						} else if (!Character.isDigit(next)) {
+							break;
+						}
+						this.position++;
+					}
+					return new Token(NUMBER, new String(this.source, start, this.position - start), start);
+				}
+				if (Character.isJavaIdentifierStart(c)) {
+					while (this.position < this.source.length && Character.isJavaIdentifierPart(this.source[this.position]))
+						this.position++;
+					return new Token(IDENTIFIER, new String(this.source, start, this.position - start), start);
+				}
+				throw new SyntaxError("Unexpected character '" + c + "'", start);
+		}
+	}
+
+	public Token peek() {
+		return this.current;
+	}
+
+	public Token next() {
+		Token token = this.current;
+		this.current = scan();
+		return token;
+	}
+
+	private Token expect(int kind) {
+		Token token = next();
+		if (token.kind != kind)
+			throw new SyntaxError("Unexpected " + token, token.start);
+		return token;
+	}
+
+	public void tokenize(List<Token> tokens) {
+		Token token;
+		do {
+			token = next();
+			tokens.add(token);
+		} while (token.kind != EOF);
+	}
+
+	/*
+	 * expression := term (('+' | '-') term)*
+	 */
+	public double parseExpression(HashDictionary<String, Double> variables) {
+		double value = parseTerm(variables);
+		while (true) {
+			int kind = this.current.kind;
+			if (kind == PLUS) {
+				next();
+				value += parseTerm(variables);
+			} else if (kind == MINUS) {
+				next();
+				value -= parseTerm(variables);
+			} else {
+				return value;
+			}
+		}
+	}
+
+	/*
+	 * term := factor (('*' | '/') factor)*
+	 */
+	private double parseTerm(HashDictionary<String, Double> variables) {
+		double value = parseFactor(variables);
+		for (;;) {
+			switch (this.current.kind) {
+				case TIMES :
+					next();
+					value *= parseFactor(variables);
+					break;
+				case DIVIDE :
+					next();
+					double divisor = parseFactor(variables);
+					if (divisor == 0)
+						throw new SyntaxError("Division by zero", this.current.start);
+					value /= divisor;
+					break;
+				default :
+					return value;
+			}
+		}
+	}
+
+	/*
+	 * factor := NUMBER | IDENTIFIER | IDENTIFIER '(' expression (',' expression)* ')' | '(' expression ')' | '-' factor
+	 */
+	private double parseFactor(HashDictionary<String, Double> variables) {
+		Token token = next();
+		switch (token.kind) {
+			case NUMBER :
+				return parseNumber(token.text);
+			case MINUS :
+				return -parseFactor(variables);
+			case LPAREN :
+				double value = parseExpression(variables);
+				expect(RPAREN);
+				return value;
+			case IDENTIFIER :
+				if (this.current.kind == LPAREN) {
+					next();
+					ArrayStack<Double> arguments = new ArrayStack<Double>();
+					if (this.current.kind != RPAREN) {
+						arguments.add(parseExpression(variables));
+						while (this.current.kind == COMMA) {
+							next();
+							arguments.add(parseExpression(variables));
+						}
+					}
+					expect(RPAREN);
+					return call(token, arguments);
+				}
+				Double variable = variables.get(token.text);
+				if (variable == null)
+					throw new SyntaxError("Unknown variable " + token.text, token.start);
+				return variable;
+			default :
+				throw new SyntaxError("Unexpected " + token, token.start);
+		}
+	}
+
+	private static double call(Token function, ArrayStack<Double> arguments) {
+		String name = function.text;
+		if (name.startsWith("max")) {
+			double max = arguments.get(0);
+			for (int i = 1; i < arguments.size(); i++) {
+				double argument = arguments.get(i);
+				if (argument > max)
+					max = argument;
+			}
+			return max;
+		}
+		if (name.startsWith("sqrt") && arguments.size() == 1)
+			return Math.sqrt(arguments.get(0));
+		throw new SyntaxError("Unknown function " + name + " with " + arguments.size() + " arguments", function.start);
+	}
+
+	private static double parseNumber(String text) {
+		double value = 0;
+		double scale = 0;
+		for (int i = 0, length = text.length(); i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '.') {
+				scale = 1;
+			} else {
+				value = value * 10 + (c - '0');
+				if (scale > 0)
+					scale *= 10;
+			}
+		}
+		return scale > 0 ? value / scale : value;
+	}
+}
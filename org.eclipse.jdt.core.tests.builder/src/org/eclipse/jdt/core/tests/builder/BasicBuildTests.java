@@ -12,11 +12,18 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.builder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Hashtable;
 
 import junit.framework.*;
 
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
@@ -26,6 +33,9 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
 import org.eclipse.jdt.core.tests.util.Util;
 import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.builder.JavaBuilder;
+import org.eclipse.jdt.internal.core.builder.ReferenceCollection;
+import org.eclipse.jdt.internal.core.builder.State;
 
 /**
  * Basic tests of the image builder.
@@ -634,4 +644,101 @@ public class BasicBuildTests extends BuilderTests {
 				"Problem : The type java.lang.Object cannot be resolved. It is indirectly referenced from required .class files [ resource : </Project/src/X.java> range : <0,1> category : <10> severity : <2>]"
 			);
 	}
+
+	public void testStateWriteRead() throws JavaModelException, IOException {
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+		IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+		env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A extends p2.B {\n"+ //$NON-NLS-1$
+			"}\n" + //$NON-NLS-1$
+			"class A2 {}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class B {\n"+ //$NON-NLS-1$
+			"   java.util.List<String> list;\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		fullBuild(projectPath);
+		expectingNoProblems();
+
+		IProject project = env.getProject(projectPath);
+		State state = (State) JavaModelManager.getJavaModelManager().getLastBuiltState(project, null);
+		byte[] bytes = writeState(state);
+
+		// a state which was only read must be written back unchanged
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(bytes)));
+		assertTrue("Unexpected state contents", Arrays.equals(bytes, writeState(readState))); //$NON-NLS-1$
+
+		// its tables must match the ones of the built state once decoded
+		readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(bytes)));
+		assertEquals("Unexpected type locators", state.getTypeLocators().elementSize, readState.getTypeLocators().elementSize); //$NON-NLS-1$
+		assertTrue("Unexpected duplicate locator", !readState.isDuplicateLocator("p1/A2", "src/p1/A.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals("Unexpected references", state.getReferences().elementSize, readState.getReferences().elementSize); //$NON-NLS-1$
+		ReferenceCollection references = (ReferenceCollection) readState.getReferences().get("src/p1/A.java"); //$NON-NLS-1$
+		char[] simpleName = ReferenceCollection.internSimpleNames(new char[][] {"B".toCharArray()}, false)[0]; //$NON-NLS-1$
+		assertTrue("Missing reference", references.includes(simpleName)); //$NON-NLS-1$
+		assertNotNull("Missing defined types", readState.getDefinedTypeNamesFor("src/p1/A.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue("Unexpected state contents", Arrays.equals(bytes, writeState(readState))); //$NON-NLS-1$
+	}
+
+	public void testStateWithCorruptSection() throws JavaModelException, IOException {
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+		IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+		env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A extends p2.B {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class B {\n"+ //$NON-NLS-1$
+			"   void foo() { int i = 0; }\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		fullBuild(projectPath);
+		expectingNoProblems();
+
+		IProject project = env.getProject(projectPath);
+		State state = (State) JavaModelManager.getJavaModelManager().getLastBuiltState(project, null);
+		byte[] bytes = writeState(state);
+		// the references section comes last, make its last ids run past its end
+		for (int i = bytes.length - 4; i < bytes.length; i++)
+			bytes[i] = (byte) 0xFF;
+
+		// the state is still accepted, but must be rejected once its sections are decoded
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(bytes)));
+		assertNotNull("Missing state", readState); //$NON-NLS-1$
+		assertFalse("Corrupt state should not be readable", readState.readTables()); //$NON-NLS-1$
+
+		// a change to B alone must still recompile A, since the build falls back to a full build
+		JavaModelManager.getJavaModelManager().setLastBuiltState(project, readState);
+		env.addClass(root, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class B {\n"+ //$NON-NLS-1$
+			"   void foo() { int i = 1; }\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"p1.A", "p2.B"}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue("Missing new state", readState != JavaModelManager.getJavaModelManager().getLastBuiltState(project, null)); //$NON-NLS-1$
+	}
+
+	private byte[] writeState(State state) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		JavaBuilder.writeState(state, out);
+		out.close();
+		return bytes.toByteArray();
+	}
 }
@@ -417,6 +417,53 @@ public void testChangeZIPArchive1() throws Exception {
 	}
 }
 
+/*
+ * Ensures that the types of an unchanged external archive are only read once across builds
+ */
+public void testSharedBinaryTypes() throws Exception {
+	String externalLib = Util.getOutputDirectory() + File.separator + "sharedLib.jar";
+	IPath projectPath = env.addProject("Project");
+	try {
+		org.eclipse.jdt.core.tests.util.Util.createJar(
+			new String[] {
+				"p/X.java",
+				"package p;\n" +
+				"public class X {\n" +
+				"  public void foo() {\n" +
+				"  }\n" +
+				"}"
+			},
+			externalLib,
+			"1.4");
+
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.addExternalJars(projectPath, new String[] {externalLib});
+
+		IPath root = env.getPackageFragmentRootPath(projectPath, ""); //$NON-NLS-1$
+		env.setOutputFolder(projectPath, "");
+
+		env.addClass(root, "q", "Y",
+			"package q;\n"+
+			"public class Y {\n" +
+			"  void bar(p.X x) {\n" +
+			"    x.foo();\n" +
+			"  }\n" +
+			"}"
+		);
+
+		fullBuild(projectPath);
+		expectingNoProblems();
+
+		int hits = BinaryTypeCache.INSTANCE.getStatistics()[0];
+		fullBuild(projectPath);
+		expectingNoProblems();
+		assertTrue("p.X should have been answered from the cache", BinaryTypeCache.INSTANCE.getStatistics()[0] > hits);
+	} finally {
+		new File(externalLib).delete();
+		env.removeProject(projectPath);
+	}
+}
+
 /*
  * Ensures that changing a type in an internal ZIP archive and refreshing triggers a rebuild
  */
@@ -408,4 +408,82 @@ public class EfficiencyTests extends BuilderTests {
 		expectingCompiledClasses(new String[]{"p1.X", "p2.Y","p2.Z"}); //$NON-NLS-1$ //$NON-NLS-2$
 		expectingCompilingOrder(new String[]{"p2.Z", "p2.Y", "p1.X" }); //$NON-NLS-1$ //$NON-NLS-2$
 	}
+
+	/*
+	 * The dependents of a changed type are found through an index of the references, which must
+	 * follow the references added, changed & removed by the previous incremental builds.
+	 */
+	public void testDependentsAfterReferenceChanges() throws JavaModelException {
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		fullBuild(projectPath);
+
+		// remove old package fragment root so that names don't collide
+		env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+
+		IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+		env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p1", "C", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class C {}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"import p1.A;\n"+ //$NON-NLS-1$
+			"public class B {\n"+ //$NON-NLS-1$
+			"	A a;\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		fullBuild(projectPath);
+		expectingNoProblems();
+
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p1.A", "p2.B"}); //$NON-NLS-1$ //$NON-NLS-2$
+
+		// B no longer references A
+		env.addClass(root, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class B {}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p2.B"}); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {\n"+ //$NON-NLS-1$
+			"	public void bar() {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p1.A"}); //$NON-NLS-1$
+
+		// C now references A
+		env.addClass(root, "p1", "C", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class C {\n"+ //$NON-NLS-1$
+			"	A a;\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p1.C"}); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p1.A", "p1.C"}); //$NON-NLS-1$ //$NON-NLS-2$
+		expectingNoProblems();
+	}
 }
@@ -43,6 +43,7 @@ import java.io.PrintWriter;
 import java.text.MessageFormat;
 import java.util.Iterator;
 import java.util.List;
+import java.util.zip.ZipFile;
 
 import junit.framework.Test;
 
@@ -57,6 +58,7 @@ import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.util.ManifestAnalyzer;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
 
 @SuppressWarnings({ "unchecked", "rawtypes" })
 public class BatchCompilerTest extends AbstractBatchCompilerTest {
@@ -13032,4 +13034,168 @@ public void test496137f(){
 		"",
 		true);
 }
+// units diet parsed and method bodies parsed on several threads must report the same problems as a sequential parse
+public void testParsingThreads() {
+	String setting = System.getProperty("jdt.compiler.parsingThreads");
+	try {
+		System.setProperty("jdt.compiler.parsingThreads", "4");
+		String[] testFiles = new String[24];
+		StringBuffer commandLine = new StringBuffer();
+		for (int i = 0; i < 12; i++) {
+			testFiles[2 * i] = "X" + i + ".java";
+			testFiles[2 * i + 1] =
+				"public class X" + i + " {\n" +
+				"	int f = " + (i == 7 ? "" : String.valueOf(i)) + ";\n" +
+				"	void foo() {\n" +
+				"		int i = " + (i == 5 ? "" : String.valueOf(i)) + ";\n" +
+				"	}\n" +
+				"}";
+			commandLine.append("\"" + OUTPUT_DIR +  File.separator + "X" + i + ".java\" ");
+		}
+		this.runNegativeTest(
+			testFiles,
+			commandLine
+			+ " -1.5 -nowarn -proceedOnError"
+			+ " -d \"" + OUTPUT_DIR + "\"",
+			"",
+			"----------\n" +
+			"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/X5.java (at line 4)\n" +
+			"	int i = ;\n" +
+			"	      ^\n" +
+			"Syntax error on token \"=\", Expression expected after this token\n" +
+			"----------\n" +
+			"----------\n" +
+			"2. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/X7.java (at line 2)\n" +
+			"	int f = ;\n" +
+			"	      ^\n" +
+			"Syntax error on token \"=\", Expression expected after this token\n" +
+			"----------\n" +
+			"2 problems (2 errors)\n",
+			true);
+	} finally {
+		if (setting == null)
+			System.clearProperty("jdt.compiler.parsingThreads");
+		else
+			System.setProperty("jdt.compiler.parsingThreads", setting);
+	}
+}
+// white-box test for internal API
+// jars opened by several classpaths are shared until changed on disk
+public void test_batch_classpath_sharedArchive() throws IOException {
+	String libPath = OUTPUT_DIR + File.separator + "shared.jar";
+	Util.createJar(
+		new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {}\n"
+		},
+		libPath,
+		JavaCore.VERSION_1_5);
+	File lib = new File(libPath);
+	ClasspathJar first = new ClasspathJar(lib, true, null, null);
+	ClasspathJar second = new ClasspathJar(lib, true, null, null);
+	try {
+		first.initialize();
+		int hits = ZipFilePool.INSTANCE.getStatistics()[0];
+		second.initialize();
+		assertEquals("archive should be shared", hits + 1, ZipFilePool.INSTANCE.getStatistics()[0]);
+		assertTrue("missing package", first.isPackage("p"));
+		assertTrue("missing package", second.isPackage("p"));
+		assertFalse("unexpected package", second.isPackage("q"));
+		assertNotNull("missing type", first.findClass("X".toCharArray(), "p", "p/X.class"));
+		assertNotNull("missing type", second.findClass("X".toCharArray(), "p", "p/X.class"));
+		assertNull("unexpected type", second.findClass("Y".toCharArray(), "p", "p/Y.class"));
+	} finally {
+		first.reset();
+		second.reset();
+	}
+
+	Util.createJar(
+		new String[] {
+			"q/Y.java",
+			"package q;\n" +
+			"public class Y {}\n"
+		},
+		libPath,
+		JavaCore.VERSION_1_5);
+	lib.setLastModified(lib.lastModified() + 2000); // make sure the change is noticed
+	ClasspathJar third = new ClasspathJar(lib, true, null, null);
+	try {
+		third.initialize();
+		assertFalse("stale package", third.isPackage("p"));
+		assertNotNull("missing type", third.findClass("Y".toCharArray(), "q", "q/Y.class"));
+	} finally {
+		third.reset();
+		ZipFilePool.INSTANCE.closeIdleArchives();
+	}
+}
+// white-box test for internal API
+// shared jars are released through their zip file and closed once idle for too long
+public void test_batch_classpath_expiredArchive() throws IOException, InterruptedException {
+	String libPath = OUTPUT_DIR + File.separator + "expired.jar";
+	Util.createJar(
+		new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {}\n"
+		},
+		libPath,
+		JavaCore.VERSION_1_5);
+	File lib = new File(libPath);
+	long timeout = ZipFilePool.IDLE_TIMEOUT;
+	try {
+		ZipFile zipFile = ZipFilePool.INSTANCE.acquire(lib).zipFile;
+		assertTrue("should be pooled", ZipFilePool.INSTANCE.release(zipFile));
+		int hits = ZipFilePool.INSTANCE.getStatistics()[0];
+		ZipFilePool.INSTANCE.release(ZipFilePool.INSTANCE.acquire(lib));
+		assertEquals("idle archive should be reused", hits + 1, ZipFilePool.INSTANCE.getStatistics()[0]);
+
+		ZipFilePool.IDLE_TIMEOUT = 0;
+		Thread.sleep(10);
+		ZipFilePool.Archive archive = ZipFilePool.INSTANCE.acquire(lib);
+		assertNotSame("expired archive should be closed", zipFile, archive.zipFile);
+		try {
+			zipFile.size();
+			fail("expired archive should be closed");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		ZipFilePool.INSTANCE.release(archive);
+		ZipFile notPooled = new ZipFile(lib);
+		try {
+			assertFalse("should not be pooled", ZipFilePool.INSTANCE.release(notPooled));
+		} finally {
+			notPooled.close();
+		}
+	} finally {
+		ZipFilePool.IDLE_TIMEOUT = timeout;
+		ZipFilePool.INSTANCE.closeIdleArchives();
+	}
+}
+// jars are not left open once a batch compilation is done
+public void test_batch_classpath_archivesClosed() throws IOException {
+	String libPath = OUTPUT_DIR + File.separator + "closed.jar";
+	Util.createJar(
+		new String[] {
+			"p/Z.java",
+			"package p;\n" +
+			"public class Z {}\n"
+		},
+		libPath,
+		JavaCore.VERSION_1_5);
+	this.runConformTest(
+		new String[] {
+			"X.java",
+			"public class X {\n" +
+			"  p.Z z;\n" +
+			"}",
+		},
+		"\"" + OUTPUT_DIR +  File.separator + "X.java\""
+		+ " -1.5 -cp \"" + libPath + "\""
+		+ " -d \"" + OUTPUT_DIR + "\"",
+		"",
+		"",
+		false);
+	assertFalse("archive left open", ZipFilePool.INSTANCE.isOpen(new File(libPath)));
+}
 }
@@ -14,8 +14,12 @@ package org.eclipse.jdt.core.tests.compiler.regression;
 import java.util.Map;
 
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.compiler.ASTVisitor;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.lookup.CompilationUnitScope;
+import org.eclipse.jdt.internal.compiler.lookup.InferenceSolutionCache;
 
 import junit.framework.Test;
 
@@ -8200,4 +8204,88 @@ public void testBug508834_comment0() {
 			"Type safety: The expression of type Function needs unchecked conversion to conform to Function<String,String>\n" + 
 			"----------\n");
 	}
+
+	// invocations of the same generic method with the same argument types share the solution of their inference
+	public void testSharedInferenceSolutions() {
+		String[] testFiles = new String[] {
+			"X.java",
+			"import java.util.*;\n" +
+			"import java.util.function.*;\n" +
+			"import java.util.stream.*;\n" +
+			"public class X {\n" +
+			"	static <T> T id(T t) { return t; }\n" +
+			"	static <T extends Comparable<? super T>> T max(T a, T b) { return a.compareTo(b) >= 0 ? a : b; }\n" +
+			"	static <T> List<T> single(T t) { return Collections.singletonList(t); }\n" +
+			"	static void run(Function<String, Integer> f) { System.out.print(\"F\" + f.apply(\"abc\")); }\n" +
+			"	static void run(ToIntFunction<String> f) { System.out.print(\"T\" + f.applyAsInt(\"abc\")); }\n" +
+			"	public static void main(String[] args) {\n" +
+			"		System.out.print(max(id(\"a\").length(), id(2)) + max(1, 2).intValue());\n" +
+			"		run((String s) -> max(id(s).length(), single(s).size()) + single(id(s)).get(0).length());\n" +
+			"		Optional<String> o = Optional.of(\"x\").map(s -> id(s) + max(\"a\", id(\"b\")) + single(s).get(0));\n" +
+			"		System.out.print(o.get());\n" +
+			"		Comparator<String> c = Comparator.comparing(s -> id(s).length());\n" +
+			"		System.out.print(Stream.of(\"ccc\", \"a\", \"bb\").sorted(c.thenComparing(s -> max(s, id(\"b\")))).collect(Collectors.joining(\",\")));\n" +
+			"	}\n" +
+			"}\n"
+		};
+		runConformTest(testFiles, "4T6xbxa,bb,ccc");
+
+		final int[] hits = new int[1];
+		ASTVisitor hitCounter = new ASTVisitor() {
+			public boolean visit(CompilationUnitDeclaration unit, CompilationUnitScope scope) {
+				hits[0] = scope.environment().inferenceSolutions.hits;
+				return false;
+			}
+		};
+		runConformTest(testFiles, hitCounter);
+		assertTrue("Expected the inference solutions to be reused", hits[0] > 0);
+
+		boolean enabled = InferenceSolutionCache.ENABLED;
+		try {
+			InferenceSolutionCache.ENABLED = false;
+			runConformTest(testFiles, "4T6xbxa,bb,ccc");
+			runConformTest(testFiles, hitCounter);
+			assertEquals("Unexpected reuse of inference solutions", 0, hits[0]);
+		} finally {
+			InferenceSolutionCache.ENABLED = enabled;
+		}
+	}
+
+	// the problems of an inference relying on unchecked conversion are reported at each invocation
+	public void testSharedInferenceSolutions_unchecked() {
+		runNegativeTest(
+			new String[] {
+				"X.java",
+				"import java.util.*;\n" +
+				"public class X {\n" +
+				"	static <T> T first(List<T> list) { return list.get(0); }\n" +
+				"	@SuppressWarnings(\"rawtypes\")\n" +
+				"	void test(List raw) {\n" +
+				"		first(raw).toString();\n" +
+				"		first(raw).toString();\n" +
+				"	}\n" +
+				"}\n"
+			},
+			"----------\n" + 
+			"1. WARNING in X.java (at line 6)\n" + 
+			"	first(raw).toString();\n" + 
+			"	^^^^^^^^^^\n" + 
+			"Type safety: Unchecked invocation first(List) of the generic method first(List<T>) of type X\n" + 
+			"----------\n" + 
+			"2. WARNING in X.java (at line 6)\n" + 
+			"	first(raw).toString();\n" + 
+			"	      ^^^\n" + 
+			"Type safety: The expression of type List needs unchecked conversion to conform to List<Object>\n" + 
+			"----------\n" + 
+			"3. WARNING in X.java (at line 7)\n" + 
+			"	first(raw).toString();\n" + 
+			"	^^^^^^^^^^\n" + 
+			"Type safety: Unchecked invocation first(List) of the generic method first(List<T>) of type X\n" + 
+			"----------\n" + 
+			"4. WARNING in X.java (at line 7)\n" + 
+			"	first(raw).toString();\n" + 
+			"	      ^^^\n" + 
+			"Type safety: The expression of type List needs unchecked conversion to conform to List<Object>\n" + 
+			"----------\n");
+	}
 }
@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.dom;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -96,6 +98,7 @@ import org.eclipse.jdt.core.dom.SuperFieldAccess;
 import org.eclipse.jdt.core.dom.SuperMethodInvocation;
 import org.eclipse.jdt.core.dom.SwitchCase;
 import org.eclipse.jdt.core.dom.SwitchStatement;
+import org.eclipse.jdt.core.dom.ThisExpression;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
@@ -10804,4 +10807,152 @@ public class ASTConverterTestAST8_2 extends ConverterTestSetup {
 			sourceUnit.discardWorkingCopy();
 		}
 	}
+	/*
+	 * Ensures that the bindings of the method bodies and initializers are the same when they are resolved on demand.
+	 */
+	public void testLazyBindings() throws JavaModelException, ReflectiveOperationException {
+		ICompilationUnit workingCopy = null;
+		try {
+			workingCopy = getWorkingCopy("/Converter15/src/X.java", true/*resolve*/);
+			workingCopy.getBuffer().setContents(
+				"import java.util.ArrayList;\n" +
+				"import java.util.List;\n" +
+				"public class X {\n" +
+				"	static ArrayList<String> names;\n" +
+				"	static {\n" +
+				"		names = new ArrayList<String>();\n" +
+				"	}\n" +
+				"	int length(final String s) {\n" +
+				"		final List<String> copy = names;\n" +
+				"		Runnable r = new Runnable() {\n" +
+				"			public void run() {\n" +
+				"				copy.add(s);\n" +
+				"			}\n" +
+				"		};\n" +
+				"		r.run();\n" +
+				"		return s.length();\n" +
+				"	}\n" +
+				"	class Y {\n" +
+				"		String first() {\n" +
+				"			return names.size() == 0 ? null : names.get(0);\n" +
+				"		}\n" +
+				"	}\n" +
+				"}");
+			final StringBuffer eager = new StringBuffer();
+			final StringBuffer lazy = new StringBuffer();
+			ASTParser parser = ASTParser.newParser(AST.JLS8);
+			parser.setSource(workingCopy);
+			parser.setResolveBindings(true);
+			CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+			unit.accept(new ASTVisitor() {
+				public boolean visit(SimpleName node) {
+					IBinding binding = node.resolveBinding();
+					eager.append(node.getIdentifier()).append('=').append(binding == null ? null : binding.getKey()).append('\n');
+					return true;
+				}
+			});
+			assertEquals("Unexpected unresolved bodies", -1, countUnresolvedBodies(unit));
+			parser.setSource(workingCopy);
+			parser.setResolveBindings(true);
+			parser.setLazyBindings(true);
+			unit = (CompilationUnit) parser.createAST(null);
+			// the static initializer, length(String) and first()
+			assertEquals("Unexpected unresolved bodies", 3, countUnresolvedBodies(unit));
+			TypeDeclaration y = ((TypeDeclaration) unit.types().get(0)).getTypes()[0];
+			ReturnStatement statement = (ReturnStatement) y.getMethods()[0].getBody().statements().get(0);
+			InfixExpression condition = (InfixExpression) ((ConditionalExpression) statement.getExpression()).getExpression();
+			assertNotNull("Unresolved name", ((MethodInvocation) condition.getLeftOperand()).getName().resolveBinding());
+			assertEquals("Unexpected unresolved bodies", 2, countUnresolvedBodies(unit));
+			unit.accept(new ASTVisitor() {
+				public boolean visit(SimpleName node) {
+					IBinding binding = node.resolveBinding();
+					lazy.append(node.getIdentifier()).append('=').append(binding == null ? null : binding.getKey()).append('\n');
+					return true;
+				}
+			});
+			assertEquals("Unexpected bindings", eager.toString(), lazy.toString());
+			assertEquals("Unresolved names", -1, lazy.indexOf("=null"));
+			assertEquals("Unexpected unresolved bodies", 0, countUnresolvedBodies(unit));
+		} finally {
+			if (workingCopy != null) {
+				workingCopy.discardWorkingCopy();
+			}
+		}
+	}
+	/*
+	 * Ensures that this expressions and qualified names inside an anonymous type are resolved
+	 * the same way when the bindings of the method bodies are resolved on demand.
+	 */
+	public void testLazyBindings2() throws JavaModelException, ReflectiveOperationException {
+		ICompilationUnit workingCopy = null;
+		try {
+			workingCopy = getWorkingCopy("/Converter15/src/X.java", true/*resolve*/);
+			workingCopy.getBuffer().setContents(
+				"public class X {\n" +
+				"	int size;\n" +
+				"	Runnable foo() {\n" +
+				"		return new Runnable() {\n" +
+				"			Object self;\n" +
+				"			public void run() {\n" +
+				"				self = this;\n" +
+				"				java.util.Collections.EMPTY_LIST.size();\n" +
+				"				X.this.size = this.hashCode();\n" +
+				"			}\n" +
+				"		};\n" +
+				"	}\n" +
+				"}");
+			ASTParser parser = ASTParser.newParser(AST.JLS8);
+			parser.setSource(workingCopy);
+			parser.setResolveBindings(true);
+			String eager = resolveNamesAndThisExpressions((CompilationUnit) parser.createAST(null));
+			parser.setSource(workingCopy);
+			parser.setResolveBindings(true);
+			parser.setLazyBindings(true);
+			CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+			// the anonymous type is resolved along with foo()
+			assertEquals("Unexpected unresolved bodies", 1, countUnresolvedBodies(unit));
+			String lazy = resolveNamesAndThisExpressions(unit);
+			assertEquals("Unexpected bindings", eager, lazy);
+			assertEquals("Unresolved nodes", -1, lazy.indexOf("=null"));
+			assertEquals("Unexpected unresolved bodies", 0, countUnresolvedBodies(unit));
+		} finally {
+			if (workingCopy != null) {
+				workingCopy.discardWorkingCopy();
+			}
+		}
+	}
+	/*
+	 * Answers the number of method bodies and initializers of the given unit whose statements are not resolved yet,
+	 * or -1 if they were all resolved along with the unit.
+	 */
+	private static int countUnresolvedBodies(CompilationUnit unit) throws ReflectiveOperationException {
+		Method getBindingResolver = AST.class.getDeclaredMethod("getBindingResolver");
+		getBindingResolver.setAccessible(true);
+		Object resolver = getBindingResolver.invoke(unit.getAST());
+		Field unresolvedBodies = resolver.getClass().getDeclaredField("unresolvedBodies");
+		unresolvedBodies.setAccessible(true);
+		Set bodies = (Set) unresolvedBodies.get(resolver);
+		return bodies == null ? -1 : bodies.size();
+	}
+	private String resolveNamesAndThisExpressions(CompilationUnit unit) {
+		final StringBuffer buffer = new StringBuffer();
+		unit.accept(new ASTVisitor() {
+			public boolean visit(QualifiedName node) {
+				IBinding binding = node.resolveBinding();
+				buffer.append(node).append('=').append(binding == null ? null : binding.getKey()).append('\n');
+				return true;
+			}
+			public boolean visit(SimpleName node) {
+				IBinding binding = node.resolveBinding();
+				buffer.append(node).append('=').append(binding == null ? null : binding.getKey()).append('\n');
+				return true;
+			}
+			public boolean visit(ThisExpression node) {
+				ITypeBinding binding = node.resolveTypeBinding();
+				buffer.append(node).append('=').append(binding == null ? null : binding.getKey()).append('\n');
+				return true;
+			}
+		});
+		return buffer.toString();
+	}
 }
@@ -11,12 +11,14 @@
 package org.eclipse.jdt.core.tests.dom;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 
 import junit.framework.Test;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.BindingKey;
+import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IProblemRequestor;
@@ -28,6 +30,7 @@ import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
@@ -2283,4 +2286,83 @@ public void test082() throws CoreException, IOException {
 					requestor.asts
 				);
 	}
+
+	/*
+	 * Ensures that the ASTs resolved on several threads have the same bindings as when resolved on a single thread.
+	 */
+	public void testParallelResolution() throws CoreException, ReflectiveOperationException {
+		this.workingCopies = createWorkingCopies(new String[] {
+			"/P/p1/X.java",
+			"package p1;\n" +
+			"public class X extends Y {\n" +
+			"}",
+			"/P/p1/Y.java",
+			"package p1;\n" +
+			"import p2.Z;\n" +
+			"public class Y extends Z<String> {\n" +
+			"}",
+			"/P/p2/Z.java",
+			"package p2;\n" +
+			"public class Z<T> extends W {\n" +
+			"}",
+			"/P/p2/W.java",
+			"package p2;\n" +
+			"public class W {\n" +
+			"}",
+			"/P/p2/V.java",
+			"package p2;\n" +
+			"public class V extends p1.X {\n" +
+			"}",
+		});
+		TestASTRequestor requestor = new TestASTRequestor();
+		resolveASTs(this.workingCopies, requestor);
+		String expected = getTypeAndSuperclassKeys(requestor.asts);
+
+		// the resolver is internal to the DOM package
+		Field resolverThreads = Class.forName("org.eclipse.jdt.core.dom.CompilationUnitResolver").getDeclaredField("RESOLVER_THREADS");
+		resolverThreads.setAccessible(true);
+		int threads = resolverThreads.getInt(null);
+		resolverThreads.setInt(null, 3);
+		try {
+			requestor = new TestASTRequestor();
+			resolveASTs(this.workingCopies, requestor);
+		} finally {
+			resolverThreads.setInt(null, threads);
+		}
+		assertEquals("Unexpected number of ASTs", this.workingCopies.length, requestor.asts.size());
+		assertEquals("Unexpected bindings", expected, getTypeAndSuperclassKeys(requestor.asts));
+	}
+
+	private String getTypeAndSuperclassKeys(ArrayList asts) {
+		String[] keys = new String[asts.size()];
+		for (int i = 0; i < keys.length; i++) {
+			TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) asts.get(i)).types().get(0);
+			ITypeBinding binding = type.resolveBinding();
+			keys[i] = binding.getKey() + " extends " + binding.getSuperclass().getKey();
+		}
+		java.util.Arrays.sort(keys);
+		return toString(keys);
+	}
+
+	/*
+	 * Ensures that the types of a library are resolved without opening their class files in the Java model.
+	 */
+	public void testLibraryTypesNotOpened() throws CoreException {
+		IClassFile classFile = getClassFile("P", getExternalJCLPathString("1.5"), "java.lang", "String.class");
+		classFile.close();
+		this.workingCopies = createWorkingCopies(new String[] {
+			"/P/p1/X.java",
+			"package p1;\n" +
+			"public class X {\n" +
+			"  String field;\n" +
+			"}",
+		});
+		TestASTRequestor requestor = new TestASTRequestor();
+		resolveASTs(this.workingCopies, requestor);
+		CompilationUnit unit = (CompilationUnit) requestor.asts.get(0);
+		TypeDeclaration type = (TypeDeclaration) unit.types().get(0);
+		FieldDeclaration field = type.getFields()[0];
+		assertEquals("Unexpected binding", "Ljava/lang/String;", field.getType().resolveBinding().getKey());
+		assertFalse("java.lang.String should not have been opened", classFile.isOpen());
+	}
 }
@@ -14005,4 +14005,22 @@ public void testBug362260g() throws JavaModelException {
 	String input = getCompilationUnit("Formatter", "", "test362260", "G_in.java").getSource();
 	formatSource(input, getCompilationUnit("Formatter", "", "test362260", "G_out.java").getSource());
 }
+/**
+ * Formatting regions of a large compilation unit only formats the members enclosing them.
+ */
+public void testRegionsInLargeCompilationUnit() {
+	StringBuffer source = new StringBuffer("public class A {\n");
+	StringBuffer expected = new StringBuffer("public class A {\n");
+	for (int i = 0; i < 200; i++) {
+		String header = "	/** Method " + i + " */\n	void m" + i + "(int a) {\n";
+		String body = "		int b     =     a + " + i + ";\n		foo(  b  );";
+		boolean inRegion = i == 10 || i == 150 || i == 151;
+		source.append(header).append(inRegion ? "[#" + body + "#]" : body).append("\n	}\n\n");
+		expected.append(header).append(inRegion ? "		int b = a + " + i + ";\n		foo(b);" : body).append("\n	}\n\n");
+	}
+	// a syntax error outside of the regions prevents formatting the whole unit, so only formatting the members can work
+	source.append("	void foo(int i) {}\n\n	void broken() {\n		int b = ;\n	}\n}\n");
+	expected.append("	void foo(int i) {}\n\n	void broken() {\n		int b = ;\n	}\n}\n");
+	formatSource(source.toString(), expected.toString());
+}
 }
@@ -6489,4 +6489,49 @@ public void test479656() throws Exception {
 		deleteProject("P");
 	}
 }
+// type proposals come from the type name tables of the indexes, which must follow the changes of the project
+public void testTypeNameTableUpdates() throws Exception {
+	try {
+		IJavaProject p = createJavaProject("P", new String[] {"src"}, new String[]{"JCL_LIB"}, "bin");
+		createFolder("/P/src/p");
+		createFile(
+			"/P/src/p/Zork1.java",
+			"package p;\n" +
+			"public class Zork1 {\n" +
+			"}");
+		createFile(
+			"/P/src/p/Test.java",
+			"package p;\n" +
+			"public class Test {\n" +
+			"	Zor\n" +
+			"}");
+		refresh(p);
+		waitUntilIndexesReady();
+		ICompilationUnit cu = getCompilationUnit("P", "src", "p", "Test.java");
+		String source = cu.getSource();
+		int cursorLocation = source.lastIndexOf("Zor") + "Zor".length();
+
+		CompletionTestsRequestor2 requestor = new CompletionTestsRequestor2(true);
+		cu.codeComplete(cursorLocation, requestor);
+		String results = requestor.getResults();
+		assertTrue("Should propose Zork1: " + results, results.indexOf("Zork1[TYPE_REF]") != -1);
+		assertTrue("Should not propose Zork2: " + results, results.indexOf("Zork2[TYPE_REF]") == -1);
+
+		createFile(
+			"/P/src/p/Zork2.java",
+			"package p;\n" +
+			"public class Zork2 {\n" +
+			"}");
+		deleteResource(getFile("/P/src/p/Zork1.java"));
+		waitUntilIndexesReady();
+
+		requestor = new CompletionTestsRequestor2(true);
+		cu.codeComplete(cursorLocation, requestor);
+		results = requestor.getResults();
+		assertTrue("Should not propose Zork1: " + results, results.indexOf("Zork1[TYPE_REF]") == -1);
+		assertTrue("Should propose Zork2: " + results, results.indexOf("Zork2[TYPE_REF]") != -1);
+	} finally {
+		deleteProject("P");
+	}
+}
 }
@@ -13,6 +13,7 @@ package org.eclipse.jdt.core.tests.model;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -74,6 +75,8 @@ import org.eclipse.jdt.internal.core.ClassFile;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.SourceMethod;
 import org.eclipse.jdt.internal.core.index.DiskIndex;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.FileIndexLocation;
 import org.eclipse.jdt.internal.core.index.Index;
 import org.eclipse.jdt.internal.core.search.AbstractSearchScope;
 import org.eclipse.jdt.internal.core.search.BasicSearchEngine;
@@ -8766,6 +8769,86 @@ public void testBug181488b() throws CoreException {
 	}
 }
 
+/**
+ * @test Ensure that memory mapped index files answer the same results as streamed ones
+ */
+public void testMappedIndexFiles() throws CoreException {
+	waitUntilIndexesReady();
+	JavaSearchResultCollector streamedCollector = new JavaSearchResultCollector(true);
+	search("*", TYPE, DECLARATIONS, SearchEngine.createWorkspaceScope(), streamedCollector);
+	boolean mapIndexFiles = DiskIndex.MAP_INDEX_FILES;
+	try {
+		DiskIndex.MAP_INDEX_FILES = true;
+		simulateExit();
+		simulateRestart();
+		waitUntilIndexesReady();
+		JavaSearchResultCollector mappedCollector = new JavaSearchResultCollector(true);
+		search("*", TYPE, DECLARATIONS, SearchEngine.createWorkspaceScope(), mappedCollector);
+		assertSearchResults(streamedCollector.toString(), mappedCollector);
+	} finally {
+		DiskIndex.MAP_INDEX_FILES = mapIndexFiles;
+	}
+}
+
+/**
+ * @test Ensure that the queries restricted to the sorted words starting with a prefix find the same words
+ */
+public void testIndexQueriesOnSortedWords() throws IOException {
+	File indexFile = new File(getExternalPath() + "sortedWords.index");
+	try {
+		Index index = new Index(new FileIndexLocation(indexFile), "sortedWords", false);
+		for (int i = 0; i < 300; i++) {
+			String documentName = "p/X" + i + ".java";
+			index.addIndexEntry(IIndexConstants.TYPE_DECL, "Foo".toCharArray(), documentName);
+			index.addIndexEntry(IIndexConstants.TYPE_DECL, ("FooBar" + (i % 3)).toCharArray(), documentName);
+			index.addIndexEntry(IIndexConstants.TYPE_DECL, ("X" + i).toCharArray(), documentName);
+		}
+		index.addIndexEntry(IIndexConstants.TYPE_DECL, "Fo".toCharArray(), "p/Fo.java");
+		index.save();
+		assertEquals("Unexpected words",
+			"Foo (300)\n" +
+			"FooBar0 (100)\n" +
+			"FooBar1 (100)\n" +
+			"FooBar2 (100)",
+			queryIndex(index, "Foo", SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE));
+		assertEquals("Unexpected words",
+			"FooBar0 (100)\n" +
+			"FooBar1 (100)\n" +
+			"FooBar2 (100)",
+			queryIndex(index, "FB", SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE));
+		assertEquals("Unexpected words",
+			"FooBar0 (100)\n" +
+			"FooBar1 (100)\n" +
+			"FooBar2 (100)",
+			queryIndex(index, "FooBar?", SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE));
+		assertEquals("Unexpected words",
+			"FooBar1 (100)",
+			queryIndex(index, "*Bar1", SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE));
+		assertEquals("Unexpected words",
+			"FooBar0 (100)\n" +
+			"FooBar1 (100)\n" +
+			"FooBar2 (100)",
+			queryIndex(index, "foobar", SearchPattern.R_PREFIX_MATCH));
+	} finally {
+		indexFile.delete();
+	}
+}
+private String queryIndex(Index index, String key, int matchRule) throws IOException {
+	index.startQuery();
+	try {
+		EntryResult[] entries = index.query(new char[][] {IIndexConstants.TYPE_DECL}, key.toCharArray(), matchRule);
+		if (entries == null)
+			return "";
+		String[] words = new String[entries.length];
+		for (int i = 0; i < entries.length; i++)
+			words[i] = new String(entries[i].getWord()) + " (" + entries[i].getDocumentNames(index).length + ")";
+		Arrays.sort(words);
+		return Util.toString(words, false);
+	} finally {
+		index.stopQuery();
+	}
+}
+
 /**
  * @bug 185452 [search] for all packages seems hung
  * @test Ensure that all package declarations are found only once
@@ -14,6 +14,7 @@ package org.eclipse.jdt.core.tests.model;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 
 import junit.framework.Test;
@@ -24,6 +25,7 @@ import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.core.tests.util.Util;
 import org.eclipse.jdt.internal.core.JavaModelStatus;
+import org.eclipse.jdt.internal.core.search.matching.MatchLocator;
 
 /**
  * Tests the Java search engine where results are JavaElements and source positions.
@@ -4494,4 +4496,37 @@ public void testBug383908() throws CoreException {
 	}
 }
 
+/**
+ * Locating the matches of the possible matches on several threads reports the same matches
+ * in the same order as locating them sequentially.
+ */
+public void testParallelMatchLocation() throws CoreException {
+	int maxAtOnce = MatchLocator.MAX_AT_ONCE;
+	int threads = MatchLocator.LOCATOR_THREADS;
+	try {
+		// small batches, so that several of them are located at once
+		MatchLocator.MAX_AT_ONCE = 5;
+		MatchLocator.LOCATOR_THREADS = 1;
+		final HashSet<IResource> resources = new HashSet<>();
+		this.resultCollector = new JavaSearchResultCollector() {
+			public void acceptSearchMatch(SearchMatch searchMatch) throws CoreException {
+				resources.add(searchMatch.getResource());
+				super.acceptSearchMatch(searchMatch);
+			}
+		};
+		search("Object", TYPE, REFERENCES, getJavaSearchScope());
+		String expected = this.resultCollector.toString();
+		assertTrue("Should have matches in several batches", resources.size() > 2 * MatchLocator.MAX_AT_ONCE);
+
+		MatchLocator.LOCATOR_THREADS = 3;
+		this.resultCollector = new JavaSearchResultCollector();
+		search("Object", TYPE, REFERENCES, getJavaSearchScope());
+		// same matches in the same order
+		assertSearchResults(expected, this.resultCollector);
+	} finally {
+		MatchLocator.MAX_AT_ONCE = maxAtOnce;
+		MatchLocator.LOCATOR_THREADS = threads;
+	}
+}
+
 }
@@ -689,4 +689,39 @@ public class OverflowingCacheTests extends ModifyingResourceTests {
 		assertEquals("overflow space incorrect (after flush)", 0, actualOverflow);
 	}
 
+	/**
+	 * Creates an ElementCache of size 500, inserts 500 elements, one of every ten
+	 * having unsaved changes, and trims it to 100 elements. Ensures that the least
+	 * recently used elements which can be closed are removed, and that the lookups
+	 * and the removals are counted.
+	 */
+	public void testElementCacheTrim() {
+		int spaceLimit = 500;
+
+		OverflowingLRUCache cache = new ElementCache(spaceLimit);
+		OverflowingTestOpenable[] openables = new OverflowingTestOpenable[spaceLimit];
+		for (int i = 0; i < spaceLimit; i++) {
+			openables[i] = new OverflowingTestOpenable(new OverflowingTestBuffer(i % 10 == 0, null), cache);
+			cache.put(openables[i], Integer.toString(i));
+		}
+
+		assertTrue("should be trimmed", cache.trimToSize(100));
+		assertEquals("space limit incorrect", spaceLimit, cache.getSpaceLimit());
+		assertEquals("current space incorrect", 100, cache.getCurrentSpace());
+		assertEquals("overflow space incorrect", 0, cache.getOverflow());
+
+		// the 50 openables with unsaved changes stay in the cache, along with the 50 most recent other ones
+		for (int i = 0; i < spaceLimit; i++) {
+			Object value = cache.get(openables[i]);
+			if (i % 10 == 0 || i >= 445)
+				assertEquals("wrong value (" + i + ")", Integer.toString(i), value);
+			else
+				assertEquals("entry should not be present (" + i + ")", null, value);
+		}
+
+		int[] statistics = cache.getStatistics();
+		assertEquals("wrong hits", 100, statistics[0]);
+		assertEquals("wrong misses", 400, statistics[1]);
+		assertEquals("wrong evictions", 400, statistics[2]);
+	}
 }
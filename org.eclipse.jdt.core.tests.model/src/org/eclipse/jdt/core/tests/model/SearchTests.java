@@ -29,6 +29,7 @@ import org.eclipse.jdt.internal.core.LocalVariable;
 import org.eclipse.jdt.internal.core.search.BasicSearchEngine;
 import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
 import org.eclipse.jdt.internal.core.search.processing.IJob;
+import org.eclipse.jdt.internal.core.search.processing.JobManager;
 
 import junit.framework.Test;
 
@@ -241,6 +242,20 @@ public class SearchTests extends ModifyingResourceTests implements IJavaSearchCo
 			JavaModelManager.getIndexManager().enable();
 		}
 	}
+	static class KeyedWaitingJob extends WaitingJob {
+		private Object key;
+		volatile boolean started;
+		KeyedWaitingJob(Object key) {
+			this.key = key;
+		}
+		public boolean execute(IProgressMonitor progress) {
+			this.started = true;
+			return super.execute(progress);
+		}
+		public Object getSchedulingKey() {
+			return this.key;
+		}
+	}
 static {
 	//TESTS_PREFIX = "testSearchPatternValidateMatchRule";
 }
@@ -570,6 +585,44 @@ public void testConcurrentJob() throws CoreException, InterruptedException, IOEx
  * from index
  * (regression test for bug 32607 Removing outer folder removes nested folder's cus from index)
  */
+/*
+ * Ensure that a job manager with several worker threads runs the jobs of different scheduling keys concurrently,
+ * while the jobs of a same key still run in the order they were requested.
+ */
+public void testConcurrentJobManager() throws TimeOutException {
+	JobManager manager = new JobManager() {
+		public String processName() {
+			return "SearchTests.ConcurrentJobManager";
+		}
+		protected int workerCount() {
+			return 2;
+		}
+	};
+	KeyedWaitingJob first = new KeyedWaitingJob("key1");
+	KeyedWaitingJob second = new KeyedWaitingJob("key1");
+	KeyedWaitingJob other = new KeyedWaitingJob("key2");
+	manager.reset();
+	try {
+		manager.request(first);
+		manager.request(second);
+		manager.request(other);
+
+		// the job of the other key must not wait for the first one
+		first.startingSem.acquire(30000);
+		other.startingSem.acquire(30000);
+		assertFalse("Job of the same key should not have started", second.started);
+		assertEquals("Unexpected awaiting jobs count", 3, manager.awaitingJobsCount());
+
+		first.runningSem.release();
+		second.startingSem.acquire(30000);
+	} finally {
+		first.runningSem.release();
+		second.runningSem.release();
+		other.runningSem.release();
+		manager.shutdown();
+	}
+	assertEquals("Unexpected awaiting jobs count", 0, manager.awaitingJobsCount());
+}
 public void testRemoveOuterFolder() throws CoreException {
 	try {
 		// setup: one cu in a nested source folder
@@ -735,6 +735,36 @@ public void testEditExtendsSourceType() throws CoreException {
 		h.removeTypeHierarchyChangedListener(this);
 	}
 }
+/**
+ * When the extends clause of a source type in a hierarchy is edited, the refreshed hierarchy
+ * should be the same as a new one.
+ */
+public void testRefreshAfterEditExtendsSourceType() throws CoreException {
+	IJavaProject javaProject = getJavaProject("TypeHierarchyNotification");
+	ICompilationUnit cu = getCompilationUnit("TypeHierarchyNotification", "src", "p", "X.java");
+	IType type= cu.getType("X");
+	ITypeHierarchy h = type.newTypeHierarchy(javaProject, null);
+	h.addTypeHierarchyChangedListener(this);
+
+	try {
+		// change the superclass to a.A
+		changeSuper(cu, "B", "a.A");
+		assertOneChange(h);
+		h.refresh(null);
+		assertEquals("Unexpected superclass", "A", h.getSuperclass(type).getElementName());
+		assertFalse("B should no longer be in the hierarchy", h.contains(getCompilationUnit("TypeHierarchyNotification", "src", "b", "B.java").getType("B")));
+		assertHierarchyEquals(type.newTypeHierarchy(javaProject, null).toString(), h);
+
+		// change the superclass back to B
+		reset();
+		changeSuper(cu, "a.A", "B");
+		assertOneChange(h);
+		h.refresh(null);
+		assertHierarchyEquals(type.newTypeHierarchy(javaProject, null).toString(), h);
+	} finally {
+		h.removeTypeHierarchyChangedListener(this);
+	}
+}
 public void testAddDependentProject() throws CoreException {
 	ITypeHierarchy h = null;
 	try {
@@ -41,6 +41,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.tests.model.SearchTests.WaitingJob;
 import org.eclipse.jdt.core.tests.model.Semaphore.TimeOutException;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.hierarchy.IndexBasedHierarchyBuilder;
 
 @SuppressWarnings("rawtypes")
 public class TypeHierarchyTests extends ModifyingResourceTests {
@@ -686,6 +687,37 @@ public void testEfficiencyMultipleProjects() throws CoreException {
 		deleteProjects(new String[] {"P1", "P2", "P3"});
 	}
 }
+/*
+ * Ensures that resolving the potential subtypes of several projects and source folders on several threads
+ * gives the same hierarchy as resolving them sequentially.
+ */
+public void testParallelResolution() throws CoreException {
+	int threads = IndexBasedHierarchyBuilder.RESOLVER_THREADS;
+	try {
+		createJavaProject("P1", new String[] {""}, new String[] {"JCL_LIB"}, "");
+		createJavaProject("P2", new String[] {"src1", "src2"}, new String[] {"JCL_LIB"}, new String[] {"/P1"}, "bin");
+		createJavaProject("P3", new String[] {""}, new String[] {"JCL_LIB"}, new String[] {"/P1", "/P2"}, "");
+		createFile("/P1/I.java", "public interface I {}");
+		createFile("/P1/X.java", "public class X implements I {}");
+		createFile("/P2/src1/Y.java", "public class Y extends X {}");
+		createFile("/P2/src2/Z.java", "public class Z extends Y {}");
+		createFile("/P2/src2/J.java", "public interface J extends I {}");
+		createFile("/P3/W.java", "public class W extends Z implements J {}");
+		createFile("/P3/V.java", "public class V implements I {\n  Object o = new X() {};\n}");
+		waitUntilIndexesReady();
+		IType type = getCompilationUnit("/P1/I.java").getType("I");
+
+		IndexBasedHierarchyBuilder.RESOLVER_THREADS = 1;
+		String expected = type.newTypeHierarchy(null).toString();
+		IndexBasedHierarchyBuilder.RESOLVER_THREADS = 4;
+		ITypeHierarchy hierarchy = type.newTypeHierarchy(null);
+		assertHierarchyEquals(expected, hierarchy);
+		assertTrue("W should be a subtype", hierarchy.contains(getCompilationUnit("/P3/W.java").getType("W")));
+	} finally {
+		IndexBasedHierarchyBuilder.RESOLVER_THREADS = threads;
+		deleteProjects(new String[] {"P1", "P2", "P3"});
+	}
+}
 /*
  * Ensures that a hierarchy can be created with a potential subtype in an empty primary working copy
  * (regression test for bug 65677 Creating hierarchy failed. See log for details. 0)
@@ -17,10 +17,13 @@ import java.util.Random;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.tests.nd.util.BaseTestCase;
+import org.eclipse.jdt.internal.core.nd.IReader;
 import org.eclipse.jdt.internal.core.nd.Nd;
+import org.eclipse.jdt.internal.core.nd.NdNodeTypeRegistry;
 import org.eclipse.jdt.internal.core.nd.db.BTree;
 import org.eclipse.jdt.internal.core.nd.db.ChunkCache;
 import org.eclipse.jdt.internal.core.nd.db.Database;
+import org.eclipse.jdt.internal.core.nd.db.Database.ChunkStats;
 import org.eclipse.jdt.internal.core.nd.db.IBTreeComparator;
 import org.eclipse.jdt.internal.core.nd.db.IBTreeVisitor;
 import org.eclipse.jdt.internal.core.nd.db.IString;
@@ -140,6 +143,74 @@ public class DatabaseTest extends BaseTestCase {
 		assertEquals(mem2, mem1);
 	}
 
+	public void testChunkStats() throws Exception {
+		final int cacheLength = 4;
+		Nd smallCacheNd = new Nd(DatabaseTestUtil.getTempDbName(getName()),
+				new ChunkCache((long) Database.CHUNK_SIZE * cacheLength), new NdNodeTypeRegistry<>(), 0, 100,
+				DatabaseTestUtil.CURRENT_VERSION);
+		Database database = smallCacheNd.getDB();
+		database.setExclusiveLock();
+		try {
+			long[] records = new long[16];
+			for (int i = 0; i < records.length; i++) {
+				records[i] = database.malloc(Database.MAX_SINGLE_BLOCK_MALLOC_SIZE, Database.POOL_MISC);
+				database.putInt(records[i], i);
+			}
+			database.flush();
+			database.resetCacheCounters();
+
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(i, database.getInt(records[i]));
+				assertEquals(i, database.getInt(records[i]));
+			}
+
+			ChunkStats stats = database.getChunkStats();
+			assertEquals(2 * records.length, stats.cacheHits + stats.cacheMisses);
+			assertTrue("Expected cache misses: " + stats, stats.cacheMisses >= records.length - cacheLength);
+			assertTrue("Expected chunks to be evicted: " + stats, stats.cacheEvictions >= stats.cacheMisses - cacheLength);
+			assertTrue("Expected evicted chunks to be released: " + stats, stats.chunksInMemory <= cacheLength);
+			assertEquals(stats.cacheHits, database.getCacheHits());
+			assertEquals(stats.cacheMisses, database.getCacheMisses());
+		} finally {
+			DatabaseTestUtil.deleteDatabase(database);
+		}
+	}
+
+	public void testMemoryMappedReadOnlyDatabase() throws Exception {
+		long[] records = new long[16];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = this.db.malloc(Database.MAX_SINGLE_BLOCK_MALLOC_SIZE, Database.POOL_MISC);
+			this.db.putInt(records[i], i);
+			this.db.putLong(records[i] + Database.INT_SIZE, i * 1000000000000L);
+			this.db.putRecPtr(records[i] + Database.INT_SIZE + Database.LONG_SIZE, records[records.length - 1 - i / 2]);
+		}
+		long string = this.db.newString("memory mapped \u00e9\u4e2d").getRecord();
+		this.db.flush();
+
+		Nd mappedNd = new Nd(this.db.getLocation(), new ChunkCache(Database.CHUNK_SIZE * 4),
+				new NdNodeTypeRegistry<>(), 0, 100, DatabaseTestUtil.CURRENT_VERSION, true);
+		Database mapped = mappedNd.getDB();
+		try (IReader reader = mappedNd.acquireReadLock()) {
+			assertTrue("Expected a read-only Nd", mappedNd.isPermanentlyReadOnly());
+			assertTrue("Expected a memory mapped database", mapped.isMemoryMapped());
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(i, mapped.getInt(records[i]));
+				assertEquals(i * 1000000000000L, mapped.getLong(records[i] + Database.INT_SIZE));
+			}
+			for (int i = 0; i < records.length; i++) {
+				assertEquals(this.db.getRecPtr(records[i] + Database.INT_SIZE + Database.LONG_SIZE),
+						mapped.getRecPtr(records[i] + Database.INT_SIZE + Database.LONG_SIZE));
+			}
+			assertEquals("memory mapped \u00e9\u4e2d", mapped.getString(string).getString());
+
+			ChunkStats stats = mapped.getChunkStats();
+			assertEquals("Expected the chunks to be read from the mapping: " + stats, 0, stats.cacheMisses);
+		} finally {
+			mapped.setExclusiveLock();
+			mappedNd.close();
+		}
+	}
+
 	private static class FindVisitor implements IBTreeVisitor {
 		private Database db;
 		private String key;
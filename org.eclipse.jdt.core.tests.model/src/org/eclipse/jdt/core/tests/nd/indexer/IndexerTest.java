@@ -12,6 +12,7 @@ package org.eclipse.jdt.core.tests.nd.indexer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Semaphore;
@@ -31,11 +32,13 @@ import org.eclipse.jdt.core.IParent;
 import org.eclipse.jdt.core.tests.model.AbstractJavaModelTests;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 import org.eclipse.jdt.internal.core.nd.IReader;
+import org.eclipse.jdt.internal.core.nd.Nd;
 import org.eclipse.jdt.internal.core.nd.db.ChunkCache;
 import org.eclipse.jdt.internal.core.nd.db.Database;
 import org.eclipse.jdt.internal.core.nd.indexer.IndexTester;
 import org.eclipse.jdt.internal.core.nd.indexer.Indexer;
 import org.eclipse.jdt.internal.core.nd.java.JavaIndex;
+import org.eclipse.jdt.internal.core.nd.java.NdResourceFile;
 import org.eclipse.jdt.internal.core.nd.java.NdType;
 import org.eclipse.jdt.internal.core.nd.java.NdTypeId;
 import org.eclipse.jdt.internal.core.nd.java.model.BinaryTypeDescriptor;
@@ -216,6 +219,102 @@ public class IndexerTest extends AbstractJavaModelTests {
 		assertTrue("No classes found in the index", foundAtLeastOneClass);
 	}
 
+	/**
+	 * Verifies that the archives read by several threads are written to the index as if they were read one at a time.
+	 */
+	public void testIndexingWithSeveralReaderThreads() throws Exception {
+		IJavaProject javaProject = createJavaProject(PROJECT_NAME, new String[] {"src"}, new String[] {"JCL18_FULL"}, "bin", "1.8", true);
+		for (int i = 0; i < 6; i++) {
+			addLibrary(javaProject, "lib" + i + ".jar", "lib" + i + "src.zip", new String[] {
+					"p" + i + "/X.java",
+					"package p" + i + ";\n" +
+					"public class X {}\n",
+					"p" + i + "/Y.java",
+					"package p" + i + ";\n" +
+					"public class Y extends X {\n" +
+					"    class Inner {}\n" +
+					"}\n",
+				}, "1.8");
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+
+		JavaIndex sequentialIndex = JavaIndexTestUtil.createTempIndex(getName() + "Sequential");
+		int readerThreads = Indexer.READER_THREADS;
+		try {
+			Indexer.READER_THREADS = 1;
+			new Indexer(sequentialIndex.getNd(), root).rescan(SubMonitor.convert(null));
+			Indexer.READER_THREADS = 3;
+			new Indexer(index.getNd(), root).rescan(SubMonitor.convert(null));
+
+			String expected = describeResourceFiles(sequentialIndex);
+			for (int i = 0; i < 6; i++) {
+				assertTrue("lib" + i + ".jar not found in the index", expected.contains("lib" + i + ".jar: "));
+			}
+			assertEquals("Unexpected resource files", expected, describeResourceFiles(index));
+		} finally {
+			Indexer.READER_THREADS = readerThreads;
+			sequentialIndex.getNd().getPath().delete();
+		}
+	}
+
+	/**
+	 * Verifies that a prebuilt index named by {@link JavaIndex#READ_ONLY_INDEX_PROPERTY} is opened read-only and
+	 * mapped into memory, and that the indexer leaves it untouched.
+	 */
+	public void testReadOnlyGlobalIndex() throws Exception {
+		createJavaProject(PROJECT_NAME, new String[] {"src"}, new String[] {"JCL18_FULL"}, "bin", "1.8", true);
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		Nd prebuiltNd = index.getNd();
+		new Indexer(prebuiltNd, root).rescan(SubMonitor.convert(null));
+		prebuiltNd.acquireWriteLock(null);
+		try {
+			prebuiltNd.getDB().flush();
+		} finally {
+			prebuiltNd.releaseWriteLock();
+		}
+		String expected = describeResourceFiles(index);
+		assertFalse("No resource files found in the index", expected.isEmpty());
+
+		String property = System.getProperty(JavaIndex.READ_ONLY_INDEX_PROPERTY);
+		Nd readOnlyNd;
+		try {
+			System.setProperty(JavaIndex.READ_ONLY_INDEX_PROPERTY, prebuiltNd.getPath().getPath());
+			readOnlyNd = JavaIndex.openGlobalNd();
+		} finally {
+			if (property == null) {
+				System.clearProperty(JavaIndex.READ_ONLY_INDEX_PROPERTY);
+			} else {
+				System.setProperty(JavaIndex.READ_ONLY_INDEX_PROPERTY, property);
+			}
+		}
+		try {
+			assertTrue("Expected a read-only index", readOnlyNd.isPermanentlyReadOnly());
+			assertTrue("Expected a memory mapped index", readOnlyNd.getDB().isMemoryMapped());
+			createJavaProject(PROJECT_NAME + "2", new String[] {"src"}, new String[] {"JCL18_LIB"}, "bin", "1.8", true);
+			try {
+				new Indexer(readOnlyNd, root).rescan(SubMonitor.convert(null));
+			} finally {
+				deleteProject(PROJECT_NAME + "2");
+			}
+			assertEquals("Unexpected resource files", expected, describeResourceFiles(JavaIndex.getIndex(readOnlyNd)));
+		} finally {
+			readOnlyNd.getDB().setExclusiveLock();
+			readOnlyNd.close();
+		}
+	}
+
+	private static String describeResourceFiles(JavaIndex javaIndex) {
+		List<String> result = new ArrayList<>();
+		try (IReader reader = javaIndex.getNd().acquireReadLock()) {
+			for (NdResourceFile next : javaIndex.getAllResourceFiles()) {
+				result.add(next.getLocation().getString() + ": " + next.getTypeCount() + " types, done indexing: "
+						+ next.isDoneIndexing());
+			}
+		}
+		Collections.sort(result);
+		return String.join("\n", result);
+	}
+
 	public void testFindTypesBySimpleName() throws CoreException {
 		createJavaProject(PROJECT_NAME, new String[] {"src"}, new String[] {"JCL18_FULL"}, "bin", "1.8", true);
 		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
@@ -37,12 +37,14 @@ import org.eclipse.jdt.internal.compiler.lookup.BinaryTypeBinding.ExternalAnnota
 import org.eclipse.jdt.internal.compiler.util.ManifestAnalyzer;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class ClasspathJar extends ClasspathLocation {
 
 protected File file;
 protected ZipFile zipFile;
+protected ZipFilePool.Archive archive; // shared archive of zipFile
 protected ZipFile annotationZipFile;
 protected boolean closeZipFileAtEnd;
 protected Hashtable packageCache;
@@ -104,6 +106,8 @@ public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageN
 public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageName, String qualifiedBinaryFileName, boolean asBinaryOnly) {
 	if (!isPackage(qualifiedPackageName))
 		return null; // most common case
+	if (this.archive != null && !this.archive.containsEntry(qualifiedBinaryFileName))
+		return null; // avoid looking it up in the zip file
 
 	try {
 		IBinaryType reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
@@ -177,10 +181,13 @@ public char[][][] findTypeNames(String qualifiedPackageName) {
 }
 public void initialize() throws IOException {
 	if (this.zipFile == null) {
-		this.zipFile = new ZipFile(this.file);
+		this.archive = ZipFilePool.INSTANCE.acquire(this.file);
+		this.zipFile = this.archive.zipFile;
 	}
 }
 public boolean isPackage(String qualifiedPackageName) {
+	if (this.archive != null)
+		return this.archive.containsPackage(qualifiedPackageName); // computed once when the archive was opened
 	if (this.packageCache != null)
 		return this.packageCache.containsKey(qualifiedPackageName);
 
@@ -205,7 +212,11 @@ public boolean isPackage(String qualifiedPackageName) {
 }
 public void reset() {
 	if (this.closeZipFileAtEnd) {
-		if (this.zipFile != null) {
+		if (this.archive != null) {
+			ZipFilePool.INSTANCE.release(this.archive);
+			this.archive = null;
+			this.zipFile = null;
+		} else if (this.zipFile != null) {
 			try {
 				this.zipFile.close();
 			} catch(IOException e) {
@@ -94,6 +94,7 @@ import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.compiler.util.Messages;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
 
 public class Main implements ProblemSeverities, SuffixConstants {
 
@@ -1016,6 +1017,13 @@ public class Main implements ProblemSeverities, SuffixConstants {
 								String.valueOf(compilerStats.generateTime),
 								String.valueOf(((int) (compilerStats.generateTime * 1000.0 / time)) / 10.0),
 							}));
+				printlnOut(
+						this.main.bind("compile.inferenceTime", //$NON-NLS-1$
+							new String[] {
+								String.valueOf(compilerStats.inferenceCacheHits),
+								String.valueOf(compilerStats.inferenceCacheMisses),
+								String.valueOf(compilerStats.incorporationTime),
+							}));
 			}
 		}
 
@@ -1770,6 +1778,8 @@ public boolean compile(String[] argv) {
 		this.logger.close();
 		if (this.progress != null)
 			this.progress.done();
+		// the archives stay open across repetitions, but must not be left locked once done
+		ZipFilePool.INSTANCE.closeIdleArchives();
 	}
 	if (this.globalErrorsCount == 0 && (this.progress == null || !this.progress.isCanceled()))
 		return true;
@@ -4251,6 +4261,14 @@ public void performCompilation() {
 	// temporary code to allow the compiler to revert to a single thread
 	String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 	this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	setting = System.getProperty("jdt.compiler.parsingThreads"); //$NON-NLS-1$
+	if (setting != null) {
+		try {
+			this.batchCompiler.parsingThreads = Integer.parseInt(setting);
+		} catch (NumberFormatException e) {
+			// keep the default
+		}
+	}
 
 	if (this.compilerOptions.complianceLevel >= ClassFileConstants.JDK1_6
 			&& this.compilerOptions.processAnnotations) {
@@ -54,6 +54,9 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public int annotationProcessorStartIndex = 0;
 	public ReferenceBinding[] referenceBindings;
 	public boolean useSingleThread = true; // by default the compiler will not use worker threads to read/process/write
+	public int parsingThreads = -1; // threads parsing method bodies ahead of processing when not using a single thread (-1: one per processor, 0: none)
+	ParseTaskManager parseTaskManager;
+	private int parsedAheadIndex;
 
 	// number of initial units parsed at once (-1: none)
 
@@ -572,6 +575,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 							}));
 				}
 			} else {
+				if (getParseTaskManager() != null)
+					this.parsedAheadIndex = startingIndex;
 				processingTask = new ProcessTaskManager(this, startingIndex);
 				int acceptedCount = 0;
 				// process all units (some more could be injected in the loop by the lookup environment)
@@ -643,6 +648,39 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		return null;
 	}
 
+	/*
+	 * Answers the manager parsing units on worker threads, or null if units are parsed on the compiling thread.
+	 */
+	ParseTaskManager getParseTaskManager() {
+		if (this.parseTaskManager == null && !this.useSingleThread) {
+			int threadCount = ParseTaskManager.threadCount(this.parsingThreads);
+			if (threadCount > 0)
+				this.parseTaskManager = new ParseTaskManager(this, threadCount);
+		}
+		return this.parseTaskManager;
+	}
+
+	/*
+	 * Parses the method bodies of the next batch of units on the parsing threads, unless the unit
+	 * at the given index belongs to a batch that was already parsed. Too small batches are left to
+	 * the processing thread.
+	 */
+	void parseMethodBodiesAhead(int index) {
+		if (this.parseTaskManager == null || index < this.parsedAheadIndex)
+			return;
+		CompilationUnitDeclaration[] batch;
+		synchronized (this) {
+			int end = Math.min(this.totalUnits, index + ParseTaskManager.BATCH_SIZE);
+			if (end - index < ParseTaskManager.THRESHOLD)
+				return;
+			System.arraycopy(this.unitsToProcess, index, batch = new CompilationUnitDeclaration[end - index], 0, end - index);
+			this.parsedAheadIndex = end;
+		}
+		long parseStart = System.currentTimeMillis();
+		this.parseTaskManager.parseMethodBodies(batch);
+		this.stats.parseTime += System.currentTimeMillis() - parseStart;
+	}
+
 	/*
 	 * Returns whether the compilation unit at the given index should be
 	 * cleaned up after processing. This basically means whether or not
@@ -789,8 +827,17 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	 *  ->  build compilation unit declarations, their bindings and record their results.
 	 */
 	protected void internalBeginToCompile(ICompilationUnit[] sourceUnits, int maxUnits) {
-		if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD)
+		// parse batches of units on worker threads, then build their bindings in the original order
+		ParseTaskManager parsingTask = maxUnits >= ParseTaskManager.THRESHOLD ? getParseTaskManager() : null;
+		CompilationResult[] unitResults = null;
+		CompilationUnitDeclaration[] parsedUnits = null;
+		int parsedUnitsEnd = 0;
+		if (parsingTask != null) {
+			unitResults = new CompilationResult[maxUnits];
+			parsedUnits = new CompilationUnitDeclaration[maxUnits];
+		} else if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD) {
 			this.parser.readManager = new ReadManager(sourceUnits, maxUnits);
+		}
 
 		// Switch the current policy and compilation result for this unit to the requested one.
 		for (int i = 0; i < maxUnits; i++) {
@@ -807,12 +854,26 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				}
 				// diet parsing for large collection of units
 				CompilationUnitDeclaration parsedUnit;
-				unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
 				long parseStart = System.currentTimeMillis();
-				if (this.totalUnits < this.parseThreshold) {
-					parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
+				if (parsingTask != null) {
+					if (i == parsedUnitsEnd) {
+						parsedUnitsEnd = Math.min(maxUnits, i + ParseTaskManager.BATCH_SIZE);
+						for (int j = i; j < parsedUnitsEnd; j++)
+							unitResults[j] = new CompilationResult(sourceUnits[j], j, maxUnits, this.options.maxProblemsPerUnit);
+						parsingTask.parseUnits(sourceUnits, unitResults, parsedUnits, i, parsedUnitsEnd, this.parseThreshold - this.totalUnits);
+					}
+					unitResult = unitResults[i];
+					unitResults[i] = null;
+					parsingTask.checkParsedUnit(unitResult);
+					parsedUnit = parsedUnits[i];
+					parsedUnits[i] = null;
 				} else {
-					parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
+					unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
+					if (this.totalUnits < this.parseThreshold) {
+						parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
+					} else {
+						parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
+					}
 				}
 				long resolveStart = System.currentTimeMillis();
 				this.stats.parseTime += resolveStart - parseStart;
@@ -850,6 +911,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		this.lookupEnvironment.unitBeingCompleted = unit;
 		long parseStart = System.currentTimeMillis();
 
+		if (this.parseTaskManager != null)
+			this.parseTaskManager.checkMethodBodies(unit);
 		this.parser.getMethodBodies(unit);
 
 		long resolveStart = System.currentTimeMillis();
@@ -975,6 +1038,11 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	}
 
 	public void reset() {
+		if (this.parseTaskManager != null) {
+			this.parseTaskManager.shutdown();
+			this.parseTaskManager = null;
+		}
+		this.lookupEnvironment.inferenceSolutions.addStatisticsTo(this.stats);
 		this.lookupEnvironment.reset();
 		this.parser.scanner.source = null;
 		this.unitsToProcess = null;
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.compiler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+/**
+ * Parses a batch of units on several worker threads, each one owning its own {@link Parser}
+ * and {@link ProblemReporter}. A batch either parses source units into declarations, or fills
+ * in the method bodies of declarations which were diet parsed.
+ * <p>
+ * The calling thread waits until the whole batch has been parsed, so no binding or AST work
+ * runs while the workers are busy. Since each unit is only ever touched by a single worker,
+ * the resulting declarations and their recorded problems are identical to the ones produced
+ * by a sequential parse, whatever the number of threads.
+ * </p>
+ */
+public class ParseTaskManager implements Runnable {
+
+	Compiler compiler;
+	private Parser[] parsers;
+	private int nextParser;
+
+	// current batch of source units to parse
+	private ICompilationUnit[] sourceUnits;
+	private CompilationResult[] results;
+	private CompilationUnitDeclaration[] parsedUnits;
+	private int fullParseEnd;
+
+	// current batch of units whose method bodies must be parsed
+	private CompilationUnitDeclaration[] units;
+
+	private int nextUnit, endUnit;
+
+	// failures are only reported once the unit is actually needed, as a sequential parse would
+	private Map<Object, Throwable> failures;
+
+	public static final int THRESHOLD = 10; // do not bother starting threads for fewer units
+	public static final int BATCH_SIZE = 50; // do not keep too many method bodies in memory
+
+public ParseTaskManager(Compiler compiler, int threadCount) {
+	this.compiler = compiler;
+	this.parsers = new Parser[threadCount];
+	for (int i = 0; i < threadCount; i++) {
+		ProblemReporter reporter = new ProblemReporter(
+			compiler.problemReporter.policy,
+			compiler.options,
+			compiler.problemReporter.problemFactory);
+		this.parsers[i] = new Parser(reporter, compiler.options.parseLiteralExpressionsAsConstants);
+	}
+	this.failures = new HashMap<>();
+}
+
+/**
+ * Answers the number of parsing threads to use for the given setting, or 0 if units
+ * should be parsed on the compiling thread.
+ *
+ * @param parsingThreads the requested number of threads, -1 meaning one per available processor
+ */
+public static int threadCount(int parsingThreads) {
+	if (parsingThreads >= 0)
+		return parsingThreads < 2 ? 0 : parsingThreads;
+	int processors = Runtime.getRuntime().availableProcessors();
+	return processors < 2 ? 0 : processors;
+}
+
+/**
+ * Rethrows the exception which occurred while parsing the method bodies of the given unit, if any.
+ */
+public void checkMethodBodies(CompilationUnitDeclaration unit) throws Error {
+	rethrowFailure(unit);
+}
+
+/**
+ * Rethrows the exception which occurred while parsing the unit of the given result, if any.
+ */
+public void checkParsedUnit(CompilationResult result) throws Error {
+	rethrowFailure(result);
+}
+
+private void rethrowFailure(Object key) throws Error {
+	Throwable failure;
+	synchronized (this) {
+		failure = this.failures.remove(key);
+	}
+	if (failure == null) return;
+	if (failure instanceof Error)
+		throw (Error) failure;
+	throw (RuntimeException) failure;
+}
+
+/**
+ * Parses the method bodies of the given units and answers once all of them are done.
+ * Null units and units whose result has already been accepted are skipped.
+ */
+public void parseMethodBodies(CompilationUnitDeclaration[] batch) {
+	synchronized (this) {
+		this.units = batch;
+	}
+	runBatch(0, batch.length);
+	synchronized (this) {
+		this.units = null;
+	}
+}
+
+/**
+ * Parses the source units between the given indexes into the matching slots of
+ * <code>declarations</code>, using the already created compilation results. The first
+ * <code>fullParseCount</code> units of the range are fully parsed, the other ones are diet parsed.
+ * Answers once all of them are done.
+ */
+public void parseUnits(ICompilationUnit[] units, CompilationResult[] unitResults, CompilationUnitDeclaration[] declarations, int start, int end, int fullParseCount) {
+	synchronized (this) {
+		this.sourceUnits = units;
+		this.results = unitResults;
+		this.parsedUnits = declarations;
+		this.fullParseEnd = start + fullParseCount;
+	}
+	runBatch(start, end);
+	synchronized (this) {
+		this.sourceUnits = null;
+		this.results = null;
+		this.parsedUnits = null;
+	}
+}
+
+private void runBatch(int start, int end) {
+	int threadCount = Math.min(this.parsers.length, end - start);
+	Thread[] parsingThreads = new Thread[threadCount];
+	synchronized (this) {
+		this.nextUnit = start;
+		this.endUnit = end;
+		this.nextParser = 0;
+		for (int i = 0; i < threadCount; i++) {
+			parsingThreads[i] = new Thread(this, "Compiler Parsing Task"); //$NON-NLS-1$
+			parsingThreads[i].setDaemon(true);
+			parsingThreads[i].start();
+		}
+	}
+	for (int i = 0; i < threadCount; i++) {
+		while (parsingThreads[i].isAlive()) {
+			try {
+				parsingThreads[i].join(); // must not hand out units which could still be parsed
+			} catch (InterruptedException ignore) {
+				// ignore
+			}
+		}
+	}
+	synchronized (this) {
+		for (int i = 0; i < threadCount; i++)
+			this.parsers[i].scanner.source = null; // no longer hold onto the contents
+	}
+}
+
+public void run() {
+	Parser parser;
+	synchronized (this) {
+		parser = this.parsers[this.nextParser++];
+	}
+	while (true) {
+		int index;
+		Object key;
+		synchronized (this) {
+			if (this.nextUnit >= this.endUnit) return;
+			index = this.nextUnit++;
+			key = this.units != null ? (Object) this.units[index] : this.results[index];
+		}
+		if (key == null)
+			continue;
+		try {
+			if (this.units != null) {
+				CompilationUnitDeclaration unit = (CompilationUnitDeclaration) key;
+				if (!unit.compilationResult.hasBeenAccepted)
+					parser.getMethodBodies(unit);
+			} else {
+				CompilationUnitDeclaration parsedUnit = index < this.fullParseEnd
+					? parser.parse(this.sourceUnits[index], this.results[index])
+					: parser.dietParse(this.sourceUnits[index], this.results[index]);
+				synchronized (this) {
+					this.parsedUnits[index] = parsedUnit;
+				}
+			}
+		} catch (Error e) {
+			synchronized (this) {
+				this.failures.put(key, e);
+			}
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				this.failures.put(key, e);
+			}
+		}
+	}
+}
+
+public synchronized void shutdown() {
+	this.failures.clear();
+	this.units = null;
+	this.sourceUnits = null;
+	this.results = null;
+	this.parsedUnits = null;
+}
+}
@@ -115,6 +115,7 @@ public void run() {
 		int index = -1;
 		boolean cleanup = noAnnotations || this.compiler.shouldCleanup(this.unitIndex);
 		try {
+			this.compiler.parseMethodBodiesAhead(this.unitIndex);
 			synchronized (this) {
 				if (this.processingThread == null) return;
 
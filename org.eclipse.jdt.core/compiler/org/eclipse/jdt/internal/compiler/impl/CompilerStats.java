@@ -24,6 +24,11 @@ public class CompilerStats implements Comparable {
 	public long analyzeTime;
 	public long generateTime;
 
+	// type inference
+	public long inferenceCacheHits;
+	public long inferenceCacheMisses;
+	public long incorporationTime;
+
 /**
  * Returns the total elapsed time (between start and end)
  * @return the time spent between start and end
@@ -561,6 +561,18 @@ class BoundSet {
 		if (this.unincorporatedBoundsCount == 0 && this.captures.size() == 0)
 			return true;
 		
+		// time the outermost incorporation only, inner inferences may be triggered while incorporating
+		InferenceSolutionCache statistics = context.environment.inferenceSolutions;
+		long start = statistics.incorporationDepth++ == 0 ? System.nanoTime() : 0;
+		try {
+			return incorporateGenerations(context);
+		} finally {
+			if (--statistics.incorporationDepth == 0)
+				statistics.incorporationTime += System.nanoTime() - start;
+		}
+	}
+
+	private boolean incorporateGenerations(InferenceContext18 context) throws InferenceFailureException {
 		do {
 			TypeBound [] freshBounds;
 			System.arraycopy(this.unincorporatedBounds, 0, freshBounds = new TypeBound[this.unincorporatedBoundsCount], 0, this.unincorporatedBoundsCount);
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.lookup;
+
+import java.util.HashMap;
+
+import org.eclipse.jdt.internal.compiler.ast.Expression;
+import org.eclipse.jdt.internal.compiler.ast.ExpressionContext;
+import org.eclipse.jdt.internal.compiler.ast.Invocation;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
+
+/**
+ * The solutions of the type inferences (JLS 18.5.1 and 18.5.2) performed in a lookup environment,
+ * so that the invocations of the same generic method with the same argument types and target type
+ * do not run the inference again.
+ * <p>
+ * Only the invocations whose inference does not depend on anything else are recorded: invocations
+ * which are neither poly expressions nor possibly part of an enclosing inference, whose arguments are
+ * not poly expressions and have proper types, and whose solutions are proper types free of the captures
+ * created by the inference itself. Solutions relying on unchecked conversion, or failing the invocation
+ * type inference or the bound checks, are not recorded either, so that their problems keep being reported
+ * at each invocation.
+ * </p>
+ * <p>
+ * The solutions are hashed on the invoked method, the argument types and the target type, so that looking up
+ * an invocation does not depend on how many invocations of the same method were recorded. They are not bounded
+ * otherwise: the parameterized methods they answer are kept by the lookup environment anyway, until it is reset.
+ * </p>
+ * <p>
+ * The cache also records how often it could be used, and the time spent incorporating bounds.
+ * </p>
+ */
+public class InferenceSolutionCache {
+
+	/**
+	 * Switch to disable the cache, in case of doubt.
+	 */
+	public static boolean ENABLED = true;
+
+	/** Structured key of a solution. */
+	static class Key {
+		final MethodBinding method;
+		final TypeBinding[] arguments;
+		final TypeBinding expectedType;
+
+		Key(MethodBinding method, TypeBinding[] arguments, TypeBinding expectedType) {
+			this.method = method;
+			this.arguments = arguments;
+			this.expectedType = expectedType;
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.method.hashCode() + 13 * (this.expectedType != null ? this.expectedType.hashCode() : 0);
+			for (int i = 0, length = this.arguments.length; i < length; i++) {
+				hashCode += (i + 1) * this.arguments[i].hashCode();
+			}
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key that = (Key) obj;
+			if (this.method != that.method || this.expectedType != that.expectedType) //$IDENTITY-COMPARISON$
+				return false;
+			if (this.arguments.length != that.arguments.length)
+				return false;
+			for (int i = 0, length = this.arguments.length; i < length; i++) {
+				if (this.arguments[i] != that.arguments[i]) //$IDENTITY-COMPARISON$ annotated types must not be confused
+					return false;
+			}
+			return true;
+		}
+	}
+
+	static class Solution {
+		final ParameterizedGenericMethodBinding method;
+		final int inferenceKind;
+
+		Solution(ParameterizedGenericMethodBinding method, int inferenceKind) {
+			this.method = method;
+			this.inferenceKind = inferenceKind;
+		}
+	}
+
+	private HashMap<Key, Solution> solutions = new HashMap<Key, Solution>();
+
+	public int hits;
+	public int misses;
+	/** Time spent incorporating bounds, in nanoseconds. */
+	public long incorporationTime;
+	int incorporationDepth;
+
+/**
+ * Answers whether the inference of the given invocation only depends on the invoked method, on the types
+ * of the arguments and on the target type, so that its solution can be shared with the other invocations
+ * of the same method.
+ */
+static boolean isCacheable(TypeBinding[] arguments, Scope scope, InvocationSite invocationSite) {
+	if (!ENABLED || !(invocationSite instanceof Invocation))
+		return false;
+	if (scope.compilerOptions().isAnnotationBasedNullAnalysisEnabled)
+		return false;
+	// in an assignment or invocation context, the invocation may be a poly expression, or be inferred along with the enclosing invocation
+	ExpressionContext context = invocationSite.getExpressionContext();
+	if (context == ExpressionContext.ASSIGNMENT_CONTEXT || context == ExpressionContext.INVOCATION_CONTEXT)
+		return false;
+	for (int i = 0, length = arguments.length; i < length; i++) {
+		TypeBinding argument = arguments[i];
+		if (argument == null || !argument.isValidBinding() || argument.kind() == Binding.POLY_TYPE || !argument.isProperType(false))
+			return false;
+	}
+	Expression[] argumentExpressions = ((Invocation) invocationSite).arguments();
+	if (argumentExpressions != null) {
+		for (int i = 0, length = argumentExpressions.length; i < length; i++) {
+			if (argumentExpressions[i].isPolyExpression())
+				return false;
+		}
+	}
+	return true;
+}
+
+/**
+ * Answers the solution recorded for an invocation of the given generic method with the same argument
+ * types and target type, or null if there is none.
+ */
+Solution get(MethodBinding method, TypeBinding[] arguments, TypeBinding expectedType) {
+	Solution solution = this.solutions.get(new Key(method, arguments, expectedType));
+	if (solution != null) {
+		this.hits++;
+	} else {
+		this.misses++;
+	}
+	return solution;
+}
+
+/**
+ * Records the solution of the inference of an invocation, as checked by {@link #isCacheable(TypeBinding[], Scope, InvocationSite)}.
+ */
+void put(MethodBinding method, TypeBinding[] arguments, TypeBinding expectedType, ParameterizedGenericMethodBinding substitute, int inferenceKind) {
+	TypeBinding[] typeArguments = substitute.typeArguments;
+	for (int i = 0, length = typeArguments.length; i < length; i++) {
+		if (!typeArguments[i].isProperType(false))
+			return; // mentions a capture of this very inference
+	}
+	TypeBinding[] argumentsCopy = new TypeBinding[arguments.length];
+	System.arraycopy(arguments, 0, argumentsCopy, 0, arguments.length);
+	this.solutions.put(new Key(method, argumentsCopy, expectedType), new Solution(substitute, inferenceKind));
+}
+
+/**
+ * Adds the statistics of the cache to the given compiler statistics, and clears them.
+ */
+public void addStatisticsTo(CompilerStats stats) {
+	stats.inferenceCacheHits += this.hits;
+	stats.inferenceCacheMisses += this.misses;
+	stats.incorporationTime += this.incorporationTime / 1000000;
+	this.hits = 0;
+	this.misses = 0;
+	this.incorporationTime %= 1000000;
+}
+
+/**
+ * Forgets all the solutions, as their bindings are no longer valid once the lookup environment is reset.
+ * The statistics are kept.
+ */
+void reset() {
+	this.solutions = new HashMap<Key, Solution>();
+}
+
+public String toString() {
+	return "InferenceSolutionCache: " + this.hits + " hits, " + this.misses + " misses, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		+ (this.incorporationTime / 1000000) + " ms incorporating bounds"; //$NON-NLS-1$
+}
+}
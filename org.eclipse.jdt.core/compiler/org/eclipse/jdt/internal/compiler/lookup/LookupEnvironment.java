@@ -115,6 +115,8 @@ public class LookupEnvironment implements ProblemReasons, TypeConstants {
 
 	/** Global access to the outermost active inference context as the universe for inference variable interning. */
 	InferenceContext18 currentInferenceContext;
+	/** The solutions of the inferences which can be reused for other invocations, along with statistics about the inference. */
+	public final InferenceSolutionCache inferenceSolutions = new InferenceSolutionCache();
 
 	final static int BUILD_FIELDS_AND_METHODS = 4;
 	final static int BUILD_TYPE_HIERARCHY = 1;
@@ -1721,6 +1723,7 @@ public void reset() {
 
 	this.classFilePool.reset();
 	this.typeSystem.reset();
+	this.inferenceSolutions.reset();
 	// name environment has a longer life cycle, and must be reset in
 	// the code which created it.
 }
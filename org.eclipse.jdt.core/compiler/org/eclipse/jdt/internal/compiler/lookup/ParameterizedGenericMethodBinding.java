@@ -207,6 +207,22 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 		InferenceContext18 infCtx18 = invocationSite.freshInferenceContext(scope);
 		if (infCtx18 == null)
 			return originalMethod;  // per parity with old F & G integration.
+		// an inference which only depends on the argument types and the target type may have been done before
+		TypeBinding[] originalArguments = arguments;
+		boolean cacheable = InferenceSolutionCache.isCacheable(arguments, scope, invocationSite);
+		if (cacheable) {
+			TypeBinding expectedType = invocationSite.invocationTargetType();
+			InferenceSolutionCache.Solution solution = scope.environment().inferenceSolutions.get(originalMethod, arguments, expectedType);
+			if (solution != null) {
+				Invocation invocation = (Invocation) invocationSite;
+				infCtx18.inferenceKind = solution.inferenceKind;
+				infCtx18.stepCompleted = InferenceContext18.TYPE_INFERRED_FINAL;
+				if (expectedType != null)
+					invocation.registerResult(expectedType, solution.method);
+				invocation.registerInferenceContext(solution.method, infCtx18); // for the compatibility checks of overload resolution
+				return solution.method;
+			}
+		}
 		TypeBinding[] parameters = originalMethod.parameters;
 		CompilerOptions compilerOptions = scope.compilerOptions();
 		boolean invocationTypeInferred = false;
@@ -290,6 +306,8 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 							if (problemMethod != null) {
 								return problemMethod;
 							}
+							if (cacheable && !hasReturnProblem && !infCtx18.usesUncheckedConversion)
+								environment.inferenceSolutions.put(originalMethod, originalArguments, expectedType, methodSubstitute, infCtx18.inferenceKind);
 						} else {
 							methodSubstitute = new PolyParameterizedGenericMethodBinding(methodSubstitute);
 						}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * A process wide pool of open archives, shared by all the name environments which need them.
+ * <p>
+ * Archives are keyed by their canonical path and only shared while their size and last
+ * modification time are unchanged. Each one is reference counted: {@link #acquire(File)} must be
+ * balanced by a call to {@link #release(Archive)}. Once released by all its users, an archive is
+ * kept open so the next build does not have to read its central directory again, up to
+ * {@link #IDLE_LIMIT} idle archives. The least recently used ones are closed beyond that, and
+ * so are the archives which stayed idle for more than {@link #IDLE_TIMEOUT}.
+ * </p>
+ * <p>
+ * Builds and batch compilations call {@link #closeIdleArchives()} once done, so that archives
+ * are not left open, and locked on some platforms, in between.
+ * </p>
+ */
+public class ZipFilePool {
+
+	/**
+	 * An open archive along with the names of its entries and packages, which are computed once
+	 * when the archive is opened and never change afterwards.
+	 */
+	public static class Archive {
+		public final ZipFile zipFile;
+		final String path;
+		final long lastModified;
+		final long size;
+		private final SimpleSet entryNames;
+		private final SimpleSet packageNames;
+		int referenceCount;
+		boolean isStale; // replaced by a newer version of the file, close once released
+		long idleSince;
+
+		Archive(File file, String path, long lastModified, long size) throws IOException {
+			this.zipFile = new ZipFile(file);
+			this.path = path;
+			this.lastModified = lastModified;
+			this.size = size;
+			this.entryNames = new SimpleSet(this.zipFile.size());
+			this.packageNames = new SimpleSet(41);
+			this.packageNames.add(Util.EMPTY_STRING);
+			try {
+				nextEntry : for (Enumeration<? extends ZipEntry> e = this.zipFile.entries(); e.hasMoreElements(); ) {
+					String fileName = e.nextElement().getName();
+					this.entryNames.add(fileName);
+
+					// add the package name & all of its parent packages
+					int last = fileName.lastIndexOf('/');
+					while (last > 0) {
+						// extract the package name
+						String packageName = fileName.substring(0, last);
+						if (this.packageNames.addIfNotIncluded(packageName) == null)
+							continue nextEntry; // already existed
+						last = packageName.lastIndexOf('/');
+					}
+				}
+			} catch (RuntimeException e) {
+				this.zipFile.close(); // corrupted archive
+				ZipException exception = new ZipException(e.getMessage());
+				exception.initCause(e);
+				throw exception;
+			}
+		}
+
+		/**
+		 * Answers whether the archive has an entry with the given name, without going to the zip file.
+		 */
+		public boolean containsEntry(String entryName) {
+			return this.entryNames.includes(entryName);
+		}
+
+		/**
+		 * Answers whether the given package, or one of its sub packages, has entries in the archive.
+		 * The default package is always included.
+		 */
+		public boolean containsPackage(String qualifiedPackageName) {
+			return this.packageNames.includes(qualifiedPackageName);
+		}
+
+		public long getLastModified() {
+			return this.lastModified;
+		}
+
+		/**
+		 * Answers the names of all packages in the archive, which must not be modified.
+		 */
+		public SimpleSet getPackageNames() {
+			return this.packageNames;
+		}
+
+		public String getPath() {
+			return this.path;
+		}
+
+		public long getSize() {
+			return this.size;
+		}
+
+		void close() {
+			try {
+				this.zipFile.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+
+		public String toString() {
+			return "Archive " + this.path + " (" + this.referenceCount + " references)"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	public static final ZipFilePool INSTANCE = new ZipFilePool();
+
+	/**
+	 * Maximum number of archives kept open once released by all their users.
+	 */
+	public static int IDLE_LIMIT = 100;
+
+	/**
+	 * Number of milliseconds an archive is kept open once released by all its users.
+	 * Expired archives are closed the next time the pool is used.
+	 */
+	public static long IDLE_TIMEOUT = 60000;
+
+	private Map<String, Archive> archives = new HashMap<>();
+	// archives without users, least recently used first
+	private LinkedHashMap<String, Archive> idleArchives = new LinkedHashMap<>();
+	// open archives, including the stale ones still in use
+	private Map<ZipFile, Archive> openArchives = new IdentityHashMap<>();
+
+	private int hits, misses;
+
+/**
+ * Answers the shared archive for the given file, opening it if it is not in the pool yet
+ * or if the file changed since it was opened. The caller must release it once done.
+ */
+public Archive acquire(File file) throws IOException {
+	String path = getPath(file);
+	long lastModified = file.lastModified();
+	long size = file.length();
+	synchronized (this) {
+		closeExpiredArchives();
+		Archive archive = this.archives.get(path);
+		if (archive != null) {
+			if (archive.lastModified == lastModified && archive.size == size) {
+				if (archive.referenceCount++ == 0)
+					this.idleArchives.remove(path);
+				this.hits++;
+				return archive;
+			}
+			this.archives.remove(path);
+			if (archive.referenceCount == 0) {
+				this.idleArchives.remove(path);
+				close(archive);
+			} else {
+				archive.isStale = true; // closed by its last user
+			}
+		}
+		this.misses++;
+	}
+	// read the central directory outside of the lock, at worst the same archive is opened twice
+	Archive archive = new Archive(file, path, lastModified, size);
+	synchronized (this) {
+		Archive existing = this.archives.get(path);
+		if (existing != null && existing.lastModified == lastModified && existing.size == size) {
+			archive.close();
+			if (existing.referenceCount++ == 0)
+				this.idleArchives.remove(path);
+			return existing;
+		}
+		if (existing != null) {
+			if (existing.referenceCount == 0) {
+				this.idleArchives.remove(path);
+				close(existing);
+			} else {
+				existing.isStale = true;
+			}
+		}
+		archive.referenceCount = 1;
+		this.archives.put(path, archive);
+		this.openArchives.put(archive.zipFile, archive);
+		return archive;
+	}
+}
+
+/**
+ * Closes all the archives which are not in use.
+ */
+public synchronized void closeIdleArchives() {
+	for (Iterator<Archive> i = this.idleArchives.values().iterator(); i.hasNext();) {
+		Archive archive = i.next();
+		this.archives.remove(archive.path);
+		close(archive);
+	}
+	this.idleArchives.clear();
+}
+
+private void close(Archive archive) {
+	this.openArchives.remove(archive.zipFile);
+	archive.close();
+}
+
+// assumes the monitor is held
+private void closeExpiredArchives() {
+	if (this.idleArchives.isEmpty()) return;
+	long expired = System.currentTimeMillis() - IDLE_TIMEOUT;
+	for (Iterator<Archive> i = this.idleArchives.values().iterator(); i.hasNext();) {
+		Archive archive = i.next();
+		if (archive.idleSince > expired)
+			return; // the following ones were released later
+		i.remove();
+		this.archives.remove(archive.path);
+		close(archive);
+	}
+}
+
+private static String getPath(File file) {
+	try {
+		return file.getCanonicalPath();
+	} catch (IOException e) {
+		return file.getAbsolutePath();
+	}
+}
+
+/**
+ * Answers the number of times an open archive could be shared, and the number of times one had to be opened.
+ */
+public synchronized int[] getStatistics() {
+	return new int[] {this.hits, this.misses};
+}
+
+/**
+ * Answers whether the pool holds the given file open, whether it is in use or idle.
+ */
+public synchronized boolean isOpen(File file) {
+	return this.archives.containsKey(getPath(file));
+}
+
+/**
+ * Releases an archive answered by {@link #acquire(File)}. The archive must no longer be used
+ * by the caller afterwards.
+ */
+public synchronized void release(Archive archive) {
+	if (--archive.referenceCount > 0) return;
+	if (archive.isStale) {
+		close(archive);
+		return;
+	}
+	closeExpiredArchives();
+	archive.idleSince = System.currentTimeMillis();
+	this.idleArchives.put(archive.path, archive);
+	if (this.idleArchives.size() > IDLE_LIMIT) {
+		Iterator<Archive> i = this.idleArchives.values().iterator();
+		Archive eldest = i.next();
+		i.remove();
+		this.archives.remove(eldest.path);
+		close(eldest);
+	}
+}
+
+/**
+ * Releases the archive of the given zip file, as answered by {@link #acquire(File)}.
+ * Answers false if the zip file does not come from the pool, in which case the caller
+ * is responsible for closing it.
+ */
+public synchronized boolean release(ZipFile zipFile) {
+	Archive archive = this.openArchives.get(zipFile);
+	if (archive == null)
+		return false;
+	if (archive.referenceCount > 0) // else released too many times, but must stay open for the next users
+		release(archive);
+	return true;
+}
+
+public synchronized String toString() {
+	return "ZipFilePool: " + this.archives.size() + " archives, " + this.idleArchives.size() + " idle"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+}
+}
@@ -193,6 +193,13 @@ public final class AST {
 	 */
 	static final int RESOLVED_BINDINGS = 0x80000000;
 
+	/*
+	 * Set on the ASTs whose method bodies and initializers are only resolved when one of their nodes
+	 * is queried for a binding, see ASTParser#setLazyBindings(boolean).
+	 * Must not collide with a value for ICompilationUnit constants
+	 */
+	static final int LAZY_BINDINGS = 0x40000000;
+
 	/**
 	 * Internal method.
 	 * <p>
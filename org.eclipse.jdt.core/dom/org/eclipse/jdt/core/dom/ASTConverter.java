@@ -4247,19 +4247,23 @@ class ASTConverter {
 		if (this.pendingNameScopeResolution != null) {
 			for (Iterator iterator = this.pendingNameScopeResolution.iterator(); iterator.hasNext(); ) {
 				Name name = (Name) iterator.next();
-				this.ast.getBindingResolver().recordScope(name, lookupScope(name));
+				this.ast.getBindingResolver().recordScope(name, lookupScope(name, this.ast.getBindingResolver()));
 			}
 		}
 		if (this.pendingThisExpressionScopeResolution != null) {
 			for (Iterator iterator = this.pendingThisExpressionScopeResolution.iterator(); iterator.hasNext(); ) {
 				ThisExpression thisExpression = (ThisExpression) iterator.next();
-				this.ast.getBindingResolver().recordScope(thisExpression, lookupScope(thisExpression));
+				this.ast.getBindingResolver().recordScope(thisExpression, lookupScope(thisExpression, this.ast.getBindingResolver()));
 			}
 		}
 
 	}
 
-	private BlockScope lookupScope(ASTNode node) {
+	/*
+	 * Answers the scope enclosing the given name or this expression. With lazy bindings, this is null
+	 * in the bodies of local and anonymous types as long as their enclosing body is not resolved.
+	 */
+	static BlockScope lookupScope(ASTNode node, BindingResolver resolver) {
 		ASTNode currentNode = node;
 		while(currentNode != null
 			&&!(currentNode instanceof MethodDeclaration)
@@ -4279,7 +4283,7 @@ class ASTConverter {
 			if (currentNode instanceof TypeDeclaration
 				|| currentNode instanceof EnumDeclaration
 				|| currentNode instanceof AnnotationTypeDeclaration) {
-				org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDecl = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) this.ast.getBindingResolver().getCorrespondingNode(currentNode);
+				org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDecl = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) resolver.getCorrespondingNode(currentNode);
 				if ((initializer.getModifiers() & Modifier.STATIC) != 0) {
 					return typeDecl.staticInitializerScope;
 				} else {
@@ -4291,17 +4295,17 @@ class ASTConverter {
 			while(!(currentNode instanceof AbstractTypeDeclaration)) {
 				currentNode = currentNode.getParent();
 			}
-			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDecl = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) this.ast.getBindingResolver().getCorrespondingNode(currentNode);
+			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDecl = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) resolver.getCorrespondingNode(currentNode);
 			if ((fieldDeclaration.getModifiers() & Modifier.STATIC) != 0) {
 				return typeDecl.staticInitializerScope;
 			} else {
 				return typeDecl.initializerScope;
 			}
 		} else if (currentNode instanceof AbstractTypeDeclaration) {
-			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDecl = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) this.ast.getBindingResolver().getCorrespondingNode(currentNode);
+			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDecl = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) resolver.getCorrespondingNode(currentNode);
 			return typeDecl.initializerScope;
 		}
-		AbstractMethodDeclaration abstractMethodDeclaration = (AbstractMethodDeclaration) this.ast.getBindingResolver().getCorrespondingNode(currentNode);
+		AbstractMethodDeclaration abstractMethodDeclaration = (AbstractMethodDeclaration) resolver.getCorrespondingNode(currentNode);
 		return abstractMethodDeclaration.scope;
 	}
 
@@ -716,6 +716,38 @@ public class ASTParser {
 		}
 	}
 
+	/**
+	 * Requests the bindings of the method bodies and initializers to be resolved
+	 * only when needed, for clients which only ask for a few bindings of a large
+	 * compilation unit.
+	 *
+	 * <p>When lazy bindings are enabled, the declarations of the compilation unit
+	 * are resolved as usual, but the statements of a method or an initializer
+	 * declared in a top level or member type are only resolved the first time the
+	 * binding of one of their nodes is asked for. The resolved bindings are the
+	 * same. However, flow analysis is not performed and the
+	 * {@linkplain CompilationUnit#getProblems() problems} of the compilation unit
+	 * do not include the problems of the method bodies and initializers.
+	 * The compilation unit keeps its compiler structures alive for as long as
+	 * it is used.</p>
+	 *
+	 * <p>This setting is only used when the kind used in {@link #setKind(int)} is
+	 * {@link #K_COMPILATION_UNIT}, when the bindings are resolved and when neither
+	 * a focal position nor ignore method bodies were requested.</p>
+	 *
+	 * @param enabled <code>true</code> if the bindings of the method bodies and
+	 *   initializers should be resolved on demand, and <code>false</code> if they
+	 *   should be resolved along with the compilation unit
+	 * @since 3.14
+	 */
+	public void setLazyBindings(boolean enabled) {
+		if (enabled) {
+			this.bits |= CompilationUnitResolver.LAZY_BINDINGS;
+		} else {
+			this.bits &= ~CompilationUnitResolver.LAZY_BINDINGS;
+		}
+	}
+
     /**
      * Sets the working copy owner used when resolving bindings, where
      * <code>null</code> means the primary owner. Defaults to the primary owner.
@@ -1104,6 +1136,7 @@ public class ASTParser {
 				break;
 			case K_COMPILATION_UNIT :
 				CompilationUnitDeclaration compilationUnitDeclaration = null;
+				boolean lazyBindings = false;
 				try {
 					NodeSearcher searcher = null;
 					org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit = null;
@@ -1182,6 +1215,11 @@ public class ASTParser {
 						flags |= ICompilationUnit.IGNORE_METHOD_BODIES;
 					}
 					if (needToResolveBindings) {
+						if (searcher == null
+								&& (flags & ICompilationUnit.IGNORE_METHOD_BODIES) == 0
+								&& (this.bits & CompilationUnitResolver.LAZY_BINDINGS) != 0) {
+							flags |= AST.LAZY_BINDINGS;
+						}
 						if ((this.bits & CompilationUnitResolver.BINDING_RECOVERY) != 0) {
 							flags |= ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
 						}
@@ -1198,7 +1236,7 @@ public class ASTParser {
 									flags,
 									monitor);
 						} catch (JavaModelException e) {
-							flags &= ~ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
+							flags &= ~(ICompilationUnit.ENABLE_BINDINGS_RECOVERY | AST.LAZY_BINDINGS);
 							compilationUnitDeclaration = CompilationUnitResolver.parse(
 									sourceUnit,
 									searcher,
@@ -1214,6 +1252,8 @@ public class ASTParser {
 								flags);
 						needToResolveBindings = false;
 					}
+					// the compiler structures are needed to resolve the bodies on demand
+					lazyBindings = needToResolveBindings && (flags & AST.LAZY_BINDINGS) != 0;
 					CompilationUnit result = CompilationUnitResolver.convert(
 						compilationUnitDeclaration,
 						sourceUnit.getContents(),
@@ -1229,7 +1269,8 @@ public class ASTParser {
 					return result;
 				} finally {
 					if (compilationUnitDeclaration != null
-							&& ((this.bits & CompilationUnitResolver.RESOLVE_BINDING) != 0)) {
+							&& ((this.bits & CompilationUnitResolver.RESOLVE_BINDING) != 0)
+							&& !lazyBindings) {
 						compilationUnitDeclaration.cleanUp();
 					}
 				}
@@ -17,11 +17,20 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -77,6 +86,54 @@ class CompilationUnitResolver extends Compiler {
 	public static final int IGNORE_METHOD_BODIES = 0x8;
 	public static final int BINDING_RECOVERY = 0x10;
 	public static final int INCLUDE_RUNNING_VM_BOOTCLASSPATH = 0x20;
+	public static final int LAZY_BINDINGS = 0x40;
+
+	/**
+	 * The system property giving the number of threads resolving a batch of compilation units.
+	 */
+	public static final String RESOLVER_THREADS_PROPERTY = "jdt.core.dom.resolverThreads"; //$NON-NLS-1$
+	/**
+	 * The number of threads resolving a batch of compilation units in
+	 * {@link ASTParser#createASTs(ICompilationUnit[], String[], ASTRequestor, IProgressMonitor)}.
+	 * If more than one, the units are split in as many slices, each one resolved with its own lookup
+	 * environment, and the requestor is called by one thread at a time. Bindings of units from
+	 * different slices are then not identical and must be compared with their keys.
+	 */
+	public static int RESOLVER_THREADS = Integer.getInteger(RESOLVER_THREADS_PROPERTY, 1).intValue();
+	private static final long CANCEL_POLL_INTERVAL = 100; // ms
+
+	/*
+	 * Forwards the ASTs and bindings of a slice of units to the requestor of the batch,
+	 * one thread at a time, so that the requestor can create bindings in the environment
+	 * of the slice.
+	 */
+	static class SliceRequestor extends ASTRequestor {
+		private final ASTRequestor requestor;
+
+		SliceRequestor(ASTRequestor requestor) {
+			this.requestor = requestor;
+		}
+		public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+			synchronized (this.requestor) {
+				this.requestor.compilationUnitResolver = this.compilationUnitResolver;
+				try {
+					this.requestor.acceptAST(source, ast);
+				} finally {
+					this.requestor.compilationUnitResolver = null;
+				}
+			}
+		}
+		public void acceptBinding(String bindingKey, IBinding binding) {
+			synchronized (this.requestor) {
+				this.requestor.compilationUnitResolver = this.compilationUnitResolver;
+				try {
+					this.requestor.acceptBinding(bindingKey, binding);
+				} finally {
+					this.requestor.compilationUnitResolver = null;
+				}
+			}
+		}
+	}
 
 	/* A list of int */
 	static class IntArrayList {
@@ -114,6 +171,12 @@ class CompilationUnitResolver extends Compiler {
 	 */
 	boolean fromJavaProject;
 
+	/*
+	 * Set to true if the statements of the bodies answered by collectBodies(...) are not resolved
+	 * with the unit, but on demand by its binding resolver
+	 */
+	boolean lazyBindings;
+
 	/**
 	 * Answer a new CompilationUnitVisitor using the given name environment and compiler options.
 	 * The environment and options will be in effect for the lifetime of the compiler.
@@ -295,11 +358,54 @@ class CompilationUnitResolver extends Compiler {
 		converter.setAST(ast);
 		compilationUnit = converter.convert(compilationUnitDeclaration, source);
 		compilationUnit.setLineEndTable(compilationUnitDeclaration.compilationResult.getLineSeparatorPositions());
+		if ((flags & AST.LAZY_BINDINGS) != 0 && needToResolveBindings && compilationUnitDeclaration.scope != null) {
+			((DefaultBindingResolver) resolver).unresolvedBodies = new HashSet(collectBodies(compilationUnitDeclaration));
+		}
 		ast.setDefaultNodeFlag(0);
 		ast.setOriginalModificationCount(ast.modificationCount());
 		return compilationUnit;
 	}
 
+	/*
+	 * Answers the method declarations and the initializers of the top level and member types of the
+	 * given unit which have statements. Their statements are not resolved along with the unit when
+	 * the bindings are lazy.
+	 */
+	static List collectBodies(CompilationUnitDeclaration unit) {
+		List bodies = new ArrayList();
+		if (unit.types != null) {
+			for (int i = 0, length = unit.types.length; i < length; i++) {
+				collectBodies(unit.types[i], bodies);
+			}
+		}
+		return bodies;
+	}
+
+	private static void collectBodies(org.eclipse.jdt.internal.compiler.ast.TypeDeclaration type, List bodies) {
+		if (type.methods != null) {
+			for (int i = 0, length = type.methods.length; i < length; i++) {
+				if (type.methods[i].statements != null) {
+					bodies.add(type.methods[i]);
+				}
+			}
+		}
+		if (type.fields != null) {
+			for (int i = 0, length = type.fields.length; i < length; i++) {
+				if (type.fields[i] instanceof org.eclipse.jdt.internal.compiler.ast.Initializer) {
+					org.eclipse.jdt.internal.compiler.ast.Block block = ((org.eclipse.jdt.internal.compiler.ast.Initializer) type.fields[i]).block;
+					if (block != null && block.statements != null) {
+						bodies.add(type.fields[i]);
+					}
+				}
+			}
+		}
+		if (type.memberTypes != null) {
+			for (int i = 0, length = type.memberTypes.length; i < length; i++) {
+				collectBodies(type.memberTypes[i], bodies);
+			}
+		}
+	}
+
 	protected static CompilerOptions getCompilerOptions(Map options, boolean statementsRecovery) {
 		CompilerOptions compilerOptions = new CompilerOptions(options);
 		compilerOptions.performMethodsFullRecovery = statementsRecovery;
@@ -561,6 +667,104 @@ class CompilationUnitResolver extends Compiler {
 		int flags,
 		IProgressMonitor monitor) {
 
+		int threads = Math.min(RESOLVER_THREADS, compilationUnits.length);
+		if (threads > 1) {
+			resolveInParallel(compilationUnits, bindingKeys, requestor, apiLevel, options, javaProject, owner, flags, threads, monitor);
+		} else {
+			resolveInThread(compilationUnits, bindingKeys, requestor, apiLevel, options, javaProject, owner, flags, monitor);
+		}
+	}
+
+	/*
+	 * Resolves slices of the given units on the given number of threads, then the binding keys on the calling thread.
+	 * Binding keys of elements in the given units are thus reported after all the ASTs.
+	 */
+	private static void resolveInParallel(
+		ICompilationUnit[] compilationUnits,
+		final String[] bindingKeys,
+		final ASTRequestor requestor,
+		final int apiLevel,
+		final Map options,
+		final IJavaProject javaProject,
+		final WorkingCopyOwner owner,
+		final int flags,
+		int threads,
+		final IProgressMonitor monitor) {
+
+		int length = compilationUnits.length;
+		int sliceSize = (length + threads - 1) / threads;
+		SubMonitor subMonitor = SubMonitor.convert(monitor, (length + bindingKeys.length) * 2);
+		// progress is reported by the calling thread
+		final IProgressMonitor sliceMonitor = new NullProgressMonitor() {
+			public boolean isCanceled() {
+				return monitor != null && monitor.isCanceled();
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private int count;
+			public synchronized Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "AST resolver " + ++this.count); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			Future[] results = new Future[threads];
+			int[] sliceLengths = new int[threads];
+			for (int i = 0, start = 0; start < length; i++, start += sliceSize) {
+				final ICompilationUnit[] slice = new ICompilationUnit[Math.min(sliceSize, length - start)];
+				System.arraycopy(compilationUnits, start, slice, 0, slice.length);
+				sliceLengths[i] = slice.length;
+				results[i] = executor.submit(() -> {
+					resolveInThread(slice, CharOperation.NO_STRINGS, new SliceRequestor(requestor), apiLevel, options, javaProject, owner, flags, sliceMonitor);
+					return null;
+				});
+			}
+			for (int i = 0; i < threads && results[i] != null; i++) {
+				waitFor(results[i], monitor);
+				subMonitor.split(sliceLengths[i] * 2);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		if (bindingKeys.length > 0) {
+			resolveInThread(new ICompilationUnit[0], bindingKeys, requestor, apiLevel, options, javaProject, owner, flags, subMonitor.split(bindingKeys.length * 2));
+		}
+	}
+
+	private static void waitFor(Future result, IProgressMonitor monitor) {
+		while (true) {
+			if (monitor != null && monitor.isCanceled())
+				throw new OperationCanceledException();
+			try {
+				result.get(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+				return;
+			} catch (TimeoutException e) {
+				// check for cancellation again
+			} catch (InterruptedException e) {
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	private static void resolveInThread(
+		ICompilationUnit[] compilationUnits,
+		String[] bindingKeys,
+		ASTRequestor requestor,
+		int apiLevel,
+		Map options,
+		IJavaProject javaProject,
+		WorkingCopyOwner owner,
+		int flags,
+		IProgressMonitor monitor) {
+
 		CancelableNameEnvironment environment = null;
 		CancelableProblemFactory problemFactory = null;
 		try {
@@ -665,6 +869,13 @@ class CompilationUnitResolver extends Compiler {
 				environment = new CancelableNameEnvironment((JavaProject) javaProject, owner, monitor);
 			}
 			problemFactory = new CancelableProblemFactory(monitor);
+			boolean lazyBindings = (flags & AST.LAZY_BINDINGS) != 0;
+			if (lazyBindings) {
+				// these problems can only be detected once all the method bodies are resolved
+				options = new HashMap(options);
+				options.put(CompilerOptions.OPTION_ReportUnusedImport, CompilerOptions.IGNORE);
+				options.put(CompilerOptions.OPTION_ReportOverridingMethodWithoutSuperInvocation, CompilerOptions.IGNORE);
+			}
 			CompilerOptions compilerOptions = getCompilerOptions(options, (flags & ICompilationUnit.ENABLE_STATEMENTS_RECOVERY) != 0);
 			boolean ignoreMethodBodies = (flags & ICompilationUnit.IGNORE_METHOD_BODIES) != 0;
 			compilerOptions.ignoreMethodBodies = ignoreMethodBodies;
@@ -677,7 +888,8 @@ class CompilationUnitResolver extends Compiler {
 					problemFactory,
 					monitor,
 					javaProject != null);
-			boolean analyzeAndGenerateCode = !ignoreMethodBodies;
+			resolver.lazyBindings = lazyBindings;
+			boolean analyzeAndGenerateCode = !ignoreMethodBodies && !lazyBindings;
 			unit =
 				resolver.resolve(
 					null, // no existing compilation unit declaration
@@ -1122,6 +1334,40 @@ class CompilationUnitResolver extends Compiler {
 		}
 	}
 
+	/*
+	 * Resolves the given unit, except the statements of the bodies answered by collectBodies(unit)
+	 * which are resolved by DefaultBindingResolver when one of their nodes is queried.
+	 */
+	private static void resolveDeclarations(CompilationUnitDeclaration unit) {
+		List bodies = collectBodies(unit);
+		org.eclipse.jdt.internal.compiler.ast.Statement[][] statements = new org.eclipse.jdt.internal.compiler.ast.Statement[bodies.size()][];
+		for (int i = 0, length = statements.length; i < length; i++) {
+			Object body = bodies.get(i);
+			if (body instanceof AbstractMethodDeclaration) {
+				AbstractMethodDeclaration method = (AbstractMethodDeclaration) body;
+				statements[i] = method.statements;
+				method.statements = null;
+			} else {
+				org.eclipse.jdt.internal.compiler.ast.Block block = ((org.eclipse.jdt.internal.compiler.ast.Initializer) body).block;
+				statements[i] = block.statements;
+				block.statements = null;
+			}
+		}
+		try {
+			unit.resolve();
+		} finally {
+			// the statements are needed to convert the unit
+			for (int i = 0, length = statements.length; i < length; i++) {
+				Object body = bodies.get(i);
+				if (body instanceof AbstractMethodDeclaration) {
+					((AbstractMethodDeclaration) body).statements = statements[i];
+				} else {
+					((org.eclipse.jdt.internal.compiler.ast.Initializer) body).block.statements = statements[i];
+				}
+			}
+		}
+	}
+
 	private CompilationUnitDeclaration resolve(
 			CompilationUnitDeclaration unit,
 			org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit,
@@ -1205,7 +1451,11 @@ class CompilationUnitResolver extends Compiler {
 						unit.scope.verifyMethods(this.lookupEnvironment.methodVerifier());
 					}
 					// type checking
-					unit.resolve();
+					if (this.lazyBindings) {
+						resolveDeclarations(unit);
+					} else {
+						unit.resolve();
+					}
 	
 					// flow analysis
 					if (analyzeCode) unit.analyseCode();
@@ -15,6 +15,7 @@ package org.eclipse.jdt.core.dom;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.core.WorkingCopyOwner;
@@ -139,6 +140,13 @@ class DefaultBindingResolver extends BindingResolver {
 	 */
 	Map newAstToOldAst;
 
+	/**
+	 * The compiler method declarations and initializers whose statements are only resolved
+	 * when one of their nodes is queried, see ASTParser#setLazyBindings(boolean).
+	 * Null if all the statements were resolved along with the compilation unit.
+	 */
+	Set unresolvedBodies;
+
 	/**
 	 * Compilation unit scope
 	 */
@@ -249,6 +257,107 @@ class DefaultBindingResolver extends BindingResolver {
 		return (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(currentNode);
 	}
 
+	/*
+	 * Answers the compiler node of the given node, once the statements of the method or the initializer
+	 * declaring the node are resolved. With lazy bindings, they are resolved the first time one of
+	 * their nodes is queried.
+	 */
+	private synchronized Object getResolvedNode(ASTNode node) {
+		if (this.unresolvedBodies != null && !this.unresolvedBodies.isEmpty()) {
+			ASTNode child = node;
+			ASTNode parent = node.getParent();
+			while (parent != null) {
+				StructuralPropertyDescriptor location = child.getLocationInParent();
+				if (location == MethodDeclaration.BODY_PROPERTY) {
+					Object method = this.newAstToOldAst.get(parent);
+					if (method != null && this.unresolvedBodies.remove(method)) {
+						resolveBody((AbstractMethodDeclaration) method);
+						break;
+					}
+				} else if (location == Initializer.BODY_PROPERTY) {
+					Object type = this.newAstToOldAst.get(parent.getParent());
+					if (type instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration
+							&& resolveInitializer((org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) type, parent.getStartPosition())) {
+						break;
+					}
+				}
+				// the bodies of local and anonymous types are resolved with their enclosing body
+				child = parent;
+				parent = parent.getParent();
+			}
+		}
+		return this.newAstToOldAst.get(node);
+	}
+
+	/*
+	 * Answers the scope recorded for the given name or this expression by the converter, see ASTConverter#lookupScope.
+	 * With lazy bindings, the scopes of the bodies of local and anonymous types are only created when their enclosing
+	 * body is resolved, so they are looked up again then.
+	 */
+	private BlockScope getRecordedScope(ASTNode node) {
+		BlockScope blockScope = (BlockScope) this.astNodesToBlockScope.get(node);
+		if (blockScope == null && this.unresolvedBodies != null && this.astNodesToBlockScope.containsKey(node)) {
+			getResolvedNode(node);
+			blockScope = ASTConverter.lookupScope(node, this);
+			if (blockScope != null)
+				this.astNodesToBlockScope.put(node, blockScope);
+		}
+		return blockScope;
+	}
+
+	private void resolveBody(AbstractMethodDeclaration method) {
+		LookupEnvironment environment = this.scope.environment;
+		CompilationUnitDeclaration previousUnit = environment.unitBeingCompleted;
+		environment.unitBeingCompleted = this.scope.referenceContext;
+		try {
+			for (int i = 0, length = method.statements.length; i < length; i++) {
+				method.statements[i].resolve(method.scope);
+			}
+		} catch (AbortCompilation e) {
+			// the remaining statements stay unresolved
+			method.ignoreFurtherInvestigation = true;
+		} finally {
+			environment.unitBeingCompleted = previousUnit;
+		}
+	}
+
+	/*
+	 * Resolves the unresolved initializer of the given type which starts at the given position, if any.
+	 * Mirrors org.eclipse.jdt.internal.compiler.ast.Initializer#resolve(MethodScope) for the block only.
+	 */
+	private boolean resolveInitializer(org.eclipse.jdt.internal.compiler.ast.TypeDeclaration type, int start) {
+		if (type.fields == null) return false;
+		for (int i = 0, length = type.fields.length; i < length; i++) {
+			FieldDeclaration field = type.fields[i];
+			if (field.declarationSourceStart != start
+					|| !(field instanceof org.eclipse.jdt.internal.compiler.ast.Initializer)
+					|| !this.unresolvedBodies.remove(field)) {
+				continue;
+			}
+			org.eclipse.jdt.internal.compiler.ast.Initializer initializer = (org.eclipse.jdt.internal.compiler.ast.Initializer) field;
+			MethodScope methodScope = initializer.isStatic() ? type.staticInitializerScope : type.initializerScope;
+			LookupEnvironment environment = this.scope.environment;
+			CompilationUnitDeclaration previousUnit = environment.unitBeingCompleted;
+			FieldBinding previousField = methodScope.initializedField;
+			int previousFieldID = methodScope.lastVisibleFieldID;
+			environment.unitBeingCompleted = this.scope.referenceContext;
+			try {
+				methodScope.initializedField = null;
+				methodScope.lastVisibleFieldID = initializer.lastVisibleFieldID;
+				initializer.block.resolve(methodScope);
+			} catch (AbortCompilation e) {
+				// the remaining statements stay unresolved
+				initializer.ignoreFurtherInvestigation = true;
+			} finally {
+				methodScope.initializedField = previousField;
+				methodScope.lastVisibleFieldID = previousFieldID;
+				environment.unitBeingCompleted = previousUnit;
+			}
+			return true;
+		}
+		return false;
+	}
+
 	/*
 	 * Method declared on BindingResolver.
 	 */
@@ -563,7 +672,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	boolean isResolvedTypeInferredFromExpectedType(MethodInvocation methodInvocation) {
-		Object oldNode = this.newAstToOldAst.get(methodInvocation);
+		Object oldNode = getResolvedNode(methodInvocation);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			org.eclipse.jdt.internal.compiler.lookup.MethodBinding methodBinding = messageSend.binding;
@@ -576,7 +685,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	boolean isResolvedTypeInferredFromExpectedType(SuperMethodInvocation superMethodInvocation) {
-		Object oldNode = this.newAstToOldAst.get(superMethodInvocation);
+		Object oldNode = getResolvedNode(superMethodInvocation);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			org.eclipse.jdt.internal.compiler.lookup.MethodBinding methodBinding = messageSend.binding;
@@ -589,7 +698,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	boolean isResolvedTypeInferredFromExpectedType(ClassInstanceCreation classInstanceCreation) {
-		Object oldNode = this.newAstToOldAst.get(classInstanceCreation);
+		Object oldNode = getResolvedNode(classInstanceCreation);
 		if (oldNode instanceof AllocationExpression) {
 			AllocationExpression allocationExpression = (AllocationExpression) oldNode;
 			return allocationExpression.inferredReturnType;
@@ -615,7 +724,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveBoxing(Expression)
 	 */
 	boolean resolveBoxing(Expression expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(expression);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.Expression) {
 			org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) node;
 			return (compilerExpression.implicitConversion & TypeIds.BOXING) != 0;
@@ -627,7 +736,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveUnboxing(Expression)
 	 */
 	boolean resolveUnboxing(Expression expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(expression);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.Expression) {
 			org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) node;
 			return (compilerExpression.implicitConversion & TypeIds.UNBOXING) != 0;
@@ -639,7 +748,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstantExpressionValue(Expression)
 	 */
 	Object resolveConstantExpressionValue(Expression expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(expression);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.Expression) {
 			org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) node;
 			Constant constant = compilerExpression.constant;
@@ -665,7 +774,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstructor(ClassInstanceCreation)
 	 */
 	synchronized IMethodBinding resolveConstructor(ClassInstanceCreation expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(expression);
 		if (node != null && (node.bits & org.eclipse.jdt.internal.compiler.ast.ASTNode.IsAnonymousType) != 0) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration anonymousLocalTypeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			return getMethodBinding(anonymousLocalTypeDeclaration.allocation.binding);
@@ -679,7 +788,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstructor(ConstructorInvocation)
 	 */
 	synchronized IMethodBinding resolveConstructor(ConstructorInvocation expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(expression);
 		if (node instanceof ExplicitConstructorCall) {
 			ExplicitConstructorCall explicitConstructorCall = (ExplicitConstructorCall) node;
 			return getMethodBinding(explicitConstructorCall.binding);
@@ -691,7 +800,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveConstructor(org.eclipse.jdt.core.dom.EnumConstantDeclaration)
 	 */
 	IMethodBinding resolveConstructor(EnumConstantDeclaration enumConstantDeclaration) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(enumConstantDeclaration);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(enumConstantDeclaration);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.FieldDeclaration fieldDeclaration = (org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) node;
 			if (fieldDeclaration.getKind() == AbstractVariableDeclaration.ENUM_CONSTANT && fieldDeclaration.initialization != null) {
@@ -706,7 +815,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstructor(SuperConstructorInvocation)
 	 */
 	synchronized IMethodBinding resolveConstructor(SuperConstructorInvocation expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(expression);
 		if (node instanceof ExplicitConstructorCall) {
 			ExplicitConstructorCall explicitConstructorCall = (ExplicitConstructorCall) node;
 			return getMethodBinding(explicitConstructorCall.binding);
@@ -720,7 +829,7 @@ class DefaultBindingResolver extends BindingResolver {
 		try {
 			switch(expression.getNodeType()) {
 				case ASTNode.CLASS_INSTANCE_CREATION :
-					org.eclipse.jdt.internal.compiler.ast.ASTNode astNode = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+					org.eclipse.jdt.internal.compiler.ast.ASTNode astNode = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(expression);
 					if (astNode instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 						// anonymous type case
 						org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) astNode;
@@ -760,7 +869,7 @@ class DefaultBindingResolver extends BindingResolver {
 				case ASTNode.MARKER_ANNOTATION :
 				case ASTNode.NORMAL_ANNOTATION :
 				case ASTNode.SINGLE_MEMBER_ANNOTATION :
-					org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) this.newAstToOldAst.get(expression);
+					org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) getResolvedNode(expression);
 					if (compilerExpression != null) {
 						return this.getTypeBinding(compilerExpression.resolvedType);
 					}
@@ -774,14 +883,14 @@ class DefaultBindingResolver extends BindingResolver {
 				case ASTNode.NULL_LITERAL :
 				case ASTNode.CHARACTER_LITERAL :
 				case ASTNode.NUMBER_LITERAL :
-					Literal literal = (Literal) this.newAstToOldAst.get(expression);
+					Literal literal = (Literal) getResolvedNode(expression);
 					if (literal != null) {
 						return this.getTypeBinding(literal.literalType(null));
 					}
 					break;
 				case ASTNode.THIS_EXPRESSION :
-					ThisReference thisReference = (ThisReference) this.newAstToOldAst.get(expression);
-					BlockScope blockScope = (BlockScope) this.astNodesToBlockScope.get(expression);
+					ThisReference thisReference = (ThisReference) getResolvedNode(expression);
+					BlockScope blockScope = getRecordedScope(expression);
 					if (blockScope != null) {
 						return this.getTypeBinding(thisReference.resolveType(blockScope));
 					}
@@ -807,7 +916,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveField(FieldAccess)
 	 */
 	synchronized IVariableBinding resolveField(FieldAccess fieldAccess) {
-		Object oldNode = this.newAstToOldAst.get(fieldAccess);
+		Object oldNode = getResolvedNode(fieldAccess);
 		if (oldNode instanceof FieldReference) {
 			FieldReference fieldReference = (FieldReference) oldNode;
 			return this.getVariableBinding(fieldReference.binding);
@@ -819,7 +928,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveField(SuperFieldAccess)
 	 */
 	synchronized IVariableBinding resolveField(SuperFieldAccess fieldAccess) {
-		Object oldNode = this.newAstToOldAst.get(fieldAccess);
+		Object oldNode = getResolvedNode(fieldAccess);
 		if (oldNode instanceof FieldReference) {
 			FieldReference fieldReference = (FieldReference) oldNode;
 			return this.getVariableBinding(fieldReference.binding);
@@ -833,7 +942,7 @@ class DefaultBindingResolver extends BindingResolver {
 	synchronized IBinding resolveImport(ImportDeclaration importDeclaration) {
 		if (this.scope == null) return null;
 		try {
-			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(importDeclaration);
+			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(importDeclaration);
 			if (node instanceof ImportReference) {
 				ImportReference importReference = (ImportReference) node;
 				final boolean isStatic = importReference.isStatic();
@@ -897,7 +1006,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveMember(org.eclipse.jdt.core.dom.AnnotationTypeMemberDeclaration)
 	 */
 	IMethodBinding resolveMember(AnnotationTypeMemberDeclaration declaration) {
-		Object oldNode = this.newAstToOldAst.get(declaration);
+		Object oldNode = getResolvedNode(declaration);
 		if (oldNode instanceof AbstractMethodDeclaration) {
 			AbstractMethodDeclaration methodDeclaration = (AbstractMethodDeclaration) oldNode;
 			IMethodBinding methodBinding = getMethodBinding(methodDeclaration.binding);
@@ -918,7 +1027,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(LambdaExpression lambda) {
-		Object oldNode = this.newAstToOldAst.get(lambda);
+		Object oldNode = getResolvedNode(lambda);
 		if (oldNode instanceof org.eclipse.jdt.internal.compiler.ast.LambdaExpression) {
 			org.eclipse.jdt.internal.compiler.ast.LambdaExpression lambdaExpression = (org.eclipse.jdt.internal.compiler.ast.LambdaExpression) oldNode;
 			IMethodBinding methodBinding = null;
@@ -985,7 +1094,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(MethodDeclaration method) {
-		Object oldNode = this.newAstToOldAst.get(method);
+		Object oldNode = getResolvedNode(method);
 		if (oldNode instanceof AbstractMethodDeclaration) {
 			AbstractMethodDeclaration methodDeclaration = (AbstractMethodDeclaration) oldNode;
 			IMethodBinding methodBinding = getMethodBinding(methodDeclaration.binding);
@@ -1005,7 +1114,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(MethodInvocation method) {
-		Object oldNode = this.newAstToOldAst.get(method);
+		Object oldNode = getResolvedNode(method);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			return getMethodBinding(messageSend.binding);
@@ -1016,7 +1125,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(MethodReference methodReference) {
-		Object oldNode = this.newAstToOldAst.get(methodReference);
+		Object oldNode = getResolvedNode(methodReference);
 		if (oldNode instanceof org.eclipse.jdt.internal.compiler.ast.ReferenceExpression) {
 			org.eclipse.jdt.internal.compiler.ast.ReferenceExpression referenceExpression = (org.eclipse.jdt.internal.compiler.ast.ReferenceExpression) oldNode;
 			if (referenceExpression.receiverType != null && referenceExpression.receiverType.isArrayType())
@@ -1033,7 +1142,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(SuperMethodInvocation method) {
-		Object oldNode = this.newAstToOldAst.get(method);
+		Object oldNode = getResolvedNode(method);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			return getMethodBinding(messageSend.binding);
@@ -1042,7 +1151,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	synchronized ITypeBinding resolveTypeBindingForName(Name name) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(name);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(name);
 		int index = name.index;
 		if (node instanceof QualifiedNameReference) {
 			QualifiedNameReference qualifiedNameReference = (QualifiedNameReference) node;
@@ -1053,7 +1162,7 @@ class DefaultBindingResolver extends BindingResolver {
 			int indexOfFirstFieldBinding = qualifiedNameReference.indexOfFirstFieldBinding; // one-based
 			if (index < indexOfFirstFieldBinding) {
 				// an extra lookup is required
-				BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+				BlockScope internalScope = getRecordedScope(name);
 				Binding binding = null;
 				try {
 					if (internalScope == null) {
@@ -1132,7 +1241,7 @@ class DefaultBindingResolver extends BindingResolver {
 				return this.getTypeBinding(qualifiedTypeReference.resolvedType.leafComponentType());
 			} else {
 				if (index >= 0) {
-					BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+					BlockScope internalScope = getRecordedScope(name);
 					Binding binding = null;
 					try {
 						if (internalScope == null) {
@@ -1262,7 +1371,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IBinding resolveName(Name name) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(name);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(name);
 		int index = name.index;
 		if (node instanceof QualifiedNameReference) {
 			QualifiedNameReference qualifiedNameReference = (QualifiedNameReference) node;
@@ -1270,7 +1379,7 @@ class DefaultBindingResolver extends BindingResolver {
 			int indexOfFirstFieldBinding = qualifiedNameReference.indexOfFirstFieldBinding; // one-based
 			if (index < indexOfFirstFieldBinding) {
 				// an extra lookup is required
-				BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+				BlockScope internalScope = getRecordedScope(name);
 				Binding binding = null;
 				try {
 					if (internalScope == null) {
@@ -1348,7 +1457,7 @@ class DefaultBindingResolver extends BindingResolver {
 				return this.getTypeBinding(qualifiedTypeReference.resolvedType.leafComponentType());
 			} else {
 				if (index >= 0) {
-					BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+					BlockScope internalScope = getRecordedScope(name);
 					Binding binding = null;
 					try {
 						if (internalScope == null) {
@@ -1527,7 +1636,7 @@ class DefaultBindingResolver extends BindingResolver {
 	synchronized IPackageBinding resolvePackage(PackageDeclaration pkg) {
 		if (this.scope == null) return null;
 		try {
-			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(pkg);
+			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(pkg);
 			if (node instanceof ImportReference) {
 				ImportReference importReference = (ImportReference) node;
 				Binding binding = this.scope.getOnlyPackage(CharOperation.subarray(importReference.tokens, 0, importReference.tokens.length));
@@ -1564,7 +1673,7 @@ class DefaultBindingResolver extends BindingResolver {
      * @since 3.0
 	 */
 	synchronized IBinding resolveReference(MemberRef ref) {
-		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) this.newAstToOldAst.get(ref);
+		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) getResolvedNode(ref);
 		if (expression instanceof TypeReference) {
 			return getTypeBinding(expression.resolvedType);
 		} else if (expression instanceof JavadocFieldReference) {
@@ -1582,7 +1691,7 @@ class DefaultBindingResolver extends BindingResolver {
      * @since 3.2
 	 */
 	synchronized IMemberValuePairBinding resolveMemberValuePair(org.eclipse.jdt.core.dom.MemberValuePair memberValuePair) {
-		MemberValuePair valuePair = (MemberValuePair) this.newAstToOldAst.get(memberValuePair);
+		MemberValuePair valuePair = (MemberValuePair) getResolvedNode(memberValuePair);
 		if (valuePair != null) {
 			return getMemberValuePairBinding(valuePair.compilerElementPair);
 		}
@@ -1594,7 +1703,7 @@ class DefaultBindingResolver extends BindingResolver {
      * @since 3.0
 	 */
 	synchronized IBinding resolveReference(MethodRef ref) {
-		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) this.newAstToOldAst.get(ref);
+		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) getResolvedNode(ref);
 		if (expression instanceof JavadocMessageSend) {
 			return getMethodBinding(((JavadocMessageSend)expression).binding);
 		}
@@ -1608,7 +1717,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveType(org.eclipse.jdt.core.dom.AnnotationTypeDeclaration)
 	 */
 	ITypeBinding resolveType(AnnotationTypeDeclaration type) {
-		final Object node = this.newAstToOldAst.get(type);
+		final Object node = getResolvedNode(type);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			ITypeBinding typeBinding = this.getTypeBinding(typeDeclaration.binding);
@@ -1628,7 +1737,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveType(AnonymousClassDeclaration)
 	 */
 	synchronized ITypeBinding resolveType(AnonymousClassDeclaration type) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(type);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(type);
 		if (node != null && (node.bits & org.eclipse.jdt.internal.compiler.ast.ASTNode.IsAnonymousType) != 0) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration anonymousLocalTypeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			IBinding declaringMember = getDeclaringMember(anonymousLocalTypeDeclaration, anonymousLocalTypeDeclaration.scope);
@@ -1650,7 +1759,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveType(org.eclipse.jdt.core.dom.EnumDeclaration)
 	 */
 	ITypeBinding resolveType(EnumDeclaration type) {
-		final Object node = this.newAstToOldAst.get(type);
+		final Object node = getResolvedNode(type);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			ITypeBinding typeBinding = this.getTypeBinding(typeDeclaration.binding);
@@ -1672,7 +1781,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 */
 	synchronized ITypeBinding resolveType(Type type) {
 		// retrieve the old ast node
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(type);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getResolvedNode(type);
 		org.eclipse.jdt.internal.compiler.lookup.TypeBinding binding = null;
 		if (node != null) {
 			if (node instanceof Receiver) {
@@ -1790,7 +1899,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized ITypeBinding resolveType(TypeDeclaration type) {
-		final Object node = this.newAstToOldAst.get(type);
+		final Object node = getResolvedNode(type);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			IBinding declaringMember = getDeclaringMember(typeDeclaration, typeDeclaration.scope);
@@ -1809,7 +1918,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	synchronized ITypeBinding resolveTypeParameter(TypeParameter typeParameter) {
-		final Object node = this.newAstToOldAst.get(typeParameter);
+		final Object node = getResolvedNode(typeParameter);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeParameter) {
 			org.eclipse.jdt.internal.compiler.ast.TypeParameter typeParameter2 = (org.eclipse.jdt.internal.compiler.ast.TypeParameter) node;
 			ITypeBinding typeBinding = this.getTypeBinding(typeParameter2.binding);
@@ -1830,7 +1939,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveVariable(org.eclipse.jdt.core.dom.EnumConstantDeclaration)
 	 */
 	synchronized IVariableBinding resolveVariable(EnumConstantDeclaration enumConstant) {
-		final Object node = this.newAstToOldAst.get(enumConstant);
+		final Object node = getResolvedNode(enumConstant);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.FieldDeclaration fieldDeclaration = (org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) node;
 			IVariableBinding variableBinding = this.getVariableBinding(fieldDeclaration.binding);
@@ -1850,7 +1959,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IVariableBinding resolveVariable(VariableDeclaration variable) {
-		final Object node = this.newAstToOldAst.get(variable);
+		final Object node = getResolvedNode(variable);
 		if (node instanceof AbstractVariableDeclaration) {
 			AbstractVariableDeclaration abstractVariableDeclaration = (AbstractVariableDeclaration) node;
 			IVariableBinding variableBinding = null;
@@ -1941,7 +2050,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	synchronized IAnnotationBinding resolveAnnotation(final Annotation domASTNode) {
-		Object oldNode = this.newAstToOldAst.get(domASTNode);
+		Object oldNode = getResolvedNode(domASTNode);
 		if (oldNode instanceof org.eclipse.jdt.internal.compiler.ast.Annotation) {
 			org.eclipse.jdt.internal.compiler.ast.Annotation internalAstNode =
 				(org.eclipse.jdt.internal.compiler.ast.Annotation) oldNode;
@@ -22,6 +22,16 @@ import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameN
 import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameCOMMENT_JAVADOC;
 import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameCOMMENT_BLOCK;
 import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameCOMMENT_LINE;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameAT;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameEQUAL;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameLBRACE;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameLPAREN;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameRBRACE;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameRPAREN;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameSEMICOLON;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameclass;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameenum;
+import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameinterface;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -48,6 +58,7 @@ import org.eclipse.jdt.internal.formatter.linewrap.WrapPreparator;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Region;
 import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 
 public class DefaultCodeFormatter extends CodeFormatter {
@@ -69,6 +80,11 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		| K_COMPILATION_UNIT
 		| K_COMMENTS_MASK;
 
+	/**
+	 * Compilation units shorter than this are always formatted as a whole, see {@link #findMembersToFormat(String)}.
+	 */
+	private static final int INCREMENTAL_FORMAT_THRESHOLD = 8 * 1024;
+
 	private DefaultCodeFormatterOptions originalOptions;
 	private DefaultCodeFormatterOptions workingOptions;
 
@@ -157,7 +173,21 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		if ((kind & K_COMMENTS_MASK) != 0)
 			return formatComments(source, kind & K_COMMENTS_MASK);
 
-		if (prepareFormattedCode(source, kind) == null)
+		boolean isTokenized = false;
+		if ((kind & K_MASK) == K_COMPILATION_UNIT && mayFormatMembers(source)) {
+			if (!init(source))
+				return new MultiTextEdit();
+			List<IRegion> members = findMembersToFormat();
+			if (members != null) {
+				TextEdit result = formatMembers(source, members, kind);
+				if (result != null)
+					return result;
+			} else {
+				isTokenized = true; // the tokens of the unit can be formatted as a whole
+			}
+		}
+
+		if ((isTokenized ? prepareFormattedCode(kind) : prepareFormattedCode(source, kind)) == null)
 			return this.tokens.isEmpty() ? new MultiTextEdit() : null;
 
 		MultiTextEdit result = new MultiTextEdit();
@@ -170,6 +200,213 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		return result;
 	}
 
+	/**
+	 * Answers whether the format regions of the given compilation unit may be formatted by handling only the
+	 * members enclosing them, as checked by {@link #findMembersToFormat()}. Only checks what is known without
+	 * tokenizing the unit: its size, the options and the size of the regions.
+	 */
+	private boolean mayFormatMembers(String source) {
+		if (source.length() < INCREMENTAL_FORMAT_THRESHOLD || this.workingOptions.align_type_members_on_columns)
+			return false;
+		if (this.workingOptions.use_tags && this.workingOptions.disabling_tag != null
+				&& source.indexOf(new String(this.workingOptions.disabling_tag)) != -1)
+			return false;
+		int regionsLength = 0;
+		for (IRegion region : this.formatRegions)
+			regionsLength += region.getLength();
+		return regionsLength * 2 <= source.length(); // the members are at least as large as the regions
+	}
+
+	/**
+	 * Finds the members of top level classes and interfaces enclosing the format regions, so that
+	 * large compilation units can be formatted by handling only these members instead of the whole
+	 * unit. Each member extends from the start of the line of its first token (including its javadoc)
+	 * to the end of its last token (including a comment following it on the same line).
+	 * <p>
+	 * Only members whose formatting cannot depend on the rest of the unit qualify: they must start on
+	 * their own line with a javadoc or a declaration, and the regions must not touch anything outside
+	 * of them, such as the blank lines between members which depend on the surrounding members.
+	 * Enum and annotation type bodies, format off tags and type members aligned on columns are left
+	 * to the complete formatting.
+	 * </p>
+	 * <p>
+	 * The unit must have been tokenized by {@link #init(String)}.
+	 * </p>
+	 *
+	 * @return the members covering the format regions, or <code>null</code> if the whole unit must be formatted
+	 */
+	private List<IRegion> findMembersToFormat() {
+		// members of top level types as {start, end, eligible}, in source order
+		List<int[]> members = new ArrayList<>();
+		int depth = 0, parenDepth = 0;
+		int declarationKind = 0, previousType = 0;
+		boolean isTypeEligible = false;
+		int memberStart = -1, lastMemberEnd = -1;
+		boolean isMemberEligible = false, hasInitializer = false;
+		for (Token token : this.tokens) {
+			int type = token.tokenType;
+			if (type == TokenNameNotAToken)
+				return null;
+			if (depth == 1 && memberStart == -1 && type != TokenNameRBRACE) {
+				if (token.isComment() && lastMemberEnd != -1 && isSameLine(lastMemberEnd, token.originalStart)) {
+					// a comment after the end of the previous member belongs to it
+					int end = token.originalEnd;
+					while (this.sourceArray[end] == '\r' || this.sourceArray[end] == '\n')
+						end--; // a line comment token includes its line break
+					members.get(members.size() - 1)[1] = lastMemberEnd = end;
+					continue;
+				}
+				memberStart = lineStartBefore(token.originalStart);
+				// blank lines before a declaration are not put before a preceding line or block comment
+				isMemberEligible = isTypeEligible && memberStart != -1
+						&& (!token.isComment() || type == TokenNameCOMMENT_JAVADOC);
+				if (memberStart == -1)
+					memberStart = token.originalStart;
+				hasInitializer = false;
+				parenDepth = 0;
+			}
+			boolean isMemberEnd = false;
+			switch (type) {
+				case TokenNameLBRACE:
+					if (depth++ == 0) {
+						isTypeEligible = declarationKind == TokenNameclass || declarationKind == TokenNameinterface;
+						lastMemberEnd = -1;
+					}
+					break;
+				case TokenNameRBRACE:
+					if (--depth == 0) {
+						memberStart = -1; // a trailing comment of the type body
+						declarationKind = 0;
+					} else if (depth == 1) {
+						isMemberEnd = parenDepth == 0 && !hasInitializer;
+					} else if (depth < 0) {
+						return null;
+					}
+					break;
+				case TokenNameSEMICOLON:
+					isMemberEnd = depth == 1 && parenDepth == 0;
+					break;
+				case TokenNameLPAREN:
+					parenDepth++;
+					break;
+				case TokenNameRPAREN:
+					parenDepth--;
+					break;
+				case TokenNameEQUAL:
+					if (depth == 1 && parenDepth == 0)
+						hasInitializer = true;
+					break;
+				case TokenNameclass:
+				case TokenNameinterface:
+				case TokenNameenum:
+					if (depth == 0)
+						declarationKind = (type == TokenNameinterface && previousType == TokenNameAT) ? TokenNameAT : type;
+					break;
+			}
+			if (isMemberEnd) {
+				members.add(new int[] { memberStart, token.originalEnd, isMemberEligible ? 1 : 0 });
+				lastMemberEnd = token.originalEnd;
+				memberStart = -1;
+			}
+			if (!token.isComment())
+				previousType = type;
+		}
+
+		List<IRegion> result = new ArrayList<>();
+		int membersLength = 0;
+		for (IRegion region : this.formatRegions) {
+			int position = region.getOffset();
+			int end = position + Math.max(region.getLength(), 1);
+			for (int[] member : members) {
+				if (member[1] < position)
+					continue;
+				if (member[0] > position || member[2] == 0)
+					return null; // the region touches code outside of the qualifying members
+				if (result.isEmpty() || result.get(result.size() - 1).getOffset() != member[0]) {
+					result.add(new Region(member[0], member[1] + 1 - member[0]));
+					membersLength += member[1] + 1 - member[0];
+				}
+				position = member[1] + 1;
+				if (position >= end)
+					break;
+			}
+			if (position < end)
+				return null;
+		}
+		if (result.isEmpty() || membersLength * 2 > this.sourceArray.length)
+			return null; // not worth it
+		return result;
+	}
+
+	private int lineStartBefore(int position) {
+		int start = position;
+		while (start > 0) {
+			char c = this.sourceArray[start - 1];
+			if (c == '\r' || c == '\n')
+				break;
+			if (c != ' ' && c != '\t')
+				return -1;
+			start--;
+		}
+		return start;
+	}
+
+	private boolean isSameLine(int from, int to) {
+		for (int i = from; i < to; i++) {
+			char c = this.sourceArray[i];
+			if (c == '\r' || c == '\n')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Formats the given members of a compilation unit separately, as class body declarations indented
+	 * like the members of a top level type. The format regions are clipped to each member.
+	 *
+	 * @return the edits for the whole compilation unit, or <code>null</code> if a member could not be formatted
+	 */
+	private TextEdit formatMembers(String source, List<IRegion> members, int kind) {
+		List<IRegion> regions = this.formatRegions;
+		int indentationLevel = this.workingOptions.initial_indentation_level;
+		if (this.workingOptions.indent_body_declarations_compare_to_type_header)
+			this.workingOptions.initial_indentation_level++;
+		try {
+			MultiTextEdit result = new MultiTextEdit();
+			for (IRegion member : members) {
+				int memberStart = member.getOffset(), memberEnd = memberStart + member.getLength();
+				List<IRegion> memberRegions = new ArrayList<>();
+				for (IRegion region : regions) {
+					int start = Math.max(region.getOffset(), memberStart);
+					int end = Math.min(region.getOffset() + region.getLength(), memberEnd);
+					if (start < end || (start == end && region.getLength() == 0))
+						memberRegions.add(new Region(start - memberStart, end - start));
+				}
+				if (memberRegions.isEmpty())
+					continue;
+				this.formatRegions = memberRegions;
+
+				String memberSource = source.substring(memberStart, memberEnd);
+				if (prepareFormattedCode(memberSource, K_CLASS_BODY_DECLARATIONS | (kind & F_INCLUDE_COMMENTS)) == null)
+					return null;
+				// the line breaks around the member are left as they are
+				this.tokens.get(0).clearLineBreaksBefore();
+				this.tokens.get(this.tokens.size() - 1).clearLineBreaksAfter();
+				TextEditsBuilder resultBuilder = new TextEditsBuilder(memberSource, this.formatRegions,
+						this.tokenManager, this.workingOptions);
+				this.tokenManager.traverse(0, resultBuilder);
+				for (TextEdit edit : resultBuilder.getEdits()) {
+					result.addChild(new ReplaceEdit(memberStart + edit.getOffset(), edit.getLength(),
+							((ReplaceEdit) edit).getText()));
+				}
+			}
+			return result;
+		} finally {
+			this.workingOptions.initial_indentation_level = indentationLevel;
+			this.formatRegions = regions;
+		}
+	}
+
 	private boolean init(String source) {
 
 		// this is convenient for debugging (see Token.toString())
@@ -192,7 +429,13 @@ public class DefaultCodeFormatter extends CodeFormatter {
 	private List<Token> prepareFormattedCode(String source, int kind) {
 		if (!init(source))
 			return null;
+		return prepareFormattedCode(kind);
+	}
 
+	/**
+	 * Prepares the formatting of the tokens set up by {@link #init(String)}.
+	 */
+	private List<Token> prepareFormattedCode(int kind) {
 		this.astRoot = parseSourceCode(kind);
 		if (this.astRoot == null)
 			return null;
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.core.util.ILRUCacheable;
+import org.eclipse.jdt.internal.core.util.LRUCache;
+
+/**
+ * A process wide cache of the binary types read from archives, shared by the builder's
+ * name environment and the searchable environment so that class files which did not change
+ * are decoded only once across builds and reconciles.
+ * <p>
+ * Types are keyed by the path of their archive and the file name they answer, and are only
+ * answered while the size and last modification time of the archive are unchanged. Cached
+ * readers are fully initialized, so they no longer reference the class file bytes and can
+ * be shared between threads. The cache is bounded by the total size of the cached class
+ * files, and the readers are softly referenced so they can still be reclaimed when
+ * memory runs low.
+ * </p>
+ */
+public class BinaryTypeCache {
+
+	private static class CachedType implements ILRUCacheable {
+		final long lastModified;
+		final long size;
+		final SoftReference<ClassFileReader> reader;
+		final int footprint;
+
+		CachedType(long lastModified, long size, ClassFileReader reader, int length) {
+			this.lastModified = lastModified;
+			this.size = size;
+			this.reader = new SoftReference<>(reader);
+			this.footprint = length / 1024 + 1;
+		}
+
+		public int getCacheFootprint() {
+			return this.footprint;
+		}
+	}
+
+	/**
+	 * System property giving the maximum size of the cached class files, in kilobytes.
+	 */
+	public static final String CACHE_SIZE_PROPERTY = "jdt.core.binaryTypeCacheSize"; //$NON-NLS-1$
+
+	public static final BinaryTypeCache INSTANCE = new BinaryTypeCache(Integer.getInteger(CACHE_SIZE_PROPERTY, 32 * 1024).intValue());
+
+	private LRUCache types;
+	private int hits, misses;
+
+public BinaryTypeCache(int spaceLimit) {
+	this.types = new LRUCache(spaceLimit);
+}
+
+public synchronized void flush() {
+	this.types.flush();
+}
+
+/**
+ * Answers the number of types answered from the cache, and the number of types which had to be read.
+ */
+public synchronized int[] getStatistics() {
+	return new int[] {this.hits, this.misses};
+}
+
+private synchronized ClassFileReader get(String key, long lastModified, long size) {
+	CachedType cached = (CachedType) this.types.get(key);
+	if (cached != null) {
+		ClassFileReader reader = cached.reader.get();
+		if (reader != null && cached.lastModified == lastModified && cached.size == size) {
+			this.hits++;
+			return reader;
+		}
+		this.types.removeKey(key); // reclaimed or stale
+	}
+	this.misses++;
+	return null;
+}
+
+private synchronized void put(String key, CachedType cached) {
+	this.types.put(key, cached);
+}
+
+/**
+ * Answers the fully initialized binary type of the given entry of an archive, or null if the
+ * archive has no such entry. The type is read from the zip file unless a type with the same
+ * file name was already read from the same version of the archive.
+ *
+ * @param zipFile the open archive
+ * @param archivePath the path of the archive on disk
+ * @param lastModified the last modification time of the archive
+ * @param size the size of the archive
+ * @param entryName the name of the class file entry in the archive
+ * @param fileName the file name answered by the type
+ */
+public ClassFileReader read(ZipFile zipFile, String archivePath, long lastModified, long size, String entryName, char[] fileName)
+		throws ClassFormatException, IOException {
+	String key = new StringBuffer(archivePath.length() + fileName.length + 1)
+		.append(archivePath).append('|').append(fileName).toString();
+	ClassFileReader reader = get(key, lastModified, size);
+	if (reader != null)
+		return reader;
+
+	// read outside of the lock, at worst the same type is read twice
+	ZipEntry entry = zipFile.getEntry(entryName);
+	if (entry == null)
+		return null;
+	byte[] contents = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(entry, zipFile);
+	reader = new ClassFileReader(contents, fileName, true);
+	put(key, new CachedType(lastModified, size, reader, contents.length));
+	return reader;
+}
+
+public synchronized String toString() {
+	return "BinaryTypeCache: " + this.hits + " hits, " + this.misses + " misses\n" + this.types.toString(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+}
+}
@@ -12,7 +12,12 @@
  *								Bug 440477 - [null] Infrastructure for feeding external annotations into compilation
  *******************************************************************************/
 package org.eclipse.jdt.internal.core;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jdt.core.IJavaElement;
@@ -32,8 +37,24 @@ public class JavaModelCache {
 	public static final int DEFAULT_PKG_SIZE = 500; // average 1782 bytes per pkg -> maximum size : 178200*BASE_VALUE bytes
 	public static final int DEFAULT_OPENABLE_SIZE = 250; // average 6629 bytes per openable (includes children) -> maximum size : 662900*BASE_VALUE bytes
 	public static final int DEFAULT_CHILDREN_SIZE = 250*20; // average 20 children per openable
+	// average sizes in bytes of the infos, see above
+	static final long PROJECT_FOOTPRINT = 25552, ROOT_FOOTPRINT = 2590, PKG_FOOTPRINT = 1782, OPENABLE_FOOTPRINT = 6629;
 	public static final String RATIO_PROPERTY = "org.eclipse.jdt.core.javamodelcache.ratio"; //$NON-NLS-1$
 	public static final String JAR_TYPE_RATIO_PROPERTY = "org.eclipse.jdt.core.javamodelcache.jartyperatio"; //$NON-NLS-1$
+	public static final String LOW_MEMORY_RATIO_PROPERTY = "org.eclipse.jdt.core.javamodelcache.lowmemoryratio"; //$NON-NLS-1$
+
+	/*
+	 * The memory is considered low when a heap memory pool is still filled above this ratio of its maximum
+	 * size after a garbage collection. Can be changed using the LOW_MEMORY_RATIO_PROPERTY property, 0 disables
+	 * the memory checks.
+	 */
+	public static final double DEFAULT_LOW_MEMORY_RATIO = 0.85;
+
+	/*
+	 * The ratio of their used space the openable and jar type caches are trimmed to when the memory is low.
+	 */
+	public static final double LOW_MEMORY_TRIM_RATIO = 0.5;
+	private static final long LOW_MEMORY_CHECK_INTERVAL = 1000; // ms
 	
 	public static final Object NON_EXISTING_JAR_TYPE_INFO = new Object();
 
@@ -77,6 +98,19 @@ public class JavaModelCache {
 	 */
 	protected LRUCache jarTypeCache;
 
+	/*
+	 * The heap memory pools whose collection usage threshold is checked, along with
+	 * the number of times the threshold was exceeded when last checked.
+	 */
+	private MemoryPoolMXBean[] memoryPools;
+	private long[] memoryThresholdCounts;
+	private long lastMemoryCheck;
+
+	/*
+	 * Number of times the caches were trimmed because the memory was low.
+	 */
+	protected int lowMemoryTrims;
+
 public JavaModelCache() {
 	// set the size of the caches as a function of the maximum amount of memory available
 	double ratio = getMemoryRatio();
@@ -94,6 +128,83 @@ public JavaModelCache() {
 	}
 	this.childrenCache = new HashMap((int) (DEFAULT_CHILDREN_SIZE * ratio * openableRatio));
 	resetJarTypeCache();
+	initializeMemoryPools();
+}
+
+/*
+ * Sets the collection usage threshold of the heap memory pools which support it, unless another
+ * client already did. Crossing the threshold is detected by checkMemory() later on.
+ */
+private void initializeMemoryPools() {
+	double lowMemoryRatio = getRatioForProperty(LOW_MEMORY_RATIO_PROPERTY, DEFAULT_LOW_MEMORY_RATIO);
+	if (lowMemoryRatio <= 0 || lowMemoryRatio >= 1) return;
+	List<MemoryPoolMXBean> pools = new ArrayList<>();
+	try {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) continue;
+			long max = pool.getUsage().getMax();
+			if (max <= 0) continue; // undefined maximum
+			if (pool.getCollectionUsageThreshold() == 0)
+				pool.setCollectionUsageThreshold((long) (max * lowMemoryRatio));
+			pools.add(pool);
+		}
+	} catch (SecurityException e) {
+		// no permission to monitor the memory
+		Util.log(e, "Could not monitor the memory for the Java model cache"); //$NON-NLS-1$
+		return;
+	}
+	if (pools.isEmpty()) return;
+	this.memoryPools = pools.toArray(new MemoryPoolMXBean[pools.size()]);
+	this.memoryThresholdCounts = new long[this.memoryPools.length];
+	for (int i = 0, length = this.memoryPools.length; i < length; i++) {
+		this.memoryThresholdCounts[i] = this.memoryPools[i].getCollectionUsageThresholdCount();
+	}
+}
+
+/**
+ * Trims the caches if a heap memory pool stayed above its threshold after a garbage collection
+ * since the last check. The memory pools are checked at most once per second.
+ */
+protected void checkMemory() {
+	if (this.memoryPools == null) return;
+	long now = System.currentTimeMillis();
+	if (now - this.lastMemoryCheck < LOW_MEMORY_CHECK_INTERVAL) return;
+	this.lastMemoryCheck = now;
+	boolean isMemoryLow = false;
+	for (int i = 0, length = this.memoryPools.length; i < length; i++) {
+		long count = this.memoryPools[i].getCollectionUsageThresholdCount();
+		if (count != this.memoryThresholdCounts[i]) {
+			this.memoryThresholdCounts[i] = count;
+			isMemoryLow = true;
+		}
+	}
+	if (isMemoryLow)
+		trim();
+}
+
+/**
+ * Closes the least recently used openables and forgets the least recently used jar types,
+ * along with their children, so that the caches use {@link #LOW_MEMORY_TRIM_RATIO} of their
+ * current space. The space limits are unchanged so the caches can grow again.
+ */
+protected void trim() {
+	this.lowMemoryTrims++;
+	this.openableCache.trimToSize((int) (this.openableCache.getCurrentSpace() * LOW_MEMORY_TRIM_RATIO));
+	this.jarTypeCache.trimToSize((int) (this.jarTypeCache.getCurrentSpace() * LOW_MEMORY_TRIM_RATIO));
+	if (VERBOSE) {
+		System.out.println(Thread.currentThread() + " LOW MEMORY - trimmed Java model cache:\n" + toStringFillingRation("-> ")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
+
+/**
+ * Returns an estimate of the memory used by the cached infos, in bytes. It is based on the average
+ * size of the infos of each kind of element, the children of an openable being included in its size.
+ */
+public long getEstimatedFootprint() {
+	return this.projectCache.size() * PROJECT_FOOTPRINT
+		+ this.rootCache.getCurrentSpace() * ROOT_FOOTPRINT
+		+ this.pkgCache.getCurrentSpace() * PKG_FOOTPRINT
+		+ (this.openableCache.getCurrentSpace() + this.jarTypeCache.getCurrentSpace()) * OPENABLE_FOOTPRINT;
 }
 
 private double getOpenableRatio() {
@@ -105,6 +216,10 @@ private double getJarTypeRatio() {
 }
 
 private double getRatioForProperty(String propertyName) {
+	return getRatioForProperty(propertyName, 1.0);
+}
+
+private double getRatioForProperty(String propertyName, double defaultRatio) {
 	String property = System.getProperty(propertyName);
 	if (property != null) {
 		try {
@@ -114,7 +229,7 @@ private double getRatioForProperty(String propertyName) {
 			Util.log(e, "Could not parse value for " + propertyName + ": " + property); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 	}
-	return 1.0;
+	return defaultRatio;
 }
 
 /**
@@ -323,4 +438,30 @@ public String toStringFillingRation(String prefix) {
 	buffer.append('\n');
 	return buffer.toString();
 }
+public String toStringStatistics(String prefix) {
+	StringBuffer buffer = new StringBuffer();
+	appendStatistics(buffer, prefix, "Root cache", this.rootCache); //$NON-NLS-1$
+	appendStatistics(buffer, prefix, "Package cache", this.pkgCache); //$NON-NLS-1$
+	appendStatistics(buffer, prefix, "Openable cache", this.openableCache); //$NON-NLS-1$
+	appendStatistics(buffer, prefix, "Jar type cache", this.jarTypeCache); //$NON-NLS-1$
+	buffer.append(prefix);
+	buffer.append("Estimated footprint: "); //$NON-NLS-1$
+	buffer.append(getEstimatedFootprint() / 1024);
+	buffer.append(" KB, trimmed "); //$NON-NLS-1$
+	buffer.append(this.lowMemoryTrims);
+	buffer.append(" times on low memory\n"); //$NON-NLS-1$
+	return buffer.toString();
+}
+private void appendStatistics(StringBuffer buffer, String prefix, String cacheName, LRUCache cache) {
+	int[] statistics = cache.getStatistics();
+	buffer.append(prefix);
+	buffer.append(cacheName);
+	buffer.append(": "); //$NON-NLS-1$
+	buffer.append(statistics[0]);
+	buffer.append(" hits, "); //$NON-NLS-1$
+	buffer.append(statistics[1]);
+	buffer.append(" misses, "); //$NON-NLS-1$
+	buffer.append(statistics[2]);
+	buffer.append(" evictions\n"); //$NON-NLS-1$
+}
 }
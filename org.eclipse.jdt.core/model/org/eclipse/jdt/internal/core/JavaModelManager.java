@@ -125,6 +125,7 @@ import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObjectToInt;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
 import org.eclipse.jdt.internal.core.JavaProjectElementInfo.ProjectCache;
 import org.eclipse.jdt.internal.core.builder.JavaBuilder;
 import org.eclipse.jdt.internal.core.dom.SourceRangeVerifier;
@@ -186,7 +187,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	}
 
 	/**
-	 * Define a zip cache object.
+	 * Define a zip cache object. The zip files are shared with the other threads through
+	 * the {@link ZipFilePool}, the cache only holds one reference to each of them.
 	 */
 	static class ZipCache {
 		private Map<Object, ZipFile> map;
@@ -205,9 +207,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				try {
 					if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
 						System.out.println("(" + currentThread + ") [ZipCache[" + this.owner //$NON-NLS-1$//$NON-NLS-2$
-								+ "].flush()] Closing ZipFile on " + zipFile.getName()); //$NON-NLS-1$
+								+ "].flush()] Releasing ZipFile on " + zipFile.getName()); //$NON-NLS-1$
 					}
-					zipFile.close();
+					if (!ZipFilePool.INSTANCE.release(zipFile))
+						zipFile.close();
 				} catch (IOException e) {
 					// problem occured closing zip file: cannot do much more
 					JavaCore.getPlugin().getLog().log(new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, "Error closing " + zipFile.getName(), e)); //$NON-NLS-1$
@@ -1559,7 +1562,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	public static boolean ZIP_ACCESS_VERBOSE = false;
 	
 	/**
-	 * A cache of opened zip files per thread.
+	 * A cache of references to the shared zip files per thread.
 	 * (for a given thread, the object value is a HashMap from IPath to java.io.ZipFile)
 	 */
 	private ThreadLocal zipFiles = new ThreadLocal();
@@ -1806,9 +1809,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 		try {
 			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
-				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.closeZipFile(ZipFile)] Closing ZipFile on " +zipFile.getName()); //$NON-NLS-1$	//$NON-NLS-2$
+				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.closeZipFile(ZipFile)] Releasing ZipFile on " +zipFile.getName()); //$NON-NLS-1$	//$NON-NLS-2$
 			}
-			zipFile.close();
+			if (!ZipFilePool.INSTANCE.release(zipFile))
+				zipFile.close();
 		} catch (IOException e) {
 			// problem occured closing zip file: cannot do much more
 			JavaCore.getPlugin().getLog().log(new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, "Error closing " + zipFile.getName(), e)); //$NON-NLS-1$
@@ -2852,12 +2856,13 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 		try {
 			if (ZIP_ACCESS_VERBOSE) {
-				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.getZipFile(IPath)] Creating ZipFile on " + localFile ); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.getZipFile(IPath)] Acquiring ZipFile on " + localFile ); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 			if (throwIoExceptionsInGetZipFile) {
 				throw new IOException();
 			}
-			zipFile = new ZipFile(localFile);
+			// the archive is opened once and shared until all its users release it by closeZipFile(ZipFile)
+			zipFile = ZipFilePool.INSTANCE.acquire(localFile).zipFile;
 			if (zipCache != null) {
 				zipCache.setCache(path, zipFile);
 			}
@@ -3344,7 +3349,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		// If it transitioned to being valid, remove it from the cache and force an update to project caches.
 		if (now > invalidArchiveInfo.evictionTimestamp) {
 			try {
-				getZipFile(path, false);
+				// only probe the archive, it must not stay open once it is valid again
+				closeZipFile(getZipFile(path, false));
 				removeFromInvalidArchiveCache(path);
 			} catch (CoreException e) {
 				// Archive is still invalid, fall through to reporting it is invalid.
@@ -3959,6 +3965,9 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 * this particular info is added to the cache.
 	 */
 	protected synchronized Object putInfos(IJavaElement openedElement, Object newInfo, boolean forceAdd, Map newElements) {
+		// make room before adding the new infos if the memory is low
+		this.cache.checkMemory();
+
 		// remove existing children as the are replaced with the new children contained in newElements
 		Object existingInfo = this.cache.peekAtInfo(openedElement);
 		if (existingInfo != null && !forceAdd) {
@@ -5389,6 +5398,9 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			// ignore
 		}
 
+		// close the archives kept open for their next users
+		ZipFilePool.INSTANCE.closeIdleArchives();
+
 		// Note: no need to close the Java model as this just removes Java element infos from the Java model cache
 	}
 
@@ -5512,6 +5524,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	public synchronized String cacheToString(String prefix) {
 		return this.cache.toStringFillingRation(prefix);
 	}
+
+	public synchronized String cacheStatisticsToString(String prefix) {
+		return this.cache.toStringStatistics(prefix);
+	}
 	
 	public Stats debugNewOpenableCacheStats() {
 		return this.cache.openableCache.new Stats();
@@ -276,6 +276,7 @@ protected void privateRemoveEntry(LRUCacheEntry entry, boolean shuffle, boolean
 			this.currentSpace -= entry.space;
 		} else {
 			if (!close(entry)) return;
+			this.evictions++;
 			// buffer close will recursively call #privateRemoveEntry with external==true
 			// thus entry will already be removed if reaching this point.
 			if (this.entryTable.get(entry.key) == null){
@@ -382,6 +383,28 @@ public void setLoadFactor(double newLoadFactor) throws IllegalArgumentException
 		}
 		this.spaceLimit = limit;
 	}
+	/**
+	 * Attempts to close the least recently used elements until the cache uses at most
+	 * the given amount of space. The elements which cannot be closed stay in the cache.
+	 * Returns true if the used space was reduced to the given amount.
+	 */
+	public boolean trimToSize(int space) {
+		LRUCacheEntry entry = this.entryQueueTail;
+		try {
+			// disable timestamps update while trimming so that the previous and next links are not changed
+			this.timestampsOn = false;
+			while (this.currentSpace > space && entry != null) {
+				this.privateRemoveEntry(entry, false, false);
+				entry = entry.previous;
+			}
+		} finally {
+			this.timestampsOn = true;
+		}
+		if (this.currentSpace <= this.spaceLimit) {
+			this.overflow = 0;
+		}
+		return this.currentSpace <= space;
+	}
 	/**
 	 * Attempts to shrink the cache if it has overflown.
 	 * Returns true if the cache shrinks to less than or equal to <code>fSpaceLimit</code>.
@@ -112,7 +112,7 @@ public class SearchableEnvironment
 			// construct name env answer
 			if (answer.type instanceof BinaryType) { // BinaryType
 				try {
-					return new NameEnvironmentAnswer((IBinaryType) ((BinaryType) answer.type).getElementInfo(), answer.restriction);
+					return new NameEnvironmentAnswer(getBinaryTypeInfo((BinaryType) answer.type), answer.restriction);
 				} catch (JavaModelException npe) {
 					// fall back to using owner
 				}
@@ -151,6 +151,29 @@ public class SearchableEnvironment
 		return null;
 	}
 
+	/*
+	 * Answers the class file of the given binary type. The class files of archives which are not open
+	 * in the Java model are read from the binary types shared by all the environments (see BinaryTypeCache)
+	 * and only kept in the jar type cache, like ClassFile#existsUsingJarTypeCache() does. No element info
+	 * is created for the class file and its members, so resolving against the JRE and the libraries does
+	 * not fill the Java model cache with types that nobody opened.
+	 */
+	private IBinaryType getBinaryTypeInfo(BinaryType type) throws JavaModelException {
+		IJavaElement parent = type.getParent();
+		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		if (parent instanceof ClassFile
+				&& type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT) instanceof JarPackageFragmentRoot
+				&& manager.getInfo(type) == null) {
+			IBinaryType info = ((ClassFile) parent).getBinaryTypeInfo();
+			if (info != null) {
+				manager.putJarTypeInfo(type, info);
+				return info;
+			}
+			// class format error, let the model report it
+		}
+		return (IBinaryType) type.getElementInfo();
+	}
+
 	private String getExternalAnnotationPath(IClasspathEntry entry) {
 		if (entry == null)
 			return null;
@@ -429,7 +452,7 @@ public class SearchableEnvironment
 				IndexManager indexManager = JavaModelManager.getIndexManager();
 				if (indexManager.awaitingJobsCount() == 0) {
 					// indexes were already there, so perform an immediate search to avoid any index rebuilt
-					new BasicSearchEngine(this.workingCopies).searchAllTypeNames(
+					new BasicSearchEngine(this.workingCopies, true).searchAllTypeNames(
 						qualification,
 						SearchPattern.R_EXACT_MATCH,
 						simpleName,
@@ -451,7 +474,7 @@ public class SearchableEnvironment
 					}
 					if (indexManager.awaitingJobsCount() == 0) {
 						// indexes are now ready, so perform an immediate search to avoid any index rebuilt
-						new BasicSearchEngine(this.workingCopies).searchAllTypeNames(
+						new BasicSearchEngine(this.workingCopies, true).searchAllTypeNames(
 							qualification,
 							SearchPattern.R_EXACT_MATCH,
 							simpleName,
@@ -471,7 +494,7 @@ public class SearchableEnvironment
 				}
 			} else {
 				try {
-					new BasicSearchEngine(this.workingCopies).searchAllTypeNames(
+					new BasicSearchEngine(this.workingCopies, true).searchAllTypeNames(
 						qualification,
 						SearchPattern.R_EXACT_MATCH,
 						simpleName,
@@ -544,6 +544,14 @@ protected Compiler newCompiler() {
 	// temporary code to allow the compiler to revert to a single thread
 	String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 	newCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	setting = System.getProperty("jdt.compiler.parsingThreads"); //$NON-NLS-1$
+	if (setting != null) {
+		try {
+			newCompiler.parsingThreads = Integer.parseInt(setting);
+		} catch (NumberFormatException e) {
+			// keep the default
+		}
+	}
 
 	// enable the compiler reference info support
 	options.produceReferenceInfo = true;
@@ -649,11 +657,8 @@ protected void recordParticipantResult(CompilationParticipantResult result) {
 	}
 
 	String[] dependencies = result.dependencies;
-	if (dependencies != null) {
-		ReferenceCollection refs = (ReferenceCollection) this.newState.references.get(result.sourceFile.typeLocator());
-		if (refs != null)
-			refs.addDependencies(dependencies);
-	}
+	if (dependencies != null)
+		this.newState.recordDependencies(result.sourceFile.typeLocator(), dependencies);
 }
 
 /**
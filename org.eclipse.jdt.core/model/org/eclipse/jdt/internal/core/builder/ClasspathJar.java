@@ -36,6 +36,8 @@ import org.eclipse.jdt.internal.compiler.lookup.BinaryTypeBinding.ExternalAnnota
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
+import org.eclipse.jdt.internal.core.BinaryTypeCache;
 import org.eclipse.jdt.internal.core.util.Util;
 
 @SuppressWarnings("rawtypes")
@@ -92,6 +94,7 @@ static SimpleSet findPackageSet(ClasspathJar jar) {
 String zipFilename; // keep for equals
 IFile resource;
 ZipFile zipFile;
+ZipFilePool.Archive archive; // shared archive of zipFile when opened by the receiver
 ZipFile annotationZipFile;
 long lastModified;
 boolean closeZipFileAtEnd;
@@ -141,7 +144,14 @@ public ClasspathJar(ZipFile zipFile, AccessRuleSet accessRuleSet, IPath external
 
 public void cleanup() {
 	if (this.closeZipFileAtEnd) {
-		if (this.zipFile != null) {
+		if (this.archive != null) {
+			ZipFilePool.INSTANCE.release(this.archive);
+			if (org.eclipse.jdt.internal.core.JavaModelManager.ZIP_ACCESS_VERBOSE) {
+				System.out.println("(" + Thread.currentThread() + ") [ClasspathJar.cleanup()] Released ZipFile on " + this.zipFilename); //$NON-NLS-1$	//$NON-NLS-2$
+			}
+			this.archive = null;
+			this.zipFile = null;
+		} else if (this.zipFile != null) {
 			try {
 				this.zipFile.close();
 				if (org.eclipse.jdt.internal.core.JavaModelManager.ZIP_ACCESS_VERBOSE) {
@@ -189,9 +199,14 @@ public boolean equals(Object o) {
 
 public NameEnvironmentAnswer findClass(String binaryFileName, String qualifiedPackageName, String qualifiedBinaryFileName) {
 	if (!isPackage(qualifiedPackageName)) return null; // most common case
+	if (this.archive != null && !this.archive.containsEntry(qualifiedBinaryFileName))
+		return null; // avoid looking it up in the zip file
 
 	try {
-		IBinaryType reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		IBinaryType reader = this.archive != null
+			? BinaryTypeCache.INSTANCE.read(this.zipFile, this.archive.getPath(), this.archive.getLastModified(), this.archive.getSize(),
+				qualifiedBinaryFileName, qualifiedBinaryFileName.toCharArray())
+			: ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
 		if (reader != null) {
 			String fileNameWithoutExtension = qualifiedBinaryFileName.substring(0, qualifiedBinaryFileName.length() - SuffixConstants.SUFFIX_CLASS.length);
 			if (this.externalAnnotationPath != null) {
@@ -237,12 +252,15 @@ public boolean isPackage(String qualifiedPackageName) {
 	try {
 		if (this.zipFile == null) {
 			if (org.eclipse.jdt.internal.core.JavaModelManager.ZIP_ACCESS_VERBOSE) {
-				System.out.println("(" + Thread.currentThread() + ") [ClasspathJar.isPackage(String)] Creating ZipFile on " + this.zipFilename); //$NON-NLS-1$	//$NON-NLS-2$
+				System.out.println("(" + Thread.currentThread() + ") [ClasspathJar.isPackage(String)] Acquiring ZipFile on " + this.zipFilename); //$NON-NLS-1$	//$NON-NLS-2$
 			}
-			this.zipFile = new ZipFile(this.zipFilename);
+			this.archive = ZipFilePool.INSTANCE.acquire(new File(this.zipFilename));
+			this.zipFile = this.archive.zipFile;
 			this.closeZipFileAtEnd = true;
 		}
-		this.knownPackageNames = findPackageSet(this);
+		this.knownPackageNames = this.archive != null
+			? this.archive.getPackageNames() // computed once when the archive was opened
+			: findPackageSet(this);
 	} catch(Exception e) {
 		this.knownPackageNames = new SimpleSet(); // assume for this build the zipFile is empty
 	}
@@ -198,29 +198,48 @@ protected void addAffectedSourceFiles(StringSet qualifiedSet, StringSet simpleSe
 		internedSimpleNames = null;
 	char[][] internedRootNames = ReferenceCollection.internSimpleNames(rootSet, false);
 
-	Object[] keyTable = this.newState.references.keyTable;
-	Object[] valueTable = this.newState.references.valueTable;
+	SimpleLookupTable references = this.newState.getReferences();
+	// only visit the type locators which can reference one of the names, unless any of them may
+	Set<String> candidates = this.newState.getReferencingLocators(internedQualifiedNames, internedSimpleNames);
+	if (candidates != null) {
+		if (JavaBuilder.DEBUG)
+			System.out.println("  checking " + candidates.size() + " of " + references.elementSize + " type locators"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		for (Iterator<String> i = candidates.iterator(); i.hasNext();) {
+			String typeLocator = i.next();
+			if (affectedTypes != null && !affectedTypes.includes(typeLocator)) continue;
+			ReferenceCollection refs = (ReferenceCollection) references.get(typeLocator);
+			if (refs != null && refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames))
+				addAffectedSourceFile(typeLocator);
+		}
+		return;
+	}
+
+	Object[] keyTable = references.keyTable;
+	Object[] valueTable = references.valueTable;
 	next : for (int i = 0, l = valueTable.length; i < l; i++) {
 		String typeLocator = (String) keyTable[i];
 		if (typeLocator != null) {
 			if (affectedTypes != null && !affectedTypes.includes(typeLocator)) continue next;
 			ReferenceCollection refs = (ReferenceCollection) valueTable[i];
-			if (refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames)) {
-				IFile file = this.javaBuilder.currentProject.getFile(typeLocator);
-				SourceFile sourceFile = findSourceFile(file, true);
-				if (sourceFile == null) continue next;
-				if (this.sourceFiles.contains(sourceFile)) continue next;
-				if (this.compiledAllAtOnce && this.previousSourceFiles != null && this.previousSourceFiles.contains(sourceFile))
-					continue next; // can skip previously compiled files since already saw hierarchy related problems
-
-				if (JavaBuilder.DEBUG)
-					System.out.println("  adding affected source file " + typeLocator); //$NON-NLS-1$
-				this.sourceFiles.add(sourceFile);
-			}
+			if (refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames))
+				addAffectedSourceFile(typeLocator);
 		}
 	}
 }
 
+private void addAffectedSourceFile(String typeLocator) {
+	IFile file = this.javaBuilder.currentProject.getFile(typeLocator);
+	SourceFile sourceFile = findSourceFile(file, true);
+	if (sourceFile == null) return;
+	if (this.sourceFiles.contains(sourceFile)) return;
+	if (this.compiledAllAtOnce && this.previousSourceFiles != null && this.previousSourceFiles.contains(sourceFile))
+		return; // can skip previously compiled files since already saw hierarchy related problems
+
+	if (JavaBuilder.DEBUG)
+		System.out.println("  adding affected source file " + typeLocator); //$NON-NLS-1$
+	this.sourceFiles.add(sourceFile);
+}
+
 protected void addDependentsOf(IPath path, boolean isStructuralChange) {
 	addDependentsOf(path, isStructuralChange, this.qualifiedStrings, this.simpleStrings, this.rootStrings);
 }
@@ -17,6 +17,7 @@ import org.eclipse.core.runtime.*;
 import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.compiler.*;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
 import org.eclipse.jdt.internal.core.*;
 import org.eclipse.jdt.internal.core.util.Messages;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -100,6 +101,7 @@ public static void buildStarting() {
  */
 public static void buildFinished() {
 	BuildNotifier.resetProblemCounters();
+	ZipFilePool.INSTANCE.closeIdleArchives(); // archives were shared by all the projects of the iteration
 }
 
 public static void removeProblemsFor(IResource resource) {
@@ -178,6 +180,10 @@ protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) thro
 					if (DEBUG)
 						System.out.println("JavaBuilder: Performing full build since last saved state was not found"); //$NON-NLS-1$
 					buildAll();
+				} else if (!this.lastState.readTables()) {
+					if (DEBUG)
+						System.out.println("JavaBuilder: Performing full build since last saved state could not be read"); //$NON-NLS-1$
+					buildAll();
 				} else if (hasClasspathChanged()) {
 					// if the output location changes, do not delete the binary files from old location
 					// the user may be trying something
@@ -21,6 +21,7 @@ import org.eclipse.jdt.internal.compiler.env.AccessRule;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.core.ClasspathAccessRule;
 import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.util.Util;
 
 import java.io.*;
 import java.util.*;
@@ -33,9 +34,20 @@ String javaProjectName;
 public ClasspathMultiDirectory[] sourceLocations;
 ClasspathLocation[] binaryLocations;
 // keyed by the project relative path of the type (i.e. "src1/p1/p2/A.java"), value is a ReferenceCollection or an AdditionalTypeCollection
-SimpleLookupTable references;
+// null until read from referencesSection, see getReferences()
+private SimpleLookupTable references;
 // keyed by qualified type name "p1/p2/A", value is the project relative path which defines this type "src1/p1/p2/A.java"
-public SimpleLookupTable typeLocators;
+// null until read from typeLocatorsSection, see getTypeLocators()
+private SimpleLookupTable typeLocators;
+
+// encoded sections of a state read from disk, only decoded when first needed
+private byte[] locatorsSection;
+private byte[] typeLocatorsSection;
+private byte[] referencesSection;
+private String[] internedTypeLocators; // decoded from locatorsSection until both tables are read
+// keyed by the interned simple names (char[]) & qualified names (char[][]) of the references, value is the set of
+// type locators referencing them. Not persisted, null until first needed, see getReferencingLocators()
+private Map<Object, Set<String>> referencingLocators;
 
 int buildNumber;
 long lastStructuralBuildTime;
@@ -47,7 +59,7 @@ private long previousStructuralBuildTime;
 private StringSet structurallyChangedTypes;
 public static int MaxStructurallyChangedTypes = 100; // keep track of ? structurally changed types, otherwise consider all to be changed
 
-public static final byte VERSION = 0x001D;
+public static final byte VERSION = 0x001E;
 
 static final byte SOURCE_FOLDER = 1;
 static final byte BINARY_FOLDER = 2;
@@ -87,37 +99,138 @@ void copyFrom(State lastState) {
 	this.buildNumber = lastState.buildNumber + 1;
 	this.lastStructuralBuildTime = lastState.lastStructuralBuildTime;
 	this.structuralBuildTimes = lastState.structuralBuildTimes;
+	// take over the index of the references rather than copy it, the last state builds it again if ever needed
+	synchronized (lastState) {
+		this.referencingLocators = lastState.referencingLocators;
+		lastState.referencingLocators = null;
+	}
 
+	SimpleLookupTable lastReferences = lastState.getReferences();
+	SimpleLookupTable lastTypeLocators = lastState.getTypeLocators();
 	try {
-		this.references = (SimpleLookupTable) lastState.references.clone();
-		this.typeLocators = (SimpleLookupTable) lastState.typeLocators.clone();
+		this.references = (SimpleLookupTable) lastReferences.clone();
+		this.typeLocators = (SimpleLookupTable) lastTypeLocators.clone();
 	} catch (CloneNotSupportedException e) {
-		this.references = new SimpleLookupTable(lastState.references.elementSize);
-		Object[] keyTable = lastState.references.keyTable;
-		Object[] valueTable = lastState.references.valueTable;
+		this.references = new SimpleLookupTable(lastReferences.elementSize);
+		Object[] keyTable = lastReferences.keyTable;
+		Object[] valueTable = lastReferences.valueTable;
 		for (int i = 0, l = keyTable.length; i < l; i++)
 			if (keyTable[i] != null)
 				this.references.put(keyTable[i], valueTable[i]);
 
-		this.typeLocators = new SimpleLookupTable(lastState.typeLocators.elementSize);
-		keyTable = lastState.typeLocators.keyTable;
-		valueTable = lastState.typeLocators.valueTable;
+		this.typeLocators = new SimpleLookupTable(lastTypeLocators.elementSize);
+		keyTable = lastTypeLocators.keyTable;
+		valueTable = lastTypeLocators.valueTable;
 		for (int i = 0, l = keyTable.length; i < l; i++)
 			if (keyTable[i] != null)
 				this.typeLocators.put(keyTable[i], valueTable[i]);
 	}
 }
 public char[][] getDefinedTypeNamesFor(String typeLocator) {
-	Object c = this.references.get(typeLocator);
+	Object c = getReferences().get(typeLocator);
 	if (c instanceof AdditionalTypeCollection)
 		return ((AdditionalTypeCollection) c).definedTypeNames;
 	return null; // means only one type is defined with the same name as the file... saves space
 }
 
-public SimpleLookupTable getReferences() {
+public synchronized SimpleLookupTable getReferences() {
+	if (this.references == null)
+		this.references = readReferences();
 	return this.references;
 }
 
+/*
+ * Answers the type locators whose references may include the given names, as selected by
+ * ReferenceCollection.includes(char[][][], char[][], char[][]). Answers null when every type
+ * locator may, i.e. when both the qualified and the simple names are null.
+ * The names must be interned. Each answered locator must still be checked against its references.
+ */
+synchronized Set<String> getReferencingLocators(char[][][] qualifiedNames, char[][] simpleNames) {
+	if (qualifiedNames == null && simpleNames == null) return null;
+
+	if (this.referencingLocators == null) {
+		SimpleLookupTable refsTable = getReferences();
+		this.referencingLocators = new HashMap<>(refsTable.elementSize * 8);
+		Object[] keyTable = refsTable.keyTable;
+		Object[] valueTable = refsTable.valueTable;
+		for (int i = 0, l = keyTable.length; i < l; i++)
+			if (keyTable[i] != null)
+				indexReferences((String) keyTable[i], (ReferenceCollection) valueTable[i]);
+	}
+
+	Set<String> result = new HashSet<>();
+	if (simpleNames != null) {
+		// a match must include one of the simple names
+		for (int i = 0, l = simpleNames.length; i < l; i++) {
+			Set<String> locators = this.referencingLocators.get(simpleNames[i]);
+			if (locators != null)
+				result.addAll(locators);
+		}
+	} else {
+		// a match must include one of the qualified names, single names are found in the simple name references
+		for (int i = 0, l = qualifiedNames.length; i < l; i++) {
+			char[][] qualifiedName = qualifiedNames[i];
+			Set<String> locators = this.referencingLocators.get(qualifiedName.length == 1 ? (Object) qualifiedName[0] : qualifiedName);
+			if (locators != null)
+				result.addAll(locators);
+		}
+	}
+	return result;
+}
+
+private void indexReferences(String typeLocator, ReferenceCollection refs) {
+	char[][] simpleNames = refs.simpleNameReferences;
+	for (int i = 0, l = simpleNames.length; i < l; i++)
+		indexReference(simpleNames[i], typeLocator);
+	char[][][] qualifiedNames = refs.qualifiedNameReferences;
+	for (int i = 0, l = qualifiedNames.length; i < l; i++)
+		indexReference(qualifiedNames[i], typeLocator);
+}
+
+private void indexReference(Object name, String typeLocator) {
+	Set<String> locators = this.referencingLocators.get(name);
+	if (locators == null)
+		this.referencingLocators.put(name, locators = new HashSet<>(4));
+	locators.add(typeLocator);
+}
+
+private void unindexReferences(String typeLocator, ReferenceCollection refs) {
+	char[][] simpleNames = refs.simpleNameReferences;
+	for (int i = 0, l = simpleNames.length; i < l; i++)
+		unindexReference(simpleNames[i], typeLocator);
+	char[][][] qualifiedNames = refs.qualifiedNameReferences;
+	for (int i = 0, l = qualifiedNames.length; i < l; i++)
+		unindexReference(qualifiedNames[i], typeLocator);
+}
+
+private void unindexReference(Object name, String typeLocator) {
+	Set<String> locators = this.referencingLocators.get(name);
+	if (locators != null && locators.remove(typeLocator) && locators.isEmpty())
+		this.referencingLocators.remove(name);
+}
+
+public synchronized SimpleLookupTable getTypeLocators() {
+	if (this.typeLocators == null)
+		this.typeLocators = readTypeLocators();
+	return this.typeLocators;
+}
+
+/*
+ * Decodes the tables which are only read when first needed. Answers false if a saved section
+ * is corrupt, in which case the state must be discarded like a missing one.
+ */
+public synchronized boolean readTables() {
+	try {
+		getTypeLocators();
+		getReferences();
+		return true;
+	} catch (RuntimeException e) {
+		// IOExceptions are wrapped, but a corrupt section can just as well fail to decode
+		Util.log(e, "Unable to read the saved build state of " + this.javaProjectName); //$NON-NLS-1$
+		return false;
+	}
+}
+
 StringSet getStructurallyChangedTypes(State prereqState) {
 	if (prereqState != null && prereqState.previousStructuralBuildTime > 0) {
 		Object o = this.structuralBuildTimes.get(prereqState.javaProjectName);
@@ -129,14 +242,15 @@ StringSet getStructurallyChangedTypes(State prereqState) {
 }
 
 public boolean isDuplicateLocator(String qualifiedTypeName, String typeLocator) {
-	String existing = (String) this.typeLocators.get(qualifiedTypeName);
+	String existing = (String) getTypeLocators().get(qualifiedTypeName);
 	return existing != null && !existing.equals(typeLocator);
 }
 
 public boolean isKnownPackage(String qualifiedPackageName) {
 	if (this.knownPackageNames == null) {
-		ArrayList names = new ArrayList(this.typeLocators.elementSize);
-		Object[] keyTable = this.typeLocators.keyTable;
+		SimpleLookupTable locators = getTypeLocators();
+		ArrayList names = new ArrayList(locators.elementSize);
+		Object[] keyTable = locators.keyTable;
 		for (int i = 0, l = keyTable.length; i < l; i++) {
 			if (keyTable[i] != null) {
 				String packageName = (String) keyTable[i]; // is a type name of the form p1/p2/A
@@ -159,35 +273,57 @@ public boolean isKnownPackage(String qualifiedPackageName) {
 }
 
 public boolean isKnownType(String qualifiedTypeName) {
-	return this.typeLocators.containsKey(qualifiedTypeName);
+	return getTypeLocators().containsKey(qualifiedTypeName);
 }
 
 boolean isSourceFolderEmpty(IContainer sourceFolder) {
 	String sourceFolderName = sourceFolder.getProjectRelativePath().addTrailingSeparator().toString();
-	Object[] table = this.typeLocators.valueTable;
+	Object[] table = getTypeLocators().valueTable;
 	for (int i = 0, l = table.length; i < l; i++)
 		if (table[i] != null && ((String) table[i]).startsWith(sourceFolderName))
 			return false;
 	return true;
 }
 
-void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[] mainTypeName, ArrayList typeNames) {
+synchronized void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[] mainTypeName, ArrayList typeNames) {
+	ReferenceCollection refs;
 	if (typeNames.size() == 1 && CharOperation.equals(mainTypeName, (char[]) typeNames.get(0))) {
-		this.references.put(typeLocator, new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs));
+		refs = new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs);
 	} else {
 		char[][] definedTypeNames = new char[typeNames.size()][]; // can be empty when no types are defined
 		typeNames.toArray(definedTypeNames);
-		this.references.put(typeLocator, new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs));
+		refs = new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs);
+	}
+	SimpleLookupTable refsTable = getReferences();
+	Object oldRefs = this.referencingLocators == null ? null : refsTable.get(typeLocator);
+	refsTable.put(typeLocator, refs);
+	if (this.referencingLocators != null) {
+		if (oldRefs != null)
+			unindexReferences(typeLocator, (ReferenceCollection) oldRefs);
+		indexReferences(typeLocator, refs);
 	}
 }
 
+synchronized void recordDependencies(String typeLocator, String[] typeNameDependencies) {
+	ReferenceCollection refs = (ReferenceCollection) getReferences().get(typeLocator);
+	if (refs == null) return;
+
+	refs.addDependencies(typeNameDependencies);
+	if (this.referencingLocators != null)
+		indexReferences(typeLocator, refs); // only adds the new names
+}
+
 void recordLocatorForType(String qualifiedTypeName, String typeLocator) {
 	this.knownPackageNames = null;
+	recordLocatorForType(getTypeLocators(), qualifiedTypeName, typeLocator);
+}
+
+private static void recordLocatorForType(SimpleLookupTable locators, String qualifiedTypeName, String typeLocator) {
 	// in the common case, the qualifiedTypeName is a substring of the typeLocator so share the char[] by using String.substring()
 	int start = typeLocator.indexOf(qualifiedTypeName, 0);
 	if (start > 0)
 		qualifiedTypeName = typeLocator.substring(start, start + qualifiedTypeName.length());
-	this.typeLocators.put(qualifiedTypeName, typeLocator);
+	locators.put(qualifiedTypeName, typeLocator);
 }
 
 void recordStructuralDependency(IProject prereqProject, State prereqState) {
@@ -196,10 +332,12 @@ void recordStructuralDependency(IProject prereqProject, State prereqState) {
 			this.structuralBuildTimes.put(prereqProject.getName(), Long.valueOf(prereqState.lastStructuralBuildTime));
 }
 
-void removeLocator(String typeLocatorToRemove) {
+synchronized void removeLocator(String typeLocatorToRemove) {
 	this.knownPackageNames = null;
-	this.references.removeKey(typeLocatorToRemove);
-	this.typeLocators.removeValue(typeLocatorToRemove);
+	Object oldRefs = getReferences().removeKey(typeLocatorToRemove);
+	if (oldRefs != null && this.referencingLocators != null)
+		unindexReferences(typeLocatorToRemove, (ReferenceCollection) oldRefs);
+	getTypeLocators().removeValue(typeLocatorToRemove);
 }
 
 void removePackage(IResourceDelta sourceDelta) {
@@ -219,7 +357,7 @@ void removePackage(IResourceDelta sourceDelta) {
 
 void removeQualifiedTypeName(String qualifiedTypeNameToRemove) {
 	this.knownPackageNames = null;
-	this.typeLocators.removeKey(qualifiedTypeNameToRemove);
+	getTypeLocators().removeKey(qualifiedTypeNameToRemove);
 }
 
 static State read(IProject project, DataInputStream in) throws IOException {
@@ -282,73 +420,120 @@ static State read(IProject project, DataInputStream in) throws IOException {
 	for (int i = 0; i < length; i++)
 		newState.structuralBuildTimes.put(in.readUTF(), Long.valueOf(in.readLong()));
 
-	String[] internedTypeLocators = new String[length = in.readInt()];
-	for (int i = 0; i < length; i++)
-		internedTypeLocators[i] = in.readUTF();
+	// the tables are only decoded when first needed
+	newState.locatorsSection = readSection(in);
+	newState.typeLocatorsSection = readSection(in);
+	newState.referencesSection = readSection(in);
+	if (JavaBuilder.DEBUG)
+		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
+	return newState;
+}
 
-	newState.typeLocators = new SimpleLookupTable(length = in.readInt());
-	for (int i = 0; i < length; i++)
-		newState.recordLocatorForType(in.readUTF(), internedTypeLocators[in.readInt()]);
+private static byte[] readSection(DataInputStream in) throws IOException {
+	byte[] section = new byte[in.readInt()];
+	in.readFully(section);
+	return section;
+}
 
-	char[][] internedRootNames = ReferenceCollection.internSimpleNames(readNames(in), false);
-	char[][] internedSimpleNames = ReferenceCollection.internSimpleNames(readNames(in), false);
-	char[][][] internedQualifiedNames = new char[length = in.readInt()][][];
-	for (int i = 0; i < length; i++) {
-		int qLength = in.readInt();
-		char[][] qName = new char[qLength][];
-		for (int j = 0; j < qLength; j++)
-			qName[j] = internedSimpleNames[in.readInt()];
-		internedQualifiedNames[i] = qName;
+private String[] readInternedTypeLocators() throws IOException {
+	if (this.internedTypeLocators == null) {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.locatorsSection));
+		String[] locators = new String[readVarInt(in)];
+		for (int i = 0, length = locators.length; i < length; i++)
+			locators[i] = in.readUTF();
+		this.internedTypeLocators = locators;
+		this.locatorsSection = null;
 	}
-	internedQualifiedNames = ReferenceCollection.internQualifiedNames(internedQualifiedNames, false);
+	return this.internedTypeLocators;
+}
 
-	newState.references = new SimpleLookupTable(length = in.readInt());
-	for (int i = 0; i < length; i++) {
-		String typeLocator = internedTypeLocators[in.readInt()];
-		ReferenceCollection collection = null;
-		switch (in.readByte()) {
-			case 1 :
-				char[][] additionalTypeNames = readNames(in);
-				char[][][] qualifiedNames = new char[in.readInt()][][];
-				for (int j = 0, m = qualifiedNames.length; j < m; j++)
-					qualifiedNames[j] = internedQualifiedNames[in.readInt()];
-				char[][] simpleNames = new char[in.readInt()][];
-				for (int j = 0, m = simpleNames.length; j < m; j++)
-					simpleNames[j] = internedSimpleNames[in.readInt()];
-				char[][] rootNames = new char[in.readInt()][];
-				for (int j = 0, m = rootNames.length; j < m; j++)
-					rootNames[j] = internedRootNames[in.readInt()];
-				collection = new AdditionalTypeCollection(additionalTypeNames, qualifiedNames, simpleNames, rootNames);
-				break;
-			case 2 :
-				char[][][] qNames = new char[in.readInt()][][];
-				for (int j = 0, m = qNames.length; j < m; j++)
-					qNames[j] = internedQualifiedNames[in.readInt()];
-				char[][] sNames = new char[in.readInt()][];
-				for (int j = 0, m = sNames.length; j < m; j++)
-					sNames[j] = internedSimpleNames[in.readInt()];
-				char[][] rNames = new char[in.readInt()][];
-				for (int j = 0, m = rNames.length; j < m; j++)
-					rNames[j] = internedRootNames[in.readInt()];
-				collection = new ReferenceCollection(qNames, sNames, rNames);
-		}
-		newState.references.put(typeLocator, collection);
+private SimpleLookupTable readTypeLocators() {
+	if (JavaBuilder.DEBUG)
+		System.out.println("About to read type locators of " + this.javaProjectName); //$NON-NLS-1$
+	try {
+		String[] locators = readInternedTypeLocators();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.typeLocatorsSection));
+		int length = readVarInt(in);
+		SimpleLookupTable table = new SimpleLookupTable(length);
+		for (int i = 0; i < length; i++)
+			recordLocatorForType(table, in.readUTF(), locators[readVarInt(in)]);
+		this.typeLocatorsSection = null;
+		if (this.references != null)
+			this.internedTypeLocators = null; // no longer needed
+		return table;
+	} catch (IOException e) {
+		throw new IllegalStateException("Unable to read type locators of " + this.javaProjectName, e); //$NON-NLS-1$
 	}
+}
+
+private SimpleLookupTable readReferences() {
 	if (JavaBuilder.DEBUG)
-		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
-	return newState;
+		System.out.println("About to read references of " + this.javaProjectName); //$NON-NLS-1$
+	try {
+		String[] locators = readInternedTypeLocators();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.referencesSection));
+		int length;
+		char[][] internedRootNames = ReferenceCollection.internSimpleNames(readNames(in), false);
+		char[][] internedSimpleNames = ReferenceCollection.internSimpleNames(readNames(in), false);
+		char[][][] internedQualifiedNames = new char[length = readVarInt(in)][][];
+		for (int i = 0; i < length; i++) {
+			int qLength = readVarInt(in);
+			char[][] qName = new char[qLength][];
+			for (int j = 0; j < qLength; j++)
+				qName[j] = internedSimpleNames[readVarInt(in)];
+			internedQualifiedNames[i] = qName;
+		}
+		internedQualifiedNames = ReferenceCollection.internQualifiedNames(internedQualifiedNames, false);
+
+		SimpleLookupTable table = new SimpleLookupTable(length = readVarInt(in));
+		for (int i = 0; i < length; i++) {
+			String typeLocator = locators[readVarInt(in)];
+			char[][] additionalTypeNames = in.readByte() == 1 ? readNames(in) : null;
+			char[][][] qNames = new char[readVarInt(in)][][];
+			for (int j = 0, m = qNames.length; j < m; j++)
+				qNames[j] = internedQualifiedNames[readVarInt(in)];
+			char[][] sNames = new char[readVarInt(in)][];
+			for (int j = 0, m = sNames.length; j < m; j++)
+				sNames[j] = internedSimpleNames[readVarInt(in)];
+			char[][] rNames = new char[readVarInt(in)][];
+			for (int j = 0, m = rNames.length; j < m; j++)
+				rNames[j] = internedRootNames[readVarInt(in)];
+			table.put(typeLocator, additionalTypeNames != null
+				? new AdditionalTypeCollection(additionalTypeNames, qNames, sNames, rNames)
+				: new ReferenceCollection(qNames, sNames, rNames));
+		}
+		this.referencesSection = null;
+		if (this.typeLocators != null)
+			this.internedTypeLocators = null; // no longer needed
+		return table;
+	} catch (IOException e) {
+		throw new IllegalStateException("Unable to read references of " + this.javaProjectName, e); //$NON-NLS-1$
+	}
+}
+
+/*
+ * Reads a positive int written by writeVarInt(int, DataOutputStream), 7 bits at a time.
+ */
+private static int readVarInt(DataInputStream in) throws IOException {
+	int value = 0;
+	for (int shift = 0;; shift += 7) {
+		byte b = in.readByte();
+		value |= (b & 0x7F) << shift;
+		if ((b & 0x80) == 0)
+			return value;
+	}
 }
 
 private static char[] readName(DataInputStream in) throws IOException {
-	int nLength = in.readInt();
+	int nLength = readVarInt(in);
 	char[] name = new char[nLength];
 	for (int j = 0; j < nLength; j++)
-		name[j] = in.readChar();
+		name[j] = (char) readVarInt(in);
 	return name;
 }
 
 private static char[][] readNames(DataInputStream in) throws IOException {
-	int length = in.readInt();
+	int length = readVarInt(in);
 	char[][] names = new char[length][];
 	for (int i = 0; i < length; i++)
 		names[i] = readName(in);
@@ -400,7 +585,7 @@ void wasStructurallyChanged(String typeName) {
 	}
 }
 
-void write(DataOutputStream out) throws IOException {
+synchronized void write(DataOutputStream out) throws IOException {
 	int length;
 	Object[] keyTable;
 	Object[] valueTable;
@@ -490,46 +675,71 @@ void write(DataOutputStream out) throws IOException {
 			System.out.println("structuralBuildNumbers table is inconsistent"); //$NON-NLS-1$
 	}
 
+/*
+ * Remaining sections, each one written as
+ * int			length
+ * byte[]		contents
+ * so they can be read only when needed
+ */
+	if (this.references == null && this.typeLocators == null) {
+		// nothing was decoded since the state was read, so the sections are still accurate
+		out.writeInt(this.locatorsSection.length);
+		out.write(this.locatorsSection);
+		out.writeInt(this.typeLocatorsSection.length);
+		out.write(this.typeLocatorsSection);
+		out.writeInt(this.referencesSection.length);
+		out.write(this.referencesSection);
+		return;
+	}
+	SimpleLookupTable referencesTable = getReferences();
+	SimpleLookupTable typeLocatorsTable = getTypeLocators();
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	DataOutputStream section = new DataOutputStream(bytes);
+
 /*
  * String[]	Interned type locators
  */
-	out.writeInt(length = this.references.elementSize);
-	SimpleLookupTable internedTypeLocators = new SimpleLookupTable(length);
+	writeVarInt(length = referencesTable.elementSize, section);
+	SimpleLookupTable locatorIds = new SimpleLookupTable(length);
 	if (length > 0) {
-		keyTable = this.references.keyTable;
+		keyTable = referencesTable.keyTable;
 		for (int i = 0, l = keyTable.length; i < l; i++) {
 			if (keyTable[i] != null) {
 				length--;
 				String key = (String) keyTable[i];
-				out.writeUTF(key);
-				internedTypeLocators.put(key, Integer.valueOf(internedTypeLocators.elementSize));
+				section.writeUTF(key);
+				locatorIds.put(key, Integer.valueOf(locatorIds.elementSize));
 			}
 		}
 		if (JavaBuilder.DEBUG && length != 0)
 			System.out.println("references table is inconsistent"); //$NON-NLS-1$
 	}
 
+	writeSection(bytes, section, out);
+
 /*
  * Type locators table
  * String		type name
  * int			interned locator id
  */
-	out.writeInt(length = this.typeLocators.elementSize);
+	writeVarInt(length = typeLocatorsTable.elementSize, section);
 	if (length > 0) {
-		keyTable = this.typeLocators.keyTable;
-		valueTable = this.typeLocators.valueTable;
+		keyTable = typeLocatorsTable.keyTable;
+		valueTable = typeLocatorsTable.valueTable;
 		for (int i = 0, l = keyTable.length; i < l; i++) {
 			if (keyTable[i] != null) {
 				length--;
-				out.writeUTF((String) keyTable[i]);
-				Integer index = (Integer) internedTypeLocators.get(valueTable[i]);
-				out.writeInt(index.intValue());
+				section.writeUTF((String) keyTable[i]);
+				Integer index = (Integer) locatorIds.get(valueTable[i]);
+				writeVarInt(index.intValue(), section);
 			}
 		}
 		if (JavaBuilder.DEBUG && length != 0)
 			System.out.println("typeLocators table is inconsistent"); //$NON-NLS-1$
 	}
 
+	writeSection(bytes, section, out);
+
 /*
  * char[][]	Interned root names
  * char[][][]	Interned qualified names
@@ -538,7 +748,7 @@ void write(DataOutputStream out) throws IOException {
 	SimpleLookupTable internedRootNames = new SimpleLookupTable(3);
 	SimpleLookupTable internedQualifiedNames = new SimpleLookupTable(31);
 	SimpleLookupTable internedSimpleNames = new SimpleLookupTable(31);
-	valueTable = this.references.valueTable;
+	valueTable = referencesTable.valueTable;
 	for (int i = 0, l = valueTable.length; i < l; i++) {
 		if (valueTable[i] != null) {
 			ReferenceCollection collection = (ReferenceCollection) valueTable[i];
@@ -577,7 +787,7 @@ void write(DataOutputStream out) throws IOException {
 			internedArray[index] = (char[]) rootNames[i];
 		}
 	}
-	writeNames(internedArray, out);
+	writeNames(internedArray, section);
 	// now write the interned simple names
 	internedArray = new char[internedSimpleNames.elementSize][];
 	Object[] simpleNames = internedSimpleNames.keyTable;
@@ -588,7 +798,7 @@ void write(DataOutputStream out) throws IOException {
 			internedArray[index] = (char[]) simpleNames[i];
 		}
 	}
-	writeNames(internedArray, out);
+	writeNames(internedArray, section);
 	// now write the interned qualified names as arrays of interned simple names
 	char[][][] internedQArray = new char[internedQualifiedNames.elementSize][][];
 	Object[] qualifiedNames = internedQualifiedNames.keyTable;
@@ -599,14 +809,14 @@ void write(DataOutputStream out) throws IOException {
 			internedQArray[index] = (char[][]) qualifiedNames[i];
 		}
 	}
-	out.writeInt(length = internedQArray.length);
+	writeVarInt(length = internedQArray.length, section);
 	for (int i = 0; i < length; i++) {
 		char[][] qName = internedQArray[i];
 		int qLength = qName.length;
-		out.writeInt(qLength);
+		writeVarInt(qLength, section);
 		for (int j = 0; j < qLength; j++) {
 			Integer index = (Integer) internedSimpleNames.get(qName[j]);
-			out.writeInt(index.intValue());
+			writeVarInt(index.intValue(), section);
 		}
 	}
 
@@ -615,64 +825,83 @@ void write(DataOutputStream out) throws IOException {
  * int		interned locator id
  * ReferenceCollection
 */
-	out.writeInt(length = this.references.elementSize);
+	writeVarInt(length = referencesTable.elementSize, section);
 	if (length > 0) {
-		keyTable = this.references.keyTable;
+		keyTable = referencesTable.keyTable;
 		for (int i = 0, l = keyTable.length; i < l; i++) {
 			if (keyTable[i] != null) {
 				length--;
-				Integer index = (Integer) internedTypeLocators.get(keyTable[i]);
-				out.writeInt(index.intValue());
+				Integer index = (Integer) locatorIds.get(keyTable[i]);
+				writeVarInt(index.intValue(), section);
 				ReferenceCollection collection = (ReferenceCollection) valueTable[i];
 				if (collection instanceof AdditionalTypeCollection) {
-					out.writeByte(1);
+					section.writeByte(1);
 					AdditionalTypeCollection atc = (AdditionalTypeCollection) collection;
-					writeNames(atc.definedTypeNames, out);
+					writeNames(atc.definedTypeNames, section);
 				} else {
-					out.writeByte(2);
+					section.writeByte(2);
 				}
 				char[][][] qNames = collection.qualifiedNameReferences;
 				int qLength = qNames.length;
-				out.writeInt(qLength);
+				writeVarInt(qLength, section);
 				for (int j = 0; j < qLength; j++) {
 					index = (Integer) internedQualifiedNames.get(qNames[j]);
-					out.writeInt(index.intValue());
+					writeVarInt(index.intValue(), section);
 				}
 				char[][] sNames = collection.simpleNameReferences;
 				int sLength = sNames.length;
-				out.writeInt(sLength);
+				writeVarInt(sLength, section);
 				for (int j = 0; j < sLength; j++) {
 					index = (Integer) internedSimpleNames.get(sNames[j]);
-					out.writeInt(index.intValue());
+					writeVarInt(index.intValue(), section);
 				}
 				char[][] rNames = collection.rootReferences;
 				int rLength = rNames.length;
-				out.writeInt(rLength);
+				writeVarInt(rLength, section);
 				for (int j = 0; j < rLength; j++) {
 					index = (Integer) internedRootNames.get(rNames[j]);
-					out.writeInt(index.intValue());
+					writeVarInt(index.intValue(), section);
 				}
 			}
 		}
 		if (JavaBuilder.DEBUG && length != 0)
 			System.out.println("references table is inconsistent"); //$NON-NLS-1$
 	}
+	writeSection(bytes, section, out);
 }
 
 private void writeName(char[] name, DataOutputStream out) throws IOException {
 	int nLength = name.length;
-	out.writeInt(nLength);
+	writeVarInt(nLength, out);
 	for (int j = 0; j < nLength; j++)
-		out.writeChar(name[j]);
+		writeVarInt(name[j], out);
 }
 
 private void writeNames(char[][] names, DataOutputStream out) throws IOException {
 	int length = names == null ? 0 : names.length;
-	out.writeInt(length);
+	writeVarInt(length, out);
 	for (int i = 0; i < length; i++)
 		writeName(names[i], out);
 }
 
+private static void writeSection(ByteArrayOutputStream bytes, DataOutputStream section, DataOutputStream out) throws IOException {
+	section.flush();
+	out.writeInt(bytes.size());
+	bytes.writeTo(out);
+	bytes.reset();
+}
+
+/*
+ * Writes a positive int 7 bits at a time, so small ids and lengths only take a single byte.
+ */
+private static void writeVarInt(int value, DataOutputStream out) throws IOException {
+	while ((value & ~0x7F) != 0) {
+		out.writeByte((value & 0x7F) | 0x80);
+		value >>>= 7;
+	}
+	out.writeByte(value);
+}
+
 private void writeRestriction(AccessRuleSet accessRuleSet, DataOutputStream out) throws IOException {
 	if (accessRuleSet == null) {
 		out.writeInt(0);
@@ -422,6 +422,30 @@ public class ChangeCollector {
 		return existingFlags != newFlags;
 	}
 
+	/*
+	 * Returns the compilation units declaring the changed types and imports, which have to be resolved
+	 * again to apply the changes collected so far to the hierarchy.
+	 * Returns null if a type was added or removed, since the hierarchy must then be computed again.
+	 */
+	public ICompilationUnit[] getChangedUnits() {
+		HashSet units = new HashSet();
+		Iterator iterator = this.changes.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry entry = (Map.Entry)iterator.next();
+			IJavaElement element = (IJavaElement)entry.getKey();
+			if (element.getElementType() == IJavaElement.TYPE
+					&& ((SimpleDelta)entry.getValue()).getKind() != IJavaElementDelta.CHANGED) {
+				return null;
+			}
+			ICompilationUnit unit = (ICompilationUnit)element.getAncestor(IJavaElement.COMPILATION_UNIT);
+			if (unit == null) {
+				return null;
+			}
+			units.add(unit);
+		}
+		return (ICompilationUnit[])units.toArray(new ICompilationUnit[units.size()]);
+	}
+
 	/*
 	 * Whether the hierarchy needs refresh according to the changes collected so far.
 	 */
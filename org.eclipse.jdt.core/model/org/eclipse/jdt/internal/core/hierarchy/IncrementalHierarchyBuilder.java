@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.hierarchy;
+
+import java.util.HashSet;
+
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.Openable;
+
+/**
+ * Resolves the supertypes of the types declared in a few compilation units of the project of the
+ * focus type, along with the supertype hierarchy of the focus type. Used to apply the changes of
+ * these units to an existing hierarchy without computing it again.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class IncrementalHierarchyBuilder extends HierarchyBuilder {
+
+	private Openable[] units;
+
+	public IncrementalHierarchyBuilder(TypeHierarchy hierarchy, Openable[] units) throws JavaModelException {
+		super(hierarchy);
+		this.units = units;
+	}
+
+public void build(boolean computeSubtypes) {
+	JavaModelManager manager = JavaModelManager.getJavaModelManager();
+	try {
+		// optimize access to zip files while building hierarchy
+		manager.cacheZipFiles(this);
+
+		this.hierarchy.initialize(this.units.length);
+		// the units may declare local or anonymous subtypes
+		HashSet localTypes = new HashSet(this.units.length);
+		for (int i = 0; i < this.units.length; i++) {
+			localTypes.add(this.units[i].getPath().toString());
+		}
+		this.hierarchyResolver.resolve(this.units, localTypes, this.hierarchy.progressMonitor);
+	} finally {
+		manager.flushZipFiles(this);
+	}
+}
+}
@@ -19,6 +19,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -26,6 +33,8 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
@@ -76,6 +85,19 @@ import org.eclipse.jdt.internal.core.util.Util;
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class IndexBasedHierarchyBuilder extends HierarchyBuilder implements SuffixConstants {
 	public static final int MAXTICKS = 800; // heuristic so that there still progress for deep hierachies
+
+	/**
+	 * The system property giving the number of threads resolving the potential subtypes.
+	 */
+	public static final String RESOLVER_THREADS_PROPERTY = "jdt.core.hierarchy.resolverThreads"; //$NON-NLS-1$
+	/**
+	 * The number of threads resolving the potential subtypes. If more than one, the potential subtypes
+	 * are partitioned by package fragment root and the partitions are resolved in parallel, each one with
+	 * its own lookup environment.
+	 */
+	public static int RESOLVER_THREADS = Integer.getInteger(RESOLVER_THREADS_PROPERTY, 1).intValue();
+	private static final long CANCEL_POLL_INTERVAL = 100; // ms
+
 	/**
 	 * A temporary cache of compilation units to handles to speed info
 	 * to handle translation - it only contains the entries
@@ -127,6 +149,18 @@ public class IndexBasedHierarchyBuilder extends HierarchyBuilder implements Suff
 			return buffer.toString();
 		}
 	}
+
+	/**
+	 * The potential subtypes of a package fragment root, resolved on their own
+	 */
+	static class Partition {
+		final JavaProject project;
+		final ArrayList openables = new ArrayList();
+
+		Partition(JavaProject project) {
+			this.project = project;
+		}
+	}
 public IndexBasedHierarchyBuilder(TypeHierarchy hierarchy, IJavaSearchScope scope) throws JavaModelException {
 	super(hierarchy);
 	this.cuToHandle = new HashMap(5);
@@ -306,6 +340,7 @@ private void buildFromPotentialSubtypes(String[] allPotentialSubTypes, HashSet l
 	Arrays.sort(allPotentialSubTypes);
 
 	ArrayList potentialSubtypes = new ArrayList();
+	ArrayList partitions = RESOLVER_THREADS > 1 ? new ArrayList() : null;
 	try {
 		SubMonitor loopMonitor = subMonitor.split(95);
 		// create element infos for subtypes
@@ -337,7 +372,11 @@ private void buildFromPotentialSubtypes(String[] allPotentialSubTypes, HashSet l
 					potentialSubtypes = new ArrayList(5);
 				} else if (!currentProject.equals(project)) {
 					// build current project
-					buildForProject((JavaProject)currentProject, potentialSubtypes, workingCopies, localTypes, loopMonitor.split(1));
+					if (partitions != null) {
+						addPartitions(partitions, (JavaProject)currentProject, potentialSubtypes);
+					} else {
+						buildForProject((JavaProject)currentProject, potentialSubtypes, workingCopies, localTypes, loopMonitor.split(1));
+					}
 					currentProject = project;
 					potentialSubtypes = new ArrayList(5);
 				}
@@ -360,10 +399,17 @@ private void buildFromPotentialSubtypes(String[] allPotentialSubTypes, HashSet l
 					potentialSubtypes.add(focusType.getCompilationUnit());
 				}
 			}
-			buildForProject((JavaProject)currentProject, potentialSubtypes, workingCopies, localTypes, loopMonitor.split(1));
+			if (partitions != null) {
+				addPartitions(partitions, (JavaProject)currentProject, potentialSubtypes);
+			} else {
+				buildForProject((JavaProject)currentProject, potentialSubtypes, workingCopies, localTypes, loopMonitor.split(1));
+			}
 		} catch (JavaModelException e) {
 			// ignore
 		}
+		if (partitions != null) {
+			buildForPartitions(partitions, workingCopies, localTypes, loopMonitor.split(1));
+		}
 
 		loopMonitor.setWorkRemaining(1);
 
@@ -421,6 +467,139 @@ protected IBinaryType createInfoFromClassFileInJar(Openable classFile) {
 		return super.createInfoFromClassFileInJar(classFile);
 	}
 }
+/*
+ * Adds the partitions of the given potential subtypes of a project, one per package fragment root.
+ */
+private void addPartitions(ArrayList partitions, JavaProject project, ArrayList potentialSubtypes) {
+	HashMap rootPartitions = new HashMap();
+	for (int i = 0, length = potentialSubtypes.size(); i < length; i++) {
+		Openable openable = (Openable) potentialSubtypes.get(i);
+		IJavaElement root = openable.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		Partition partition = (Partition) rootPartitions.get(root);
+		if (partition == null) {
+			partition = new Partition(project);
+			rootPartitions.put(root, partition);
+			partitions.add(partition);
+		}
+		partition.openables.add(openable);
+	}
+}
+/*
+ * Resolves the given partitions on several threads, and connects their types in the order of the partitions.
+ */
+private void buildForPartitions(ArrayList partitions, final org.eclipse.jdt.core.ICompilationUnit[] workingCopies, final HashSet localTypes, IProgressMonitor monitor) {
+	int length = partitions.size();
+	SubMonitor subMonitor = SubMonitor.convert(monitor, length);
+	final IProgressMonitor hierarchyMonitor = this.hierarchy.progressMonitor;
+	final ThreadLocal workers = new ThreadLocal();
+	ExecutorService executor = Executors.newFixedThreadPool(Math.min(RESOLVER_THREADS, length), new ThreadFactory() {
+		private int count;
+		public synchronized Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Java type hierarchy resolver " + ++this.count); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+	try {
+		Future[] results = new Future[length];
+		for (int i = 0; i < length; i++) {
+			final Partition partition = (Partition) partitions.get(i);
+			results[i] = executor.submit(() -> buildForPartition(partition, workers, workingCopies, localTypes, hierarchyMonitor));
+		}
+		for (int i = 0; i < length; i++) {
+			TypeHierarchy partial = waitFor(results[i], hierarchyMonitor);
+			if (partial != null) {
+				connect(partial);
+			}
+			subMonitor.split(1);
+		}
+	} finally {
+		executor.shutdownNow();
+	}
+}
+/*
+ * Runs on a worker thread: resolves the potential subtypes of the given partition in a hierarchy of their own.
+ */
+private TypeHierarchy buildForPartition(Partition partition, ThreadLocal workers, org.eclipse.jdt.core.ICompilationUnit[] workingCopies, HashSet localTypes, final IProgressMonitor hierarchyMonitor) throws JavaModelException {
+	TypeHierarchy partial = new TypeHierarchy(this.hierarchy.focusType, workingCopies, this.scope, true);
+	partial.initialize(partition.openables.size());
+	// progress is reported by the thread building the hierarchy
+	partial.progressMonitor = SubMonitor.convert(new NullProgressMonitor() {
+		public boolean isCanceled() {
+			return hierarchyMonitor != null && hierarchyMonitor.isCanceled();
+		}
+	});
+	IndexBasedHierarchyBuilder worker = (IndexBasedHierarchyBuilder) workers.get();
+	if (worker == null) {
+		worker = new IndexBasedHierarchyBuilder(partial, this.scope);
+		worker.binariesFromIndexMatches = this.binariesFromIndexMatches;
+		workers.set(worker);
+	} else {
+		worker.hierarchy = partial;
+	}
+	JavaModelManager manager = JavaModelManager.getJavaModelManager();
+	// optimize access to zip files while building hierarchy
+	manager.cacheZipFiles(worker);
+	try {
+		worker.buildForProject(partition.project, partition.openables, workingCopies, localTypes, null);
+	} finally {
+		manager.flushZipFiles(worker);
+	}
+	return partial;
+}
+/*
+ * Waits for the hierarchy of a partition. Returns null if the partition could not be resolved.
+ */
+private TypeHierarchy waitFor(Future result, IProgressMonitor hierarchyMonitor) {
+	while (true) {
+		if (hierarchyMonitor != null && hierarchyMonitor.isCanceled())
+			throw new OperationCanceledException();
+		try {
+			return (TypeHierarchy) result.get(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// check for cancellation again
+		} catch (InterruptedException e) {
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof JavaModelException)
+				return null; // problem with the classpath of this project, as when building sequentially
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+}
+/*
+ * Connects the types of a hierarchy resolved on another thread, the same way they were connected in that hierarchy.
+ */
+private void connect(TypeHierarchy partial) {
+	IType[] types = partial.getAllTypes();
+	for (int i = 0; i < types.length; i++) {
+		IType type = types[i];
+		IType superclass = partial.classToSuperclass.get(type);
+		if (superclass != null) {
+			this.hierarchy.cacheSuperclass(type, superclass);
+		}
+		if (partial.rootClasses.contains(type)) {
+			this.hierarchy.addRootClass(type);
+		}
+		if (partial.interfaces.contains(type) && this.hierarchy.typeToSuperInterfaces.get(type) == null) {
+			this.hierarchy.addInterface(type);
+		}
+		IType[] superinterfaces = partial.typeToSuperInterfaces.get(type);
+		if (superinterfaces != null) {
+			this.hierarchy.cacheSuperInterfaces(type, superinterfaces);
+		}
+		Integer flags = partial.typeFlags.get(type);
+		if (flags != null) {
+			this.hierarchy.cacheFlags(type, flags.intValue());
+		}
+	}
+	this.hierarchy.missingTypes.addAll(partial.missingTypes);
+}
 /**
  * Returns all of the possible subtypes of this type hierarchy.
  * Returns null if they could not be determine.
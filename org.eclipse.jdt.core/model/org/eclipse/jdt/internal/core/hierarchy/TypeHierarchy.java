@@ -14,7 +14,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Map;
@@ -53,6 +55,7 @@ import org.eclipse.jdt.internal.core.CompilationUnit;
 import org.eclipse.jdt.internal.core.JavaElement;
 import org.eclipse.jdt.internal.core.JavaModelStatus;
 import org.eclipse.jdt.internal.core.JavaProject;
+import org.eclipse.jdt.internal.core.Member;
 import org.eclipse.jdt.internal.core.Openable;
 import org.eclipse.jdt.internal.core.PackageFragment;
 import org.eclipse.jdt.internal.core.Region;
@@ -160,6 +163,12 @@ public class TypeHierarchy implements ITypeHierarchy, IElementChangedListener {
 	 */
 	protected ChangeCollector changeCollector;
 
+	/*
+	 * Whether changes that cannot be collected by the change collector (e.g. classpath, package or class file changes)
+	 * affected this hierarchy since it was refreshed, in which case it must be computed again
+	 */
+	protected boolean hasCoarseChanges;
+
 /**
  * Creates an empty TypeHierarchy
  */
@@ -341,8 +350,13 @@ public boolean contains(IType type) {
  * change notification if required.
  */
 public void elementChanged(ElementChangedEvent event) {
-	// type hierarchy change has already been fired
-	if (this.needsRefresh) return;
+	if (this.needsRefresh) {
+		// type hierarchy change has already been fired, but keep collecting the changes
+		// so that the hierarchy can still be refreshed incrementally
+		if (this.changeCollector != null && !this.hasCoarseChanges)
+			isAffected(event.getDelta(), event.getType());
+		return;
+	}
 
 	if (isAffected(event.getDelta(), event.getType())) {
 		this.needsRefresh = true;
@@ -864,14 +878,27 @@ public synchronized boolean isAffected(IJavaElementDelta delta, int eventType) {
 private boolean isAffectedByChildren(IJavaElementDelta delta, int eventType) {
 	if ((delta.getFlags() & IJavaElementDelta.F_CHILDREN) > 0) {
 		IJavaElementDelta[] children= delta.getAffectedChildren();
+		boolean affected = false;
 		for (int i= 0; i < children.length; i++) {
+			// visit all the children so that all their changes are collected
 			if (isAffected(children[i], eventType)) {
-				return true;
+				affected = true;
 			}
 		}
+		return affected;
 	}
 	return false;
 }
+/*
+ * Records that the hierarchy must be computed again if it is affected by a change
+ * that is not collected by the change collector.
+ */
+private boolean coarseChange(boolean affected) {
+	if (affected) {
+		this.hasCoarseChanges = true;
+	}
+	return affected;
+}
 /**
  * Returns true if the given java model delta could affect this type hierarchy
  * @param eventType TODO
@@ -880,7 +907,7 @@ private boolean isAffectedByJavaModel(IJavaElementDelta delta, IJavaElement elem
 	switch (delta.getKind()) {
 		case IJavaElementDelta.ADDED :
 		case IJavaElementDelta.REMOVED :
-			return element.equals(javaProject().getJavaModel());
+			return coarseChange(element.equals(javaProject().getJavaModel()));
 		case IJavaElementDelta.CHANGED :
 			return isAffectedByChildren(delta, eventType);
 	}
@@ -907,7 +934,7 @@ private boolean isAffectedByJavaProject(IJavaElementDelta delta, IJavaElement el
 				for (int i = 0; i < classpath.length; i++) {
 					if (classpath[i].getEntryKind() == IClasspathEntry.CPE_PROJECT
 							&& classpath[i].getPath().equals(element.getPath())) {
-						return true;
+						return coarseChange(true);
 					}
 				}
 				if (this.focusType != null) {
@@ -917,7 +944,7 @@ private boolean isAffectedByJavaProject(IJavaElementDelta delta, IJavaElement el
 					for (int i = 0; i < classpath.length; i++) {
 						if (classpath[i].getEntryKind() == IClasspathEntry.CPE_PROJECT
 								&& classpath[i].getPath().equals(hierarchyProject)) {
-							return true;
+							return coarseChange(true);
 						}
 					}
 				}
@@ -932,7 +959,7 @@ private boolean isAffectedByJavaProject(IJavaElementDelta delta, IJavaElement el
 			for (int i = 0; i < pkgs.length; i++) {
 				IJavaProject javaProject = pkgs[i].getJavaProject();
 				if (javaProject != null && javaProject.equals(element)) {
-					return true;
+					return coarseChange(true);
 				}
 			}
 			return false;
@@ -950,10 +977,10 @@ private boolean isAffectedByPackageFragment(IJavaElementDelta delta, PackageFrag
 		case IJavaElementDelta.ADDED :
 			// if the package fragment is in the projects being considered, this could
 			// introduce new types, changing the hierarchy
-			return this.projectRegion.contains(element);
+			return coarseChange(this.projectRegion.contains(element));
 		case IJavaElementDelta.REMOVED :
 			// is a change if the package fragment contains types in this hierarchy
-			return packageRegionContainsSamePackageFragment(element);
+			return coarseChange(packageRegionContainsSamePackageFragment(element));
 		case IJavaElementDelta.CHANGED :
 			// look at the files in the package fragment
 			return isAffectedByChildren(delta, eventType);
@@ -967,7 +994,7 @@ private boolean isAffectedByPackageFragment(IJavaElementDelta delta, PackageFrag
 private boolean isAffectedByPackageFragmentRoot(IJavaElementDelta delta, IJavaElement element, int eventType) {
 	switch (delta.getKind()) {
 		case IJavaElementDelta.ADDED :
-			return this.projectRegion.contains(element);
+			return coarseChange(this.projectRegion.contains(element));
 		case IJavaElementDelta.REMOVED :
 		case IJavaElementDelta.CHANGED :
 			int flags = delta.getFlags();
@@ -982,7 +1009,7 @@ private boolean isAffectedByPackageFragmentRoot(IJavaElementDelta delta, IJavaEl
 						try {
 							IClasspathEntry entry = javaProject.getClasspathEntryFor(rootPath);
 							if (entry != null) {
-								return true;
+								return coarseChange(true);
 							}
 						} catch (JavaModelException e) {
 							// igmore this project
@@ -998,7 +1025,7 @@ private boolean isAffectedByPackageFragmentRoot(IJavaElementDelta delta, IJavaEl
 				IJavaElement[] pkgs = this.packageRegion.getElements();
 				for (int i = 0; i < pkgs.length; i++) {
 					if (pkgs[i].getParent().equals(element)) {
-						return true;
+						return coarseChange(true);
 					}
 				}
 				return false;
@@ -1032,9 +1059,10 @@ protected boolean isAffectedByOpenable(IJavaElementDelta delta, IJavaElement ele
 			if (DEBUG)
 				e.printStackTrace();
 		}
+		// changes are kept until the next refresh, which can then apply them incrementally
+		this.changeCollector = collector;
 		if (cu.isWorkingCopy() && eventType == ElementChangedEvent.POST_RECONCILE) {
 			// changes to working copies are batched
-			this.changeCollector = collector;
 			return false;
 		} else {
 			return collector.needsRefresh();
@@ -1043,7 +1071,7 @@ protected boolean isAffectedByOpenable(IJavaElementDelta delta, IJavaElement ele
 		switch (delta.getKind()) {
 			case IJavaElementDelta.REMOVED:
 				IOpenable o = (IOpenable) element;
-				return this.files.get(o) != null;
+				return coarseChange(this.files.get(o) != null);
 			case IJavaElementDelta.ADDED:
 				IType type = ((ClassFile)element).getType();
 				String typeName = type.getElementName();
@@ -1051,7 +1079,7 @@ protected boolean isAffectedByOpenable(IJavaElementDelta delta, IJavaElement ele
 					|| subtypesIncludeSupertypeOf(type)
 					|| this.missingTypes.contains(typeName)) {
 
-					return true;
+					return coarseChange(true);
 				}
 				break;
 			case IJavaElementDelta.CHANGED:
@@ -1065,7 +1093,7 @@ protected boolean isAffectedByOpenable(IJavaElementDelta delta, IJavaElement ele
 						boolean hasSupertypeChange = (delta.getFlags() & IJavaElementDelta.F_SUPER_TYPES) > 0;
 						if ((hasVisibilityChange && hasSupertype(type.getElementName()))
 								|| (hasSupertypeChange && includesTypeOrSupertype(type))) {
-							return true;
+							return coarseChange(true);
 						}
 					}
 				}
@@ -1263,6 +1291,150 @@ protected boolean packageRegionContainsSamePackageFragment(PackageFragment eleme
 	return false;
 }
 
+/**
+ * Applies the changes collected since the last refresh by resolving again only the compilation
+ * units which declare the changed types, and the supertypes of the focus type. The edges of these
+ * types are replaced by the resolved ones, then the types that are no longer supertypes or subtypes
+ * of the focus type are removed.
+ * Returns false without modifying this hierarchy if the changes cannot be applied this way
+ * (e.g. a type was added or removed, or a unit outside of the project of the focus type changed),
+ * in which case the hierarchy must be computed again.
+ */
+protected boolean refreshIncrementally() throws JavaModelException {
+	if (this.changeCollector == null || this.hasCoarseChanges || this.focusType == null || this.files == null)
+		return false;
+	if (((Member) this.focusType).getOuterMostLocalContext() != null)
+		return false; // local and anonymous types are only resolved with their unit
+	ICompilationUnit[] units = this.changeCollector.getChangedUnits();
+	if (units == null || units.length == 0)
+		return false;
+	IJavaProject focusProject = javaProject();
+	Openable[] openables = new Openable[units.length];
+	HashSet<IOpenable> changedUnits = new HashSet<>();
+	for (int i = 0; i < units.length; i++) {
+		if (!units[i].exists() || !focusProject.equals(units[i].getJavaProject()))
+			return false;
+		openables[i] = (Openable) units[i];
+		changedUnits.add(units[i]);
+	}
+
+	TypeHierarchy resolved = new TypeHierarchy(this.focusType, this.workingCopies, this.scope, this.computeSubtypes);
+	resolved.progressMonitor = this.progressMonitor;
+	try {
+		new IncrementalHierarchyBuilder(resolved, openables).build(this.computeSubtypes);
+	} catch (CoreException e) {
+		return false;
+	}
+	if (!resolved.contains(this.focusType))
+		return false;
+
+	// the types declared in the changed units, before and after the changes, and the supertypes of the focus type
+	HashSet<IType> changedTypes = new HashSet<>();
+	changedTypes.add(this.focusType);
+	changedTypes.addAll(Arrays.asList(resolved.getAllSupertypes(this.focusType)));
+	for (int i = 0; i < units.length; i++) {
+		ArrayList<IType> types = this.files.get(units[i]);
+		if (types != null)
+			changedTypes.addAll(types);
+	}
+	IType[] resolvedTypes = resolved.getAllTypes();
+	for (int i = 0; i < resolvedTypes.length; i++) {
+		IType type = resolvedTypes[i];
+		if (changedTypes.contains(type) || !changedUnits.contains(((JavaElement) type).getOpenableParent()))
+			continue;
+		if (this.computeSubtypes && !contains(type))
+			return false; // a new subtype, whose own subtypes are not known
+		changedTypes.add(type);
+	}
+
+	// replace the edges of the changed types
+	for (Iterator<IType> iter = changedTypes.iterator(); iter.hasNext();) {
+		IType type = iter.next();
+		removeType(type);
+		if (!resolved.contains(type))
+			continue;
+		IType superclass = resolved.classToSuperclass.get(type);
+		if (superclass != null) {
+			cacheSuperclass(type, superclass);
+		} else if (resolved.rootClasses.contains(type)) {
+			addRootClass(type);
+		}
+		if (resolved.interfaces.contains(type)) {
+			addInterface(type);
+		}
+		IType[] superinterfaces = resolved.typeToSuperInterfaces.get(type);
+		if (superinterfaces != null) {
+			cacheSuperInterfaces(type, superinterfaces);
+		}
+		Integer flags = resolved.typeFlags.get(type);
+		if (flags != null) {
+			this.typeFlags.put(type, flags);
+		}
+	}
+	for (int i = 0, length = resolved.missingTypes.size(); i < length; i++) {
+		String missingType = resolved.missingTypes.get(i);
+		if (!this.missingTypes.contains(missingType))
+			this.missingTypes.add(missingType);
+	}
+
+	// remove the types which are no longer in the hierarchy of the focus type
+	HashSet<IType> reachableTypes = new HashSet<>();
+	reachableTypes.add(this.focusType);
+	reachableTypes.addAll(Arrays.asList(getAllSupertypes(this.focusType)));
+	if (this.computeSubtypes)
+		reachableTypes.addAll(Arrays.asList(getAllSubtypes(this.focusType)));
+	IType[] allTypes = getAllTypes();
+	for (int i = 0; i < allTypes.length; i++) {
+		if (!reachableTypes.contains(allTypes[i]))
+			removeType(allTypes[i]);
+	}
+
+	this.files = new HashMap<>(5);
+	this.packageRegion = new Region();
+	this.projectRegion = new Region();
+	if (DEBUG) {
+		System.out.println("  refreshed incrementally " + changedTypes.size() + " types of " + units.length + " units"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	return true;
+}
+/*
+ * Removes the given type from the hierarchy, along with the edges to its supertypes.
+ */
+private void removeType(IType type) {
+	IType superclass = this.classToSuperclass.remove(type);
+	if (superclass != null)
+		removeSubtype(superclass, type);
+	IType[] superinterfaces = this.typeToSuperInterfaces.remove(type);
+	if (superinterfaces != null) {
+		for (int i = 0; i < superinterfaces.length; i++) {
+			if (superinterfaces[i] != null)
+				removeSubtype(superinterfaces[i], type);
+		}
+	}
+	remove(this.rootClasses, type);
+	this.interfaces.remove(type);
+	this.typeFlags.remove(type);
+}
+private void removeSubtype(IType type, IType subtype) {
+	TypeVector subtypes = this.typeToSubtypes.get(type);
+	if (subtypes == null)
+		return;
+	remove(subtypes, subtype);
+	if (subtypes.size == 0)
+		this.typeToSubtypes.remove(type);
+}
+/*
+ * Removes the given type from the given vector, which may hold a different handle on the same type.
+ */
+private static void remove(TypeVector types, IType type) {
+	for (int i = types.size; --i >= 0;) {
+		IType element = types.elementAt(i);
+		if (element.equals(type)) {
+			types.remove(element);
+			return;
+		}
+	}
+}
 /**
  * @see ITypeHierarchy
  * TODO (jerome) should use a PerThreadObject to build the hierarchy instead of synchronizing
@@ -1288,10 +1460,14 @@ public synchronized void refresh(IProgressMonitor monitor) throws JavaModelExcep
 			}
 		}
 
-		compute();
+		if (!refreshIncrementally()) {
+			compute();
+		}
 		initializeRegions();
 		this.needsRefresh = false;
 		this.changeCollector = null;
+		// changes are not tracked while no listener is registered
+		this.hasCoarseChanges = this.changeListeners != null && this.changeListeners.isEmpty();
 
 		if (DEBUG) {
 			if (this.computeSubtypes) {
@@ -1326,6 +1502,8 @@ public synchronized void removeTypeHierarchyChangedListener(ITypeHierarchyChange
 	// deregister from JavaCore on last listener removed
 	if (listeners.isEmpty()) {
 		JavaCore.removeElementChangedListener(this);
+		// changes are no longer tracked
+		this.hasCoarseChanges = true;
 	}
 }
 /**
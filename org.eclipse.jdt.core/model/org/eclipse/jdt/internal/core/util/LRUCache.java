@@ -269,6 +269,12 @@ public class LRUCache implements Cloneable {
 	 */
 	protected LRUCacheEntry entryQueueTail;
 
+	/**
+	 * Number of successful and unsuccessful lookups with <code>get(Object)</code>,
+	 * and number of entries removed to make space
+	 */
+	protected int hits, misses, evictions;
+
 	/**
 	 * Default amount of space in the cache
 	 */
@@ -365,9 +371,11 @@ public class LRUCache implements Cloneable {
 
 		LRUCacheEntry entry = (LRUCacheEntry) this.entryTable.get(key);
 		if (entry == null) {
+			this.misses++;
 			return null;
 		}
 
+		this.hits++;
 		updateTimestamp (entry);
 		return entry.value;
 	}
@@ -462,9 +470,17 @@ public class LRUCache implements Cloneable {
 		/* Free up space by removing oldest entries */
 		while (this.currentSpace + space > limit && this.entryQueueTail != null) {
 			privateRemoveEntry (this.entryQueueTail, false);
+			this.evictions++;
 		}
 		return true;
 	}
+	/**
+	 * Returns the number of successful lookups, of unsuccessful lookups and
+	 * of entries removed to make space since the receiver was created.
+	 */
+	public int[] getStatistics() {
+		return new int[] {this.hits, this.misses, this.evictions};
+	}
 	/**
 	 * Returns a new LRUCache instance
 	 */
@@ -619,6 +635,20 @@ public class LRUCache implements Cloneable {
 		}
 		this.spaceLimit = limit;
 	}
+	/**
+	 * Removes the least recently used entries until the receiver uses at most
+	 * the given amount of space. The space limit is not changed.
+	 *
+	 * @param space Amount of space to keep
+	 * @return true if the used space was reduced to the given amount
+	 */
+	public boolean trimToSize(int space) {
+		while (this.currentSpace > space && this.entryQueueTail != null) {
+			privateRemoveEntry (this.entryQueueTail, false);
+			this.evictions++;
+		}
+		return this.currentSpace <= space;
+	}
 	/**
 	 * Returns the space taken by the given value.
 	 */
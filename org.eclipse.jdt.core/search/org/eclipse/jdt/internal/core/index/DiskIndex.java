@@ -11,6 +11,10 @@
 package org.eclipse.jdt.internal.core.index;
 
 import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.*;
@@ -29,13 +33,13 @@ private int headerInfoOffset;
 private int numberOfChunks;
 private int sizeOfLastChunk;
 private int[] chunkOffsets;
-private int documentReferenceSize; // 1, 2 or more bytes... depends on # of document names
 private int startOfCategoryTables;
 private HashtableOfIntValues categoryOffsets, categoryEnds;
 
 private int cacheUserCount;
 private String[][] cachedChunks; // decompressed chunks of document names
 private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s) or offset if not read yet
+private HashtableOfObject categoryWords; // category name -> char[][] of the words of the cached table, in the sorted order they were written
 private char[] cachedCategoryName;
 
 private static final int DEFAULT_BUFFER_SIZE = 2048;
@@ -44,11 +48,19 @@ private static final int BUFFER_WRITE_SIZE = DEFAULT_BUFFER_SIZE;
 private byte[] streamBuffer;
 private int bufferIndex, bufferEnd; // used when reading from the file into the streamBuffer
 private int streamEnd; // used when writing data from the streamBuffer to the file
+private MappedByteBuffer mappedFile; // read-only mapping of the index file, only set when MAP_INDEX_FILES is true
 char separator = Index.DEFAULT_SEPARATOR;
 
-public static final String SIGNATURE= "INDEX VERSION 1.130"; //$NON-NLS-1$
+public static final String SIGNATURE= "INDEX VERSION 1.131"; //$NON-NLS-1$
 private static final char[] SIGNATURE_CHARS = SIGNATURE.toCharArray();
 public static boolean DEBUG = false;
+/*
+ * When true, existing index files are memory mapped and queries decode directly from the mapping
+ * without copying into the stream buffer or holding the index monitor.
+ * A mapped file cannot be deleted on some platforms until the mapping is garbage collected,
+ * so this mode is off by default.
+ */
+public static boolean MAP_INDEX_FILES = Boolean.getBoolean("org.eclipse.jdt.core.index.mapped"); //$NON-NLS-1$
 
 private static final int RE_INDEXED = -1;
 private static final int DELETED = -2;
@@ -82,16 +94,120 @@ int[] asArray() {
 }
 }
 
+/*
+ * Decodes the index file from its read-only mapping. Each reader owns its position,
+ * so several threads can read the same mapping at once.
+ */
+static class MappedIndexReader {
+
+ByteBuffer buffer;
+
+MappedIndexReader(MappedByteBuffer mappedFile, int offset) {
+	this.buffer = mappedFile.duplicate();
+	this.buffer.position(offset);
+}
+// see DiskIndex.readStreamChars(InputStream)
+char[] readChars() throws IOException {
+	int length = (this.buffer.get() & 0xFF) << 8;
+	length += this.buffer.get() & 0xFF;
+	char[] word = new char[length];
+	int i = 0;
+	while (i < length) {
+		byte b = this.buffer.get();
+		switch (b & 0xF0) {
+			case 0x00 :
+			case 0x10 :
+			case 0x20 :
+			case 0x30 :
+			case 0x40 :
+			case 0x50 :
+			case 0x60 :
+			case 0x70 :
+				word[i++]= (char) b;
+				break;
+			case 0xC0 :
+			case 0xD0 :
+				char next = (char) this.buffer.get();
+				if ((next & 0xC0) != 0x80) {
+					throw new UTFDataFormatException();
+				}
+				char ch = (char) ((b & 0x1F) << 6);
+				ch |= next & 0x3F;
+				word[i++] = ch;
+				break;
+			case 0xE0 :
+				char first = (char) this.buffer.get();
+				char second = (char) this.buffer.get();
+				if ((first & second & 0xC0) != 0x80) {
+					throw new UTFDataFormatException();
+				}
+				ch = (char) ((b & 0x0F) << 12);
+				ch |= ((first& 0x3F) << 6);
+				ch |= second & 0x3F;
+				word[i++] = ch;
+				break;
+			default:
+				throw new UTFDataFormatException();
+		}
+	}
+	return word;
+}
+// see DiskIndex.readChunk(String[], InputStream, int, int)
+void readChunk(String[] docNames, int index, int size) throws IOException {
+	String current = new String(readChars());
+	docNames[index++] = current;
+	for (int i = 1; i < size; i++) {
+		int start = this.buffer.get() & 0xFF;
+		int end = this.buffer.get() & 0xFF;
+		String next  = new String(readChars());
+		if (start > 0) {
+			if (end > 0) {
+				int length = current.length();
+				next = current.substring(0, start) + next + current.substring(length - end, length);
+			} else {
+				next = current.substring(0, start) + next;
+			}
+		} else if (end > 0) {
+			int length = current.length();
+			next = next + current.substring(length - end, length);
+		}
+		docNames[index++] = next;
+		current = next;
+	}
+}
+// see DiskIndex.readStreamDocumentArray(InputStream, int)
+int[] readDocumentArray(int arraySize) {
+	int[] indexes = new int[arraySize];
+	int documentNumber = 0;
+	for (int i = 0; i < arraySize; i++)
+		indexes[i] = documentNumber += readVarInt();
+	return indexes;
+}
+int readInt() {
+	return this.buffer.getInt();
+}
+// see DiskIndex.readStreamVarInt(InputStream)
+int readVarInt() {
+	byte b = this.buffer.get();
+	int val = b & 0x7F;
+	for (int shift = 7; b < 0; shift += 7) {
+		b = this.buffer.get();
+		val |= (b & 0x7F) << shift;
+	}
+	return val;
+}
+}
+
 
 DiskIndex() {
 	this.headerInfoOffset = -1;
 	this.numberOfChunks = -1;
 	this.sizeOfLastChunk = -1;
 	this.chunkOffsets = null;
-	this.documentReferenceSize = -1;
 	this.cacheUserCount = -1;
 	this.cachedChunks = null;
 	this.categoryTables = null;
+	this.categoryWords = null;
 	this.cachedCategoryName = null;
 	this.categoryOffsets = null;
 	this.categoryEnds = null;
@@ -195,25 +311,21 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 					prevResults = results != null;
 				}
 				break;
-			case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE:
-				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
-					if (wordsToDocNumbers != null) {
-						char[][] words = wordsToDocNumbers.keyTable;
-						Object[] values = wordsToDocNumbers.valueTable;
-						for (int j = 0, m = words.length; j < m; j++) {
-							char[] word = words[j];
-							if (word != null && key[0] == word[0] && CharOperation.prefixEquals(key, word))
-								results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
-						}
-					}
-					prevResults = results != null;
-				}
-				break;
 			default:
+				char[] prefix = prefixOfMatchingWords(key, matchRule);
 				for (int i = 0, l = categories.length; i < l; i++) {
 					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
-					if (wordsToDocNumbers != null) {
+					char[][] sortedWords = prefix == null || wordsToDocNumbers == null ? null : getSortedWords(categories[i]);
+					if (sortedWords != null) {
+						// only the range of sorted words starting with the prefix can match
+						for (int j = indexOfFirstWord(sortedWords, prefix), m = sortedWords.length; j < m; j++) {
+							char[] word = sortedWords[j];
+							if (!CharOperation.prefixEquals(prefix, word))
+								break;
+							if (Index.isMatch(key, word, matchRule))
+								results = addQueryResult(results, word, wordsToDocNumbers.get(word), memoryIndex, prevResults);
+						}
+					} else if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
 						Object[] values = wordsToDocNumbers.valueTable;
 						for (int j = 0, m = words.length; j < m; j++) {
@@ -229,6 +341,45 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 
 	return results;
 }
+/*
+ * Answers the prefix shared by all the words matching the given key with the given match rule,
+ * or null if the matching words can start with any character.
+ */
+private static char[] prefixOfMatchingWords(char[] key, int matchRule) {
+	if (key.length == 0)
+		return null;
+	switch (matchRule) {
+		case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE:
+			return key;
+		case SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE:
+		case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH | SearchPattern.R_CASE_SENSITIVE:
+			return new char[] {key[0]}; // see Index.isMatch(char[], char[], int)
+		case SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE:
+			int length = 0;
+			while (length < key.length && key[length] != '*' && key[length] != '?')
+				length++;
+			return length == 0 ? null : CharOperation.subarray(key, 0, length);
+	}
+	return null;
+}
+/*
+ * Answers the index of the first of the sorted words which is not less than the given prefix.
+ */
+private static int indexOfFirstWord(char[][] sortedWords, char[] prefix) {
+	int low = 0;
+	int high = sortedWords.length;
+	while (low < high) {
+		int mid = (low + high) >>> 1;
+		if (Util.compare(sortedWords[mid], prefix) < 0)
+			low = mid + 1;
+		else
+			high = mid;
+	}
+	return low;
+}
+private synchronized char[][] getSortedWords(char[] categoryName) {
+	return this.categoryWords == null ? null : (char[][]) this.categoryWords.get(categoryName);
+}
 private void cacheDocumentNames() throws IOException {
 	// will need all document names so get them now
 	this.cachedChunks = new String[this.numberOfChunks][];
@@ -398,6 +549,8 @@ void initialize(boolean reuseExistingFile) throws IOException {
 				stream.close();
 				this.indexLocation.close();
 			}
+			if (MAP_INDEX_FILES && this.headerInfoOffset > 0)
+				mapIndexFile();
 			return;
 		}
 		if (!this.indexLocation.delete()) {
@@ -597,10 +750,48 @@ DiskIndex mergeWith(MemoryIndex memoryIndex) throws IOException {
 		newDiskIndex.indexLocation = this.indexLocation;
 	return newDiskIndex;
 }
-private synchronized String[] readAllDocumentNames() throws IOException {
+private void mapIndexFile() throws IOException {
+	File indexFile = this.indexLocation.getIndexFile();
+	if (indexFile == null)
+		return; // index inside a jar
+	RandomAccessFile file = new RandomAccessFile(indexFile, "r"); //$NON-NLS-1$
+	try {
+		FileChannel channel = file.getChannel();
+		this.mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+	} finally {
+		file.close(); // the mapping stays valid
+	}
+}
+private MappedIndexReader newMappedReader(int offset) {
+	return new MappedIndexReader(this.mappedFile, offset);
+}
+private IOException corruptedIndex(RuntimeException e) {
+	if (DEBUG)
+		System.out.println("Index file is corrupted " + this.indexLocation); //$NON-NLS-1$
+	IOException exception = new IOException("Index file is corrupted " + this.indexLocation); //$NON-NLS-1$
+	exception.initCause(e);
+	return exception;
+}
+private String[] readAllDocumentNames() throws IOException {
 	if (this.numberOfChunks <= 0)
 		return CharOperation.NO_STRINGS;
+	if (this.mappedFile == null)
+		return readAllDocumentNamesFromStream();
 
+	try {
+		MappedIndexReader reader = newMappedReader(this.chunkOffsets[0]);
+		int lastIndex = this.numberOfChunks - 1;
+		String[] docNames = new String[lastIndex * CHUNK_SIZE + this.sizeOfLastChunk];
+		for (int i = 0; i < this.numberOfChunks; i++)
+			reader.readChunk(docNames, i * CHUNK_SIZE, i < lastIndex ? CHUNK_SIZE : this.sizeOfLastChunk);
+		return docNames;
+	} catch (BufferUnderflowException e) {
+		throw corruptedIndex(e);
+	} catch (IllegalArgumentException e) {
+		throw corruptedIndex(e);
+	}
+}
+private synchronized String[] readAllDocumentNamesFromStream() throws IOException {
 	InputStream stream = this.indexLocation.getInputStream();
 	try {
 		int offset = this.chunkOffsets[0];
@@ -619,7 +810,76 @@ private synchronized String[] readAllDocumentNames() throws IOException {
 		this.streamBuffer = null;
 	}
 }
-private synchronized HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
+private HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
+	if (this.mappedFile == null)
+		return readCategoryTableFromStream(categoryName, readDocNumbers);
+
+	// result will be null if categoryName is unknown
+	int offset = this.categoryOffsets.get(categoryName);
+	if (offset == HashtableOfIntValues.NO_VALUE) {
+		return null;
+	}
+
+	synchronized (this) {
+		if (this.categoryTables == null) {
+			this.categoryTables = new HashtableOfObject(3);
+		} else {
+			HashtableOfObject cachedTable = (HashtableOfObject) this.categoryTables.get(categoryName);
+			if (cachedTable != null) {
+				if (readDocNumbers) { // must cache remaining document number arrays
+					Object[] arrayOffsets = cachedTable.valueTable;
+					for (int i = 0, l = arrayOffsets.length; i < l; i++)
+						if (arrayOffsets[i] instanceof Integer)
+							arrayOffsets[i] = readDocumentNumbers(arrayOffsets[i]);
+				}
+				return cachedTable;
+			}
+		}
+	}
+
+	// decode without holding the monitor, then cache the table
+	HashtableOfObject categoryTable;
+	char[][] sortedWords;
+	try {
+		MappedIndexReader reader = newMappedReader(offset);
+		int size = reader.readInt();
+		categoryTable = new HashtableOfObject(size);
+		sortedWords = new char[size][];
+		int largeArraySize = 256;
+		for (int i = 0; i < size; i++) {
+			char[] word = sortedWords[i] = reader.readChars();
+			int arrayOffset = reader.readInt();
+			// see readCategoryTableFromStream() for the encoding of arrayOffset
+			if (arrayOffset <= 0) {
+				categoryTable.putUnsafely(word, new int[] {-arrayOffset}); // store 1 element array by negating documentNumber
+			} else if (arrayOffset < largeArraySize) {
+				categoryTable.putUnsafely(word, reader.readDocumentArray(arrayOffset)); // read in-lined array providing size
+			} else {
+				arrayOffset = reader.readInt(); // read actual offset
+				if (readDocNumbers) {
+					MappedIndexReader arrayReader = newMappedReader(arrayOffset);
+					categoryTable.putUnsafely(word, arrayReader.readDocumentArray(arrayReader.readInt()));
+				} else {
+					categoryTable.putUnsafely(word, Integer.valueOf(arrayOffset)); // offset to array in the file
+				}
+			}
+		}
+	} catch (BufferUnderflowException e) {
+		throw corruptedIndex(e);
+	} catch (IllegalArgumentException e) {
+		throw corruptedIndex(e);
+	}
+	synchronized (this) {
+		if (this.categoryTables == null)
+			this.categoryTables = new HashtableOfObject(3);
+		this.categoryTables.put(INTERNED_CATEGORY_NAMES.get(categoryName), categoryTable);
+		cacheSortedWords(categoryName, sortedWords);
+		// cache the table as long as its not too big
+		this.cachedCategoryName = categoryTable.elementSize < 20000 ? categoryName : null;
+	}
+	return categoryTable;
+}
+private synchronized HashtableOfObject readCategoryTableFromStream(char[] categoryName, boolean readDocNumbers) throws IOException {
 	// result will be null if categoryName is unknown
 	int offset = this.categoryOffsets.get(categoryName);
 	if (offset == HashtableOfIntValues.NO_VALUE) {
@@ -643,6 +903,7 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 
 	InputStream stream = this.indexLocation.getInputStream();
 	HashtableOfObject categoryTable = null;
+	char[][] sortedWords = null;
 	char[][] matchingWords = null;
 	int count = 0;
 	int firstOffset = -1;
@@ -661,6 +922,7 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 				System.err.println("--------------------   END   --------------------"); //$NON-NLS-1$
 			}
 			categoryTable = new HashtableOfObject(size);
+			sortedWords = new char[size][];
 		} catch (OutOfMemoryError oom) {
 			// DEBUG
 			oom.printStackTrace();
@@ -673,7 +935,7 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 		}
 		int largeArraySize = 256;
 		for (int i = 0; i < size; i++) {
-			char[] word = readStreamChars(stream);
+			char[] word = sortedWords[i] = readStreamChars(stream);
 			int arrayOffset = readStreamInt(stream);
 			// if arrayOffset is:
 			//		<= 0 then the array size == 1 with the value -> -arrayOffset
@@ -696,6 +958,7 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 			}
 		}
 		this.categoryTables.put(INTERNED_CATEGORY_NAMES.get(categoryName), categoryTable);
+		cacheSortedWords(categoryName, sortedWords);
 		// cache the table as long as its not too big
 		// in practice, some tables can be greater than 500K when they contain more than 10K elements
 		this.cachedCategoryName = categoryTable.elementSize < 20000 ? categoryName : null;
@@ -727,6 +990,12 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 	this.streamBuffer = null;
 	return categoryTable;
 }
+private void cacheSortedWords(char[] categoryName, char[][] sortedWords) {
+	// assumes the monitor is held
+	if (this.categoryWords == null)
+		this.categoryWords = new HashtableOfObject(3);
+	this.categoryWords.put(INTERNED_CATEGORY_NAMES.get(categoryName), sortedWords);
+}
 private void readChunk(String[] docNames, InputStream stream, int index, int size) throws IOException {
 	String current = new String(readStreamChars(stream));
 	docNames[index++] = current;
@@ -751,7 +1020,35 @@ private void readChunk(String[] docNames, InputStream stream, int index, int siz
 		current = next;
 	}
 }
-synchronized String readDocumentName(int docNumber) throws IOException {
+String readDocumentName(int docNumber) throws IOException {
+	if (this.mappedFile == null)
+		return readDocumentNameFromStream(docNumber);
+
+	int chunkNumber = docNumber / CHUNK_SIZE;
+	String[] chunk;
+	synchronized (this) {
+		if (this.cachedChunks == null)
+			this.cachedChunks = new String[this.numberOfChunks][];
+		chunk = this.cachedChunks[chunkNumber];
+	}
+	if (chunk == null) {
+		int numberOfNames = chunkNumber == this.numberOfChunks - 1 ? this.sizeOfLastChunk : CHUNK_SIZE;
+		chunk = new String[numberOfNames];
+		try {
+			newMappedReader(this.chunkOffsets[chunkNumber]).readChunk(chunk, 0, numberOfNames);
+		} catch (BufferUnderflowException e) {
+			throw corruptedIndex(e);
+		} catch (IllegalArgumentException e) {
+			throw corruptedIndex(e);
+		}
+		synchronized (this) {
+			if (this.cachedChunks != null) // could have been cleared by stopQuery()
+				this.cachedChunks[chunkNumber] = chunk;
+		}
+	}
+	return chunk[docNumber - (chunkNumber * CHUNK_SIZE)];
+}
+private synchronized String readDocumentNameFromStream(int docNumber) throws IOException {
 	if (this.cachedChunks == null)
 		this.cachedChunks = new String[this.numberOfChunks][];
 
@@ -790,11 +1087,23 @@ synchronized String readDocumentName(int docNumber) throws IOException {
 	this.streamBuffer = null;
 	return chunk[docNumber - (chunkNumber * CHUNK_SIZE)];
 }
-synchronized int[] readDocumentNumbers(Object arrayOffset) throws IOException {
+int[] readDocumentNumbers(Object arrayOffset) throws IOException {
 	// arrayOffset is either a cached array of docNumbers or an Integer offset in the file
 	if (arrayOffset instanceof int[])
 		return (int[]) arrayOffset;
+	if (this.mappedFile == null)
+		return readDocumentNumbersFromStream(arrayOffset);
 
+	try {
+		MappedIndexReader reader = newMappedReader(((Integer) arrayOffset).intValue());
+		return reader.readDocumentArray(reader.readInt());
+	} catch (BufferUnderflowException e) {
+		throw corruptedIndex(e);
+	} catch (IllegalArgumentException e) {
+		throw corruptedIndex(e);
+	}
+}
+private synchronized int[] readDocumentNumbersFromStream(Object arrayOffset) throws IOException {
 	InputStream stream = this.indexLocation.getInputStream();
 	try {
 		int offset = ((Integer) arrayOffset).intValue();
@@ -814,7 +1123,6 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 	// must be same order as writeHeaderInfo()
 	this.numberOfChunks = readStreamInt(stream);
 	this.sizeOfLastChunk = this.streamBuffer[this.bufferIndex++] & 0xFF;
-	this.documentReferenceSize = this.streamBuffer[this.bufferIndex++] & 0xFF;
 	this.separator = (char) (this.streamBuffer[this.bufferIndex++] & 0xFF);
 	long length = this.indexLocation.length();
 	if (length != -1 && this.numberOfChunks > length) {
@@ -865,10 +1173,16 @@ synchronized void stopQuery() {
 		if (this.categoryTables != null) {
 			if (this.cachedCategoryName == null) {
 				this.categoryTables = null;
+				this.categoryWords = null;
 			} else if (this.categoryTables.elementSize > 1) {
 				HashtableOfObject newTables = new HashtableOfObject(3);
 				newTables.put(this.cachedCategoryName, this.categoryTables.get(this.cachedCategoryName));
 				this.categoryTables = newTables;
+				if (this.categoryWords != null) {
+					HashtableOfObject newWords = new HashtableOfObject(3);
+					newWords.put(this.cachedCategoryName, this.categoryWords.get(this.cachedCategoryName));
+					this.categoryWords = newWords;
+				}
 			}
 		}
 	}
@@ -968,43 +1282,9 @@ private char[] readStreamChars(InputStream stream) throws IOException {
 }
 private int[] readStreamDocumentArray(InputStream stream, int arraySize) throws IOException {
 	int[] indexes = new int[arraySize];
-	if (arraySize == 0) return indexes;
-
-	int i = 0;
-	switch (this.documentReferenceSize) {
-		case 1 :
-			while (i < arraySize) {
-				// how many bytes without refilling the buffer?
-				int bytesInBuffer = i + this.bufferEnd - this.bufferIndex;
-				if (bytesInBuffer > arraySize)
-					bytesInBuffer = arraySize;
-				while (i < bytesInBuffer) {
-					indexes[i++] = this.streamBuffer[this.bufferIndex++] & 0xFF;
-				}
-				if (i < arraySize && stream != null)
-					readStreamBuffer(stream);
-			}
-			break;
-		case 2 :
-			while (i < arraySize) {
-				// how many shorts without refilling the buffer?
-				int shortsInBuffer = i + ((this.bufferEnd - this.bufferIndex) / 2);
-				if (shortsInBuffer > arraySize)
-					shortsInBuffer = arraySize;
-				while (i < shortsInBuffer) {
-					int val = (this.streamBuffer[this.bufferIndex++] & 0xFF) << 8;
-					indexes[i++] = val + (this.streamBuffer[this.bufferIndex++] & 0xFF);
-				}
-				if (i < arraySize && stream != null)
-					readStreamBuffer(stream);
-			}
-			break;
-		default :
-			while (i < arraySize) {
-				indexes[i++] = readStreamInt(stream);
-			}
-			break;
-	}
+	int documentNumber = 0;
+	for (int i = 0; i < arraySize; i++)
+		indexes[i] = documentNumber += readStreamVarInt(stream);
 	return indexes;
 }
 private int readStreamInt(InputStream stream) throws IOException {
@@ -1016,6 +1296,18 @@ private int readStreamInt(InputStream stream) throws IOException {
 	val += (this.streamBuffer[this.bufferIndex++] & 0xFF) << 8;
 	return val + (this.streamBuffer[this.bufferIndex++] & 0xFF);
 }
+private int readStreamVarInt(InputStream stream) throws IOException {
+	if (this.bufferIndex + 5 >= this.bufferEnd) {
+		readStreamBuffer(stream);
+	}
+	byte b = this.streamBuffer[this.bufferIndex++];
+	int val = b & 0x7F;
+	for (int shift = 7; b < 0; shift += 7) {
+		b = this.streamBuffer[this.bufferIndex++];
+		val |= (b & 0x7F) << shift;
+	}
+	return val;
+}
 private void writeAllDocumentNames(String[] sortedDocNames, FileOutputStream stream) throws IOException {
 	if (sortedDocNames.length == 0)
 		throw new IllegalArgumentException();
@@ -1037,7 +1329,6 @@ private void writeAllDocumentNames(String[] sortedDocNames, FileOutputStream str
 		this.numberOfChunks--;
 		this.sizeOfLastChunk = CHUNK_SIZE;
 	}
-	this.documentReferenceSize = size <= 0x7F ? 1 : (size <= 0x7FFF ? 2 : 4); // number of bytes used to encode a reference
 
 	this.chunkOffsets = new int[this.numberOfChunks];
 	int lastIndex = this.numberOfChunks - 1;
@@ -1094,7 +1385,7 @@ private void writeCategoryTable(char[] categoryName, HashtableOfObject wordsToDo
 	// the format of a category table is as follows:
 	// any document number arrays with >= 256 elements are written before the table (the offset to each array is remembered)
 	// then the number of word->int[] pairs in the table is written
-	// for each word -> int[] pair, the word is written followed by:
+	// for each word -> int[] pair, in the sorted order of the words, the word is written followed by:
 	//		an int <= 0 if the array size == 1
 	//		an int > 1 & < 256 for the size of the array if its > 1 & < 256, the document array follows immediately
 	//		256 if the array size >= 256 followed by another int which is the offset to the array (written prior to the table)
@@ -1114,12 +1405,19 @@ private void writeCategoryTable(char[] categoryName, HashtableOfObject wordsToDo
 		}
 	}
 
+	// the words are written in sorted order, so that readCategoryTable can cache them in categoryWords for getSortedWords and indexOfFirstWord
+	char[][] words = new char[wordsToDocs.elementSize][];
+	char[][] keys = wordsToDocs.keyTable;
+	for (int i = 0, l = keys.length, count = 0; i < l; i++)
+		if (values[i] != null)
+			words[count++] = keys[i];
+	Util.sort(words);
+
 	this.categoryOffsets.put(categoryName, this.streamEnd); // remember the offset to the start of the table
 	this.categoryTables.put(categoryName, null); // flush cached table
-	writeStreamInt(stream, wordsToDocs.elementSize);
-	char[][] words = wordsToDocs.keyTable;
+	writeStreamInt(stream, words.length);
 	for (int i = 0, l = words.length; i < l; i++) {
-		Object o = values[i];
+		Object o = wordsToDocs.get(words[i]);
 		if (o != null) {
 			writeStreamChars(stream, words[i]);
 			if (o instanceof int[]) {
@@ -1140,57 +1438,22 @@ private void writeDocumentNumbers(int[] documentNumbers, FileOutputStream stream
 	int length = documentNumbers.length;
 	writeStreamInt(stream, length);
 	Util.sort(documentNumbers);
-	int start = 0;
-	switch (this.documentReferenceSize) {
-		case 1 :
-			while ((this.bufferIndex + length - start) >= BUFFER_WRITE_SIZE) {
-				// when documentNumbers is large, write BUFFER_WRITE_SIZE parts & fall thru to write the last part
-				int bytesLeft = BUFFER_WRITE_SIZE - this.bufferIndex;
-				for (int i=0; i < bytesLeft; i++) {
-					this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-				}
-				stream.write(this.streamBuffer, 0, this.bufferIndex);
-				this.bufferIndex = 0;
-			}
-			while (start < length) {
-				this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-			}
-			this.streamEnd += length;
-			break;
-		case 2 :
-			while ((this.bufferIndex + ((length - start) * 2)) >= BUFFER_WRITE_SIZE) {
-				// when documentNumbers is large, write BUFFER_WRITE_SIZE parts & fall thru to write the last part
-				int shortsLeft = (BUFFER_WRITE_SIZE - this.bufferIndex) / 2;
-				for (int i=0; i < shortsLeft; i++) {
-					this.streamBuffer[this.bufferIndex++] = (byte) (documentNumbers[start] >> 8);
-					this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-				}
-				stream.write(this.streamBuffer, 0, this.bufferIndex);
-				this.bufferIndex = 0;
-			}
-			while (start < length) {
-				this.streamBuffer[this.bufferIndex++] = (byte) (documentNumbers[start] >> 8);
-				this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-			}
-			this.streamEnd += length * 2;
-			break;
-		default :
-			while (start < length) {
-				writeStreamInt(stream, documentNumbers[start++]);
-			}
-			break;
+	// each document number is written as the varint encoded difference to the previous one
+	int previous = 0;
+	for (int i = 0; i < length; i++) {
+		writeStreamVarInt(stream, documentNumbers[i] - previous);
+		previous = documentNumbers[i];
 	}
 }
 private void writeHeaderInfo(FileOutputStream stream) throws IOException {
 	writeStreamInt(stream, this.numberOfChunks);
-	if ((this.bufferIndex + 3) >= BUFFER_WRITE_SIZE)  {
+	if ((this.bufferIndex + 2) >= BUFFER_WRITE_SIZE)  {
 		stream.write(this.streamBuffer, 0, this.bufferIndex);
 		this.bufferIndex = 0;
 	}
 	this.streamBuffer[this.bufferIndex++] = (byte) this.sizeOfLastChunk;
-	this.streamBuffer[this.bufferIndex++] = (byte) this.documentReferenceSize;
 	this.streamBuffer[this.bufferIndex++] = (byte) this.separator;
-	this.streamEnd += 3;
+	this.streamEnd += 2;
 
 	// apend the file with chunk offsets
 	for (int i = 0; i < this.numberOfChunks; i++) {
@@ -1327,4 +1590,18 @@ private void writeStreamInt(FileOutputStream stream, int val) throws IOException
 	this.streamBuffer[this.bufferIndex++] = (byte) val;
 	this.streamEnd += 4;
 }
+private void writeStreamVarInt(FileOutputStream stream, int val) throws IOException {
+	// 7 bits per byte, the high bit is set when more bytes follow
+	if ((this.bufferIndex + 5) >= BUFFER_WRITE_SIZE)  {
+		stream.write(this.streamBuffer, 0, this.bufferIndex);
+		this.bufferIndex = 0;
+	}
+	int oldIndex = this.bufferIndex;
+	while ((val & ~0x7F) != 0) {
+		this.streamBuffer[this.bufferIndex++] = (byte) ((val & 0x7F) | 0x80);
+		val >>>= 7;
+	}
+	this.streamBuffer[this.bufferIndex++] = (byte) val;
+	this.streamEnd += this.bufferIndex - oldIndex;
+}
 }
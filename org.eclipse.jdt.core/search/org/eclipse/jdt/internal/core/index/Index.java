@@ -16,6 +16,7 @@ import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
 import org.eclipse.jdt.internal.core.search.indexing.ReadWriteMonitor;
 
 /**
@@ -37,6 +38,8 @@ static final char JAR_SEPARATOR = IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR.char
 
 protected DiskIndex diskIndex;
 protected MemoryIndex memoryIndex;
+// type declaration entries, kept in memory once needed
+private volatile TypeNameTable typeNameTable;
 
 /**
  * Mask used on match rule for indexing.
@@ -98,6 +101,9 @@ public Index(IndexLocation location, String containerPath, boolean reuseExisting
 }
 public void addIndexEntry(char[] category, char[] key, String containerRelativePath) {
 	this.memoryIndex.addIndexEntry(category, key, containerRelativePath);
+	TypeNameTable table = this.typeNameTable;
+	if (table != null && CharOperation.equals(category, IIndexConstants.TYPE_DECL))
+		table.add(key, containerRelativePath);
 }
 public String containerRelativePath(String documentPath) {
 	int index = documentPath.indexOf(IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR);
@@ -117,6 +123,16 @@ public IndexLocation getIndexLocation() {
 public long getIndexLastModified() {
 	return this.diskIndex == null? -1 : this.diskIndex.indexLocation.lastModified();
 }
+/**
+ * Returns the type declaration entries of this index, reading them on the first call.
+ * Assumes the sender owns the read lock of the index.
+ */
+public TypeNameTable getTypeNameTable() throws IOException {
+	TypeNameTable table = this.typeNameTable;
+	if (table == null)
+		this.typeNameTable = table = new TypeNameTable(this); // concurrent readers may build it twice
+	return table;
+}
 public boolean hasChanged() {
 	return this.memoryIndex.hasChanged();
 }
@@ -177,6 +193,9 @@ public String[] queryDocumentNames(String substring) throws IOException {
 }
 public void remove(String containerRelativePath) {
 	this.memoryIndex.remove(containerRelativePath);
+	TypeNameTable table = this.typeNameTable;
+	if (table != null)
+		table.remove(containerRelativePath);
 }
 /**
  * Reset memory and disk indexes.
@@ -184,6 +203,7 @@ public void remove(String containerRelativePath) {
  * @throws IOException
  */
 public void reset() throws IOException {
+	this.typeNameTable = null;
 	this.memoryIndex = new MemoryIndex();
 	this.diskIndex = new DiskIndex(this.diskIndex.indexLocation);
 	this.diskIndex.initialize(false/*do not reuse the index file*/);
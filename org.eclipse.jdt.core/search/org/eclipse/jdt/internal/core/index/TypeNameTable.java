@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+
+/**
+ * The type declaration entries of an index, kept in memory and sorted by their lower case simple name
+ * so that the type names starting with a given prefix can be found without reading the index file.
+ * <p>
+ * A table is built from the index the first time it is needed, then follows the changes of the index:
+ * the entries of the documents added afterwards are appended to a small unsorted list and the entries
+ * of the removed documents are hidden, until enough changes are pending to sort the table again.
+ * </p>
+ */
+public class TypeNameTable {
+
+	/**
+	 * A type declaration entry of the index, for a single document.
+	 */
+	public static class Entry {
+		public final char[] key;
+		public final String documentName;
+		final char[] lowerCaseName;
+		final int stamp;
+
+		Entry(char[] key, String documentName, int stamp) {
+			this.key = key;
+			this.documentName = documentName;
+			int slash = CharOperation.indexOf(IIndexConstants.SEPARATOR, key);
+			this.lowerCaseName = CharOperation.toLowerCase(slash == -1 ? key : CharOperation.subarray(key, 0, slash));
+			this.stamp = stamp;
+		}
+	}
+
+	static final Comparator<Entry> NAME_ORDER = new Comparator<Entry>() {
+		public int compare(Entry e1, Entry e2) {
+			return compareNames(e1.lowerCaseName, e2.lowerCaseName);
+		}
+	};
+
+	/**
+	 * Number of pending changes beyond which the table is sorted again.
+	 */
+	static final int MAX_PENDING_CHANGES = 500;
+
+	private Entry[] entries;
+	private ArrayList<Entry> addedEntries = new ArrayList<>();
+	// removed document names -> stamp of the removal, entries with an older stamp are hidden
+	private HashMap<String, Integer> removedDocuments = new HashMap<>();
+	private int stamp;
+
+static int compareNames(char[] name1, char[] name2) {
+	int length = Math.min(name1.length, name2.length);
+	for (int i = 0; i < length; i++) {
+		if (name1[i] != name2[i])
+			return name1[i] - name2[i];
+	}
+	return name1.length - name2.length;
+}
+
+/**
+ * Reads all the type declaration entries of the given index.
+ * Assumes the sender owns the read lock of the index.
+ */
+TypeNameTable(Index index) throws IOException {
+	ArrayList<Entry> all = new ArrayList<>();
+	index.startQuery();
+	try {
+		EntryResult[] results = index.query(new char[][] {IIndexConstants.TYPE_DECL}, null, SearchPattern.R_PREFIX_MATCH);
+		if (results != null) {
+			for (int i = 0, l = results.length; i < l; i++) {
+				char[] key = results[i].getWord();
+				String[] names = results[i].getDocumentNames(index);
+				for (int j = 0, n = names.length; j < n; j++)
+					all.add(new Entry(key, names[j], 0));
+			}
+		}
+	} finally {
+		index.stopQuery();
+	}
+	this.entries = all.toArray(new Entry[all.size()]);
+	Arrays.sort(this.entries, NAME_ORDER);
+}
+
+/**
+ * Records a type declaration entry added to the index.
+ */
+synchronized void add(char[] key, String documentName) {
+	this.addedEntries.add(new Entry(key, documentName, ++this.stamp));
+	if (this.addedEntries.size() + this.removedDocuments.size() > MAX_PENDING_CHANGES)
+		compact();
+}
+
+private void compact() {
+	ArrayList<Entry> all = new ArrayList<>(this.entries.length + this.addedEntries.size());
+	for (int i = 0, l = this.entries.length; i < l; i++) {
+		if (isVisible(this.entries[i]))
+			all.add(this.entries[i]);
+	}
+	for (Iterator<Entry> i = this.addedEntries.iterator(); i.hasNext();) {
+		Entry entry = i.next();
+		if (isVisible(entry))
+			all.add(entry);
+	}
+	this.entries = all.toArray(new Entry[all.size()]);
+	Arrays.sort(this.entries, NAME_ORDER);
+	this.addedEntries = new ArrayList<>();
+	this.removedDocuments = new HashMap<>();
+}
+
+private boolean isVisible(Entry entry) {
+	if (this.removedDocuments.isEmpty()) return true;
+	Integer removalStamp = this.removedDocuments.get(entry.documentName);
+	return removalStamp == null || entry.stamp > removalStamp.intValue();
+}
+
+/**
+ * Answers the entries which may match the given simple name, whatever its case.
+ * When <code>prefixOnly</code> is false, only the first character of the simple name is
+ * used to select the entries. If the simple name is null or contains wild cards, all
+ * the entries are answered. The answered entries must be checked against the pattern.
+ */
+public synchronized Entry[] query(char[] simpleName, boolean prefixOnly) {
+	ArrayList<Entry> result = new ArrayList<>();
+	if (simpleName == null
+			|| CharOperation.indexOf('*', simpleName) >= 0
+			|| CharOperation.indexOf('?', simpleName) >= 0) {
+		simpleName = CharOperation.NO_CHAR;
+	} else {
+		simpleName = CharOperation.toLowerCase(prefixOnly || simpleName.length == 0 ? simpleName : new char[] {simpleName[0]});
+	}
+
+	// binary search of the first entry with the prefix
+	int low = 0, high = this.entries.length;
+	while (low < high) {
+		int mid = (low + high) >>> 1;
+		if (compareNames(this.entries[mid].lowerCaseName, simpleName) < 0)
+			low = mid + 1;
+		else
+			high = mid;
+	}
+	for (int i = low, l = this.entries.length; i < l; i++) {
+		Entry entry = this.entries[i];
+		if (!CharOperation.prefixEquals(simpleName, entry.lowerCaseName)) break;
+		if (isVisible(entry))
+			result.add(entry);
+	}
+	for (int i = 0, l = this.addedEntries.size(); i < l; i++) {
+		Entry entry = this.addedEntries.get(i);
+		if (CharOperation.prefixEquals(simpleName, entry.lowerCaseName) && isVisible(entry))
+			result.add(entry);
+	}
+	return result.toArray(new Entry[result.size()]);
+}
+
+/**
+ * Hides the entries of a document removed from the index.
+ */
+synchronized void remove(String documentName) {
+	this.removedDocuments.put(documentName, Integer.valueOf(++this.stamp));
+	if (this.addedEntries.size() + this.removedDocuments.size() > MAX_PENDING_CHANGES)
+		compact();
+}
+
+public synchronized int size() {
+	int size = 0;
+	for (int i = 0, l = this.entries.length; i < l; i++) {
+		if (isVisible(this.entries[i]))
+			size++;
+	}
+	for (int i = 0, l = this.addedEntries.size(); i < l; i++) {
+		if (isVisible(this.addedEntries.get(i)))
+			size++;
+	}
+	return size;
+}
+
+public String toString() {
+	return "TypeNameTable: " + this.entries.length + " entries, " + this.addedEntries.size() + " added, " + this.removedDocuments.size() + " removed documents"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+}
+}
@@ -45,6 +45,7 @@ public final class Nd {
 	private final int currentVersion;
 	private final int maxVersion;
 	private final int minVersion;
+	private final boolean readOnly;
 
 	/**
 	 * Stores data that has been stored via {@link #setData}. Synchronize on {@link #cookies} before accessing.
@@ -108,9 +109,20 @@ public final class Nd {
 
 	public Nd(File dbPath, ChunkCache chunkCache, NdNodeTypeRegistry<NdNode> nodeTypes, int minVersion,
 			int maxVersion, int currentVersion) throws IndexException {
+		this(dbPath, chunkCache, nodeTypes, minVersion, maxVersion, currentVersion, false);
+	}
+
+	/**
+	 * Opens the given database file. When <code>readOnly</code> is true, the file must already exist with a supported
+	 * version, it is never written to, and it is mapped into memory instead of being read through the chunk cache.
+	 * The file must not be modified while it is open.
+	 */
+	public Nd(File dbPath, ChunkCache chunkCache, NdNodeTypeRegistry<NdNode> nodeTypes, int minVersion,
+			int maxVersion, int currentVersion, boolean readOnly) throws IndexException {
 		this.currentVersion = currentVersion;
 		this.maxVersion = maxVersion;
 		this.minVersion = minVersion;
+		this.readOnly = readOnly;
 		this.fNodeTypeRegistry = nodeTypes;
 		loadDatabase(dbPath, chunkCache);
 		if (sDEBUG_LOCKS) {
@@ -207,24 +219,29 @@ public final class Nd {
 	}
 
 	/**
-	 * Returns whether this {@link Nd} can never be written to. Writable subclasses should return false.
+	 * Returns whether this {@link Nd} can never be written to, that is whether it was opened read-only.
 	 */
-	protected boolean isPermanentlyReadOnly() {
-		return false;
+	public boolean isPermanentlyReadOnly() {
+		return this.readOnly;
 	}
 
 	private void loadDatabase(File dbPath, ChunkCache cache) throws IndexException {
 		this.fPath= dbPath;
 
 		clearCaches();
-		this.db = new Database(this.fPath, cache, getDefaultVersion(), isPermanentlyReadOnly());
+		this.db = new Database(this.fPath, cache, getDefaultVersion(), this.readOnly, this.readOnly);
 		this.db.setExclusiveLock();
 		if (!isSupportedVersion()) {
+			if (this.readOnly) {
+				int version = this.db.getVersion();
+				this.db.close();
+				throw new IndexException("Index database uses the unsupported version " + version); //$NON-NLS-1$
+			}
 			Package.logInfo("Index database uses the unsupported version " + this.db.getVersion() //$NON-NLS-1$
 				+ ". Deleting and recreating."); //$NON-NLS-1$
 			this.db.close();
 			this.fPath.delete();
-			this.db = new Database(this.fPath, cache, getDefaultVersion(), isPermanentlyReadOnly());
+			this.db = new Database(this.fPath, cache, getDefaultVersion(), false);
 			this.db.setExclusiveLock();
 		}
 		this.db.giveUpExclusiveLock();
@@ -17,10 +17,11 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
- * Caches the content of a piece of the database.
+ * Caches the content of a piece of the database. The content is either read into the heap, or a view of the
+ * database file when it is mapped into memory.
  */
 final class Chunk {
-	final private byte[] fBuffer= new byte[Database.CHUNK_SIZE];
+	final private ByteBuffer fBuffer;
 
 	final Database fDatabase;
 	/**
@@ -35,18 +36,29 @@ final class Chunk {
 	boolean fDirty;
 	/**
 	 * True iff this {@link Chunk} was accessed since the last time it was tested for eviction in the
-	 * {@link ChunkCache}. Protected by synchronizing on the {@link ChunkCache} itself.
+	 * {@link ChunkCache}. Cleared while holding the lock of the cache segment containing this chunk, but may be set
+	 * without any lock since a lost update only affects the eviction order.
 	 */
 	boolean fCacheHitFlag;
 	/**
-	 * Holds the index into the {@link ChunkCache}'s page table, or -1 if this {@link Chunk} isn't present in the page
-	 * table. Protected by synchronizing on the {@link ChunkCache} itself.
+	 * Holds the index into the page table of the {@link ChunkCache} segment containing this chunk, or -1 if this
+	 * {@link Chunk} isn't present in the page table. Written while holding the lock of that segment. Volatile so that
+	 * readers which find the chunk in the cache without locking also see its contents.
 	 */
-	int fCacheIndex= -1;
+	volatile int fCacheIndex= -1;
 
 	Chunk(Database db, int sequenceNumber) {
+		this(db, sequenceNumber, ByteBuffer.allocate(Database.CHUNK_SIZE));
+	}
+
+	/**
+	 * Creates a chunk whose content is the given buffer, of {@link Database#CHUNK_SIZE} bytes starting at
+	 * position 0. Used for the chunks of a mapped database file, which are neither read nor flushed.
+	 */
+	Chunk(Database db, int sequenceNumber, ByteBuffer buffer) {
 		this.fDatabase= db;
 		this.fSequenceNumber= sequenceNumber;
+		this.fBuffer= buffer;
 	}
 
 	public void makeDirty() {
@@ -74,7 +86,8 @@ final class Chunk {
 
 	void read() throws IndexException {
 		try {
-			final ByteBuffer buf= ByteBuffer.wrap(this.fBuffer);
+			final ByteBuffer buf= this.fBuffer.duplicate();
+			buf.clear();
 			this.fDatabase.read(buf, (long) this.fSequenceNumber * Database.CHUNK_SIZE);
 		} catch (IOException e) {
 			throw new IndexException(new DBStatus(e));
@@ -92,7 +105,8 @@ final class Chunk {
 		}
 		boolean wasCanceled = false;
 		try {
-			final ByteBuffer buf= ByteBuffer.wrap(this.fBuffer);
+			final ByteBuffer buf= this.fBuffer.duplicate();
+			buf.clear();
 			wasCanceled = this.fDatabase.write(buf, (long) this.fSequenceNumber * Database.CHUNK_SIZE);
 		} catch (IOException e) {
 			throw new IndexException(new DBStatus(e));
@@ -108,39 +122,46 @@ final class Chunk {
 
 	public void putByte(final long offset, final byte value) {
 		makeDirty();
-		this.fBuffer[recPtrToIndex(offset)]= value;
+		this.fBuffer.put(recPtrToIndex(offset), value);
 		recordWrite(offset, 1);
 	}
 
 	public byte getByte(final long offset) {
-		return this.fBuffer[recPtrToIndex(offset)];
+		return this.fBuffer.get(recPtrToIndex(offset));
 	}
 
 	/**
 	 * Returns a copy of the entire chunk.
 	 */
 	public byte[] getBytes() {
-		final byte[] bytes = new byte[this.fBuffer.length];
-		System.arraycopy(this.fBuffer, 0, bytes, 0, this.fBuffer.length);
+		final byte[] bytes = new byte[Database.CHUNK_SIZE];
+		copyTo(0, bytes, 0, bytes.length);
 		return bytes;
 	}
 
 	public byte[] getBytes(final long offset, final int length) {
 		final byte[] bytes = new byte[length];
-		System.arraycopy(this.fBuffer, recPtrToIndex(offset), bytes, 0, length);
+		copyTo(recPtrToIndex(offset), bytes, 0, length);
 		return bytes;
 	}
 
 	public void putBytes(final long offset, final byte[] bytes) {
-		makeDirty();
-		System.arraycopy(bytes, 0, this.fBuffer, recPtrToIndex(offset), bytes.length);
-		recordWrite(offset, bytes.length);
+		put(offset, bytes, 0, bytes.length);
+	}
+
+	private void copyTo(int idx, byte[] data, int dataPos, int len) {
+		if (this.fBuffer.hasArray()) {
+			System.arraycopy(this.fBuffer.array(), this.fBuffer.arrayOffset() + idx, data, dataPos, len);
+		} else {
+			ByteBuffer buf= this.fBuffer.duplicate();
+			buf.position(idx);
+			buf.get(data, dataPos, len);
+		}
 	}
 
 	public void putInt(final long offset, final int value) {
 		makeDirty();
-		int idx= recPtrToIndex(offset);
-		putInt(value, this.fBuffer, idx);
+		this.fBuffer.putInt(recPtrToIndex(offset), value);
 		recordWrite(offset, 4);
 	}
 
@@ -152,7 +173,7 @@ final class Chunk {
 	}
 
 	public int getInt(final long offset) {
-		return getInt(this.fBuffer, recPtrToIndex(offset));
+		return this.fBuffer.getInt(recPtrToIndex(offset));
 	}
 
 	static final int getInt(final byte[] buffer, int idx) {
@@ -195,8 +216,8 @@ final class Chunk {
 	 */
 	public void putRecPtr(final long offset, final long value) {
 		makeDirty();
-		int idx = recPtrToIndex(offset);
-		Database.putRecPtr(value, this.fBuffer, idx);
+		final int denseValue = value == 0 ? 0 : compressFreeRecPtr(value - Database.BLOCK_HEADER_SIZE);
+		this.fBuffer.putInt(recPtrToIndex(offset), denseValue);
 		recordWrite(offset, 4);
 	}
 
@@ -206,43 +227,36 @@ final class Chunk {
 	 */
 	public void putFreeRecPtr(final long offset, final long value) {
 		makeDirty();
-		int idx = recPtrToIndex(offset);
-		putInt(compressFreeRecPtr(value), this.fBuffer, idx);
+		this.fBuffer.putInt(recPtrToIndex(offset), compressFreeRecPtr(value));
 		recordWrite(offset, 4);
 	}
 
 	public long getRecPtr(final long offset) {
-		final int idx = recPtrToIndex(offset);
-		return Database.getRecPtr(this.fBuffer, idx);
+		long address = expandToFreeRecPtr(this.fBuffer.getInt(recPtrToIndex(offset)));
+		return address != 0 ? (address + Database.BLOCK_HEADER_SIZE) : address;
 	}
 
 	public long getFreeRecPtr(final long offset) {
-		final int idx = recPtrToIndex(offset);
-		int value = getInt(this.fBuffer, idx);
+		int value = this.fBuffer.getInt(recPtrToIndex(offset));
 		return expandToFreeRecPtr(value);
 	}
 
 	public void put3ByteUnsignedInt(final long offset, final int value) {
 		makeDirty();
 		int idx= recPtrToIndex(offset);
-		this.fBuffer[idx]= (byte) (value >> 16);
-		this.fBuffer[++idx]= (byte) (value >> 8);
-		this.fBuffer[++idx]= (byte) (value);
+		this.fBuffer.put(idx, (byte) (value >> 16));
+		this.fBuffer.putShort(idx + 1, (short) value);
 		recordWrite(offset, 3);
 	}
 
 	public int get3ByteUnsignedInt(final long offset) {
 		int idx= recPtrToIndex(offset);
-		return ((this.fBuffer[idx] & 0xff) << 16) |
-				((this.fBuffer[++idx] & 0xff) <<  8) |
-				((this.fBuffer[++idx] & 0xff) <<  0);
+		return ((this.fBuffer.get(idx) & 0xff) << 16) | (this.fBuffer.getShort(idx + 1) & 0xffff);
 	}
 
 	public void putShort(final long offset, final short value) {
 		makeDirty();
-		int idx= recPtrToIndex(offset);
-		this.fBuffer[idx]= (byte) (value >> 8);
-		this.fBuffer[++idx]= (byte) (value);
+		this.fBuffer.putShort(recPtrToIndex(offset), value);
 		recordWrite(offset, 2);
 	}
 
@@ -251,20 +265,11 @@ final class Chunk {
 	}
 
 	public short getShort(final long offset) {
-		int idx= recPtrToIndex(offset);
-		return (short) (((this.fBuffer[idx] << 8) | (this.fBuffer[++idx] & 0xff)));
+		return this.fBuffer.getShort(recPtrToIndex(offset));
 	}
 
 	public long getLong(final long offset) {
-		int idx= recPtrToIndex(offset);
-		return ((((long) this.fBuffer[idx] & 0xff) << 56) |
-				(((long) this.fBuffer[++idx] & 0xff) << 48) |
-				(((long) this.fBuffer[++idx] & 0xff) << 40) |
-				(((long) this.fBuffer[++idx] & 0xff) << 32) |
-				(((long) this.fBuffer[++idx] & 0xff) << 24) |
-				(((long) this.fBuffer[++idx] & 0xff) << 16) |
-				(((long) this.fBuffer[++idx] & 0xff) <<  8) |
-				(((long) this.fBuffer[++idx] & 0xff) <<  0));
+		return this.fBuffer.getLong(recPtrToIndex(offset));
 	}
 
 	public double getDouble(long offset) {
@@ -277,46 +282,32 @@ final class Chunk {
 
 	public void putLong(final long offset, final long value) {
 		makeDirty();
-		int idx= recPtrToIndex(offset);
-
-		this.fBuffer[idx]=   (byte) (value >> 56);
-		this.fBuffer[++idx]= (byte) (value >> 48);
-		this.fBuffer[++idx]= (byte) (value >> 40);
-		this.fBuffer[++idx]= (byte) (value >> 32);
-		this.fBuffer[++idx]= (byte) (value >> 24);
-		this.fBuffer[++idx]= (byte) (value >> 16);
-		this.fBuffer[++idx]= (byte) (value >> 8);
-		this.fBuffer[++idx]= (byte) (value);
+		this.fBuffer.putLong(recPtrToIndex(offset), value);
 		recordWrite(offset, 8);
 	}
 
 	public void putChar(final long offset, final char value) {
 		makeDirty();
-		int idx= recPtrToIndex(offset);
-		this.fBuffer[idx]= (byte) (value >> 8);
-		this.fBuffer[++idx]= (byte) (value);
+		this.fBuffer.putChar(recPtrToIndex(offset), value);
 		recordWrite(offset, 2);
 	}
 
 	public void putChars(final long offset, char[] chars, int start, int len) {
 		makeDirty();
-		int idx= recPtrToIndex(offset)-1;
+		int idx= recPtrToIndex(offset);
 		final int end= start + len;
-		for (int i = start; i < end; i++) {
-			char value= chars[i];
-			this.fBuffer[++idx]= (byte) (value >> 8);
-			this.fBuffer[++idx]= (byte) (value);
+		for (int i = start; i < end; i++, idx += 2) {
+			this.fBuffer.putChar(idx, chars[i]);
 		}
 		recordWrite(offset, len * 2);
 	}
 
 	public void putCharsAsBytes(final long offset, char[] chars, int start, int len) {
 		makeDirty();
-		int idx= recPtrToIndex(offset)-1;
+		int idx= recPtrToIndex(offset);
 		final int end= start + len;
 		for (int i = start; i < end; i++) {
-			char value= chars[i];
-			this.fBuffer[++idx]= (byte) (value);
+			this.fBuffer.put(idx++, (byte) chars[i]);
 		}
 		recordWrite(offset, len);
 	}
@@ -330,12 +321,11 @@ final class Chunk {
 	}
 
 	public char getChar(final long offset) {
-		int idx= recPtrToIndex(offset);
-		return (char) (((this.fBuffer[idx] << 8) | (this.fBuffer[++idx] & 0xff)));
+		return this.fBuffer.getChar(recPtrToIndex(offset));
 	}
 
 	public void getChars(final long offset, final char[] result, int start, int len) {
-		final ByteBuffer buf= ByteBuffer.wrap(this.fBuffer);
+		final ByteBuffer buf= this.fBuffer.duplicate();
 		buf.position(recPtrToIndex(offset));
 		buf.asCharBuffer().get(result, start, len);
 	}
@@ -343,7 +333,7 @@ final class Chunk {
 	public void getCharsFromBytes(final long offset, final char[] result, int start, int len) {
 		final int pos = recPtrToIndex(offset);
 		for (int i = 0; i < len; i++) {
-			result[start + i] =  (char) (this.fBuffer[pos + i] & 0xff);
+			result[start + i] =  (char) (this.fBuffer.get(pos + i) & 0xff);
 		}
 	}
 
@@ -351,12 +341,12 @@ final class Chunk {
 		makeDirty();
 		int idx = recPtrToIndex(offset);
 		final int end = idx + length;
-		if (end > this.fBuffer.length) {
+		if (end > Database.CHUNK_SIZE) {
 			throw new IndexException("Attempting to clear beyond end of chunk. Chunk = " + this.fSequenceNumber //$NON-NLS-1$
 					+ ", offset = " + offset + ", length = " + length); //$NON-NLS-1$//$NON-NLS-2$
 		}
 		for (; idx < end; idx++) {
-			this.fBuffer[idx] = 0;
+			this.fBuffer.put(idx, (byte) 0);
 		}
 		recordWrite(offset, length);
 	}
@@ -367,8 +357,9 @@ final class Chunk {
 
 	void put(final long offset, final byte[] data, int dataPos, final int len) {
 		makeDirty();
-		int idx = recPtrToIndex(offset);
-		System.arraycopy(data, dataPos, this.fBuffer, idx, len);
+		ByteBuffer buf= this.fBuffer.duplicate();
+		buf.position(recPtrToIndex(offset));
+		buf.put(data, dataPos, len);
 		recordWrite(offset, len);
 	}
 
@@ -377,8 +368,7 @@ final class Chunk {
 	}
 
 	public void get(final long offset, byte[] data, int dataPos, int len) {
-		int idx = recPtrToIndex(offset);
-		System.arraycopy(this.fBuffer, idx, data, dataPos, len);
+		copyTo(recPtrToIndex(offset), data, dataPos, len);
 	}
 
 	/**
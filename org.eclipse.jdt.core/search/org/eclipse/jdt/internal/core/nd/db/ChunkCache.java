@@ -10,16 +10,42 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.nd.db;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.jdt.core.JavaCore;
 
+/**
+ * Page table shared by all the {@link Database} instances which use it. The table is split into segments, each of
+ * them owning its own lock and running its own CLOCK eviction, so that threads reading different chunks rarely
+ * contend with each other. A chunk always lives in the segment selected by its database and sequence number.
+ * <p>
+ * Chunks which get evicted are answered to the caller rather than released from here, since releasing a chunk
+ * needs the lock of the database owning it. Callers must hand them to {@link Database#chunkEvicted(Chunk)} once
+ * they no longer hold any other database lock.
+ */
 public final class ChunkCache {
 	private static ChunkCache sSharedInstance;
 
-	private Chunk[] fPageTable;
-	private boolean fTableIsFull;
-	private int fPointer;
+	/**
+	 * The smallest number of chunks worth giving a segment of its own.
+	 */
+	private static final int MIN_SEGMENT_LENGTH = 64;
+
+	private static final class Segment {
+		Chunk[] fPageTable;
+		boolean fTableIsFull;
+		int fPointer;
+
+		Segment(int length) {
+			this.fPageTable = new Chunk[length];
+		}
+	}
+
+	private final Segment[] fSegments;
+	private final int fSegmentMask;
 
 	public static final String CHUNK_CACHE_SIZE_MB = "chunkCacheSizeMb"; //$NON-NLS-1$
 	public static final String CHUNK_CACHE_SIZE_PERCENT = "chunkCacheSizePercent"; //$NON-NLS-1$
@@ -59,36 +85,87 @@ public final class ChunkCache {
 	}
 
 	public ChunkCache(long maxSize) {
-		this.fPageTable= new Chunk[computeLength(maxSize)];
+		final int length = computeLength(maxSize);
+		int segmentCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4);
+		while (segmentCount > 1 && length / segmentCount < MIN_SEGMENT_LENGTH) {
+			segmentCount >>= 1;
+		}
+		this.fSegments = new Segment[segmentCount];
+		this.fSegmentMask = segmentCount - 1;
+		for (int i = 0; i < segmentCount; i++) {
+			this.fSegments[i] = new Segment(segmentLength(length, i));
+		}
+	}
+
+	private Segment segmentFor(Chunk chunk) {
+		int hash = System.identityHashCode(chunk.fDatabase) * 31 + chunk.fSequenceNumber;
+		hash ^= (hash >>> 16);
+		return this.fSegments[hash & this.fSegmentMask];
 	}
 
-	public synchronized void add(Chunk chunk) {
+	/**
+	 * Answers the number of entries of the given segment when the whole table holds <code>length</code> entries.
+	 */
+	private int segmentLength(int length, int segmentIndex) {
+		int segmentLength = length / this.fSegments.length;
+		if (segmentIndex < length % this.fSegments.length) {
+			segmentLength++;
+		}
+		return Math.max(1, segmentLength);
+	}
+
+	/**
+	 * Marks the given chunk as recently used if it is present in the page table. Doesn't lock anything, so it may be
+	 * called on the fast path of {@link Database#getChunk(long)}.
+	 *
+	 * @return true iff the chunk is present in the page table
+	 */
+	boolean touch(Chunk chunk) {
 		if (chunk.fCacheIndex >= 0) {
-			chunk.fCacheHitFlag= true;
-			return;
+			chunk.fCacheHitFlag = true;
+			return true;
 		}
-		if (this.fTableIsFull) {
-			evictChunk();
-			chunk.fCacheIndex= this.fPointer;
-			this.fPageTable[this.fPointer]= chunk;
-		} else {
-			chunk.fCacheIndex= this.fPointer;
-			this.fPageTable[this.fPointer]= chunk;
-
-			this.fPointer++;
-			if (this.fPointer == this.fPageTable.length) {
-				this.fPointer= 0;
-				this.fTableIsFull= true;
+		return false;
+	}
+
+	/**
+	 * Adds the given chunk to the page table, or marks it as recently used if it is already present.
+	 *
+	 * @return the chunk evicted to make room for the new one, or null if none. The caller is responsible for passing
+	 * it on to {@link Database#chunkEvicted(Chunk)}.
+	 */
+	public Chunk add(Chunk chunk) {
+		Segment segment = segmentFor(chunk);
+		synchronized (segment) {
+			if (chunk.fCacheIndex >= 0) {
+				chunk.fCacheHitFlag= true;
+				return null;
 			}
+			Chunk evicted = null;
+			if (segment.fTableIsFull) {
+				evicted = evictChunk(segment);
+				segment.fPageTable[segment.fPointer]= chunk;
+				chunk.fCacheIndex= segment.fPointer;
+			} else {
+				segment.fPageTable[segment.fPointer]= chunk;
+				chunk.fCacheIndex= segment.fPointer;
+
+				segment.fPointer++;
+				if (segment.fPointer == segment.fPageTable.length) {
+					segment.fPointer= 0;
+					segment.fTableIsFull= true;
+				}
+			}
+			return evicted;
 		}
 	}
 
 	/**
-	 * Evicts a chunk from the page table and the chunk table.
-	 * After this method returns, {@link #fPointer}  will contain
+	 * Evicts a chunk from the page table of the given segment and returns it.
+	 * After this method returns, {@link Segment#fPointer} will contain
 	 * the index of the evicted chunk within the page table.
 	 */
-	private void evictChunk() {
+	private static Chunk evictChunk(Segment segment) {
 		/*
 		 * Use the CLOCK algorithm to determine which chunk to evict.
 		 * i.e., if the chunk in the current slot of the page table has been
@@ -97,87 +174,119 @@ public final class ChunkCache {
 		 * chunk in the current slot.
 		 */
 		while (true) {
-			Chunk chunk = this.fPageTable[this.fPointer];
+			Chunk chunk = segment.fPageTable[segment.fPointer];
 			if (chunk.fCacheHitFlag) {
 				chunk.fCacheHitFlag = false;
-				this.fPointer = (this.fPointer + 1) % this.fPageTable.length;
+				segment.fPointer = (segment.fPointer + 1) % segment.fPageTable.length;
 			} else {
 				chunk.fCacheIndex = -1;
-				chunk.fDatabase.checkIfChunkReleased(chunk);
-				this.fPageTable[this.fPointer] = null;
-				return;
+				segment.fPageTable[segment.fPointer] = null;
+				return chunk;
 			}
 		}
 	}
 
-	public synchronized void remove(Chunk chunk) {
-		final int idx= chunk.fCacheIndex;
-		if (idx >= 0) {
-			if (this.fTableIsFull) {
-				this.fPointer= this.fPageTable.length-1;
-				this.fTableIsFull= false;
-			} else {
-				this.fPointer--;
+	public void remove(Chunk chunk) {
+		Segment segment = segmentFor(chunk);
+		synchronized (segment) {
+			final int idx= chunk.fCacheIndex;
+			if (idx >= 0) {
+				if (segment.fTableIsFull) {
+					segment.fPointer= segment.fPageTable.length-1;
+					segment.fTableIsFull= false;
+				} else {
+					segment.fPointer--;
+				}
+				chunk.fCacheIndex= -1;
+				final Chunk move= segment.fPageTable[segment.fPointer];
+				segment.fPageTable[idx]= move;
+				move.fCacheIndex= idx;
+				segment.fPageTable[segment.fPointer]= null;
 			}
-			chunk.fCacheIndex= -1;
-			final Chunk move= this.fPageTable[this.fPointer];
-			this.fPageTable[idx]= move;
-			move.fCacheIndex= idx;
-			this.fPageTable[this.fPointer]= null;
 		}
 	}
 
 	/**
 	 * Returns the maximum size of the chunk cache in bytes.
 	 */
-	public synchronized long getMaxSize() {
-		return (long) this.fPageTable.length * Database.CHUNK_SIZE;
+	public long getMaxSize() {
+		long length = 0;
+		for (Segment segment : this.fSegments) {
+			synchronized (segment) {
+				length += segment.fPageTable.length;
+			}
+		}
+		return length * Database.CHUNK_SIZE;
 	}
 
 	/**
-	 * Clears the page table and changes it to hold chunks with
-	 * maximum total memory of <code>maxSize</code>.
+	 * Changes the page table to hold chunks with maximum total memory of <code>maxSize</code>,
+	 * evicting the chunks which no longer fit.
 	 * @param maxSize the total size of the chunks in bytes.
 	 */
-	public synchronized void setMaxSize(long maxSize) {
-		final int newLength= computeLength(maxSize);
-		final int oldLength= this.fTableIsFull ? this.fPageTable.length : this.fPointer;
-		if (newLength > oldLength) {
-			Chunk[] newTable= new Chunk[newLength];
-			System.arraycopy(this.fPageTable, 0, newTable, 0, oldLength);
-			this.fTableIsFull= false;
-			this.fPointer= oldLength;
-			this.fPageTable= newTable;
-		} else {
-			for (int i = newLength; i < oldLength; i++) {
-				Chunk chunk = this.fPageTable[i];
-				chunk.fCacheIndex = -1;
-				chunk.fDatabase.checkIfChunkReleased(chunk);
+	public void setMaxSize(long maxSize) {
+		final int length= computeLength(maxSize);
+		List<Chunk> evicted = new ArrayList<>();
+		for (int i = 0; i < this.fSegments.length; i++) {
+			Segment segment = this.fSegments[i];
+			synchronized (segment) {
+				final int newLength= segmentLength(length, i);
+				final int oldLength= segment.fTableIsFull ? segment.fPageTable.length : segment.fPointer;
+				if (newLength > oldLength) {
+					Chunk[] newTable= new Chunk[newLength];
+					System.arraycopy(segment.fPageTable, 0, newTable, 0, oldLength);
+					segment.fTableIsFull= false;
+					segment.fPointer= oldLength;
+					segment.fPageTable= newTable;
+				} else {
+					for (int j = newLength; j < oldLength; j++) {
+						Chunk chunk = segment.fPageTable[j];
+						chunk.fCacheIndex = -1;
+						evicted.add(chunk);
+					}
+					Chunk[] newTable= new Chunk[newLength];
+					System.arraycopy(segment.fPageTable, 0, newTable, 0, newLength);
+					segment.fTableIsFull= true;
+					segment.fPointer= 0;
+					segment.fPageTable= newTable;
+				}
 			}
-			Chunk[] newTable= new Chunk[newLength];
-			System.arraycopy(this.fPageTable, 0, newTable, 0, newLength);
-			this.fTableIsFull= true;
-			this.fPointer= 0;
-			this.fPageTable= newTable;
 		}
+		releaseChunks(evicted);
 	}
 
-	private int computeLength(long maxSize) {
+	private static int computeLength(long maxSize) {
 		long maxLength= Math.min(maxSize / Database.CHUNK_SIZE, Integer.MAX_VALUE);
 		return Math.max(1, (int) maxLength);
 	}
 
-	public synchronized void clear() {
-		for (int i = 0; i < this.fPageTable.length; i++) {
-			Chunk chunk = this.fPageTable[i];
-			if (chunk == null) {
-				continue;
+	public void clear() {
+		List<Chunk> evicted = new ArrayList<>();
+		for (Segment segment : this.fSegments) {
+			synchronized (segment) {
+				for (int i = 0; i < segment.fPageTable.length; i++) {
+					Chunk chunk = segment.fPageTable[i];
+					if (chunk == null) {
+						continue;
+					}
+					chunk.fCacheIndex = -1;
+					evicted.add(chunk);
+					segment.fPageTable[i] = null;
+				}
+				segment.fTableIsFull = false;
+				segment.fPointer = 0;
 			}
-			chunk.fCacheIndex = -1;
-			chunk.fDatabase.checkIfChunkReleased(chunk);
-			this.fPageTable[i] = null;
 		}
-		this.fTableIsFull = false;
-		this.fPointer = 0;
+		releaseChunks(evicted);
+	}
+
+	/**
+	 * Releases chunks dropped from the page table. Must be called without holding any segment lock, since it
+	 * acquires the locks of the databases owning the chunks.
+	 */
+	private static void releaseChunks(List<Chunk> evicted) {
+		for (Chunk chunk : evicted) {
+			chunk.fDatabase.chunkEvicted(chunk);
+		}
 	}
 }
@@ -27,6 +27,7 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
@@ -143,26 +144,43 @@ public class Database {
 		public final int chunksInMemory;
 		public final int dirtyChunks;
 		public final int nonDirtyChunksNotInCache;
+		public final long cacheHits;
+		public final long cacheMisses;
+		public final long cacheEvictions;
 
 		public ChunkStats(int totalChunks, int chunksInMemory, int dirtyChunks, int nonDirtyChunksNotInCache) {
+			this(totalChunks, chunksInMemory, dirtyChunks, nonDirtyChunksNotInCache, 0, 0, 0);
+		}
+
+		public ChunkStats(int totalChunks, int chunksInMemory, int dirtyChunks, int nonDirtyChunksNotInCache,
+				long cacheHits, long cacheMisses, long cacheEvictions) {
 			this.totalChunks = totalChunks;
 			this.chunksInMemory = chunksInMemory;
 			this.dirtyChunks = dirtyChunks;
 			this.nonDirtyChunksNotInCache = nonDirtyChunksNotInCache;
+			this.cacheHits = cacheHits;
+			this.cacheMisses = cacheMisses;
+			this.cacheEvictions = cacheEvictions;
 		}
 
 		public String toString() {
 			return "Chunks: total = " + this.totalChunks + ", in memory = " + this.chunksInMemory //$NON-NLS-1$//$NON-NLS-2$
-					+ ", dirty = " + this.dirtyChunks + ", not in cache = " + this.nonDirtyChunksNotInCache;  //$NON-NLS-1$//$NON-NLS-2$
+					+ ", dirty = " + this.dirtyChunks + ", not in cache = " + this.nonDirtyChunksNotInCache  //$NON-NLS-1$//$NON-NLS-2$
+					+ ", hits = " + this.cacheHits + ", misses = " + this.cacheMisses //$NON-NLS-1$//$NON-NLS-2$
+					+ ", evictions = " + this.cacheEvictions; //$NON-NLS-1$
 		}
 	}
 
 	/**
 	 * For loops that scan through the chunks list, this imposes a maximum number of iterations before the loop must
-	 * release the chunk cache mutex.
+	 * release the chunks mutex.
 	 */
 	private static final int MAX_ITERATIONS_PER_LOCK = 256;
 	private static final int WRITE_BUFFER_SIZE = CHUNK_SIZE * 32;
+	/**
+	 * Number of chunks in each region of a memory mapped database file. A single mapping can't exceed 2 GB.
+	 */
+	private static final int CHUNKS_PER_MAPPED_REGION = (1 << 30) / CHUNK_SIZE;
 
 	/**
 	 * True iff large chunk self-diagnostics should be enabled.
@@ -174,6 +192,12 @@ public class Database {
 	private final File fLocation;
 	private final boolean fReadOnly;
 	private RandomAccessFile fFile;
+	/**
+	 * The regions of the database file mapped into memory, or null if the chunks are read into the heap. Only
+	 * read-only databases are mapped. Their chunks are views of these regions, which never enter the
+	 * {@link ChunkCache}.
+	 */
+	private ByteBuffer[] fMappedRegions;
 	private boolean fExclusiveLock;	 // Necessary for any write operation.
 	private boolean fLocked;		 // Necessary for any operation.
 	private boolean fIsMarkedIncomplete;
@@ -182,16 +206,23 @@ public class Database {
 	private final Chunk fHeaderChunk;
 	/**
 	 * Stores the {@link Chunk} associated with each page number or null if the chunk isn't loaded. Synchronize on
-	 * {@link #fCache} before accessing.
+	 * {@link #fChunksMutex} before accessing. The only exception is the fast path of {@link #getChunk(long)}, which
+	 * only uses chunks it finds in the cache.
 	 */
 	Chunk[] fChunks;
 	private int fChunksUsed;
 	private ChunkCache fCache;
+	/**
+	 * Protects {@link #fChunks} and the cache counters. Chunks evicted by the cache, which is shared between
+	 * databases, must only be handed to {@link #chunkEvicted(Chunk)} once this lock has been released.
+	 */
+	private final Object fChunksMutex = new Object();
 
 	private long malloced;
 	private long freed;
-	private long cacheHits;
+	private final LongAdder cacheHits = new LongAdder();
 	private long cacheMisses;
+	private long cacheEvictions;
 	private long bytesWritten;
 	private long totalReadTimeMs;
 
@@ -223,6 +254,26 @@ public class Database {
 	 * @throws IndexException
 	 */
 	public Database(File location, ChunkCache cache, int version, boolean openReadOnly) throws IndexException {
+		this(location, cache, version, openReadOnly, false);
+	}
+
+	/**
+	 * Construct a new Database object, creating a backing file if necessary.
+	 * <p>
+	 * When the database is opened read-only and <code>mapFile</code> is true, the database file is mapped into
+	 * memory and the chunks are read directly from the mapping instead of being copied into the heap and managed
+	 * by the cache. The file must not be modified while the database is open. The chunks are read into the heap
+	 * as usual if the file can't be mapped.
+	 * </p>
+	 * @param location the local file path for the database
+	 * @param cache the cache to be used optimization
+	 * @param version the version number to store in the database (only applicable for new databases)
+	 * @param openReadOnly whether this Database object will ever need writing to
+	 * @param mapFile whether a read-only database file should be mapped into memory
+	 * @throws IndexException
+	 */
+	public Database(File location, ChunkCache cache, int version, boolean openReadOnly, boolean mapFile)
+			throws IndexException {
 		this.mallocTag = ModificationLog.createTag("Calling Database.malloc"); //$NON-NLS-1$
 		this.freeTag = ModificationLog.createTag("Calling Database.free"); //$NON-NLS-1$
 		try {
@@ -242,6 +293,9 @@ public class Database {
 				this.fVersion= this.fHeaderChunk.getInt(VERSION_OFFSET);
 				this.fChunks = new Chunk[nChunksOnDisk];	// chunk[0] is unused.
 				this.fChunksUsed = nChunksOnDisk;
+				if (openReadOnly && mapFile) {
+					this.fMappedRegions = mapRegions(nChunksOnDisk);
+				}
 			}
 		} catch (IOException e) {
 			throw new IndexException(new DBStatus(e));
@@ -249,6 +303,33 @@ public class Database {
 		this.memoryUsage = new MemoryStats(this.fHeaderChunk, MALLOC_STATS_OFFSET);
 	}
 
+	/**
+	 * Maps the given number of chunks of the database file into memory. Answers null if the file can't be mapped.
+	 */
+	private ByteBuffer[] mapRegions(int numChunks) {
+		ByteBuffer[] regions = new ByteBuffer[divideRoundingUp(numChunks, CHUNKS_PER_MAPPED_REGION)];
+		try {
+			FileChannel channel = this.fFile.getChannel();
+			for (int i = 0; i < regions.length; i++) {
+				long firstChunk = (long) i * CHUNKS_PER_MAPPED_REGION;
+				long chunks = Math.min(CHUNKS_PER_MAPPED_REGION, numChunks - firstChunk);
+				regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, firstChunk * CHUNK_SIZE, chunks * CHUNK_SIZE);
+			}
+		} catch (IOException e) {
+			// Typically out of address space, fall back on the chunk cache
+			Package.log(e);
+			return null;
+		}
+		return regions;
+	}
+
+	/**
+	 * Returns whether the chunks of this database are read from a memory mapped file.
+	 */
+	public boolean isMemoryMapped() {
+		return this.fMappedRegions != null;
+	}
+
 	private static int divideRoundingUp(long num, long den) {
 		return (int) ((num + den - 1) / den);
 	}
@@ -410,7 +491,7 @@ public class Database {
 	private void removeChunksFromCache() {
 		int scanIndex = NUM_HEADER_CHUNKS;
 		while (scanIndex < this.fChunksUsed) {
-			synchronized (this.fCache) {
+			synchronized (this.fChunksMutex) {
 				int countMax = Math.min(MAX_ITERATIONS_PER_LOCK, this.fChunksUsed - scanIndex);
 				for (int count = 0; count < countMax; count++) {
 					Chunk chunk = this.fChunks[scanIndex++];
@@ -443,8 +524,23 @@ public class Database {
 		assert long_index < Integer.MAX_VALUE;
 
 		final int index = (int) long_index;
+		if (this.fMappedRegions != null) {
+			return getMappedChunk(index);
+		}
+		// Chunks present in the cache can be returned without locking. A chunk only enters the cache once it has been
+		// read, so seeing a valid cache index is enough to see its contents.
+		Chunk[] chunks = this.fChunks;
+		if (index >= 0 && index < chunks.length) {
+			Chunk cached = chunks[index];
+			if (cached != null && this.fCache.touch(cached)) {
+				this.cacheHits.increment();
+				this.fMostRecentlyFetchedChunk = cached;
+				return cached;
+			}
+		}
+
 		Chunk chunk;
-		synchronized (this.fCache) {
+		synchronized (this.fChunksMutex) {
 			assert this.fLocked;
 			if (index < 0 || index >= this.fChunks.length) {
 				databaseCorruptionDetected();
@@ -464,12 +560,13 @@ public class Database {
 			readEndMs = System.currentTimeMillis();
 		}
 
-		synchronized (this.fCache) {
+		Chunk evicted;
+		synchronized (this.fChunksMutex) {
 			if (cacheMiss) {
 				this.cacheMisses++;
 				this.totalReadTimeMs += (readEndMs - readStartMs);
 			} else {
-				this.cacheHits++;
+				this.cacheHits.increment();
 			}
 			Chunk newChunk = this.fChunks[index];
 			if (newChunk != chunk && newChunk != null) {
@@ -481,20 +578,48 @@ public class Database {
 							+ System.identityHashCode(chunk));
 				}
 				chunk = newChunk;
-			} else if (cacheMiss) {
+			} else if (newChunk == null) {
+				// Either this is a cache miss, or the chunk was released since it was looked up
 				if (DEBUG_PAGE_CACHE) {
 					System.out.println("CHUNK " + chunk.fSequenceNumber + ": inserted into vector - instance " //$NON-NLS-1$//$NON-NLS-2$
 							+ System.identityHashCode(chunk));
 				}
 				this.fChunks[index] = chunk;
 			}
-			this.fCache.add(chunk);
+			evicted = this.fCache.add(chunk);
 			this.fMostRecentlyFetchedChunk = chunk;
 		}
+		if (evicted != null) {
+			evicted.fDatabase.chunkEvicted(evicted);
+		}
 
 		return chunk;
 	}
 
+	/**
+	 * Returns the chunk of a memory mapped database with the given index. Its content is a view of the mapped file,
+	 * created the first time the chunk is needed and kept until the database is closed.
+	 */
+	private Chunk getMappedChunk(int index) {
+		Chunk[] chunks = this.fChunks;
+		if (index < 0 || index >= chunks.length) {
+			databaseCorruptionDetected();
+		}
+		Chunk chunk = chunks[index];
+		if (chunk == null) {
+			ByteBuffer buffer = this.fMappedRegions[index / CHUNKS_PER_MAPPED_REGION].duplicate();
+			int position = (index % CHUNKS_PER_MAPPED_REGION) * CHUNK_SIZE;
+			buffer.limit(position + CHUNK_SIZE);
+			buffer.position(position);
+			chunk = new Chunk(this, index, buffer.slice());
+			// Threads racing on the same chunk at worst create equivalent views, since the chunks are never written
+			chunks[index] = chunk;
+		}
+		this.cacheHits.increment();
+		this.fMostRecentlyFetchedChunk = chunk;
+		return chunk;
+	}
+
 	public void assertLocked() {
 		if (!this.fLocked) {
 			throw new IllegalStateException("Database not locked!"); //$NON-NLS-1$
@@ -1174,8 +1299,10 @@ public class Database {
 
 	private int createNewChunks(int numChunks) throws IndexException {
 		assert this.fExclusiveLock;
-		synchronized (this.fCache) {
-			final int firstChunkIndex = this.fChunksUsed;
+		final int firstChunkIndex;
+		Chunk evicted;
+		synchronized (this.fChunksMutex) {
+			firstChunkIndex = this.fChunksUsed;
 			final int lastChunkIndex = firstChunkIndex + numChunks - 1;
 
 			final Chunk lastChunk = new Chunk(this, lastChunkIndex);
@@ -1196,25 +1323,28 @@ public class Database {
 			this.fChunks[lastChunkIndex] = lastChunk;
 			this.fMostRecentlyFetchedChunk = lastChunk;
 			lastChunk.makeDirty();
-			this.fCache.add(lastChunk);
-			long result = (long) firstChunkIndex * CHUNK_SIZE;
-
-			/*
-			 * Non-dense pointers are at most 31 bits dense pointers are at most 35 bits Check the sizes here and throw
-			 * an exception if the address is too large. By throwing the IndexException with the special status, the
-			 * indexing operation should be stopped. This is desired since generally, once the max size is exceeded,
-			 * there are lots of errors.
-			 */
-			long endAddress = result + ((long) numChunks * CHUNK_SIZE);
-			if (endAddress > MAX_DB_SIZE) {
-				Object bindings[] = { this.getLocation().getAbsolutePath(), MAX_DB_SIZE };
-				throw new IndexException(new Status(IStatus.ERROR, Package.PLUGIN_ID, Package.STATUS_DATABASE_TOO_LARGE,
-						NLS.bind("Database too large! Address = " + endAddress + ", max size = " + MAX_DB_SIZE, //$NON-NLS-1$ //$NON-NLS-2$
-								bindings), null));
-			}
+			evicted = this.fCache.add(lastChunk);
+		}
+		if (evicted != null) {
+			evicted.fDatabase.chunkEvicted(evicted);
+		}
+		long result = (long) firstChunkIndex * CHUNK_SIZE;
 
-			return firstChunkIndex;
+		/*
+		 * Non-dense pointers are at most 31 bits dense pointers are at most 35 bits Check the sizes here and throw
+		 * an exception if the address is too large. By throwing the IndexException with the special status, the
+		 * indexing operation should be stopped. This is desired since generally, once the max size is exceeded,
+		 * there are lots of errors.
+		 */
+		long endAddress = result + ((long) numChunks * CHUNK_SIZE);
+		if (endAddress > MAX_DB_SIZE) {
+			Object bindings[] = { this.getLocation().getAbsolutePath(), MAX_DB_SIZE };
+			throw new IndexException(new Status(IStatus.ERROR, Package.PLUGIN_ID, Package.STATUS_DATABASE_TOO_LARGE,
+					NLS.bind("Database too large! Address = " + endAddress + ", max size = " + MAX_DB_SIZE, //$NON-NLS-1$ //$NON-NLS-2$
+							bindings), null));
 		}
+
+		return firstChunkIndex;
 	}
 
 	private long getAddressOfFirstBlockPointer(int blockSize) {
@@ -1571,6 +1701,8 @@ public class Database {
 		this.dirtyChunkSet.clear();
 		this.fChunks= new Chunk[] { null };
 		this.fChunksUsed = this.fChunks.length;
+		// The regions are unmapped once garbage collected
+		this.fMappedRegions = null;
 		try {
 			this.fFile.close();
 		} catch (IOException e) {
@@ -1586,10 +1718,22 @@ public class Database {
 	}
 
 	/**
-	 * Called from any thread via the cache, protected by {@link #fCache}.
+	 * Called from any thread once the cache has evicted the given chunk. Must not be called while holding the lock of
+	 * any database, since it acquires the one of this database.
+	 */
+	void chunkEvicted(final Chunk chunk) {
+		synchronized (this.fChunksMutex) {
+			this.cacheEvictions++;
+			checkIfChunkReleased(chunk);
+		}
+	}
+
+	/**
+	 * Protected by {@link #fChunksMutex}.
 	 */
 	void checkIfChunkReleased(final Chunk chunk) {
-		if (!chunk.fDirty && chunk.fCacheIndex < 0) {
+		// The chunk may have been released and read again while its eviction was pending
+		if (!chunk.fDirty && chunk.fCacheIndex < 0 && this.fChunks[chunk.fSequenceNumber] == chunk) {
 			if (DEBUG_PAGE_CACHE) {
 				System.out.println("CHUNK " + chunk.fSequenceNumber //$NON-NLS-1$
 						+ ": removing from vector in releaseChunk - instance " + System.identityHashCode(chunk)); //$NON-NLS-1$
@@ -1642,7 +1786,7 @@ public class Database {
 		boolean wasInterrupted = false;
 		assert this.fLocked;
 		ArrayList<Chunk> dirtyChunks= new ArrayList<>();
-		synchronized (this.fCache) {
+		synchronized (this.fChunksMutex) {
 			dirtyChunks.addAll(this.dirtyChunkSet);
 		}
 		sortBySequenceNumber(dirtyChunks);
@@ -1668,14 +1812,14 @@ public class Database {
 	 */
 	private boolean flushAndUnlockChunks(final ArrayList<Chunk> dirtyChunks, boolean isComplete) throws IndexException {
 		boolean wasInterrupted = false;
-		assert !Thread.holdsLock(this.fCache);
+		assert !Thread.holdsLock(this.fChunksMutex);
 		final boolean haveDirtyChunks = !dirtyChunks.isEmpty();
 		if (haveDirtyChunks || this.fHeaderChunk.fDirty) {
 			wasInterrupted = markFileIncomplete() || wasInterrupted;
 		}
 		if (haveDirtyChunks) {
 			double desiredWriteBytesPerMs = Database.MIN_BYTES_PER_MILLISECOND;
-			synchronized (this.fCache) {
+			synchronized (this.fChunksMutex) {
 				if (this.cacheMisses > 100) {
 					double measuredReadBytesPerMs = getAverageReadBytesPerMs();
 					if (measuredReadBytesPerMs > 0) {
@@ -1694,7 +1838,7 @@ public class Database {
 									+ System.identityHashCode(chunk));
 						}
 						byte[] nextBytes;
-						synchronized (this.fCache) {
+						synchronized (this.fChunksMutex) {
 							nextBytes = chunk.getBytes();
 							chunk.fDirty = false;
 							chunkCleaned(chunk);
@@ -1705,7 +1849,7 @@ public class Database {
 					}
 				}
 				writer.flush();
-				synchronized (this.fCache) {
+				synchronized (this.fChunksMutex) {
 					this.pageWritesBytes += writer.getBytesWritten();
 					this.totalWriteTimeMs += writer.getTotalWriteTimeMs();
 				}
@@ -1740,8 +1884,9 @@ public class Database {
 	}
 
 	public void resetCacheCounters() {
-		this.cacheHits = 0;
+		this.cacheHits.reset();
 		this.cacheMisses = 0;
+		this.cacheEvictions = 0;
 		this.bytesWritten = 0;
 		this.totalFlushTime = 0;
 		this.pageWritesBytes = 0;
@@ -1776,13 +1921,17 @@ public class Database {
 	}
 
 	public long getCacheHits() {
-		return this.cacheHits;
+		return this.cacheHits.sum();
 	}
 
 	public long getCacheMisses() {
 		return this.cacheMisses;
 	}
 
+	public long getCacheEvictions() {
+		return this.cacheEvictions;
+	}
+
 	public long getCumulativeFlushTimeMs() {
 		return this.totalFlushTime;
 	}
@@ -1856,7 +2005,7 @@ public class Database {
 	}
 
 	public ChunkStats getChunkStats() {
-		synchronized (this.fCache) {
+		synchronized (this.fChunksMutex) {
 			int count = 0;
 			int dirtyChunks = 0;
 			int nonDirtyChunksNotInCache = 0;
@@ -1870,7 +2019,8 @@ public class Database {
 					}
 				}
 			}
-			return new ChunkStats(this.fChunks.length, count, dirtyChunks, nonDirtyChunksNotInCache);
+			return new ChunkStats(this.fChunks.length, count, dirtyChunks, nonDirtyChunksNotInCache,
+					this.cacheHits.sum(), this.cacheMisses, this.cacheEvictions);
 		}
 	}
 
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -25,11 +26,20 @@ import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
@@ -116,6 +126,114 @@ public final class Indexer {
 	// database size.
 	private final static int TOTAL_TICKS_TO_REPORT_DURING_INDEXING = 1000;
 
+	/**
+	 * Name of the system property holding the initial value of {@link #READER_THREADS}.
+	 */
+	public static final String READER_THREADS_PROPERTY = "org.eclipse.jdt.core.indexer.readerThreads"; //$NON-NLS-1$
+
+	/**
+	 * Number of threads which test the fingerprints and read the contents of the indexables while the changes are
+	 * written to the index. Defaults to the number of processors, up to 4.
+	 */
+	public static int READER_THREADS = Integer.getInteger(READER_THREADS_PROPERTY,
+			Math.min(4, Runtime.getRuntime().availableProcessors())).intValue();
+
+	/**
+	 * Maximum size (bytes) of the class files read ahead of the indexable being written to the index. The size of an
+	 * indexable is estimated from its file size until it is read, then counted as the uncompressed size of its class
+	 * files. No indexable is read ahead once this size is reached, but the last one may go beyond it, and at least one
+	 * indexable is always read ahead, whatever its size. The memory held by the read-ahead is therefore bounded by this
+	 * size plus the uncompressed size of the largest indexable, plus the structures decoded by the class file readers
+	 * on top of their bytes, which are not counted.
+	 */
+	private static final long MAX_READ_AHEAD_BYTES = 64 * 1024 * 1024;
+
+	/**
+	 * Maximum number of insertions and maximum amount of time (milliseconds) in a single write transaction. Once either
+	 * is reached, the write lock is released to let the readers of the index in.
+	 */
+	private static final int MAX_TRANSACTION_WRITES = 1000;
+	private static final long MAX_TRANSACTION_TIME_MS = 250;
+
+	/**
+	 * Interval (milliseconds) at which the progress monitor is polled for cancellation while waiting for a reader thread.
+	 */
+	private static final long CANCELLATION_CHECK_INTERVAL_MS = 100;
+
+	/**
+	 * The contents of an indexable which changed since it was last indexed. Read by a reader thread without holding any
+	 * lock on the index, then written to the index by the indexer thread.
+	 */
+	private static final class IndexableContents {
+		final IPath path;
+		final List<IJavaElement> elements;
+		final long size;
+		/** Uncompressed size of the classes read. */
+		long classesSize;
+		FileFingerprint fingerprint;
+		/** Number of entries of the archive, -1 if the indexable is a class file. */
+		int zipEntryCount = -1;
+		final List<String> nonClassEntries = new ArrayList<>();
+		char[] manifestContent;
+		final List<ClassContents> classes = new ArrayList<>();
+		boolean isCorrupt;
+		JavaModelException exception;
+
+		IndexableContents(IPath path, List<IJavaElement> elements, FileFingerprint fingerprint) {
+			this.path = path;
+			this.elements = elements;
+			this.size = fingerprint.getSize();
+			this.fingerprint = fingerprint;
+		}
+	}
+
+	private static final class ClassContents {
+		final BinaryTypeDescriptor descriptor;
+		final ClassFileReader reader;
+
+		ClassContents(BinaryTypeDescriptor descriptor, ClassFileReader reader) {
+			this.descriptor = descriptor;
+			this.reader = reader;
+		}
+	}
+
+	/**
+	 * Groups the insertions of the indexer thread under a single write lock. The lock is acquired by the first
+	 * insertion, and released once the transaction is large or old enough so that the next insertion acquires it again.
+	 */
+	private final class WriteTransaction {
+		private boolean isLocked;
+		private int writes;
+		private long startMs;
+
+		/**
+		 * Makes sure the write lock is held for the next insertion.
+		 */
+		void write(IProgressMonitor monitor) {
+			if (this.isLocked && (this.writes >= MAX_TRANSACTION_WRITES
+					|| System.currentTimeMillis() - this.startMs >= MAX_TRANSACTION_TIME_MS)) {
+				commit();
+			}
+			if (!this.isLocked) {
+				Indexer.this.nd.acquireWriteLock(monitor);
+				this.isLocked = true;
+				this.writes = 0;
+				this.startMs = System.currentTimeMillis();
+			}
+			this.writes++;
+		}
+
+		/**
+		 * Releases the write lock, if held.
+		 */
+		void commit() {
+			if (this.isLocked) {
+				this.isLocked = false;
+				Indexer.this.nd.releaseWriteLock();
+			}
+		}
+	}
+
 	/**
 	 * True iff automatic reindexing (that is, the {@link #rescanAll()} method) is disabled. Synchronize on
 	 * {@link #automaticIndexingMutex} while accessing.
@@ -235,6 +353,9 @@ public final class Indexer {
 	}
 
 	public void rescan(IProgressMonitor monitor) throws CoreException {
+		if (this.nd.isPermanentlyReadOnly()) {
+			return; // a prebuilt index, see JavaIndex.READ_ONLY_INDEX_PROPERTY
+		}
 		SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
 		Database db = this.nd.getDB();
 		db.resetCacheCounters();
@@ -260,28 +381,39 @@ public final class Indexer {
 
 		long startFingerprintTestMs = System.currentTimeMillis();
 
-		Map<IPath, FingerprintTestResult> fingerprints = testFingerprints(locations, subMonitor.split(1));
-		Set<IPath> indexablesWithChanges = new HashSet<>(
-				getIndexablesThatHaveChanged(locations, fingerprints));
-
-		// Compute the total number of bytes to be read in and indexed
-		long startIndexingMs = System.currentTimeMillis();
+		int readerThreads = Math.max(1, READER_THREADS);
+		ExecutorService readers = Executors.newFixedThreadPool(readerThreads, new ThreadFactory() {
+			private int count;
+			@Override
+			public synchronized Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Java indexer reader " + ++this.count); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		Set<IPath> indexablesWithChanges;
+		long startIndexingMs;
 		long totalSizeToIndex = 0;
-		for (IPath next : indexablesWithChanges) {
-			FingerprintTestResult nextFingerprint = fingerprints.get(next);
-			totalSizeToIndex += nextFingerprint.getNewFingerprint().getSize();
-		}
-		double tickCoefficient = totalSizeToIndex == 0 ? 0.0
-				: (double) TOTAL_TICKS_TO_REPORT_DURING_INDEXING / (double) totalSizeToIndex;
-
 		int classesIndexed = 0;
-		SubMonitor loopMonitor = subMonitor.split(94).setWorkRemaining(TOTAL_TICKS_TO_REPORT_DURING_INDEXING);
-		for (IPath next : indexablesWithChanges) {
-			FingerprintTestResult nextFingerprint = fingerprints.get(next);
-			int ticks = (int) (nextFingerprint.getNewFingerprint().getSize() * tickCoefficient);
+		try {
+			Map<IPath, FingerprintTestResult> fingerprints = testFingerprints(locations, readers, subMonitor.split(1));
+			List<IPath> changedIndexables = getIndexablesThatHaveChanged(locations, fingerprints);
+			indexablesWithChanges = new HashSet<>(changedIndexables);
+
+			// Compute the total number of bytes to be read in and indexed
+			startIndexingMs = System.currentTimeMillis();
+			for (IPath next : changedIndexables) {
+				FingerprintTestResult nextFingerprint = fingerprints.get(next);
+				totalSizeToIndex += nextFingerprint.getNewFingerprint().getSize();
+			}
+			double tickCoefficient = totalSizeToIndex == 0 ? 0.0
+					: (double) TOTAL_TICKS_TO_REPORT_DURING_INDEXING / (double) totalSizeToIndex;
 
-			classesIndexed += rescanArchive(currentTimeMs, next, snapshot.get(next),
-					fingerprints.get(next).getNewFingerprint(), loopMonitor.split(ticks));
+			SubMonitor loopMonitor = subMonitor.split(94).setWorkRemaining(TOTAL_TICKS_TO_REPORT_DURING_INDEXING);
+			classesIndexed = indexChanges(currentTimeMs, changedIndexables, snapshot, fingerprints, readers,
+					tickCoefficient, loopMonitor);
+		} finally {
+			readers.shutdownNow();
 		}
 
 		long endIndexingMs = System.currentTimeMillis();
@@ -337,7 +469,8 @@ public final class Indexer {
 						+ "ms, average time = " + msFormat.format(averageGcTimeMs) + "ms"); //$NON-NLS-1$//$NON-NLS-2$
 			}
 			System.out.println("  Tested " + locations.size() + " fingerprints in " + fingerprintTimeMs //$NON-NLS-1$ //$NON-NLS-2$
-					+ "ms, average time = " + msFormat.format(averageFingerprintTimeMs) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+					+ "ms, average time = " + msFormat.format(averageFingerprintTimeMs) + "ms, " //$NON-NLS-1$ //$NON-NLS-2$
+					+ readerThreads + " reader threads"); //$NON-NLS-1$
 			if (classesIndexed != 0) {
 				System.out.println("  Indexed " + classesIndexed + " classes (from " + indexablesWithChanges.size() //$NON-NLS-1$//$NON-NLS-2$
 						+ " files containing " + Database.formatByteString(totalSizeToIndex) + ") in " + indexingTimeMs //$NON-NLS-1$ //$NON-NLS-2$
@@ -581,139 +714,135 @@ public final class Indexer {
 		}
 	}
 
+	/**
+	 * Waits for the result of a task run by a reader thread, polling the given monitor for cancellation.
+	 */
+	private static <T> T waitFor(Future<T> future, IProgressMonitor monitor) throws CoreException {
+		for (;;) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			try {
+				return future.get(CANCELLATION_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// Check for cancellation and wait again
+			} catch (InterruptedException e) {
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof CoreException) {
+					throw (CoreException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
 	private Map<IPath, FingerprintTestResult> testFingerprints(Collection<IPath> allIndexables,
-			IProgressMonitor monitor) throws CoreException {
+			ExecutorService readers, IProgressMonitor monitor) throws CoreException {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, allIndexables.size());
-		Map<IPath, FingerprintTestResult> result = new HashMap<>();
+		Map<IPath, Future<FingerprintTestResult>> futures = new LinkedHashMap<>();
 
+		// The tests only take short read locks, or write locks to update unchanged files, so they can run in parallel
 		for (IPath next : allIndexables) {
-			result.put(next, testForChanges(next, subMonitor.split(1)));
+			futures.put(next, readers.submit(() -> testForChanges(next, null)));
+		}
+
+		Map<IPath, FingerprintTestResult> result = new HashMap<>();
+		for (Entry<IPath, Future<FingerprintTestResult>> next : futures.entrySet()) {
+			result.put(next.getKey(), waitFor(next.getValue(), subMonitor));
+			subMonitor.split(1);
 		}
 
 		return result;
 	}
 
 	/**
-	 * Rescans an archive (a jar, zip, or class file on the filesystem). Returns the number of classes indexed.
-	 * @throws JavaModelException
+	 * Indexes the given changed indexables. Their contents are read by the reader threads, in parallel and without
+	 * holding any lock, while the indexer thread writes the contents already read in large write transactions.
+	 * Returns the number of classes indexed.
 	 */
-	private int rescanArchive(long currentTimeMillis, IPath thePath, List<IJavaElement> elementsMappingOntoLocation,
-			FileFingerprint fingerprint, IProgressMonitor monitor) throws JavaModelException {
-		SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
-		if (elementsMappingOntoLocation.isEmpty()) {
-			return 0;
-		}
-
-		IJavaElement element = elementsMappingOntoLocation.get(0);
-
-		String pathString = thePath.toString();
-		JavaIndex javaIndex = JavaIndex.getIndex(this.nd);
-
-		NdResourceFile resourceFile;
-
-		this.nd.acquireWriteLock(subMonitor.split(5));
-		try {
-			resourceFile = new NdResourceFile(this.nd);
-			resourceFile.setTimeLastUsed(currentTimeMillis);
-			resourceFile.setLocation(pathString);
-			IPackageFragmentRoot packageFragmentRoot = (IPackageFragmentRoot) element
-					.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
-			IPath rootPathString = JavaIndex.getLocationForElement(packageFragmentRoot);
-			if (!rootPathString.equals(thePath)) {
-				resourceFile.setPackageFragmentRoot(rootPathString.toString().toCharArray());
-			}
-			attachWorkspaceFilesToResource(elementsMappingOntoLocation, resourceFile);
-		} finally {
-			this.nd.releaseWriteLock();
-		}
-
-		if (DEBUG) {
-			Package.logInfo("rescanning " + thePath.toString() + ", " + fingerprint); //$NON-NLS-1$ //$NON-NLS-2$
-		}
-		int result = 0;
+	private int indexChanges(long currentTimeMillis, List<IPath> indexables, WorkspaceSnapshot snapshot,
+			Map<IPath, FingerprintTestResult> fingerprints, ExecutorService readers, double tickCoefficient,
+			SubMonitor monitor) throws CoreException {
+		ArrayDeque<Future<IndexableContents>> pending = new ArrayDeque<>();
+		// updated by the reader threads once they know the size of the classes read
+		AtomicLong pendingBytes = new AtomicLong();
+		int nextToRead = 0;
+		int classesIndexed = 0;
+		WriteTransaction transaction = new WriteTransaction();
 		try {
-			if (fingerprint.fileExists()) {
-				result = addElement(resourceFile, element, subMonitor.split(50));
-			}
-		} catch (JavaModelException e) {
-			if (DEBUG) {
-				Package.log("the file " + pathString + " cannot be indexed due to a recoverable error", null); //$NON-NLS-1$ //$NON-NLS-2$
-			}
-			// If this file can't be indexed due to a recoverable error, delete the NdResourceFile entry for it.
-			this.nd.acquireWriteLock(subMonitor.split(5));
-			try {
-				if (resourceFile.isInIndex()) {
-					resourceFile.delete();
+			while (nextToRead < indexables.size() || !pending.isEmpty()) {
+				// Read ahead, as long as the contents waiting to be written are small enough
+				while (nextToRead < indexables.size() && (pending.isEmpty() || pendingBytes.get() < MAX_READ_AHEAD_BYTES)) {
+					IPath path = indexables.get(nextToRead++);
+					List<IJavaElement> elements = snapshot.get(path);
+					FileFingerprint fingerprint = fingerprints.get(path).getNewFingerprint();
+					pendingBytes.addAndGet(fingerprint.getSize());
+					pending.add(readers.submit(() -> {
+						IndexableContents contents = readIndexable(path, elements, fingerprint);
+						pendingBytes.addAndGet(contents.classesSize - contents.size);
+						return contents;
+					}));
 				}
-			} finally {
-				this.nd.releaseWriteLock();
-			}
-			return 0;
-		} catch (RuntimeException e) {
-			if (DEBUG) {
-				Package.log("A RuntimeException occurred while indexing " + pathString, e); //$NON-NLS-1$
-			}
-			throw e;
-		} catch (FileNotFoundException e) {
-			fingerprint = FileFingerprint.getEmpty();
-		}
 
-		if (DEBUG && !fingerprint.fileExists()) {
-			Package.log("the file " + pathString + " was not indexed because it does not exist", null); //$NON-NLS-1$ //$NON-NLS-2$
-		}
-
-		List<NdResourceFile> allResourcesWithThisPath = Collections.emptyList();
-		// Now update the timestamp and delete all older versions of this resource that exist in the index
-		this.nd.acquireWriteLock(subMonitor.split(1));
-		try {
-			if (resourceFile.isInIndex()) {
-				resourceFile.setFingerprint(fingerprint);
-				allResourcesWithThisPath = javaIndex.findResourcesWithPath(pathString);
-				// Remove this file from the file state cache, since the act of indexing it may have changed its
-				// up-to-date status. Note that it isn't necessarily up-to-date now -- it may have changed again
-				// while we were indexing it.
-				this.fileStateCache.remove(resourceFile.getLocation().getString());
+				Future<IndexableContents> next = pending.remove();
+				if (!next.isDone()) {
+					// Don't block the readers of the index while waiting for the file system
+					transaction.commit();
+				}
+				IndexableContents contents = waitFor(next, monitor);
+				pendingBytes.addAndGet(-contents.classesSize);
+				int ticks = (int) (contents.size * tickCoefficient);
+				classesIndexed += writeIndexable(currentTimeMillis, contents, transaction, monitor.split(ticks));
 			}
 		} finally {
-			this.nd.releaseWriteLock();
-		}
-
-		SubMonitor deletionMonitor = subMonitor.split(40).setWorkRemaining(allResourcesWithThisPath.size() - 1);
-		for (NdResourceFile next : allResourcesWithThisPath) {
-			if (!next.equals(resourceFile)) {
-				deleteResource(next, deletionMonitor.split(1));
+			for (Future<IndexableContents> next : pending) {
+				next.cancel(true);
 			}
+			transaction.commit();
 		}
-
-		return result;
+		return classesIndexed;
 	}
 
-	private void attachWorkspaceFilesToResource(List<IJavaElement> elementsMappingOntoLocation,
-			NdResourceFile resourceFile) {
-		for (IJavaElement next : elementsMappingOntoLocation) {
-			IResource nextResource = next.getResource();
-			if (nextResource != null) {
-				new NdWorkspaceLocation(this.nd, resourceFile,
-						nextResource.getFullPath().toString().toCharArray());
-			}
+	/**
+	 * Reads the contents of an indexable (a jar, zip, or class file on the filesystem) to be written to the index.
+	 * Runs in a reader thread and doesn't access the index.
+	 */
+	private IndexableContents readIndexable(IPath thePath, List<IJavaElement> elementsMappingOntoLocation,
+			FileFingerprint fingerprint) {
+		IndexableContents contents = new IndexableContents(thePath, elementsMappingOntoLocation, fingerprint);
+		if (elementsMappingOntoLocation.isEmpty() || !fingerprint.fileExists()) {
+			return contents;
 		}
+		try {
+			readElement(contents, elementsMappingOntoLocation.get(0));
+		} catch (JavaModelException e) {
+			contents.exception = e;
+		} catch (FileNotFoundException e) {
+			contents.fingerprint = FileFingerprint.getEmpty();
+		}
+		return contents;
 	}
 
 	/**
-	 * Adds an archive to the index, under the given NdResourceFile.
+	 * Reads the entries and the classes of an archive, or a single class file.
 	 * @throws FileNotFoundException if the file does not exist
 	 */
-	private int addElement(NdResourceFile resourceFile, IJavaElement element, IProgressMonitor monitor)
+	private void readElement(IndexableContents contents, IJavaElement element)
 			throws JavaModelException, FileNotFoundException {
-		SubMonitor subMonitor = SubMonitor.convert(monitor);
-
 		if (element instanceof JarPackageFragmentRoot) {
 			JarPackageFragmentRoot jarRoot = (JarPackageFragmentRoot) element;
 
 			IPath workspacePath = jarRoot.getPath();
 			IPath location = JavaIndex.getLocationForElement(jarRoot);
 
-			int classesIndexed = 0;
 			try (ZipFile zipFile = new ZipFile(JavaModelManager.getLocalFile(jarRoot.getPath()))) {
 				// Used for the error-handling unit tests
 				if (JavaModelManager.throwIoExceptionsInGetZipFile) {
@@ -722,40 +851,22 @@ public final class Indexer {
 					}
 					throw new IOException();
 				}
-				subMonitor.setWorkRemaining(zipFile.size());
+				contents.zipEntryCount = zipFile.size();
 
-				// Preallocate memory for the zipfile entries
-				this.nd.acquireWriteLock(subMonitor.split(5));
-				try {
-					resourceFile.allocateZipEntries(zipFile.size());
-				} finally {
-					this.nd.releaseWriteLock();
-				}
 				for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements();) {
-					SubMonitor nextEntry = subMonitor.split(1).setWorkRemaining(2);
+					if (Thread.currentThread().isInterrupted()) {
+						throw new OperationCanceledException();
+					}
 					ZipEntry member = e.nextElement();
 					String fileName = member.getName();
 					boolean classFileName = org.eclipse.jdt.internal.compiler.util.Util.isClassFileName(fileName);
 					if (member.isDirectory() || !classFileName) {
-						this.nd.acquireWriteLock(subMonitor.split(5));
-						try {
-							if (resourceFile.isInIndex()) {
-								if (DEBUG_INSERTIONS) {
-									Package.logInfo("Inserting non-class file " + fileName + " into " //$NON-NLS-1$//$NON-NLS-2$
-											+ resourceFile.getLocation().getString() + " " + resourceFile.address); //$NON-NLS-1$
-								}
-								resourceFile.addZipEntry(fileName);
-
-								if (fileName.equals("META-INF/MANIFEST.MF")) { //$NON-NLS-1$
-									try (InputStream inputStream = zipFile.getInputStream(member)) {
-										char[] chars = getInputStreamAsCharArray(inputStream, -1, UTF_8);
-
-										resourceFile.setManifestContent(chars);
-									}
-								}
+						contents.nonClassEntries.add(fileName);
+
+						if (fileName.equals("META-INF/MANIFEST.MF")) { //$NON-NLS-1$
+							try (InputStream inputStream = zipFile.getInputStream(member)) {
+								contents.manifestContent = getInputStreamAsCharArray(inputStream, -1, UTF_8);
 							}
-						} finally {
-							this.nd.releaseWriteLock();
 						}
 					}
 					if (member.isDirectory()) {
@@ -763,7 +874,6 @@ public final class Indexer {
 						// or class within the jar). Empty directories are not currently stored in the index.
 						continue;
 					}
-					nextEntry.split(1);
 
 					if (classFileName) {
 						String binaryName = fileName.substring(0,
@@ -774,14 +884,12 @@ public final class Indexer {
 						BinaryTypeDescriptor descriptor = new BinaryTypeDescriptor(location.toString().toCharArray(),
 								fieldDescriptor, workspacePath.toString().toCharArray(), indexPath.toCharArray());
 						try {
-							byte[] contents = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(member,
+							byte[] bytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(member,
 									zipFile);
-							ClassFileReader classFileReader = new ClassFileReader(contents, descriptor.indexPath, true);
-							if (addClassToIndex(resourceFile, descriptor.fieldDescriptor, descriptor.indexPath,
-									classFileReader, nextEntry.split(1))) {
-								classesIndexed++;
-							}
-						} catch (CoreException | ClassFormatException exception) {
+							contents.classes.add(new ClassContents(descriptor,
+									new ClassFileReader(bytes, descriptor.indexPath, true)));
+							contents.classesSize += bytes.length;
+						} catch (ClassFormatException exception) {
 							Package.log("Unable to index " + descriptor.toString(), exception); //$NON-NLS-1$
 						}
 					}
@@ -789,14 +897,7 @@ public final class Indexer {
 			} catch (ZipException e) {
 				Package.log("The zip file " + jarRoot.getPath() + " was corrupt", e);  //$NON-NLS-1$//$NON-NLS-2$
 				// Indicates a corrupt zip file. Treat this like an empty zip file.
-				this.nd.acquireWriteLock(null);
-				try {
-					if (resourceFile.isInIndex()) {
-						resourceFile.setFlags(NdResourceFile.FLG_CORRUPT_ZIP_FILE);
-					}
-				} finally {
-					this.nd.releaseWriteLock();
-				}
+				contents.isCorrupt = true;
 			} catch (FileNotFoundException e) {
 				throw e;
 			} catch (IOException ioException) {
@@ -804,59 +905,190 @@ public final class Indexer {
 			} catch (CoreException coreException) {
 				throw new JavaModelException(coreException);
 			}
-
-			if (DEBUG && classesIndexed == 0) {
-				Package.logInfo("The path " + element.getPath() + " contained no class files"); //$NON-NLS-1$ //$NON-NLS-2$
-			}
-			return classesIndexed;
 		} else if (element instanceof IClassFile) {
 			IClassFile classFile = (IClassFile)element;
 
-			SubMonitor iterationMonitor = subMonitor.split(1);
 			BinaryTypeDescriptor descriptor = BinaryTypeFactory.createDescriptor(classFile);
 
-			boolean indexed = false;
 			try {
 				ClassFileReader classFileReader = BinaryTypeFactory.rawReadTypeTestForExists(descriptor, true, false);
 				if (classFileReader != null) {
-					indexed = addClassToIndex(resourceFile, descriptor.fieldDescriptor, descriptor.indexPath,
-							classFileReader, iterationMonitor);
+					contents.classes.add(new ClassContents(descriptor, classFileReader));
+					contents.classesSize = contents.size;
 				}
 			} catch (CoreException | ClassFormatException e) {
 				Package.log("Unable to index " + classFile.toString(), e); //$NON-NLS-1$
 			}
-
-			return indexed ? 1 : 0;
 		} else {
 			Package.logInfo("Unable to index elements of type " + element); //$NON-NLS-1$
-			return 0;
 		}
 	}
 
-	private boolean addClassToIndex(NdResourceFile resourceFile, char[] fieldDescriptor, char[] indexPath,
-			ClassFileReader binaryType, IProgressMonitor monitor) throws ClassFormatException, CoreException {
+	/**
+	 * Writes the contents of a changed indexable to the index, then deletes its older versions. Returns the number of
+	 * classes indexed.
+	 */
+	private int writeIndexable(long currentTimeMillis, IndexableContents contents, WriteTransaction transaction,
+			IProgressMonitor monitor) {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
-		ClassFileToIndexConverter converter = new ClassFileToIndexConverter(resourceFile);
+		List<IJavaElement> elementsMappingOntoLocation = contents.elements;
+		if (elementsMappingOntoLocation.isEmpty()) {
+			return 0;
+		}
 
-		boolean indexed = false;
-		this.nd.acquireWriteLock(subMonitor.split(5));
-		try {
+		String pathString = contents.path.toString();
+		if (contents.exception != null) {
+			if (DEBUG) {
+				Package.log("the file " + pathString + " cannot be indexed due to a recoverable error", null); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			// If this file can't be indexed due to a recoverable error, don't create a NdResourceFile entry for it.
+			return 0;
+		}
+
+		IJavaElement element = elementsMappingOntoLocation.get(0);
+		JavaIndex javaIndex = JavaIndex.getIndex(this.nd);
+
+		transaction.write(subMonitor.split(5));
+		NdResourceFile resourceFile = new NdResourceFile(this.nd);
+		resourceFile.setTimeLastUsed(currentTimeMillis);
+		resourceFile.setLocation(pathString);
+		IPackageFragmentRoot packageFragmentRoot = (IPackageFragmentRoot) element
+				.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		IPath rootPathString = JavaIndex.getLocationForElement(packageFragmentRoot);
+		if (!rootPathString.equals(contents.path)) {
+			resourceFile.setPackageFragmentRoot(rootPathString.toString().toCharArray());
+		}
+		attachWorkspaceFilesToResource(elementsMappingOntoLocation, resourceFile);
+
+		FileFingerprint fingerprint = contents.fingerprint;
+		if (DEBUG) {
+			Package.logInfo("rescanning " + pathString + ", " + fingerprint); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		int result = 0;
+		if (fingerprint.fileExists()) {
+			result = writeElement(resourceFile, element, contents, transaction, subMonitor.split(50));
+		}
+
+		if (DEBUG && !fingerprint.fileExists()) {
+			Package.log("the file " + pathString + " was not indexed because it does not exist", null); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		List<NdResourceFile> allResourcesWithThisPath = Collections.emptyList();
+		// Now update the timestamp and delete all older versions of this resource that exist in the index
+		transaction.write(subMonitor.split(1));
+		if (resourceFile.isInIndex()) {
+			resourceFile.setFingerprint(fingerprint);
+			allResourcesWithThisPath = javaIndex.findResourcesWithPath(pathString);
+			// Remove this file from the file state cache, since the act of indexing it may have changed its
+			// up-to-date status. Note that it isn't necessarily up-to-date now -- it may have changed again
+			// while we were indexing it.
+			this.fileStateCache.remove(resourceFile.getLocation().getString());
+		}
+
+		if (allResourcesWithThisPath.size() > 1) {
+			// The deletion of the older versions takes its own write locks
+			transaction.commit();
+			SubMonitor deletionMonitor = subMonitor.split(40).setWorkRemaining(allResourcesWithThisPath.size() - 1);
+			for (NdResourceFile next : allResourcesWithThisPath) {
+				if (!next.equals(resourceFile)) {
+					deleteResource(next, deletionMonitor.split(1));
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private void attachWorkspaceFilesToResource(List<IJavaElement> elementsMappingOntoLocation,
+			NdResourceFile resourceFile) {
+		for (IJavaElement next : elementsMappingOntoLocation) {
+			IResource nextResource = next.getResource();
+			if (nextResource != null) {
+				new NdWorkspaceLocation(this.nd, resourceFile,
+						nextResource.getFullPath().toString().toCharArray());
+			}
+		}
+	}
+
+	/**
+	 * Writes the entries and the classes read from an archive, or a single class file, under the given NdResourceFile.
+	 */
+	private int writeElement(NdResourceFile resourceFile, IJavaElement element, IndexableContents contents,
+			WriteTransaction transaction, IProgressMonitor monitor) {
+		SubMonitor subMonitor = SubMonitor.convert(monitor,
+				contents.nonClassEntries.size() + contents.classes.size() + 2);
+
+		if (contents.zipEntryCount >= 0) {
+			// Preallocate memory for the zipfile entries
+			transaction.write(subMonitor.split(1));
+			if (resourceFile.isInIndex()) {
+				resourceFile.allocateZipEntries(contents.zipEntryCount);
+			}
+		}
+		for (String fileName : contents.nonClassEntries) {
+			transaction.write(subMonitor.split(1));
 			if (resourceFile.isInIndex()) {
 				if (DEBUG_INSERTIONS) {
-					Package.logInfo("Inserting " + new String(fieldDescriptor) + " into " //$NON-NLS-1$//$NON-NLS-2$
+					Package.logInfo("Inserting non-class file " + fileName + " into " //$NON-NLS-1$//$NON-NLS-2$
 							+ resourceFile.getLocation().getString() + " " + resourceFile.address); //$NON-NLS-1$
 				}
-				converter.addType(binaryType, fieldDescriptor, subMonitor.split(45));
-				resourceFile.setJdkLevel(binaryType.getVersion());
-				indexed = true;
+				resourceFile.addZipEntry(fileName);
+
+				if (fileName.equals("META-INF/MANIFEST.MF") && contents.manifestContent != null) { //$NON-NLS-1$
+					resourceFile.setManifestContent(contents.manifestContent);
+				}
+			}
+		}
+
+		int classesIndexed = 0;
+		for (ClassContents next : contents.classes) {
+			SubMonitor classMonitor = subMonitor.split(1).setWorkRemaining(10);
+			transaction.write(classMonitor.split(1));
+			try {
+				if (addClassToIndex(resourceFile, next.descriptor.fieldDescriptor, next.descriptor.indexPath,
+						next.reader, transaction, classMonitor.split(9))) {
+					classesIndexed++;
+				}
+			} catch (CoreException | ClassFormatException exception) {
+				Package.log("Unable to index " + next.descriptor.toString(), exception); //$NON-NLS-1$
 			}
-		} finally {
-			this.nd.releaseWriteLock();
 		}
 
-		if (DEBUG_SELFTEST && indexed) {
+		if (contents.isCorrupt) {
+			transaction.write(subMonitor.split(1));
+			if (resourceFile.isInIndex()) {
+				resourceFile.setFlags(NdResourceFile.FLG_CORRUPT_ZIP_FILE);
+			}
+		}
+
+		if (DEBUG && classesIndexed == 0 && contents.zipEntryCount >= 0) {
+			Package.logInfo("The path " + element.getPath() + " contained no class files"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return classesIndexed;
+	}
+
+	/**
+	 * Adds a class to the index, under the given NdResourceFile. Assumes the write lock is held by the given
+	 * transaction.
+	 */
+	private boolean addClassToIndex(NdResourceFile resourceFile, char[] fieldDescriptor, char[] indexPath,
+			ClassFileReader binaryType, WriteTransaction transaction, IProgressMonitor monitor)
+			throws ClassFormatException, CoreException {
+		if (!resourceFile.isInIndex()) {
+			return false;
+		}
+		if (DEBUG_INSERTIONS) {
+			Package.logInfo("Inserting " + new String(fieldDescriptor) + " into " //$NON-NLS-1$//$NON-NLS-2$
+					+ resourceFile.getLocation().getString() + " " + resourceFile.address); //$NON-NLS-1$
+		}
+		ClassFileToIndexConverter converter = new ClassFileToIndexConverter(resourceFile);
+		converter.addType(binaryType, fieldDescriptor, monitor);
+		resourceFile.setJdkLevel(binaryType.getVersion());
+
+		if (DEBUG_SELFTEST) {
 			// When this debug flag is on, we test everything written to the index by reading it back immediately after
 			// indexing and comparing it with the original class file.
+			transaction.commit();
 			JavaIndex index = JavaIndex.getIndex(this.nd);
 			try (IReader readLock = this.nd.acquireReadLock()) {
 				NdTypeId typeId = index.findType(fieldDescriptor);
@@ -883,7 +1115,7 @@ public final class Indexer {
 				Package.log("Error during indexing: " + new String(indexPath), e); //$NON-NLS-1$
 			}
 		}
-		return indexed;
+		return true;
 	}
 
 	/**
@@ -1046,6 +1278,9 @@ public final class Indexer {
 	}
 
 	public void rebuildIndex(IProgressMonitor monitor) throws CoreException {
+		if (this.nd.isPermanentlyReadOnly()) {
+			return;
+		}
 		SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
 
 		this.rescanJob.cancel();
@@ -45,6 +45,13 @@ public class JavaIndex {
 	public static final String ENABLE_NEW_JAVA_INDEX = "enableNewJavaIndex"; //$NON-NLS-1$
 	public static final boolean ENABLE_NEW_JAVA_INDEX_DEFAULT = false;
 
+	/**
+	 * Name of the system property holding the path of a prebuilt index to use instead of the index of the workspace,
+	 * such as on build servers running many headless builds against the same libraries. That index is opened
+	 * read-only and mapped into memory, and the indexer never updates it.
+	 */
+	public static final String READ_ONLY_INDEX_PROPERTY = "org.eclipse.jdt.core.index.readOnlyFile"; //$NON-NLS-1$
+
 	// Fields for the search header
 	public static final FieldSearchIndex<NdResourceFile> FILES;
 	public static final FieldSearchIndex<NdTypeId> SIMPLE_INDEX;
@@ -234,6 +241,30 @@ public class JavaIndex {
 				MIN_SUPPORTED_VERSION, MAX_SUPPORTED_VERSION, CURRENT_VERSION);
 	}
 
+	/**
+	 * Opens a copy of an index which is only read, such as one built beforehand for headless builds. The database
+	 * file is mapped into memory instead of being read through the chunk cache, and must not be modified while the
+	 * returned {@link Nd} is open.
+	 */
+	public static Nd createReadOnlyNd(File databaseFile) {
+		return new Nd(databaseFile, ChunkCache.getSharedInstance(), createTypeRegistry(),
+				MIN_SUPPORTED_VERSION, MAX_SUPPORTED_VERSION, CURRENT_VERSION, true);
+	}
+
+	/**
+	 * Opens the database returned by {@link #getGlobalNd()}: the prebuilt index named by
+	 * {@link #READ_ONLY_INDEX_PROPERTY} if set, the index of the workspace otherwise.
+	 * <p>
+	 * This method is public for testing purposes only.
+	 */
+	public static Nd openGlobalNd() {
+		String readOnlyIndex = System.getProperty(READ_ONLY_INDEX_PROPERTY);
+		if (readOnlyIndex != null) {
+			return createReadOnlyNd(new File(readOnlyIndex));
+		}
+		return createNd(getDBFile(), ChunkCache.getSharedInstance());
+	}
+
 	public static Nd getGlobalNd() {
 		Nd localNd;
 		synchronized (ndMutex) {
@@ -244,7 +275,7 @@ public class JavaIndex {
 			return localNd;
 		}
 
-		localNd = createNd(getDBFile(), ChunkCache.getSharedInstance());
+		localNd = openGlobalNd();
 
 		synchronized (ndMutex) {
 			if (globalNd == null) {
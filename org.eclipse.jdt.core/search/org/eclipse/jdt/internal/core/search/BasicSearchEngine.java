@@ -54,6 +54,12 @@ public class BasicSearchEngine {
 	 */
 	private ICompilationUnit[] workingCopies;
 
+	/*
+	 * Whether type name searches read the type declarations kept in memory by the indexes.
+	 * See TypeNameTable.
+	 */
+	private boolean useTypeNameTables;
+
 	/*
 	 * A working copy owner whose working copies will take precedent over
 	 * their original compilation units.
@@ -79,6 +85,17 @@ public class BasicSearchEngine {
 		this.workingCopies = workingCopies;
 	}
 
+	/*
+	 * Creates a new search basic engine which answers the type name searches from the
+	 * type name tables of the indexes when <code>useTypeNameTables</code> is true. These
+	 * tables are kept in memory once built, so that the repeated searches of code assist
+	 * do not need to read the index files.
+	 */
+	public BasicSearchEngine(ICompilationUnit[] workingCopies, boolean useTypeNameTables) {
+		this.workingCopies = workingCopies;
+		this.useTypeNameTables = useTypeNameTables;
+	}
+
 	char convertTypeKind(int typeDeclarationKind) {
 		switch(typeDeclarationKind) {
 			case TypeDeclaration.CLASS_DECL : return IIndexConstants.CLASS_SUFFIX;
@@ -1814,11 +1831,17 @@ public class BasicSearchEngine {
 			SubMonitor subMonitor = SubMonitor.convert(progressMonitor, Messages.engine_searching, 1000);
 			// add type names from indexes
 			indexManager.performConcurrentJob(
-				new PatternSearchJob(
-					pattern,
-					getDefaultSearchParticipant(), // Java search only
-					scope,
-					searchRequestor),
+				this.useTypeNameTables
+					? new TypeNameSearchJob(
+						pattern,
+						getDefaultSearchParticipant(), // Java search only
+						scope,
+						searchRequestor)
+					: new PatternSearchJob(
+						pattern,
+						getDefaultSearchParticipant(), // Java search only
+						scope,
+						searchRequestor),
 				waitingPolicy,
 				subMonitor.split(Math.max(1000-copiesLength, 0)));
 	
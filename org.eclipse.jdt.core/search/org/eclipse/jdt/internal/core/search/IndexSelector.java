@@ -126,7 +126,7 @@ private static int canSeeFocus(IJavaElement focus, JavaProject javaProject, char
 			if (entry.getEntryKind() == IClasspathEntry.CPE_PROJECT && entry.getPath().equals(focusPath)) {
 				if (focusQualifiedNames != null) { // builder state is usable, hence use it to try to reduce project which can see the focus...
 					State projectState = (State) JavaModelManager.getJavaModelManager().getLastBuiltState(javaProject.getProject(), null);
-					if (projectState != null) {
+					if (projectState != null && projectState.readTables()) {
 						Object[] values = projectState.getReferences().valueTable;
 						int vLength = values.length;
 						for (int j=0; j<vLength; j++)  {
@@ -106,7 +106,7 @@ public boolean search(Index index, IProgressMonitor progressMonitor) {
 	try {
 		monitor.enterRead(); // ask permission to read
 		long start = System.currentTimeMillis();
-		MatchLocator.findIndexMatches(this.pattern, index, this.requestor, this.participant, this.scope, progressMonitor);
+		findIndexMatches(index, progressMonitor);
 		this.executionTime += System.currentTimeMillis() - start;
 		return COMPLETE;
 	} catch (IOException e) {
@@ -117,6 +117,12 @@ public boolean search(Index index, IProgressMonitor progressMonitor) {
 		monitor.exitRead(); // finished reading
 	}
 }
+/**
+ * Queries the given index, whose read lock is owned by the sender.
+ */
+protected void findIndexMatches(Index index, IProgressMonitor progressMonitor) throws IOException {
+	MatchLocator.findIndexMatches(this.pattern, index, this.requestor, this.participant, this.scope, progressMonitor);
+}
 public String toString() {
 	return "searching " + this.pattern.toString(); //$NON-NLS-1$
 }
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search;
+
+import java.io.IOException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.search.*;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.matching.TypeDeclarationPattern;
+
+/**
+ * A search job for type names which reads the type declarations from the type name
+ * tables kept in memory by the indexes, instead of querying the index files.
+ */
+public class TypeNameSearchJob extends PatternSearchJob {
+
+public TypeNameSearchJob(TypeDeclarationPattern pattern, SearchParticipant participant, IJavaSearchScope scope, IndexQueryRequestor requestor) {
+	super(pattern, participant, scope, requestor);
+}
+protected void findIndexMatches(Index index, IProgressMonitor progressMonitor) throws IOException {
+	((TypeDeclarationPattern) this.pattern).findTypeNameMatches(index, this.requestor, this.participant, this.scope, progressMonitor);
+}
+public String toString() {
+	return "searching type names " + this.pattern.toString(); //$NON-NLS-1$
+}
+}
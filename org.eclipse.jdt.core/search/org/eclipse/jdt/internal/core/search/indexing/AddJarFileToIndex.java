@@ -33,6 +33,7 @@ import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.compiler.util.ZipFilePool;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.index.Index;
 import org.eclipse.jdt.internal.core.index.IndexLocation;
@@ -142,15 +143,15 @@ class AddJarFileToIndex extends IndexRequest {
 						return false;
 					}
 					if (JavaModelManager.ZIP_ACCESS_VERBOSE)
-						System.out.println("(" + Thread.currentThread() + ") [AddJarFileToIndex.execute()] Creating ZipFile on " + this.containerPath); //$NON-NLS-1$	//$NON-NLS-2$
-					zip = new ZipFile(file);
+						System.out.println("(" + Thread.currentThread() + ") [AddJarFileToIndex.execute()] Acquiring ZipFile on " + this.containerPath); //$NON-NLS-1$	//$NON-NLS-2$
+					zip = ZipFilePool.INSTANCE.acquire(file).zipFile;
 					zipFilePath = (Path) this.resource.getFullPath().makeRelative();
 					// absolute path relative to the workspace
 				} else {
 					if (JavaModelManager.ZIP_ACCESS_VERBOSE)
-						System.out.println("(" + Thread.currentThread() + ") [AddJarFileToIndex.execute()] Creating ZipFile on " + this.containerPath); //$NON-NLS-1$	//$NON-NLS-2$
+						System.out.println("(" + Thread.currentThread() + ") [AddJarFileToIndex.execute()] Acquiring ZipFile on " + this.containerPath); //$NON-NLS-1$	//$NON-NLS-2$
 					// external file -> it is ok to use toFile()
-					zip = new ZipFile(this.containerPath.toFile());
+					zip = ZipFilePool.INSTANCE.acquire(this.containerPath.toFile()).zipFile;
 					zipFilePath = (Path) this.containerPath;
 					// path is already canonical since coming from a library classpath entry
 				}
@@ -251,8 +252,8 @@ class AddJarFileToIndex extends IndexRequest {
 			} finally {
 				if (zip != null) {
 					if (JavaModelManager.ZIP_ACCESS_VERBOSE)
-						System.out.println("(" + Thread.currentThread() + ") [AddJarFileToIndex.execute()] Closing ZipFile " + this.containerPath); //$NON-NLS-1$	//$NON-NLS-2$
-					zip.close();
+						System.out.println("(" + Thread.currentThread() + ") [AddJarFileToIndex.execute()] Releasing ZipFile " + this.containerPath); //$NON-NLS-1$	//$NON-NLS-2$
+					ZipFilePool.INSTANCE.release(zip);
 				}
 				monitor.exitWrite(); // free write lock
 			}
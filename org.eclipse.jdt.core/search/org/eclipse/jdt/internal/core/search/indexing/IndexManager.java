@@ -101,6 +101,10 @@ public class IndexManager extends JobManager implements IIndexConstants {
 	public static final String MANAGE_PRODUCT_INDEXES_PROPERTY = "jdt.core.manageProductIndexes"; //$NON-NLS-1$
 	private static final boolean IS_MANAGING_PRODUCT_INDEXES_PROPERTY = Boolean.getBoolean(MANAGE_PRODUCT_INDEXES_PROPERTY);
 
+	// how many threads update indexes of different containers concurrently?
+	public static final String INDEXING_THREADS_PROPERTY = "jdt.core.indexingThreads"; //$NON-NLS-1$
+	private static final int INDEXING_THREADS = Integer.getInteger(INDEXING_THREADS_PROPERTY, 1).intValue();
+
 	// Debug
 	public static boolean DEBUG = false;
 
@@ -670,13 +674,13 @@ public synchronized void jobWasCancelled(IPath containerPath) {
 	updateIndexState(indexLocation, UNKNOWN_STATE);
 }
 /**
- * Advance to the next available job, once the current one has been completed.
+ * Remove the given job from the queue, once it has been completed.
  * Note: clients awaiting until the job count is zero are still waiting at this point.
  */
-protected synchronized void moveToNextJob() {
+protected synchronized void moveToNextJob(IJob job) {
 	// remember that one job was executed, and we will need to save indexes at some point
 	this.needToSave = true;
-	super.moveToNextJob();
+	super.moveToNextJob(job);
 }
 /**
  * No more job awaiting.
@@ -690,6 +694,9 @@ protected void notifyIdle(long idlingTime){
 public String processName(){
 	return Messages.process_name;
 }
+protected int workerCount() {
+	return Math.max(1, INDEXING_THREADS);
+}
 private char[][] readJavaLikeNamesFile() {
 	try {
 		String pathName = getJavaPluginWorkingLocation().toOSString();	
@@ -958,7 +965,7 @@ public void saveIndex(Index index) throws IOException {
 		if (this.jobEnd > this.jobStart) {
 			for (int i = this.jobEnd; i > this.jobStart; i--) { // skip the current job
 				IJob job = this.awaitingJobs[i];
-				if (job instanceof IndexRequest)
+				if (job instanceof IndexRequest && !isJobRunning(job)) // jobs of other containers may be running as well
 					if (((IndexRequest) job).containerPath.equals(containerPath)) return;
 			}
 		}
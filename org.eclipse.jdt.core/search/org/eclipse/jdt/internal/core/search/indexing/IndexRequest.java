@@ -39,6 +39,13 @@ public abstract class IndexRequest implements IJob {
 	public String getJobFamily() {
 		return this.containerPath.toString();
 	}
+	/**
+	 * Each container is indexed in its own index, so requests for different containers may run concurrently.
+	 */
+	@Override
+	public Object getSchedulingKey() {
+		return this.containerPath;
+	}
 	protected Integer updatedIndexState() {
 		return IndexManager.UPDATING_STATE;
 	}
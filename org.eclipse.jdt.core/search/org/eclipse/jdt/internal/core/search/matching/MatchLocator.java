@@ -90,7 +90,11 @@ import org.eclipse.jdt.internal.core.util.Util;
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class MatchLocator implements ITypeRequestor {
 
-public static final int MAX_AT_ONCE;
+/**
+ * Maximum number of possible matches located at once, depending on the available memory.
+ * This is also the size of the batches located concurrently, see {@link #LOCATOR_THREADS}.
+ */
+public static int MAX_AT_ONCE;
 static {
 	long maxMemory = Runtime.getRuntime().maxMemory();
 	int ratio = (int) Math.round(((double) maxMemory) / (64 * 0x100000));
@@ -111,6 +115,13 @@ static {
 	}
 }
 
+/**
+ * System property giving the number of threads locating the matches of different batches of
+ * possible matches concurrently, see {@link ParallelMatchLocator}.
+ */
+public static final String LOCATOR_THREADS_PROPERTY = "jdt.core.search.locatorThreads"; //$NON-NLS-1$
+public static int LOCATOR_THREADS = Integer.getInteger(LOCATOR_THREADS_PROPERTY, 1).intValue();
+
 // permanent state
 public SearchPattern pattern;
 public PatternLocator patternLocator;
@@ -159,6 +170,7 @@ HashSet methodHandles;
 private TypeBinding unitScopeTypeBinding = null; // cached
 
 private final boolean searchPackageDeclaration;
+private ParallelMatchLocator parallelLocator; // non null if batches of possible matches are located concurrently
 private int sourceStartOfMethodToRetain;
 private int sourceEndOfMethodToRetain;
 
@@ -1343,7 +1355,10 @@ protected void locateMatches(JavaProject javaProject, PossibleMatchSet matchSet,
 	// locate matches (processed matches are limited to avoid problem while using VM default memory heap size)
 	for (int index = 0; index < length;) {
 		int max = Math.min(MAX_AT_ONCE, length - index);
-		locateMatches(javaProject, possibleMatches, index, max);
+		if (this.parallelLocator != null)
+			this.parallelLocator.locateMatches(javaProject, possibleMatches, index, max);
+		else
+			locateMatches(javaProject, possibleMatches, index, max);
 		index += max;
 	}
 	this.patternLocator.clear();
@@ -1401,6 +1416,10 @@ public void locateMatches(SearchDocument[] searchDocuments) throws CoreException
 		// initialize pattern for polymorphic search (i.e. method reference pattern)
 		this.patternLocator.initializePolymorphicSearch(this);
 
+		// subclasses may expect to locate all matches themselves
+		if (LOCATOR_THREADS > 1 && getClass() == MatchLocator.class)
+			this.parallelLocator = new ParallelMatchLocator(this, LOCATOR_THREADS);
+
 		JavaProject previousJavaProject = null;
 		PossibleMatchSet matchSet = new PossibleMatchSet();
 		Util.sort(searchDocuments, new Util.Comparer() {
@@ -1480,12 +1499,18 @@ public void locateMatches(SearchDocument[] searchDocuments) throws CoreException
 				// problem with classpath in last project -> ignore
 			}
 		}
+		if (this.parallelLocator != null)
+			this.parallelLocator.finish();
 
 		if (this.searchPackageDeclaration) {
 			locatePackageDeclarations(searchParticipant, javaModelProjects);
 		}
 
 	} finally {
+		if (this.parallelLocator != null) {
+			this.parallelLocator.shutdown();
+			this.parallelLocator = null;
+		}
 		if (this.progressMonitor != null)
 			this.progressMonitor.done();
 		if (this.nameEnvironment != null)
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.matching;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.JavaProject;
+import org.eclipse.jdt.internal.core.util.HandleFactory;
+
+/**
+ * Locates the matches of the batches of possible matches given by a {@link MatchLocator} on
+ * several threads.
+ * <p>
+ * Each thread uses its own worker locator, with its own pattern locator, parser and lookup environment
+ * for every batch, so batches are independent from each other. The matches of a batch are collected
+ * and only reported to the search requestor by the thread of the given locator, in the order the
+ * batches were given, so the requestor sees the same matches in the same order as when locating
+ * sequentially. Likewise, once a batch fails because of the classpath of its project, the matches of
+ * the following batches of the same project are dropped.
+ * </p>
+ */
+public class ParallelMatchLocator {
+
+/*
+ * The matches found in a batch.
+ */
+static class Batch {
+	final List<SearchMatch> matches = new ArrayList<>();
+	final JavaProject project;
+	final int length;
+	boolean failed; // a problem with the classpath of the project stopped the batch
+
+	Batch(JavaProject project, int length) {
+		this.project = project;
+		this.length = length;
+	}
+}
+
+/*
+ * Collects the matches found by a worker locator in its current batch.
+ */
+static class BatchRequestor extends SearchRequestor {
+	Batch batch;
+
+	public void acceptSearchMatch(SearchMatch match) {
+		this.batch.matches.add(match);
+	}
+}
+
+/*
+ * Lets a worker locator know when the search is canceled. The progress is reported
+ * by the thread of the main locator when the matches of a batch are reported.
+ */
+static class CancelMonitor extends NullProgressMonitor {
+	private final IProgressMonitor monitor;
+
+	CancelMonitor(IProgressMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	public boolean isCanceled() {
+		return this.monitor != null && this.monitor.isCanceled();
+	}
+}
+
+private static final long CANCEL_POLL_INTERVAL = 100; // ms
+
+private final MatchLocator locator;
+private final ExecutorService executor;
+private final int maxPendingBatches;
+private final LinkedList<Future<Batch>> pendingBatches = new LinkedList<>();
+private final ThreadLocal<MatchLocator> workers = new ThreadLocal<>();
+// project whose remaining batches are skipped, as they are when locating sequentially
+private JavaProject failedProject;
+
+public ParallelMatchLocator(MatchLocator locator, int threads) {
+	this.locator = locator;
+	this.maxPendingBatches = 2 * threads;
+	this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+		private int count;
+		public synchronized Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Java search match locator " + ++this.count); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+}
+/**
+ * Locates the matches of the given batch of possible matches on a worker thread. The matches
+ * of the batches located earlier and already completed are reported meanwhile.
+ */
+public void locateMatches(final JavaProject javaProject, final PossibleMatch[] possibleMatches, final int start, final int length) throws CoreException {
+	this.pendingBatches.add(this.executor.submit(() -> locateBatch(javaProject, possibleMatches, start, length)));
+	reportBatches(this.pendingBatches.size() >= this.maxPendingBatches);
+}
+/**
+ * Waits for all the batches and reports their matches.
+ */
+public void finish() throws CoreException {
+	while (!this.pendingBatches.isEmpty())
+		reportBatches(true);
+}
+/**
+ * Stops the worker threads, abandoning the batches not reported yet.
+ */
+public void shutdown() {
+	for (Future<Batch> batch : this.pendingBatches)
+		batch.cancel(true);
+	this.pendingBatches.clear();
+	this.executor.shutdownNow();
+}
+/*
+ * Reports the matches of the completed batches at the head of the queue, waiting for
+ * the first batch if requested.
+ */
+private void reportBatches(boolean waitForFirst) throws CoreException {
+	while (!this.pendingBatches.isEmpty()) {
+		Future<Batch> first = this.pendingBatches.getFirst();
+		if (!first.isDone() && !waitForFirst)
+			return;
+		Batch batch = waitFor(first);
+		this.pendingBatches.removeFirst();
+		waitForFirst = false;
+		if (batch.project == this.failedProject)
+			continue;
+		if (batch.failed)
+			this.failedProject = batch.project;
+
+		SearchRequestor requestor = this.locator.requestor;
+		for (SearchMatch match : batch.matches)
+			requestor.acceptSearchMatch(match);
+		IProgressMonitor monitor = this.locator.progressMonitor;
+		if (monitor != null) {
+			for (int i = 0; i < batch.length; i++) {
+				this.locator.progressWorked++;
+				if ((this.locator.progressWorked%this.locator.progressStep)==0) monitor.worked(this.locator.progressStep);
+			}
+		}
+	}
+}
+private Batch waitFor(Future<Batch> future) throws CoreException {
+	IProgressMonitor monitor = this.locator.progressMonitor;
+	while (true) {
+		if (monitor != null && monitor.isCanceled())
+			throw new OperationCanceledException();
+		try {
+			return future.get(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// check for cancellation again
+		} catch (InterruptedException e) {
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CoreException)
+				throw (CoreException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+}
+/*
+ * Runs on a worker thread.
+ */
+private Batch locateBatch(JavaProject javaProject, PossibleMatch[] possibleMatches, int start, int length) throws CoreException {
+	MatchLocator worker = getWorker();
+	Batch batch = new Batch(javaProject, length);
+	((BatchRequestor) worker.requestor).batch = batch;
+	JavaModelManager manager = JavaModelManager.getJavaModelManager();
+	manager.cacheZipFiles(worker);
+	try {
+		worker.locateMatches(javaProject, possibleMatches, start, length);
+	} catch (JavaModelException e) {
+		// problem with classpath in this project -> skip the rest of the project once reported
+		batch.failed = true;
+	} finally {
+		worker.patternLocator.clear();
+		if (worker.nameEnvironment != null) {
+			worker.nameEnvironment.cleanup();
+			worker.nameEnvironment = null;
+		}
+		worker.unitScope = null;
+		worker.lookupEnvironment = null;
+		worker.parser = null;
+		manager.flushZipFiles(worker);
+		((BatchRequestor) worker.requestor).batch = null;
+	}
+	return batch;
+}
+private MatchLocator getWorker() {
+	MatchLocator worker = this.workers.get();
+	if (worker == null) {
+		MatchLocator main = this.locator;
+		worker = new MatchLocator(main.pattern, new BatchRequestor(), main.scope, new CancelMonitor(main.progressMonitor));
+		worker.workingCopies = main.workingCopies;
+		worker.handleFactory = new HandleFactory();
+		worker.progressStep = 1; // progress is reported by the main locator
+		worker.bindings = new SimpleLookupTable();
+		worker.patternLocator.initializePolymorphicSearch(worker);
+		this.workers.set(worker);
+	}
+	return worker;
+}
+}
@@ -12,10 +12,15 @@ package org.eclipse.jdt.internal.core.search.matching;
 
 import java.io.IOException;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.core.index.*;
+import org.eclipse.jdt.internal.core.search.IndexQueryRequestor;
 
 public class TypeDeclarationPattern extends JavaSearchPattern {
 
@@ -219,6 +224,28 @@ protected void decodeModifiers() {
 			break;
 	}
 }
+/**
+ * Same as {@link #findIndexMatches(Index, IndexQueryRequestor, SearchParticipant, IJavaSearchScope, IProgressMonitor)}
+ * but reads the candidate entries from the type name table of the index instead of the index file.
+ * Assumes the sender owns the read lock of the index.
+ */
+public void findTypeNameMatches(Index index, IndexQueryRequestor requestor, SearchParticipant participant, IJavaSearchScope scope, IProgressMonitor monitor) throws IOException {
+	if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
+	// camel case patterns only select the candidates on their first character
+	boolean prefixOnly = (getMatchMode() & (R_CAMELCASE_MATCH | R_CAMELCASE_SAME_PART_COUNT_MATCH)) == 0;
+	TypeNameTable.Entry[] entries = index.getTypeNameTable().query(this.simpleName, prefixOnly);
+
+	SearchPattern decodedResult = getBlankPattern();
+	String containerPath = index.containerPath;
+	char separator = index.separator;
+	for (int i = 0, l = entries.length; i < l; i++) {
+		if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
+
+		decodedResult.decodeIndexKey(entries[i].key);
+		if (matchesDecodedKey(decodedResult))
+			acceptMatch(entries[i].documentName, containerPath, separator, decodedResult, requestor, participant, scope, monitor);
+	}
+}
 public SearchPattern getBlankPattern() {
 	return new TypeDeclarationPattern(R_EXACT_MATCH | R_CASE_SENSITIVE);
 }
@@ -46,6 +46,17 @@ public interface IJob {
 	 */
 	public String getJobFamily();
 
+	/**
+	 * Answers the resource updated by this job, or {@code null} if it may update anything. Default implementation
+	 * returns {@code null}.
+	 *
+	 * @return a key such that jobs answering different keys may be executed concurrently, while jobs answering equal
+	 *         keys are executed in the order they were requested. Jobs answering {@code null} are executed alone.
+	 */
+	public default Object getSchedulingKey() {
+		return null;
+	}
+
 	/**
 	 * Answers if we need some sleep after index write operations. Default implementation returns {@code false}.
 	 *
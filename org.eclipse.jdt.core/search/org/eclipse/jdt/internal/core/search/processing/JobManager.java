@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.search.processing;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.internal.core.util.Messages;
@@ -27,6 +32,13 @@ public abstract class JobManager implements Runnable {
 	protected Thread processingThread;
 	protected Job progressJob;
 
+	/* additional threads processing jobs along with the processing thread, null until activation */
+	private Thread[] helperThreads;
+	/* jobs of the queue currently being executed, at most one per worker thread */
+	private final List<IJob> runningJobs = new ArrayList<>();
+	/* how far in the queue to look for a job which may run along with the running ones */
+	private static final int MAX_LOOKAHEAD = 100;
+
 	/* counter indicating whether job execution is enabled or not, disabled if <= 0
 	    it cannot go beyond 1 */
 	private int enableCount = 1;
@@ -75,19 +87,22 @@ public abstract class JobManager implements Runnable {
 
 		try {
 			IJob currentJob;
-			// cancel current job if it belongs to the given family
+			List<IJob> cancelledJobs = new ArrayList<>();
+			// cancel running jobs if they belong to the given family
 			synchronized(this){
-				currentJob = currentJob();
+				for (IJob job : this.runningJobs)
+					if (jobFamily == null || job.belongsTo(jobFamily))
+						cancelledJobs.add(job);
 				disable();
 			}
-			if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily))) {
-				currentJob.cancel();
+			for (IJob job : cancelledJobs) {
+				job.cancel();
 
-				// wait until current active job has finished
-				while (this.processingThread != null && this.executing){
+				// wait until this active job has finished
+				while (this.processingThread != null && isJobRunning(job)){
 					try {
 						if (VERBOSE)
-							Util.verbose("-> waiting end of current background job - " + currentJob); //$NON-NLS-1$
+							Util.verbose("-> waiting end of current background job - " + job); //$NON-NLS-1$
 						Thread.sleep(50);
 					} catch(InterruptedException e){
 						// ignore
@@ -127,24 +142,85 @@ public abstract class JobManager implements Runnable {
 		notifyAll(); // wake up the background thread if it is waiting (context must be synchronized)
 	}
 	protected synchronized boolean isJobWaiting(IJob request) {
-		for (int i = this.jobEnd; i > this.jobStart; i--) // don't check job at jobStart, as it may have already started
-			if (request.equals(this.awaitingJobs[i])) return true;
+		for (int i = this.jobEnd; i > this.jobStart; i--) { // don't check job at jobStart, as it may have already started
+			IJob job = this.awaitingJobs[i];
+			if (request.equals(job) && !isJobRunning(job)) return true;
+		}
+		return false;
+	}
+	/**
+	 * Answers whether the given job of the queue has been started and is not completed yet.
+	 */
+	protected synchronized boolean isJobRunning(IJob job) {
+		for (int i = 0, length = this.runningJobs.size(); i < length; i++)
+			if (this.runningJobs.get(i) == job) return true;
 		return false;
 	}
 	/**
-	 * Advance to the next available job, once the current one has been completed.
+	 * Remove the given job from the queue, once it has been completed.
 	 * Note: clients awaiting until the job count is zero are still waiting at this point.
 	 */
-	protected synchronized void moveToNextJob() {
-		//if (!enabled) return;
+	protected synchronized void moveToNextJob(IJob job) {
+		for (int i = 0, length = this.runningJobs.size(); i < length; i++) {
+			if (this.runningJobs.get(i) == job) {
+				this.runningJobs.remove(i);
+				break;
+			}
+		}
+		this.executing = !this.runningJobs.isEmpty();
 
-		if (this.jobStart <= this.jobEnd) {
-			this.awaitingJobs[this.jobStart++] = null;
-			if (this.jobStart > this.jobEnd) {
-				this.jobStart = 0;
-				this.jobEnd = -1;
+		for (int i = this.jobStart; i <= this.jobEnd; i++) {
+			if (this.awaitingJobs[i] == job) {
+				if (i == this.jobStart) {
+					this.awaitingJobs[this.jobStart++] = null;
+				} else { // a job completed before the ones requested earlier
+					System.arraycopy(this.awaitingJobs, i + 1, this.awaitingJobs, i, this.jobEnd - i);
+					this.awaitingJobs[this.jobEnd--] = null;
+				}
+				break;
 			}
 		}
+		if (this.jobStart > this.jobEnd) {
+			this.jobStart = 0;
+			this.jobEnd = -1;
+		}
+		notifyAll(); // wake up the worker threads waiting for this job to complete
+	}
+	/**
+	 * Answers the next job a worker thread may start, or null if none can be started until a running job completes.
+	 * Jobs answering the same scheduling key, or no key at all, are started in the order they were requested
+	 * and never run at the same time.
+	 */
+	private IJob nextJob() {
+		if (this.enableCount <= 0)
+			return null;
+		Set<Object> busyKeys = new HashSet<>();
+		for (int i = 0, length = this.runningJobs.size(); i < length; i++) {
+			Object key = this.runningJobs.get(i).getSchedulingKey();
+			if (key == null)
+				return null; // a job which may update anything is running alone
+			busyKeys.add(key);
+		}
+		boolean hasJobsBefore = !this.runningJobs.isEmpty();
+		int end = Math.min(this.jobEnd, this.jobStart + MAX_LOOKAHEAD - 1);
+		for (int i = this.jobStart; i <= end; i++) {
+			IJob job = this.awaitingJobs[i];
+			if (job == null || isJobRunning(job))
+				continue;
+			Object key = job.getSchedulingKey();
+			if (key == null) // must wait for all the jobs requested before it, and the following ones must wait for it
+				return hasJobsBefore ? null : job;
+			if (busyKeys.add(key))
+				return job;
+			hasJobsBefore = true;
+		}
+		return null;
+	}
+	/**
+	 * Answers the number of threads which should process jobs. Default implementation returns {@code 1}.
+	 */
+	protected int workerCount() {
+		return 1;
 	}
 	/**
 	 * When idle, give chance to do something
@@ -204,11 +280,13 @@ public abstract class JobManager implements Runnable {
 						SubMonitor waitMonitor = subMonitor.setWorkRemaining(10).split(8).setWorkRemaining(totalWork);
 						// use local variable to avoid potential NPE (see bug 20435 NPE when searching java method
 						// and bug 42760 NullPointerException in JobManager when searching)
-						Thread t = this.processingThread;
-						int originalPriority = t == null ? -1 : t.getPriority();
+						Thread[] threads = workerThreads();
+						int[] originalPriorities = new int[threads.length];
 						try {
-							if (t != null)
-								t.setPriority(Thread.currentThread().getPriority());
+							for (int i = 0; i < threads.length; i++) {
+								originalPriorities[i] = threads[i].getPriority();
+								threads[i].setPriority(Thread.currentThread().getPriority());
+							}
 							synchronized(this) {
 								this.awaitingClients++;
 							}
@@ -254,8 +332,9 @@ public abstract class JobManager implements Runnable {
 							synchronized(this) {
 								this.awaitingClients--;
 							}
-							if (t != null && originalPriority > -1 && t.isAlive())
-								t.setPriority(originalPriority);
+							for (int i = 0; i < threads.length; i++)
+								if (threads[i].isAlive())
+									threads[i].setPriority(originalPriorities[i]);
 						}
 				}
 			}
@@ -310,7 +389,8 @@ public abstract class JobManager implements Runnable {
 			discardJobs(null); // discard all jobs
 		} else {
 			synchronized (this) {
-				/* initiate background processing */
+				/* initiate background processing, helper threads are started once activated */
+				this.helperThreads = null;
 				this.processingThread = new Thread(this, processName());
 				this.processingThread.setDaemon(true);
 				// less prioritary by default, priority is raised if clients are actively waiting on it
@@ -322,13 +402,64 @@ public abstract class JobManager implements Runnable {
 			}
 		}
 	}
+	/**
+	 * Answers the threads currently processing jobs.
+	 */
+	private synchronized Thread[] workerThreads() {
+		Thread thread = this.processingThread;
+		if (thread == null)
+			return new Thread[0];
+		if (this.helperThreads == null)
+			return new Thread[] {thread};
+		Thread[] threads = new Thread[this.helperThreads.length + 1];
+		threads[0] = thread;
+		System.arraycopy(this.helperThreads, 0, threads, 1, this.helperThreads.length);
+		return threads;
+	}
+	/**
+	 * Answers whether the current thread is still one of the threads processing jobs.
+	 */
+	private synchronized boolean isWorkerThread() {
+		Thread current = Thread.currentThread();
+		if (this.processingThread == null)
+			return false;
+		if (current == this.processingThread)
+			return true;
+		if (this.helperThreads != null)
+			for (int i = 0; i < this.helperThreads.length; i++)
+				if (this.helperThreads[i] == current) return true;
+		return false;
+	}
 	/**
 	 * Infinite loop performing resource indexing
 	 */
 	public void run() {
+		activateProcessing();
+		synchronized (this) {
+			if (this.processingThread == Thread.currentThread()) {
+				int count = workerCount() - 1;
+				if (count > 0) {
+					this.helperThreads = new Thread[count];
+					for (int i = 0; i < count; i++) {
+						Thread thread = new Thread(() -> processJobs(false), processName());
+						thread.setDaemon(true);
+						thread.setPriority(this.processingThread.getPriority());
+						thread.setContextClassLoader(this.getClass().getClassLoader());
+						this.helperThreads[i] = thread;
+						thread.start();
+					}
+				}
+			}
+		}
+		processJobs(true);
+	}
+	/**
+	 * Performs jobs until the job manager is shut down or reset, idle processing being only done on the
+	 * processing thread.
+	 */
+	void processJobs(boolean isProcessingThread) {
 
 		long idlingStart = -1;
-		activateProcessing();
 		try {
 			class ProgressJob extends Job {
 				ProgressJob(String name) {
@@ -352,33 +483,42 @@ public abstract class JobManager implements Runnable {
 					return Status.OK_STATUS;
 				}
 			}
-			this.progressJob = null;
-			while (this.processingThread != null) {
+			if (isProcessingThread)
+				this.progressJob = null;
+			while (isWorkerThread()) {
 				try {
 					IJob job;
+					boolean idle = false;
 					synchronized (this) {
 						// handle shutdown case when notifyAll came before the wait but after the while loop was entered
-						if (this.processingThread == null) continue;
+						if (!isWorkerThread()) continue;
 
 						// must check for new job inside this sync block to avoid timing hole
-						if ((job = currentJob()) == null) {
-							if (this.progressJob != null) {
-								this.progressJob.cancel();
-								this.progressJob = null;
+						if ((job = nextJob()) == null) {
+							idle = isProcessingThread && currentJob() == null;
+							if (idle) {
+								if (this.progressJob != null) {
+									this.progressJob.cancel();
+									this.progressJob = null;
+								}
+								if (idlingStart < 0)
+									idlingStart = System.currentTimeMillis();
+								else
+									notifyIdle(System.currentTimeMillis() - idlingStart);
 							}
-							if (idlingStart < 0)
-								idlingStart = System.currentTimeMillis();
-							else
-								notifyIdle(System.currentTimeMillis() - idlingStart);
-							this.wait(); // wait until a new job is posted (or reenabled:38901)
+							this.wait(); // wait until a new job is posted, a running one completes (or reenabled:38901)
 						} else {
 							idlingStart = -1;
+							this.runningJobs.add(job);
+							this.executing = true;
 						}
 					}
 					if (job == null) {
-						notifyIdle(System.currentTimeMillis() - idlingStart);
-						// just woke up, delay before processing any new jobs, allow some time for the active thread to finish
-						Thread.sleep(500);
+						if (idle) {
+							notifyIdle(System.currentTimeMillis() - idlingStart);
+							// just woke up, delay before processing any new jobs, allow some time for the active thread to finish
+							Thread.sleep(500);
+						}
 						continue;
 					}
 					if (VERBOSE) {
@@ -386,20 +526,22 @@ public abstract class JobManager implements Runnable {
 						Util.verbose("STARTING background job - " + job); //$NON-NLS-1$
 					}
 					try {
-						this.executing = true;
-						if (this.progressJob == null) {
-							this.progressJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
-							this.progressJob.setPriority(Job.LONG);
-							this.progressJob.setSystem(true);
-							this.progressJob.schedule();
+						Job newProgressJob = null;
+						synchronized (this) {
+							if (this.progressJob == null)
+								this.progressJob = newProgressJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
+						}
+						if (newProgressJob != null) {
+							newProgressJob.setPriority(Job.LONG);
+							newProgressJob.setSystem(true);
+							newProgressJob.schedule();
 						}
 						/*boolean status = */job.execute(null);
 						//if (status == FAILED) request(job);
 					} finally {
-						this.executing = false;
 						if (VERBOSE)
 							Util.verbose("FINISHED background job - " + job); //$NON-NLS-1$
-						moveToNextJob();
+						moveToNextJob(job);
 						if (this.awaitingClients == 0 && job.waitNeeded()) {
 							if (VERBOSE) {
 								Util.verbose("WAITING after job - " + job); //$NON-NLS-1$
@@ -443,16 +585,18 @@ public abstract class JobManager implements Runnable {
 			Util.verbose("Shutdown"); //$NON-NLS-1$
 
 		disable();
-		discardJobs(null); // will wait until current executing job has completed
-		Thread thread = this.processingThread;
+		discardJobs(null); // will wait until current executing jobs have completed
+		Thread[] threads = workerThreads();
 		try {
-			if (thread != null) { // see http://bugs.eclipse.org/bugs/show_bug.cgi?id=31858
+			if (threads.length > 0) { // see http://bugs.eclipse.org/bugs/show_bug.cgi?id=31858
 				synchronized (this) {
-					this.processingThread = null; // mark the job manager as shutting down so that the thread will stop by itself
-					notifyAll(); // ensure its awake so it can be shutdown
+					this.processingThread = null; // mark the job manager as shutting down so that the threads will stop by themselves
+					this.helperThreads = null;
+					notifyAll(); // ensure they are awake so they can be shutdown
 				}
-				// in case processing thread is handling a job
-				thread.join();
+				// in case processing threads are handling a job
+				for (int i = 0; i < threads.length; i++)
+					threads[i].join();
 			}
 			Job job = this.progressJob;
 			if (job != null) {